@@ -0,0 +1,128 @@
+package com.jogoforca.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jogoforca.model.Game;
+import com.jogoforca.service.GameService;
+import com.jogoforca.service.GameStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão do estado para a resposta da API e serialização: mapa + Jackson (caminho antigo),
+ * escrita direta com o {@code JsonGenerator} e leitura do {@link GameResponseCache}, para um
+ * jogo no meio de uma rodada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class GameResponsesBenchmark {
+
+    @Param({"2", "5"})
+    public int players;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Game game;
+    private GameResponseCache responseCache;
+
+    @Setup
+    public void setUp() {
+        game = new Game();
+        game.setGameId("ABC12345");
+        game.setMode("pvp");
+        List<String> names = new CopyOnWriteArrayList<>();
+        Map<String, Integer> scores = new ConcurrentHashMap<>();
+        for (int i = 0; i < players; i++) {
+            names.add("Jogador" + (i + 1));
+            scores.put("Jogador" + (i + 1), i);
+        }
+        game.setPlayers(names);
+        game.setScores(scores);
+        game.setCurrentRound(2);
+        game.setMaxRounds(3);
+        game.setWordCreator(names.get(0));
+        game.setWordGuesser(names.get(1 % players));
+        game.setSecretWord("DESENVOLVIMENTO");
+        game.setWordLength(15);
+        game.setHint("Processo de criar software");
+        game.setGuessedLetters(new CopyOnWriteArrayList<>(List.of("E", "O", "S", "A", "X")));
+        Map<String, List<Integer>> positions = new ConcurrentHashMap<>();
+        positions.put("E", List.of(1, 3, 10));
+        positions.put("O", List.of(6, 14));
+        positions.put("S", List.of(2));
+        game.setCorrectPositions(positions);
+        game.setAttemptsLeft(4);
+        game.setGameStatus("playing");
+        game.setVersion(42);
+
+        // O cache só guarda jogos presentes no armazenamento
+        GameStore store = new GameStore(event -> {
+        }, 10, Duration.ofMinutes(10), Duration.ofHours(2), 1000, 512);
+        store.put(game);
+        responseCache = new GameResponseCache(store);
+        try {
+            if (!objectMapper.readTree(GameResponses.toJson(game))
+                    .equals(objectMapper.readTree(objectMapper.writeValueAsBytes(GameResponses.toMap(game))))) {
+                throw new IllegalStateException("toJson difere de toMap");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Mesmo caminho do controller: leitura sob o lock do jogo seguida da conversão.
+     */
+    @Benchmark
+    public Map<String, Object> convertToResponse() {
+        return GameServiceHolder.SERVICE.read(game, GameResponses::toMap);
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(GameServiceHolder.SERVICE.read(game, GameResponses::toMap));
+    }
+
+    @Benchmark
+    public byte[] writeJson() {
+        return GameServiceHolder.SERVICE.read(game, GameResponses::toJson);
+    }
+
+    /**
+     * Leitura repetida da mesma versão: o caso comum do polling.
+     */
+    @Benchmark
+    public ResponseEntity<byte[]> cachedStateResponse() {
+        return GameServiceHolder.SERVICE.read(game, responseCache::stateResponse);
+    }
+
+    @Benchmark
+    public String etag() {
+        return GameResponses.etag(game);
+    }
+
+    private static final class GameServiceHolder {
+        static final GameService SERVICE = new GameService(null, null, null, event -> {
+        }, null, null);
+    }
+}
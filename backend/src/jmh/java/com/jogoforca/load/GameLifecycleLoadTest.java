@@ -0,0 +1,405 @@
+package com.jogoforca.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jogoforca.JogoForcaApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Teste de carga com partidas completas pela API REST, como o frontend as joga.
+ * <p>
+ * Cada sessão é uma thread virtual que joga partidas em sequência até o fim do teste: PvP
+ * (criada com um jogador, o segundo entra pelo convite e as palavras são enviadas pelos
+ * jogadores, parte delas com dica da IA) ou PvC (palavra da CPU). As letras são tentadas até
+ * a rodada acabar e as rodadas avançam até o jogo terminar; uma fração das partidas é
+ * abandonada no meio. Enquanto a partida dura, outra thread virtual consulta o estado a cada
+ * {@code poll-ms}, como o polling do frontend.
+ * <p>
+ * Sem {@code url}, o backend sobe neste processo contra um {@link OllamaStubServer}, com o limite
+ * de requisições desligado; com {@code url}, o alvo é um backend já iniciado (que precisa
+ * estar com {@code jogoforca.rate-limit.enabled=false}). Os primeiros {@code warmup-s}
+ * segundos não contam. Ao fim são impressos vazão, percentis p50/p99/p99.9 e erros por
+ * endpoint; com {@code max-p99-ms} ou {@code max-error-rate}, o processo termina com código 1
+ * se algum endpoint passar do limite, o que serve de barreira de regressão de capacidade.
+ * <p>
+ * Uso: {@code mvn -Pjmh test-compile exec:exec@lifecycle-load-test "-Dload.args=sessions=200 duration-s=30 max-p99-ms=250"}
+ */
+public final class GameLifecycleLoadTest {
+
+    // Ordem de frequência das letras em português; cada rodada embaralha um pouco
+    private static final String LETTERS = "AEOSRINDMUTCLPVGHQBFZJXKWY";
+    private static final List<String> WORDS = List.of(
+            "ABACAXI", "BANANA", "CAMINHO", "JANELA", "FLORESTA", "PIRATA", "GIRASSOL", "TECLADO",
+            "MONTANHA", "CADERNO", "ESCOLA", "PLANETA", "CHUVEIRO", "TIGRE", "VIOLINO", "QUEIJO");
+    private static final List<String> ENDPOINTS = List.of(
+            "create_pvp", "create_pvc", "join", "submit_word", "guess", "next_round", "abandon", "state");
+
+    private final String url;
+    private final int sessions;
+    private final Duration duration;
+    private final Duration warmup;
+    private final long pollMs;
+    private final long thinkMs;
+    private final double pvcShare;
+    private final double abandonShare;
+    private final double hintShare;
+    private final long ollamaDelayMs;
+    private final double maxP99Ms;
+    private final double maxErrorRate;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private final AtomicLong gamesFinished = new AtomicLong();
+    private final AtomicLong gamesAbandoned = new AtomicLong();
+    private final AtomicLong gamesFailed = new AtomicLong();
+    private HttpClient http;
+    private String base;
+    private long measureStart;
+    private long deadline;
+
+    private GameLifecycleLoadTest(Map<String, String> options) {
+        this.url = options.getOrDefault("url", "");
+        this.sessions = Integer.parseInt(options.getOrDefault("sessions", "200"));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration-s", "30")));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup-s", "5")));
+        this.pollMs = Long.parseLong(options.getOrDefault("poll-ms", "1500"));
+        this.thinkMs = Long.parseLong(options.getOrDefault("think-ms", "100"));
+        this.pvcShare = Double.parseDouble(options.getOrDefault("pvc-share", "0.4"));
+        this.abandonShare = Double.parseDouble(options.getOrDefault("abandon-share", "0.1"));
+        this.hintShare = Double.parseDouble(options.getOrDefault("hint-share", "0.2"));
+        this.ollamaDelayMs = Long.parseLong(options.getOrDefault("ollama-delay-ms", "50"));
+        this.maxP99Ms = Double.parseDouble(options.getOrDefault("max-p99-ms", "0"));
+        this.maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "0.01"));
+        for (String endpoint : ENDPOINTS) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int sep = arg.indexOf('=');
+            if (sep > 0) {
+                options.put(arg.substring(0, sep), arg.substring(sep + 1));
+            }
+        }
+        if (!new GameLifecycleLoadTest(options).run()) {
+            System.exit(1);
+        }
+    }
+
+    private boolean run() throws Exception {
+        OllamaStubServer ollama = null;
+        ConfigurableApplicationContext context = null;
+        try {
+            String target = url;
+            if (target.isEmpty()) {
+                // Latência com cauda: mediana ollama-delay-ms
+                ollama = new OllamaStubServer(0, "lognormal", ollamaDelayMs, 0.5, 10_000, 0, 0, 0, 0);
+                ollama.start();
+                context = startBackend(ollama.baseUrl());
+                target = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            }
+            base = target + "/api/game";
+            System.out.printf("%s: %d sessões, %d s (+%d s de aquecimento), polling %d ms, pausa %d ms, "
+                    + "PvC %.0f%%, abandono %.0f%%, dica da IA %.0f%%%n",
+                    target, sessions, duration.toSeconds(), warmup.toSeconds(), pollMs, thinkMs,
+                    pvcShare * 100, abandonShare * 100, hintShare * 100);
+
+            measureStart = System.nanoTime() + warmup.toNanos();
+            deadline = measureStart + duration.toNanos();
+            // close() do executor das sessões espera todas terminarem; o do HttpClient fica aberto até lá
+            try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+                    ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                http = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(httpExecutor)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+                for (int i = 0; i < sessions; i++) {
+                    int session = i;
+                    clients.execute(() -> sessionLoop(session));
+                }
+            }
+            return report();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (ollama != null) {
+                ollama.stop();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startBackend(String ollamaUrl) {
+        return new SpringApplicationBuilder(JogoForcaApplication.class)
+                .run("--server.port=0",
+                        "--server.tomcat.max-connections=" + (sessions * 2 + 1000),
+                        "--jogoforca.ollama.base-url=" + ollamaUrl,
+                        // Todas as sessões saem do mesmo IP
+                        "--jogoforca.rate-limit.enabled=false",
+                        "--jogoforca.game-store.max-games=1000000",
+                        "--logging.level.com.jogoforca=WARN",
+                        "--jogoforca.leaderboard.persistence=memory",
+                        "--spring.main.banner-mode=off");
+    }
+
+    private void sessionLoop(int session) {
+        SplittableRandom random = new SplittableRandom(session);
+        try {
+            // Chegadas espalhadas pelo primeiro intervalo de polling
+            Thread.sleep(random.nextLong(Math.max(1, pollMs)));
+            for (int game = 0; System.nanoTime() < deadline; game++) {
+                playGame("s" + session + "g" + game, random);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void playGame(String prefix, SplittableRandom random) throws InterruptedException {
+        boolean pvc = random.nextDouble() < pvcShare;
+        String creator = prefix + "a";
+        JsonNode game = call(pvc ? "create_pvc" : "create_pvp", post("/new",
+                "{\"mode\":\"" + (pvc ? "pvc" : "pvp") + "\",\"players\":[\"" + creator + "\"]}"));
+        if (game == null) {
+            gamesFailed.incrementAndGet();
+            return;
+        }
+        String gameId = game.path("game_id").asText();
+        AtomicBoolean active = new AtomicBoolean(true);
+        Thread poller = Thread.ofVirtual().start(() -> pollLoop(gameId, active));
+        try {
+            if (!pvc) {
+                think(random);
+                game = call("join", post("/" + gameId + "/join", "{\"player\":\"" + prefix + "b\"}"));
+            }
+            // Ação em que a partida é abandonada (-1 = joga até o fim)
+            int abandonAt = random.nextDouble() < abandonShare ? random.nextInt(12) : -1;
+            char[] letters = roundLetters(random);
+            int nextLetter = 0;
+            String status = game == null ? null : game.path("game_status").asText();
+            for (int action = 0; status != null && !"game_finished".equals(status); action++) {
+                if (System.nanoTime() >= deadline) {
+                    return;
+                }
+                think(random);
+                if (action == abandonAt) {
+                    if (call("abandon", post("/" + gameId + "/abandon", "{\"player\":\"" + creator + "\"}")) != null) {
+                        gamesAbandoned.incrementAndGet();
+                        return;
+                    }
+                    break;
+                }
+                JsonNode response;
+                switch (status) {
+                    case "waiting_word" -> {
+                        boolean hint = random.nextDouble() < hintShare;
+                        response = call("submit_word", post("/" + gameId + "/submit-word", "{\"word\":\""
+                                + WORDS.get(random.nextInt(WORDS.size())) + "\",\"generateHint\":" + hint + "}"));
+                        letters = roundLetters(random);
+                        nextLetter = 0;
+                    }
+                    case "playing" -> {
+                        if (nextLetter == letters.length) {
+                            response = null;
+                            break;
+                        }
+                        response = call("guess", post("/" + gameId + "/guess",
+                                "{\"letter\":\"" + letters[nextLetter++] + "\"}"));
+                    }
+                    case "round_finished" -> {
+                        response = call("next_round", post("/" + gameId + "/next-round", ""));
+                        letters = roundLetters(random);
+                        nextLetter = 0;
+                    }
+                    default -> response = null;
+                }
+                status = response == null ? null : response.path("game_status").asText();
+            }
+            if ("game_finished".equals(status)) {
+                gamesFinished.incrementAndGet();
+            } else {
+                gamesFailed.incrementAndGet();
+            }
+        } finally {
+            active.set(false);
+            poller.interrupt();
+        }
+    }
+
+    // Frequência do português com trocas aleatórias entre vizinhas, para as rodadas variarem
+    private static char[] roundLetters(SplittableRandom random) {
+        char[] letters = LETTERS.toCharArray();
+        for (int i = 0; i < letters.length - 1; i++) {
+            if (random.nextInt(3) == 0) {
+                char swap = letters[i];
+                letters[i] = letters[i + 1];
+                letters[i + 1] = swap;
+            }
+        }
+        return letters;
+    }
+
+    private void think(SplittableRandom random) throws InterruptedException {
+        if (thinkMs > 0) {
+            Thread.sleep(random.nextLong(thinkMs * 2));
+        }
+    }
+
+    private void pollLoop(String gameId, AtomicBoolean active) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/" + gameId))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        try {
+            while (active.get() && System.nanoTime() < deadline) {
+                Thread.sleep(pollMs);
+                if (active.get()) {
+                    call("state", request);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Partida encerrada
+        }
+    }
+
+    /**
+     * Envia a requisição e mede a latência; devolve o corpo ou {@code null} em caso de erro.
+     */
+    private JsonNode call(String endpoint, HttpRequest request) throws InterruptedException {
+        Stats endpointStats = stats.get(endpoint);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            if (start >= measureStart && start < deadline) {
+                endpointStats.record(response.statusCode(), elapsed);
+            }
+            return response.statusCode() >= 400 ? null : json.readTree(response.body());
+        } catch (IOException e) {
+            if (start >= measureStart && start < deadline) {
+                endpointStats.error();
+            }
+            return null;
+        }
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private boolean report() {
+        double seconds = duration.toNanos() / 1e9;
+        List<String> failures = new ArrayList<>();
+        long totalRequests = 0;
+        long totalErrors = 0;
+        System.out.println();
+        System.out.printf("%-12s %9s %9s %9s %9s %9s %9s %7s %7s%n",
+                "endpoint", "reqs", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "máx ms", "erros", "erro %");
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats endpointStats = entry.getValue();
+            long[] sorted = endpointStats.sorted();
+            long requests = sorted.length + endpointStats.errors.get();
+            if (requests == 0) {
+                continue;
+            }
+            double errorRate = endpointStats.errors.get() / (double) requests;
+            double p99 = percentile(sorted, 0.99);
+            System.out.printf("%-12s %9d %9.1f %9.1f %9.1f %9.1f %9.1f %7d %7.2f%n",
+                    entry.getKey(), requests, requests / seconds, percentile(sorted, 0.50), p99,
+                    percentile(sorted, 0.999), percentile(sorted, 1.0), endpointStats.errors.get(), errorRate * 100);
+            totalRequests += requests;
+            totalErrors += endpointStats.errors.get();
+            if (maxP99Ms > 0 && p99 > maxP99Ms) {
+                failures.add(String.format("%s: p99 %.1f ms > %.1f ms", entry.getKey(), p99, maxP99Ms));
+            }
+            if (errorRate > maxErrorRate) {
+                failures.add(String.format("%s: %.2f%% de erros > %.2f%%", entry.getKey(), errorRate * 100,
+                        maxErrorRate * 100));
+            }
+        }
+        System.out.printf("%-12s %9d %9.1f %49s %7d %7.2f%n", "total", totalRequests, totalRequests / seconds, "",
+                totalErrors, totalRequests == 0 ? 0.0 : totalErrors * 100.0 / totalRequests);
+        System.out.printf("%npartidas: %d terminadas, %d abandonadas, %d interrompidas por erro (%.1f partidas/s)%n",
+                gamesFinished.get(), gamesAbandoned.get(), gamesFailed.get(),
+                (gamesFinished.get() + gamesAbandoned.get()) / (seconds + warmup.toSeconds()));
+
+        if (failures.isEmpty()) {
+            System.out.println("barreira: OK");
+            return true;
+        }
+        System.out.println("barreira: FALHOU");
+        failures.forEach(failure -> System.out.println("  " + failure));
+        return false;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Latências de um endpoint; as sessões gravam sob o lock do próprio objeto.
+     */
+    private static final class Stats {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] latencies = new long[1024];
+        private int count;
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(int status, long nanos) {
+            if (status >= 400) {
+                errors.incrementAndGet();
+                return;
+            }
+            lock.lock();
+            try {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = nanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void error() {
+            errors.incrementAndGet();
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.jogoforca.load;
+
+import com.jogoforca.JogoForcaApplication;
+import com.jogoforca.service.MatchmakingService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulação da fila de pareamento com jogadores sintéticos chegando a uma taxa fixa.
+ * <p>
+ * O {@link MatchmakingService} roda no contexto Spring completo (sem servidor web), com a
+ * varredura agendada e os jogos criados de verdade pelo {@code GameService}. Os jogadores
+ * escolhem tamanho de sala, idioma e dificuldade com pesos fixos, e {@code threads} threads
+ * dividem as chegadas. Ao fim são impressos a vazão de salas e jogadores, os percentis de
+ * espera na fila e quantos jogadores ficaram em salas incompletas ou expiraram.
+ * <p>
+ * Uso: {@code mvn -Pjmh test-compile exec:exec@matchmaking-sim "-Dload.args=players=100000 rate=20000 max-wait-ms=500"}
+ */
+public final class MatchmakingSimulation {
+
+    private static final int[] ROOM_SIZES = { 2, 3, 4, 5 };
+    private static final double[] ROOM_SIZE_WEIGHTS = { 0.45, 0.25, 0.18, 0.12 };
+    private static final String[] LANGUAGES = { "pt", "en", "es" };
+    private static final double[] LANGUAGE_WEIGHTS = { 0.70, 0.20, 0.10 };
+    private static final String[] DIFFICULTIES = { "easy", "medium", "hard" };
+    private static final double[] DIFFICULTY_WEIGHTS = { 0.30, 0.50, 0.20 };
+
+    private final int players;
+    private final double rate;
+    private final int threads;
+    private final long maxWaitMs;
+    private final long ticketTimeoutMs;
+
+    private MatchmakingSimulation(Map<String, String> options) {
+        this.players = Integer.parseInt(options.getOrDefault("players", "100000"));
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "20000"));
+        this.threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        this.maxWaitMs = Long.parseLong(options.getOrDefault("max-wait-ms", "500"));
+        this.ticketTimeoutMs = Long.parseLong(options.getOrDefault("ticket-timeout-ms", "2000"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int sep = arg.indexOf('=');
+            if (sep > 0) {
+                options.put(arg.substring(0, sep), arg.substring(sep + 1));
+            }
+        }
+        new MatchmakingSimulation(options).run();
+    }
+
+    private void run() throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(JogoForcaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--jogoforca.matchmaking.max-wait=" + maxWaitMs + "ms",
+                        "--jogoforca.matchmaking.ticket-timeout=" + ticketTimeoutMs + "ms",
+                        "--jogoforca.matchmaking.max-queued=" + players,
+                        "--jogoforca.matchmaking.sweep-interval-ms=10",
+                        "--jogoforca.game-store.max-games=" + players,
+                        // Sem IA: o pool de palavras não precisa de Ollama para salas PvP
+                        "--jogoforca.word-pool.llm-share=0",
+                        "--logging.level.com.jogoforca=ERROR",
+                        "--jogoforca.leaderboard.persistence=memory",
+                        "--spring.main.banner-mode=off");
+        try {
+            MatchmakingService matchmaking = context.getBean(MatchmakingService.class);
+            System.out.printf("%d jogadores a %.0f/s em %d threads; max-wait %d ms, expiração %d ms%n",
+                    players, rate, threads, maxWaitMs, ticketTimeoutMs);
+
+            MatchmakingService.Ticket[] tickets = new MatchmakingService.Ticket[players];
+            long[] enqueueNanos = new long[players];
+            AtomicInteger rejected = new AtomicInteger();
+            long start = System.nanoTime();
+            try (ExecutorService arrivals = Executors.newFixedThreadPool(threads)) {
+                for (int t = 0; t < threads; t++) {
+                    int thread = t;
+                    arrivals.execute(() -> arrive(matchmaking, thread, start, tickets, enqueueNanos, rejected));
+                }
+            }
+            long arrivalsDone = System.nanoTime();
+
+            // Espera cada ficha sair da fila: sala formada ou expirada
+            long deadline = arrivalsDone + TimeUnit.MILLISECONDS.toNanos(ticketTimeoutMs * 2 + 1000);
+            while (waitingCount(tickets) > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            report(tickets, enqueueNanos, rejected.get(), arrivalsDone - start, matchmaking.getStats());
+        } finally {
+            context.close();
+        }
+    }
+
+    private void arrive(MatchmakingService matchmaking, int thread, long start, MatchmakingService.Ticket[] tickets,
+            long[] enqueueNanos, AtomicInteger rejected) {
+        SplittableRandom random = new SplittableRandom(42 + thread);
+        double intervalNanos = 1e9 / rate;
+        for (int i = thread; i < players; i += threads) {
+            // Chegada i no instante i / rate, para a taxa total ser a pedida
+            long due = start + (long) (i * intervalNanos);
+            long delay = due - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            try {
+                enqueueNanos[i] = System.nanoTime();
+                // Sem cliente: todas as chegadas vêm do mesmo processo
+                tickets[i] = matchmaking.enqueue("p" + i, pick(random, ROOM_SIZES, ROOM_SIZE_WEIGHTS),
+                        pick(random, LANGUAGES, LANGUAGE_WEIGHTS), pick(random, DIFFICULTIES, DIFFICULTY_WEIGHTS),
+                        null);
+                enqueueNanos[i] = System.nanoTime() - enqueueNanos[i];
+            } catch (IllegalStateException e) {
+                rejected.incrementAndGet();
+            }
+        }
+    }
+
+    private static int pick(SplittableRandom random, int[] values, double[] weights) {
+        double r = random.nextDouble();
+        for (int i = 0; i < values.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return values[i];
+            }
+        }
+        return values[values.length - 1];
+    }
+
+    private static String pick(SplittableRandom random, String[] values, double[] weights) {
+        double r = random.nextDouble();
+        for (int i = 0; i < values.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return values[i];
+            }
+        }
+        return values[values.length - 1];
+    }
+
+    private static int waitingCount(MatchmakingService.Ticket[] tickets) {
+        int waiting = 0;
+        for (MatchmakingService.Ticket ticket : tickets) {
+            if (ticket != null && ticket.getStatus().value().equals("waiting")) {
+                waiting++;
+            }
+        }
+        return waiting;
+    }
+
+    private void report(MatchmakingService.Ticket[] tickets, long[] enqueueNanos, int rejected, long arrivalNanos,
+            Map<String, Object> stats) {
+        List<Long> waits = new ArrayList<>();
+        Map<String, Integer> roomSizes = new HashMap<>();
+        Map<String, Integer> outcomes = new HashMap<>();
+        for (MatchmakingService.Ticket ticket : tickets) {
+            if (ticket == null) {
+                continue;
+            }
+            String outcome = ticket.getStatus().value();
+            outcomes.merge(outcome, 1, Integer::sum);
+            if ("matched".equals(outcome)) {
+                waits.add(ticket.getWaitNanos());
+                roomSizes.merge(ticket.getGameId(), 1, Integer::sum);
+            }
+        }
+        long[] sortedWaits = waits.stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] sortedEnqueue = Arrays.stream(enqueueNanos).sorted().toArray();
+        int partialPlayers = 0;
+        for (MatchmakingService.Ticket ticket : tickets) {
+            if (ticket != null && ticket.getGameId() != null && roomSizes.get(ticket.getGameId()) < ticket.getRoomSize()) {
+                partialPlayers++;
+            }
+        }
+        double seconds = arrivalNanos / 1e9;
+
+        System.out.println();
+        System.out.printf("chegadas: %.2f s (%.0f jogadores/s), %d recusados pela fila cheia%n",
+                seconds, players / seconds, rejected);
+        System.out.printf("salas: %d (%.0f/s durante as chegadas), jogadores pareados: %d%n",
+                roomSizes.size(), roomSizes.size() / seconds, waits.size());
+        System.out.printf("desfecho: %s; em salas incompletas: %d%n", outcomes, partialPlayers);
+        System.out.printf("espera na fila (ms): p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  máx %.1f%n",
+                percentile(sortedWaits, 0.50), percentile(sortedWaits, 0.90), percentile(sortedWaits, 0.99),
+                percentile(sortedWaits, 0.999), percentile(sortedWaits, 1.0));
+        System.out.printf("enqueue (us): p50 %.1f  p99 %.1f  p99.9 %.1f%n",
+                percentile(sortedEnqueue, 0.50) * 1000, percentile(sortedEnqueue, 0.99) * 1000,
+                percentile(sortedEnqueue, 0.999) * 1000);
+        System.out.println("stats: " + stats);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
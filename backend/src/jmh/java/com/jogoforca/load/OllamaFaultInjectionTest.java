@@ -0,0 +1,176 @@
+package com.jogoforca.load;
+
+import com.jogoforca.service.OllamaService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caminhos de timeout, fallback e circuit breaker do {@link OllamaService} contra o
+ * {@link OllamaStubServer}, sem modelo de verdade.
+ * <p>
+ * Cada cenário sobe um servidor falso com um perfil de falhas (respostas rápidas, cauda longa,
+ * lentas além do timeout, 50% de erros, 50% de respostas inválidas, corpo gotejado, fora do ar)
+ * e um {@code OllamaService} novo apontando para ele. {@code concurrency} threads virtuais
+ * pedem {@code calls} palavras e dicas, metade de cada. São impressos os percentis de latência
+ * da geração, a fração de fallbacks, o desfecho das corridas e quantos pedidos cada geração
+ * fez ao servidor. Se algum cenário sair da faixa esperada de fallbacks ou passar do timeout,
+ * o processo termina com código 1.
+ * <p>
+ * Antes dos cenários roda um aquecimento de {@code warmup} gerações (padrão: {@code calls}) no
+ * cenário rápido, descartado.
+ * <p>
+ * Uso: {@code mvn -Pjmh test-compile exec:exec@ollama-fault-test "-Dload.args=calls=200 timeout-ms=1000"}
+ */
+public final class OllamaFaultInjectionTest {
+
+    // Folga sobre o timeout para a latência máxima de uma geração
+    private static final long TIMEOUT_SLACK_MS = 500;
+
+    private record Scenario(String name, String distribution, double latencyMs, double sigma, double errorRate,
+            double invalidRate, double slowDripRate, double minFallback, double maxFallback) {
+    }
+
+    private final int calls;
+    private final int warmup;
+    private final int concurrency;
+    private final long timeoutMs;
+    private final long hedgeMs;
+    private final List<String> models;
+
+    private OllamaFaultInjectionTest(Map<String, String> options) {
+        this.calls = Integer.parseInt(options.getOrDefault("calls", "200"));
+        this.warmup = Integer.parseInt(options.getOrDefault("warmup", String.valueOf(calls)));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "20"));
+        this.timeoutMs = Long.parseLong(options.getOrDefault("timeout-ms", "1000"));
+        this.hedgeMs = Long.parseLong(options.getOrDefault("hedge-ms", "100"));
+        this.models = List.of(options.getOrDefault("models", "m1,m2,m3,m4").split(","));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int sep = arg.indexOf('=');
+            if (sep > 0) {
+                options.put(arg.substring(0, sep), arg.substring(sep + 1));
+            }
+        }
+        if (!new OllamaFaultInjectionTest(options).run()) {
+            System.exit(1);
+        }
+    }
+
+    private boolean run() throws InterruptedException {
+        Scenario fast = new Scenario("rápido", "lognormal", 50, 0.3, 0, 0, 0, 0, 0.01);
+        List<Scenario> scenarios = List.of(
+                fast,
+                new Scenario("cauda longa", "lognormal", timeoutMs * 0.3, 1.0, 0, 0, 0, 0, 0.25),
+                new Scenario("lento", "fixed", timeoutMs * 2, 0, 0, 0, 0, 0.99, 1),
+                new Scenario("erros 50%", "lognormal", 50, 0.3, 0.5, 0, 0, 0, 0.5),
+                new Scenario("inválidas 50%", "lognormal", 50, 0.3, 0, 0.5, 0, 0, 0.3),
+                new Scenario("gotejamento", "fixed", 10, 0, 0, 0, 1, 0.99, 1),
+                new Scenario("fora do ar", "fixed", 10, 0, 1, 0, 0, 0.99, 1));
+
+        System.out.printf("%d gerações por cenário, %d simultâneas, modelos %s, hedge %d ms, timeout %d ms%n%n",
+                calls, concurrency, models, hedgeMs, timeoutMs);
+        // Aquecimento (JIT, Netty, pool de conexões) no cenário rápido, sem medir: na primeira
+        // rodada as gerações estouram o timeout e abrem circuitos sem culpa do servidor
+        if (warmup > 0) {
+            runScenario(fast, warmup, new ArrayList<>(), false);
+        }
+        System.out.printf("%-14s %8s %8s %8s %10s %9s  %s%n",
+                "cenário", "p50 ms", "p99 ms", "máx ms", "fallback", "pedidos", "corridas");
+        List<String> failures = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            runScenario(scenario, calls, failures, true);
+        }
+
+        System.out.println();
+        if (failures.isEmpty()) {
+            System.out.println("verificação: OK");
+            return true;
+        }
+        System.out.println("verificação: FALHOU");
+        failures.forEach(failure -> System.out.println("  " + failure));
+        return false;
+    }
+
+    private void runScenario(Scenario scenario, int calls, List<String> failures, boolean report)
+            throws InterruptedException {
+        OllamaStubServer stub = new OllamaStubServer(0, scenario.distribution(), scenario.latencyMs(),
+                scenario.sigma(), timeoutMs * 10, scenario.errorRate(), scenario.invalidRate(),
+                scenario.slowDripRate(), Math.max(1, timeoutMs / 10));
+        stub.start();
+        try {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            Duration timeout = Duration.ofMillis(timeoutMs);
+            OllamaService ollama = new OllamaService(registry, stub.baseUrl(), concurrency, calls,
+                    Duration.ofSeconds(30), models, timeout, timeout, Duration.ofMillis(hedgeMs), 3,
+                    Duration.ofSeconds(30));
+
+            long[] latencies = new long[calls];
+            AtomicInteger next = new AtomicInteger();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int t = 0; t < concurrency; t++) {
+                    clients.execute(() -> {
+                        for (int i = next.getAndIncrement(); i < calls; i = next.getAndIncrement()) {
+                            long start = System.nanoTime();
+                            if (i % 2 == 0) {
+                                ollama.generateWord();
+                            } else {
+                                ollama.generateHint("ABACAXI");
+                            }
+                            latencies[i] = System.nanoTime() - start;
+                        }
+                    });
+                }
+            }
+
+            if (!report) {
+                return;
+            }
+            Arrays.sort(latencies);
+            double fallbacks = registry.find("jogoforca.llm.fallbacks").counters().stream()
+                    .mapToDouble(Counter::count).sum() / calls;
+            Map<String, Long> races = new TreeMap<>();
+            for (Timer timer : registry.find("jogoforca.llm.generations").timers()) {
+                races.merge(timer.getId().getTag("outcome"), timer.count(), Long::sum);
+            }
+            long stubRequests = (long) stub.getStats().get("requests");
+            double max = latencies[calls - 1] / 1e6;
+            System.out.printf("%-14s %8.1f %8.1f %8.1f %9.1f%% %9.2f  %s%n", scenario.name(),
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), max, fallbacks * 100,
+                    stubRequests / (double) calls, races);
+
+            if (fallbacks < scenario.minFallback() || fallbacks > scenario.maxFallback()) {
+                failures.add(String.format("%s: %.1f%% de fallbacks fora de [%.0f%%, %.0f%%]", scenario.name(),
+                        fallbacks * 100, scenario.minFallback() * 100, scenario.maxFallback() * 100));
+            }
+            if (max > timeoutMs + TIMEOUT_SLACK_MS) {
+                failures.add(String.format("%s: geração levou %.0f ms com timeout de %d ms", scenario.name(), max,
+                        timeoutMs));
+            }
+        } finally {
+            stub.stop();
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
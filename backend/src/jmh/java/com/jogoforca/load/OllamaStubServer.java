@@ -0,0 +1,204 @@
+package com.jogoforca.load;
+
+import com.jogoforca.service.OllamaService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor falso no formato de {@code /api/generate} do Ollama, para testes e benchmarks do
+ * {@link OllamaService} sem um modelo de verdade. Usado pelos testes de carga e de falhas;
+ * {@link #start()} abre a porta e {@link #stop()} interrompe as respostas pendentes.
+ * <p>
+ * Cada resposta espera uma latência sorteada ({@code fixed}, {@code uniform} entre 0 e o
+ * dobro da média, {@code exponential} ou {@code lognormal} com a mediana e o {@code sigma}
+ * dados, sempre limitada a {@code maxLatencyMs}) e então, conforme as taxas configuradas,
+ * devolve erro HTTP 500, uma resposta inválida (frase no lugar da palavra, dica vazia) ou o
+ * corpo gotejado um byte a cada {@code dripIntervalMs}. As demais respostas são válidas.
+ */
+public class OllamaStubServer {
+
+    private static final Logger log = LoggerFactory.getLogger(OllamaStubServer.class);
+
+    private static final List<String> WORDS = List.of(
+            "ABACAXI", "BANANA", "CAMINHO", "JANELA", "FLORESTA", "PIRATA", "GIRASSOL", "TECLADO",
+            "MONTANHA", "CADERNO", "ESCOLA", "PLANETA", "CHUVEIRO", "TIGRE", "VIOLINO", "QUEIJO");
+
+    /**
+     * Distribuição da latência de cada resposta.
+     */
+    public enum Latency {
+        FIXED, UNIFORM, EXPONENTIAL, LOGNORMAL
+    }
+
+    private final int requestedPort;
+    private final Latency distribution;
+    private final double latencyMs;
+    private final double sigma;
+    private final long maxLatencyMs;
+    private final double errorRate;
+    private final double invalidRate;
+    private final double slowDripRate;
+    private final long dripIntervalMs;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong valid = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    private final AtomicLong slowDrips = new AtomicLong();
+    private final AtomicLong aborted = new AtomicLong();
+
+    /**
+     * @param port         porta local, ou 0 para uma livre (veja {@link #baseUrl()})
+     * @param distribution {@code fixed}, {@code uniform}, {@code exponential} ou {@code lognormal}
+     */
+    public OllamaStubServer(int port, String distribution, double latencyMs, double sigma, long maxLatencyMs,
+            double errorRate, double invalidRate, double slowDripRate, long dripIntervalMs) {
+        if (latencyMs < 0 || sigma < 0 || maxLatencyMs < 0 || dripIntervalMs < 0
+                || errorRate < 0 || invalidRate < 0 || slowDripRate < 0
+                || errorRate + invalidRate + slowDripRate > 1) {
+            throw new IllegalArgumentException("Configuração inválida do Ollama falso");
+        }
+        this.requestedPort = port;
+        this.distribution = Latency.valueOf(distribution.trim().toUpperCase(Locale.ROOT));
+        this.latencyMs = latencyMs;
+        this.sigma = sigma;
+        this.maxLatencyMs = maxLatencyMs;
+        this.errorRate = errorRate;
+        this.invalidRate = invalidRate;
+        this.slowDripRate = slowDripRate;
+        this.dripIntervalMs = dripIntervalMs;
+    }
+
+    public void start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", requestedPort), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o Ollama falso na porta " + requestedPort, e);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.createContext("/api/generate", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        log.info("[stubOllama] ouvindo em {} (latência {} {} ms, erros {}, inválidas {}, gotejamento {})",
+                baseUrl(), distribution.name().toLowerCase(Locale.ROOT), latencyMs, errorRate, invalidRate,
+                slowDripRate);
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            // Respostas em espera ou gotejando são interrompidas
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + port();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange; InputStream in = exchange.getRequestBody()) {
+            boolean hint = new String(in.readAllBytes(), StandardCharsets.UTF_8).contains("dica");
+            Thread.sleep(sampleLatencyMs());
+
+            double outcome = ThreadLocalRandom.current().nextDouble();
+            if (outcome < errorRate) {
+                errors.incrementAndGet();
+                send(exchange, 500, "{\"error\":\"falha injetada\"}", false);
+            } else if (outcome < errorRate + invalidRate) {
+                invalid.incrementAndGet();
+                // Palavra: frase longa demais depois da limpeza; dica: vazia
+                send(exchange, 200, response(hint ? "" : "Claro! Aqui vai uma palavra: casa"), false);
+            } else if (outcome < errorRate + invalidRate + slowDripRate) {
+                slowDrips.incrementAndGet();
+                send(exchange, 200, response(answer(hint)), true);
+            } else {
+                valid.incrementAndGet();
+                send(exchange, 200, response(answer(hint)), false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aborted.incrementAndGet();
+        } catch (IOException e) {
+            // Cliente desistiu (timeout ou corrida perdida) no meio da resposta
+            aborted.incrementAndGet();
+        }
+    }
+
+    private long sampleLatencyMs() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double sample = switch (distribution) {
+            case FIXED -> latencyMs;
+            case UNIFORM -> random.nextDouble() * 2 * latencyMs;
+            case EXPONENTIAL -> -latencyMs * Math.log(1 - random.nextDouble());
+            case LOGNORMAL -> latencyMs * Math.exp(sigma * random.nextGaussian());
+        };
+        return Math.min(maxLatencyMs, Math.round(sample));
+    }
+
+    private static String answer(boolean hint) {
+        return hint ? "Dica gerada pelo servidor falso"
+                : WORDS.get(ThreadLocalRandom.current().nextInt(WORDS.size()));
+    }
+
+    private static String response(String text) {
+        return "{\"model\":\"stub\",\"response\":\"" + text + "\",\"done\":true}";
+    }
+
+    private void send(HttpExchange exchange, int status, String body, boolean drip)
+            throws IOException, InterruptedException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (!drip) {
+                out.write(bytes);
+                return;
+            }
+            for (byte b : bytes) {
+                out.write(b);
+                out.flush();
+                Thread.sleep(dripIntervalMs);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("valid", valid.get());
+        stats.put("errors", errors.get());
+        stats.put("invalid", invalid.get());
+        stats.put("slow_drips", slowDrips.get());
+        stats.put("aborted", aborted.get());
+        stats.put("latency_distribution", distribution.name().toLowerCase(Locale.ROOT));
+        stats.put("latency_ms", latencyMs);
+        return stats;
+    }
+}
@@ -0,0 +1,242 @@
+package com.jogoforca.load;
+
+import com.jogoforca.JogoForcaApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Teste de carga comparando o backend com o pool de threads de plataforma e com threads
+ * virtuais, contra um Ollama falso que demora {@code delay-ms} por resposta.
+ * <p>
+ * Metade dos clientes cria jogos PvP e envia palavras com dica gerada pela IA (o caminho
+ * lento); a outra metade consulta o estado desses jogos. Para cada modo são impressos a
+ * vazão e os percentis de latência por operação.
+ * <p>
+ * Uso: {@code mvn -Pjmh test-compile exec:exec@load-test "-Dload.args=delay-ms=2000 writers=100"}
+ */
+public final class SlowOllamaLoadTest {
+
+    private static final Pattern GAME_ID = Pattern.compile("\"game_id\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final long delayMs;
+    private final int writers;
+    private final int readers;
+    private final Duration duration;
+    private final int tomcatThreads;
+
+    private SlowOllamaLoadTest(Map<String, String> options) {
+        this.delayMs = Long.parseLong(options.getOrDefault("delay-ms", "2000"));
+        this.writers = Integer.parseInt(options.getOrDefault("writers", "100"));
+        this.readers = Integer.parseInt(options.getOrDefault("readers", "100"));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration-s", "20")));
+        this.tomcatThreads = Integer.parseInt(options.getOrDefault("tomcat-threads", "50"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int sep = arg.indexOf('=');
+            if (sep > 0) {
+                options.put(arg.substring(0, sep), arg.substring(sep + 1));
+            }
+        }
+        new SlowOllamaLoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        OllamaStubServer ollama = new OllamaStubServer(0, "fixed", delayMs, 0, delayMs, 0, 0, 0, 0);
+        ollama.start();
+        try {
+            String ollamaUrl = ollama.baseUrl();
+            System.out.printf("Ollama falso com %d ms de atraso; %d escritores, %d leitores, %d s, %d threads Tomcat%n",
+                    delayMs, writers, readers, duration.toSeconds(), tomcatThreads);
+            List<String> report = new ArrayList<>();
+            for (boolean virtual : new boolean[] { false, true }) {
+                report.addAll(runMode(virtual, ollamaUrl));
+            }
+            System.out.println();
+            System.out.printf("%-10s %-8s %10s %10s %10s %10s %8s%n",
+                    "modo", "op", "ops/s", "p50 ms", "p99 ms", "max ms", "erros");
+            report.forEach(System.out::println);
+        } finally {
+            ollama.stop();
+        }
+    }
+
+    private List<String> runMode(boolean virtual, String ollamaUrl) throws InterruptedException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(JogoForcaApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--server.tomcat.threads.max=" + tomcatThreads,
+                        "--jogoforca.ollama.base-url=" + ollamaUrl,
+                        // Todos os clientes saem do mesmo IP e o objetivo é medir o Ollama lento
+                        "--jogoforca.rate-limit.enabled=false",
+                        "--jogoforca.ollama.max-concurrent=" + writers,
+                        "--jogoforca.ollama.max-queued=" + writers,
+                        "--logging.level.com.jogoforca=WARN",
+                        "--jogoforca.leaderboard.persistence=memory",
+                        "--spring.main.banner-mode=off");
+        try {
+            String base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port") + "/api/game";
+            Stats submit = new Stats();
+            Stats state = new Stats();
+            List<String> gameIds = new CopyOnWriteArrayList<>();
+            long deadline = System.nanoTime() + duration.toNanos();
+
+            // close() do executor dos clientes espera todos terminarem; o do HttpClient fica aberto até lá
+            try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+                    ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient http = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(httpExecutor)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+                for (int i = 0; i < writers; i++) {
+                    clients.execute(() -> writerLoop(http, base, deadline, submit, gameIds));
+                }
+                for (int i = 0; i < readers; i++) {
+                    clients.execute(() -> readerLoop(http, base, deadline, state, gameIds));
+                }
+            }
+
+            String mode = virtual ? "virtual" : "plataforma";
+            return List.of(submit.format(mode, "submit", duration), state.format(mode, "state", duration));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void writerLoop(HttpClient http, String base, long deadline, Stats stats, List<String> gameIds) {
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpResponse<String> created = http.send(post(base + "/new",
+                        "{\"mode\":\"pvp\",\"players\":[\"Ana\",\"Bruno\"]}"), HttpResponse.BodyHandlers.ofString());
+                Matcher matcher = GAME_ID.matcher(created.body());
+                if (!matcher.find()) {
+                    stats.error();
+                    continue;
+                }
+                String gameId = matcher.group(1);
+                gameIds.add(gameId);
+                // Palavra aleatória para não acertar o cache de dicas
+                String body = "{\"word\":\"" + randomWord() + "\",\"generateHint\":true}";
+                long start = System.nanoTime();
+                HttpResponse<String> response = http.send(post(base + "/" + gameId + "/submit-word", body),
+                        HttpResponse.BodyHandlers.ofString());
+                stats.record(response.statusCode(), System.nanoTime() - start);
+            } catch (IOException e) {
+                stats.error();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void readerLoop(HttpClient http, String base, long deadline, Stats stats, List<String> gameIds) {
+        while (System.nanoTime() < deadline) {
+            try {
+                if (gameIds.isEmpty()) {
+                    Thread.sleep(10);
+                    continue;
+                }
+                String gameId = gameIds.get(ThreadLocalRandom.current().nextInt(gameIds.size()));
+                HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/" + gameId))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build();
+                long start = System.nanoTime();
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                stats.record(response.statusCode(), System.nanoTime() - start);
+            } catch (IOException e) {
+                stats.error();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String randomWord() {
+        char[] letters = new char[10];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('A' + ThreadLocalRandom.current().nextInt(26));
+        }
+        return new String(letters);
+    }
+
+    /**
+     * Latências de uma operação; cada cliente grava sob o lock do próprio objeto.
+     */
+    private static final class Stats {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] latencies = new long[1024];
+        private int count;
+        private final AtomicInteger errors = new AtomicInteger();
+
+        void record(int status, long nanos) {
+            if (status >= 400) {
+                errors.incrementAndGet();
+                return;
+            }
+            lock.lock();
+            try {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = nanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void error() {
+            errors.incrementAndGet();
+        }
+
+        String format(String mode, String op, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return String.format("%-10s %-8s %10.1f %10.1f %10.1f %10.1f %8d", mode, op,
+                    count / (double) duration.toSeconds(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6, errors.get());
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.jogoforca.load;
+
+import com.jogoforca.JogoForcaApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Teste de carga de espectadores: para cada tamanho de sala, conecta N espectadores
+ * ({@code GET /api/game/{id}/spectate}) a um jogo PvP e faz uma alteração por vez, esperando
+ * todos receberem a nova versão antes da próxima.
+ * <p>
+ * O backend roda no mesmo processo com o pool de plataforma, para que o tempo de CPU das
+ * threads do servidor (Tomcat e difusão) seja medido separado do dos clientes. São impressos
+ * a CPU do servidor por alteração e por espectador, o tempo até o último espectador receber
+ * cada versão e quantos quadros foram montados contra quantos foram enviados.
+ * <p>
+ * Uso: {@code mvn -Pjmh test-compile exec:exec@spectator-load-test "-Dload.args=spectators=100,1000,4000 changes=30"}
+ */
+public final class SpectatorLoadTest {
+
+    private static final Pattern GAME_ID = Pattern.compile("\"game_id\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern VERSION = Pattern.compile("\"version\"\\s*:\\s*(\\d+)");
+    private static final Pattern STATUS = Pattern.compile("\"game_status\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern STAT = Pattern.compile("\"(frames_encoded|frames_sent|frames_coalesced)\"\\s*:\\s*(\\d+)");
+    private static final String WORD = "ABCDEFGHIJKLMNO";
+    private static final String[] SERVER_THREADS = { "http-nio", "spectate-dispatch" };
+
+    private final int[] roomSizes;
+    private final int changes;
+    private final int connectParallelism;
+
+    private SpectatorLoadTest(Map<String, String> options) {
+        this.roomSizes = Arrays.stream(options.getOrDefault("spectators", "100,1000,4000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim()))
+                .toArray();
+        this.changes = Integer.parseInt(options.getOrDefault("changes", "30"));
+        this.connectParallelism = Integer.parseInt(options.getOrDefault("connect-parallelism", "200"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int sep = arg.indexOf('=');
+            if (sep > 0) {
+                options.put(arg.substring(0, sep), arg.substring(sep + 1));
+            }
+        }
+        new SpectatorLoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        int largest = Arrays.stream(roomSizes).max().orElse(0);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(JogoForcaApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=false",
+                        "--server.tomcat.max-connections=" + (largest + 1000),
+                        "--server.tomcat.accept-count=" + connectParallelism * 2,
+                        "--jogoforca.spectators.max-per-game=" + largest,
+                        // Um único cliente faz todas as alterações, mais rápido do que o limite por jogo
+                        "--jogoforca.rate-limit.enabled=false",
+                        "--logging.level.com.jogoforca=WARN",
+                        "--jogoforca.leaderboard.persistence=memory",
+                        "--spring.main.banner-mode=off");
+        List<String> report = new ArrayList<>();
+        try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(httpExecutor)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            System.out.printf("%d alterações por sala; salas de %s espectadores%n", changes, Arrays.toString(roomSizes));
+            for (int size : roomSizes) {
+                report.add(runRoom(http, base, size));
+            }
+        } finally {
+            context.close();
+        }
+        System.out.println();
+        System.out.printf("%-12s %14s %18s %12s %12s %10s %10s %12s%n", "espectadores", "CPU/alt. ms",
+                "CPU/espect. us", "entrega p50", "entrega p99", "montados", "enviados", "agregados");
+        report.forEach(System.out::println);
+    }
+
+    private String runRoom(HttpClient http, String base, int size) throws Exception {
+        String game = base + "/api/game";
+        String gameId = match(GAME_ID, send(http, post(game + "/new", "{\"mode\":\"pvp\",\"players\":[\"Ana\",\"Bruno\"]}")));
+        send(http, post(game + "/" + gameId + "/submit-word", "{\"word\":\"" + WORD + "\",\"hint\":\"Alfabeto\"}"));
+        long initialVersion = Long.parseLong(match(VERSION, send(http, get(game + "/" + gameId))));
+
+        AtomicLongArray lastSeen = new AtomicLongArray(size);
+        CountDownLatch connected = new CountDownLatch(size);
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+        Semaphore connecting = new Semaphore(connectParallelism);
+        for (int i = 0; i < size; i++) {
+            int index = i;
+            readers.execute(() -> spectate(http, game + "/" + gameId + "/spectate", index, lastSeen, connected,
+                    connecting, failures));
+        }
+        if (!connected.await(60, TimeUnit.SECONDS)) {
+            System.out.printf("%d espectadores não conectaram a tempo%n", connected.getCount());
+        }
+        awaitAll(lastSeen, initialVersion);
+        long[] statsBefore = spectatorStats(http, base);
+
+        long[] delivery = new long[changes];
+        long cpuBefore = serverCpuNanos();
+        int round = 0;
+        int nextLetter = 0;
+        for (int change = 0; change < changes; change++) {
+            String body;
+            long start = System.nanoTime();
+            if (nextLetter < WORD.length()) {
+                body = send(http, post(game + "/" + gameId + "/guess",
+                        "{\"letter\":\"" + WORD.charAt(nextLetter++) + "\"}"));
+            } else if (nextLetter == WORD.length()) {
+                body = send(http, post(game + "/" + gameId + "/next-round", "{}"));
+                nextLetter++;
+                round++;
+            } else {
+                body = send(http, post(game + "/" + gameId + "/submit-word",
+                        "{\"word\":\"" + WORD + "\",\"hint\":\"Alfabeto " + round + "\"}"));
+                nextLetter = 0;
+            }
+            String state = send(http, get(game + "/" + gameId));
+            if (body.contains("\"detail\"") || "game_finished".equals(match(STATUS, state))) {
+                System.out.printf("sala de %d: jogo encerrado após %d alterações%n", size, change);
+                delivery = Arrays.copyOf(delivery, change);
+                break;
+            }
+            awaitAll(lastSeen, Long.parseLong(match(VERSION, state)));
+            delivery[change] = System.nanoTime() - start;
+        }
+        long cpu = serverCpuNanos() - cpuBefore;
+        long[] statsAfter = spectatorStats(http, base);
+
+        send(http, HttpRequest.newBuilder(URI.create(game + "/" + gameId)).DELETE().build());
+        readers.shutdownNow();
+        readers.awaitTermination(30, TimeUnit.SECONDS);
+
+        Arrays.sort(delivery);
+        int done = Math.max(1, delivery.length);
+        return String.format("%-12d %14.3f %18.3f %12.2f %12.2f %10d %10d %12d%s", size,
+                cpu / 1e6 / done, cpu / 1e3 / done / size,
+                percentile(delivery, 0.50), percentile(delivery, 0.99),
+                statsAfter[0] - statsBefore[0], statsAfter[1] - statsBefore[1], statsAfter[2] - statsBefore[2],
+                failures.get() > 0 ? "  (" + failures.get() + " falhas)" : "");
+    }
+
+    private static void spectate(HttpClient http, String url, int index, AtomicLongArray lastSeen,
+            CountDownLatch connected, Semaphore connecting, AtomicInteger failures) {
+        boolean counted = false;
+        try {
+            connecting.acquire();
+            HttpResponse<Stream<String>> response;
+            try {
+                response = http.send(HttpRequest.newBuilder(URI.create(url))
+                        .header("Accept", "text/event-stream")
+                        .GET()
+                        .build(), HttpResponse.BodyHandlers.ofLines());
+            } finally {
+                connecting.release();
+            }
+            connected.countDown();
+            counted = true;
+            if (response.statusCode() != 200) {
+                failures.incrementAndGet();
+                return;
+            }
+            try (Stream<String> lines = response.body()) {
+                lines.forEach(line -> {
+                    if (line.startsWith("id: ")) {
+                        lastSeen.set(index, Long.parseLong(line.substring(4).trim()));
+                    }
+                });
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!Thread.currentThread().isInterrupted()) {
+                failures.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!counted) {
+                connected.countDown();
+            }
+        }
+    }
+
+    // Espera todos os espectadores conectados verem ao menos a versão indicada
+    private static void awaitAll(AtomicLongArray lastSeen, long version) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        for (int i = 0; i < lastSeen.length(); i++) {
+            while (lastSeen.get(i) >= 0 && lastSeen.get(i) < version) {
+                if (System.nanoTime() > deadline) {
+                    System.out.printf("espectador %d parado na versão %d (esperada %d)%n", i, lastSeen.get(i), version);
+                    lastSeen.set(i, -1);
+                    break;
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    // CPU das threads do servidor: workers do Tomcat e difusão aos espectadores
+    private static long serverCpuNanos() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info == null) {
+                continue;
+            }
+            for (String prefix : SERVER_THREADS) {
+                if (info.getThreadName().startsWith(prefix)) {
+                    total += Math.max(0, threads.getThreadCpuTime(info.getThreadId()));
+                }
+            }
+        }
+        return total;
+    }
+
+    private static long[] spectatorStats(HttpClient http, String base) throws IOException, InterruptedException {
+        String body = send(http, get(base + "/api/health/spectators"));
+        long[] stats = new long[3];
+        Matcher matcher = STAT.matcher(body);
+        while (matcher.find()) {
+            int index = switch (matcher.group(1)) {
+                case "frames_encoded" -> 0;
+                case "frames_sent" -> 1;
+                default -> 2;
+            };
+            stats[index] = Long.parseLong(matcher.group(2));
+        }
+        return stats;
+    }
+
+    private static String send(HttpClient http, HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String match(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Resposta inesperada: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,101 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.GameConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Montagem dos serviços fora do Spring para os benchmarks, sem acesso ao Ollama.
+ */
+final class BenchmarkFixtures {
+
+    static final String WORD = "DESENVOLVIMENTO";
+    static final String HINT = "Processo de criar software";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * {@link OllamaService} que responde imediatamente com valores fixos.
+     */
+    static OllamaService stubOllama() {
+        return new OllamaService(new SimpleMeterRegistry(), "http://localhost:11434", 8, 32, Duration.ofSeconds(2),
+                List.of("phi3:mini"), Duration.ofSeconds(5), Duration.ofSeconds(8), Duration.ZERO, 3,
+                Duration.ofSeconds(30)) {
+            @Override
+            public Mono<String> tryGenerateWordAsync() {
+                return Mono.just(WORD);
+            }
+
+            @Override
+            public Mono<String> tryGenerateHintAsync(String word) {
+                return Mono.just(HINT);
+            }
+
+            @Override
+            public String fallbackWord() {
+                return WORD;
+            }
+        };
+    }
+
+    /**
+     * Dicionário do classpath com as restrições padrão.
+     */
+    static WordDictionary dictionary() {
+        WordDictionary dictionary = new WordDictionary("", 5, 10, "", "");
+        dictionary.load();
+        return dictionary;
+    }
+
+    /**
+     * Armazenamento limitado a {@code maxGames}; a varredura de expiração não é agendada.
+     */
+    static GameStore store(int maxGames) {
+        return new GameStore(event -> {
+        }, maxGames, Duration.ofMinutes(10), Duration.ofHours(2), 1000, 512);
+    }
+
+    /**
+     * Persistência em {@code dataDir}, sem snapshot automático durante a carga.
+     */
+    static FileGameRepository fileRepository(Path dataDir, int maxGames, boolean snapshotOnShutdown) {
+        return new FileGameRepository(store(maxGames), event -> {
+        }, dataDir.toString(), 20, true, Duration.ofDays(1), Long.MAX_VALUE, 100_000, snapshotOnShutdown);
+    }
+
+    static GameService gameService(GameRepository store) {
+        return gameService(store, event -> {
+        });
+    }
+
+    static GameService gameService(GameRepository store, ApplicationEventPublisher eventPublisher) {
+        OllamaService ollama = stubOllama();
+        WordPoolService wordPool = new WordPoolService(ollama, dictionary(), 0.2, 50, 10, 40, 2);
+        HintCacheService hintCache = new HintCacheService(1000, Duration.ofHours(24), "");
+        return new GameService(ollama, wordPool, hintCache, eventPublisher, store,
+                new ClusterService("http://localhost:8080", "", 128, ""));
+    }
+
+    /**
+     * Preenche o armazenamento até {@code count} jogos PvP aguardando a palavra.
+     */
+    static void fill(GameService gameService, int count) {
+        GameConfig config = config("pvp", "Ana", "Bruno");
+        for (int i = 0; i < count; i++) {
+            gameService.createGame(config);
+        }
+    }
+
+    static GameConfig config(String mode, String... players) {
+        GameConfig config = new GameConfig();
+        config.setMode(mode);
+        config.setPlayers(List.of(players));
+        return config;
+    }
+}
@@ -0,0 +1,91 @@
+package com.jogoforca.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jogoforca.model.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização do estado de um jogo: {@link GameCodec} contra o Jackson usado antes na
+ * persistência. O setup confere a ida e volta dos dois formatos e imprime o tamanho de
+ * cada um.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class GameCodecBenchmark {
+
+    @Param({"waiting_word", "playing", "round_finished"})
+    public String state;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Game game;
+    private byte[] binary;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        GameService gameService = BenchmarkFixtures.gameService(BenchmarkFixtures.store(10));
+        game = switch (state) {
+            case "waiting_word" -> gameService.createGame(
+                    BenchmarkFixtures.config("pvp", "Ana", "Bruno", "Carla", "Diego"));
+            case "playing" -> guess(gameService, "AEOSRT");
+            case "round_finished" -> guess(gameService, "DESNVOLIMT");
+            default -> throw new IllegalArgumentException(state);
+        };
+
+        binary = GameCodec.encode(game);
+        json = objectMapper.writeValueAsBytes(game);
+        if (!game.equals(GameCodec.decode(binary))) {
+            throw new IllegalStateException("Ida e volta do GameCodec alterou o jogo: " + game);
+        }
+        if (!game.equals(objectMapper.readValue(json, Game.class))) {
+            throw new IllegalStateException("Ida e volta do Jackson alterou o jogo: " + game);
+        }
+        System.out.printf("%n[%s] binário: %d bytes, JSON: %d bytes (%.1fx)%n",
+                state, binary.length, json.length, json.length / (double) binary.length);
+    }
+
+    private static Game guess(GameService gameService, String letters) {
+        // Palavra fixa: a do PvC agora vem do dicionário
+        Game game = gameService.createGame(BenchmarkFixtures.config("pvc_duel", "Ana"));
+        gameService.submitWord(game.getGameId(), BenchmarkFixtures.WORD);
+        for (char letter : letters.toCharArray()) {
+            gameService.guessLetterAsCpu(game.getGameId(), String.valueOf(letter));
+        }
+        return gameService.getGame(game.getGameId());
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public Game codecDecode() {
+        return GameCodec.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] jacksonEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(game);
+    }
+
+    @Benchmark
+    public Game jacksonDecode() throws Exception {
+        return objectMapper.readValue(json, Game.class);
+    }
+}
@@ -0,0 +1,168 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histórico de eventos dos jogos ({@link GameHistory}): gravação de um evento, recuperação
+ * incremental dos últimos eventos de um jogo (como em {@code GET /events?since=N}) e
+ * reconstrução do estado atual a partir do último checkpoint.
+ * <p>
+ * O setup joga {@code games} partidas completas (PvC, duelo e PvP com entradas e abandonos),
+ * confere que a reconstrução de cada uma e o estado depois do último evento chegam
+ * exatamente ao estado real e imprime o tamanho médio dos eventos e dos checkpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class GameHistoryBenchmark {
+
+    private static final String LETTERS = "AEOSRINDMUTCLPVGHQBFZJXKWY";
+
+    @Param({"1000"})
+    public int games;
+
+    private GameHistory history;
+    private GameService gameService;
+    private final List<String> gameIds = new ArrayList<>();
+    private final Random random = new Random(42);
+    private Game sample;
+    private long sampleSeq;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        history = new GameHistory(512);
+        gameService = BenchmarkFixtures.gameService(BenchmarkFixtures.store(games * 2),
+                event -> history.onGameChanged((GameChangedEvent) event));
+        for (int i = 0; i < games; i++) {
+            gameIds.add(switch (i % 3) {
+                case 0 -> playPvc();
+                case 1 -> playDuel();
+                default -> playPvp();
+            });
+        }
+
+        long events = 0;
+        for (String gameId : gameIds) {
+            Game live = gameService.getGame(gameId);
+            Optional<Game> replayed = history.replay(gameId);
+            if (replayed.isEmpty() || !live.equals(replayed.get())) {
+                throw new IllegalStateException("Reconstrução diferente do jogo real: " + live + " != " + replayed);
+            }
+            List<Game> states = new ArrayList<>();
+            if (!history.eventsSince(gameId, 0, (event, state) -> states.add(state))
+                    || !live.equals(states.get(states.size() - 1))) {
+                throw new IllegalStateException("Estado do último evento diferente do jogo real: " + gameId);
+            }
+            events += states.size();
+        }
+        Map<String, Object> stats = history.getStats();
+        System.out.printf("%n%d jogos, %.1f eventos por jogo, %.2f bytes por evento, %d bytes de eventos"
+                        + " e %d de checkpoints%n", games, (double) events / games, stats.get("avg_event_bytes"),
+                stats.get("event_bytes"), stats.get("checkpoint_bytes"));
+
+        sample = gameService.getGame(gameIds.get(0));
+        sampleSeq = sample.getVersion();
+    }
+
+    // PvC: a CPU escolhe as palavras; o jogador chuta letras até o jogo acabar
+    private String playPvc() {
+        Game game = gameService.createGame(BenchmarkFixtures.config("pvc", "Ana"));
+        playRounds(game, false);
+        return game.getGameId();
+    }
+
+    // Duelo: o jogador cria nas rodadas ímpares e a CPU adivinha
+    private String playDuel() {
+        Game game = gameService.createGame(BenchmarkFixtures.config("pvc_duel", "Ana"));
+        playRounds(game, true);
+        return game.getGameId();
+    }
+
+    // PvP com convite, um abandono e rodadas até o fim
+    private String playPvp() {
+        Game game = gameService.createGame(BenchmarkFixtures.config("pvp", "Ana"));
+        String gameId = game.getGameId();
+        gameService.joinGame(gameId, "Bruno");
+        gameService.joinGame(gameId, "Carla");
+        gameService.joinGame(gameId, "Diego");
+        gameService.abandonGame(gameId, "Diego");
+        playRounds(game, true);
+        return gameId;
+    }
+
+    private void playRounds(Game game, boolean submitWords) {
+        String gameId = game.getGameId();
+        while (true) {
+            if (submitWords && "waiting_word".equals(game.getGameStatus())) {
+                gameService.submitWord(gameId, BenchmarkFixtures.WORD);
+            }
+            boolean cpu = GameRules.cpuGuesses(game);
+            int start = random.nextInt(LETTERS.length());
+            for (int i = 0; "playing".equals(game.getGameStatus()); i++) {
+                String letter = String.valueOf(LETTERS.charAt((start + i) % LETTERS.length()));
+                if (cpu) {
+                    gameService.guessLetterAsCpu(gameId, letter);
+                } else {
+                    gameService.guessLetter(gameId, letter);
+                }
+            }
+            if (!"round_finished".equals(game.getGameStatus()) || game.getCurrentRound() >= game.getMaxRounds()) {
+                return;
+            }
+            gameService.startNextRound(gameId);
+        }
+    }
+
+    /**
+     * Codificação e gravação de uma tentativa no log do jogo (com descarte ocasional ao
+     * atingir o limite de eventos).
+     */
+    @Benchmark
+    public void recordGuess() {
+        history.onGameChanged(new GameChangedEvent(sample, "guess",
+                new GameEvent(++sampleSeq, GameEvent.Type.GUESS, List.of("A"), new int[0], List.of())));
+    }
+
+    /**
+     * Recuperação incremental: os 3 últimos eventos de um jogo, cada um com o estado depois dele.
+     */
+    @Benchmark
+    public List<Game> eventsSince() {
+        String gameId = nextGameId();
+        List<Game> states = new ArrayList<>(3);
+        history.eventsSince(gameId, gameService.getGame(gameId).getVersion() - 3, (event, state) -> states.add(state));
+        return states;
+    }
+
+    @Benchmark
+    public Optional<Game> replayGame() {
+        return history.replay(nextGameId());
+    }
+
+    private String nextGameId() {
+        // O primeiro jogo recebe as tentativas de recordGuess; os demais ficam intactos
+        next = next + 1 == gameIds.size() ? 1 : next + 1;
+        return gameIds.get(next);
+    }
+}
@@ -0,0 +1,76 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tempo de restauração do {@link FileGameRepository}: a partir de um snapshot (desligamento
+ * normal) ou apenas do log de alterações (queda sem snapshot). Cada jogo PvC tem o registro
+ * de criação e três tentativas.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class GameRepositoryRestoreBenchmark {
+
+    private static final String[] GUESSES = { "A", "E", "O" };
+
+    @Param({"10000", "100000"})
+    public int games;
+
+    @Param({"snapshot", "log"})
+    public String layout;
+
+    private Path dataDir;
+
+    @Setup(Level.Trial)
+    public void writeData() throws IOException {
+        dataDir = Files.createTempDirectory("jogoforca-restore");
+        FileGameRepository repository = BenchmarkFixtures.fileRepository(dataDir, games * 2, "snapshot".equals(layout));
+        repository.start();
+        GameService gameService = BenchmarkFixtures.gameService(repository);
+        for (int i = 0; i < games; i++) {
+            Game game = gameService.createGame(BenchmarkFixtures.config("pvc", "Ana"));
+            for (String letter : GUESSES) {
+                gameService.guessLetter(game.getGameId(), letter);
+            }
+        }
+        repository.stop();
+    }
+
+    @Benchmark
+    public int restore() throws IOException {
+        FileGameRepository repository = BenchmarkFixtures.fileRepository(dataDir, games * 2, false);
+        repository.restore();
+        return repository.size();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteData() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import com.jogoforca.model.GameConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações do {@link GameService} sobre um armazenamento já cheio com {@code storeSize}
+ * jogos. O serviço é compartilhado entre as threads ({@code -t}), medindo também a
+ * contenção nos locks e no armazenamento.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class GameServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int storeSize;
+
+    GameService gameService;
+    GameStore store;
+    final GameConfig pvcConfig = BenchmarkFixtures.config("pvc", "Ana");
+    final GameConfig pvpConfig = BenchmarkFixtures.config("pvp", "Ana", "Bruno");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = BenchmarkFixtures.store(storeSize);
+        gameService = BenchmarkFixtures.gameService(store);
+        BenchmarkFixtures.fill(gameService, storeSize);
+    }
+
+    /**
+     * Jogo PvC recém-criado, um por invocação; removido em seguida para manter o
+     * armazenamento no tamanho configurado.
+     */
+    @State(Scope.Thread)
+    public static class FreshGame {
+        String gameId;
+
+        @Setup(Level.Invocation)
+        public void create(GameServiceBenchmark benchmark) {
+            gameId = benchmark.gameService.createGame(benchmark.pvcConfig).getGameId();
+        }
+
+        @TearDown(Level.Invocation)
+        public void delete(GameServiceBenchmark benchmark) {
+            if (benchmark.store.contains(gameId)) {
+                benchmark.gameService.deleteGame(gameId);
+            }
+        }
+    }
+
+    /**
+     * Jogo PvC com a primeira rodada já vencida, pronto para {@code startNextRound}.
+     */
+    @State(Scope.Thread)
+    public static class FinishedRound {
+        String gameId;
+
+        @Setup(Level.Invocation)
+        public void create(GameServiceBenchmark benchmark) {
+            Game game = benchmark.gameService.createGame(benchmark.pvcConfig);
+            gameId = game.getGameId();
+            for (char c : game.getSecretWord().toCharArray()) {
+                if (!game.getGuessedLetters().contains(String.valueOf(c))) {
+                    benchmark.gameService.guessLetter(gameId, String.valueOf(c));
+                }
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void delete(GameServiceBenchmark benchmark) {
+            if (benchmark.store.contains(gameId)) {
+                benchmark.gameService.deleteGame(gameId);
+            }
+        }
+    }
+
+    @Benchmark
+    public Game createGamePvc() {
+        return gameService.createGame(pvcConfig);
+    }
+
+    @Benchmark
+    public Game createGamePvp() {
+        return gameService.createGame(pvpConfig);
+    }
+
+    @Benchmark
+    public Map<String, Object> guessLetter(FreshGame fresh) {
+        return gameService.guessLetter(fresh.gameId, "E");
+    }
+
+    @Benchmark
+    public Game startNextRound(FinishedRound finished) {
+        return gameService.startNextRound(finished.gameId);
+    }
+
+    @Benchmark
+    public String generateGameId() {
+        return gameService.generateGameId();
+    }
+}
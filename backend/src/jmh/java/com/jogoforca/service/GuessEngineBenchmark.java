@@ -0,0 +1,91 @@
+package com.jogoforca.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rodada completa de tentativas: a avaliação anterior (regex, listas e streams por
+ * tentativa) contra o {@link RoundState} com máscaras de bits. Usar {@code -prof gc}
+ * para comparar também a alocação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class GuessEngineBenchmark {
+
+    private static final String LETTER_PATTERN = "[A-ZÀÁÂÃÄÅÆÇÈÉÊËÌÍÎÏÐÑÒÓÔÕÖØÙÚÛÜÝÞŸ]";
+    // Ordem de tentativas aproximando a frequência das letras em português
+    private static final char[] GUESS_ORDER = "AEOSRINDMUTCLPVGHQBFZJXKWY".toCharArray();
+    private static final int MAX_ATTEMPTS = 6;
+
+    @Param({"PYTHON", "DESENVOLVIMENTO", "COMPUTADOR"})
+    public String word;
+
+    @Benchmark
+    public int legacyRound() {
+        List<String> guessedLetters = new ArrayList<>();
+        Map<String, List<Integer>> correctPositions = new HashMap<>();
+        int misses = 0;
+        for (char c : GUESS_ORDER) {
+            String letter = String.valueOf(c).toUpperCase().trim();
+            if (!letter.matches(LETTER_PATTERN) || guessedLetters.contains(letter)) {
+                continue;
+            }
+            guessedLetters.add(letter);
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < word.length(); i++) {
+                if (word.charAt(i) == letter.charAt(0)) {
+                    positions.add(i);
+                }
+            }
+            if (positions.isEmpty()) {
+                misses++;
+            } else {
+                correctPositions.put(letter, positions);
+            }
+            boolean allLettersFound = word.chars()
+                    .mapToObj(ch -> String.valueOf((char) ch))
+                    .allMatch(correctPositions::containsKey);
+            if (allLettersFound || misses >= MAX_ATTEMPTS) {
+                break;
+            }
+        }
+        return guessedLetters.size();
+    }
+
+    @Benchmark
+    public int bitmaskRound() {
+        RoundState round = RoundState.of(word);
+        int guesses = 0;
+        int misses = 0;
+        for (char c : GUESS_ORDER) {
+            int index = LetterAlphabet.indexOf(c);
+            if (index < 0 || round.isGuessed(index)) {
+                continue;
+            }
+            guesses++;
+            if (round.guess(index) == 0) {
+                misses++;
+            }
+            if (round.isSolved() || misses >= MAX_ATTEMPTS) {
+                break;
+            }
+        }
+        return guesses;
+    }
+}
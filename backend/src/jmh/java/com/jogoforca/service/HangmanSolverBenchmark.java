@@ -0,0 +1,142 @@
+package com.jogoforca.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU adivinhadora ({@link HangmanSolver}): tempo da primeira jogada (todos os candidatos do
+ * tamanho) e de uma rodada inteira, por nível. {@code words} escolhe o dicionário do jogo ou
+ * uma lista sintética maior, para ver como o tempo cresce com os candidatos.
+ * <p>
+ * O setup joga uma rodada para cada palavra da lista e imprime a taxa de acerto (no máximo
+ * 6 erros, como no jogo).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class HangmanSolverBenchmark {
+
+    private static final int MAX_MISSES = 6;
+    private static final String LETTER_WEIGHTS = "AAAAAAAAAAAAAEEEEEEEEEEEEOOOOOOOOOOSSSSSSSRRRRRRIIIIIINNNNNDDDDDMMMMMUUUUTTTTCCCCLLLPPPVVGGHQBFZJX";
+
+    @Param({"EASY", "MEDIUM", "HARD"})
+    public HangmanSolver.Level level;
+
+    @Param({"dictionary", "50000"})
+    public String words;
+
+    private HangmanSolver solver;
+    private List<String> secrets;
+    private final Random random = new Random(42);
+    private int next;
+
+    @Setup
+    public void setUp() {
+        if ("dictionary".equals(words)) {
+            WordDictionary dictionary = BenchmarkFixtures.dictionary();
+            secrets = new ArrayList<>();
+            for (int length = 5; length <= 10; length++) {
+                secrets.addAll(dictionary.wordsOfLength(length));
+            }
+            solver = HangmanSolver.of(dictionary);
+        } else {
+            secrets = syntheticWords(Integer.parseInt(words));
+            solver = HangmanSolver.of(secrets);
+        }
+
+        int solved = 0;
+        long misses = 0;
+        long moves = 0;
+        for (String secret : secrets) {
+            int[] result = playRound(secret);
+            if (result[0] < MAX_MISSES) {
+                solved++;
+            }
+            misses += result[0];
+            moves += result[1];
+        }
+        System.out.printf("%n%s, %s: %d palavras, %.1f%% resolvidas, %.2f erros e %.1f jogadas por rodada%n",
+                level, words, secrets.size(), 100.0 * solved / secrets.size(),
+                (double) misses / secrets.size(), (double) moves / secrets.size());
+    }
+
+    /**
+     * Primeira jogada: a mais cara, com todos os candidatos do tamanho.
+     */
+    @Benchmark
+    public int firstMove() {
+        String secret = nextSecret();
+        return solver.newSession(secret.length()).nextLetter(level, random);
+    }
+
+    @Benchmark
+    public int[] solveRound() {
+        return playRound(nextSecret());
+    }
+
+    private String nextSecret() {
+        String secret = secrets.get(next);
+        next = next + 1 == secrets.size() ? 0 : next + 1;
+        return secret;
+    }
+
+    // {erros, jogadas}
+    private int[] playRound(String secret) {
+        HangmanSolver.Session session = solver.newSession(secret.length());
+        int revealed = 0;
+        int full = (1 << secret.length()) - 1;
+        int misses = 0;
+        int moves = 0;
+        while (misses < MAX_MISSES && revealed != full) {
+            int letter = session.nextLetter(level, random);
+            if (letter < 0) {
+                break;
+            }
+            int mask = 0;
+            char c = LetterAlphabet.letterAt(letter);
+            for (int i = 0; i < secret.length(); i++) {
+                if (secret.charAt(i) == c) {
+                    mask |= 1 << i;
+                }
+            }
+            session.apply(letter, mask);
+            revealed |= mask;
+            moves++;
+            if (mask == 0) {
+                misses++;
+            }
+        }
+        return new int[] {misses, moves};
+    }
+
+    // Palavras de 5 a 10 letras sorteadas com pesos próximos da frequência do português
+    private static List<String> syntheticWords(int count) {
+        Random random = new Random(7);
+        List<String> result = new ArrayList<>(count);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            word.setLength(0);
+            int length = 5 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                word.append(LETTER_WEIGHTS.charAt(random.nextInt(LETTER_WEIGHTS.length())));
+            }
+            result.add(word.toString());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package com.jogoforca.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classificação dos jogadores ({@link PlayerStatsService} sem persistência): atualização de
+ * um jogador (contadores e reposicionamento na skip list, feito aqui na mesma thread no lugar
+ * da thread de reposicionamento), consulta dos primeiros colocados pela lista
+ * pronta e direto na skip list, e posição de um jogador qualquer.
+ * <p>
+ * O setup cria {@code players} jogadores com vitórias sorteadas e confere a ordem dos 1000
+ * primeiros e a posição de 1000 jogadores sorteados contra uma lista ordenada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class LeaderboardBenchmark {
+
+    @Param({"1000000"})
+    public int players;
+
+    private PlayerStatsService service;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new PlayerStatsService("memory", "", false, 1, 100);
+        for (int i = 0; i < players; i++) {
+            int games = 1 + random.nextInt(50);
+            int wins = random.nextInt(games + 1);
+            service.record(player(i), games, wins, games * 2, wins * 2 + random.nextInt(2), games * 10, games * 6);
+        }
+        service.rankPending();
+
+        List<PlayerStats> sorted = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            sorted.add(service.get(player(i)).orElseThrow());
+        }
+        sorted.sort(Leaderboard::compare);
+        List<PlayerStats> top = service.top(PlayerStatsService.MAX_TOP);
+        if (!top.equals(sorted.subList(0, PlayerStatsService.MAX_TOP))) {
+            throw new IllegalStateException("Ordem da skip list diferente da lista ordenada");
+        }
+        for (int i = 0; i < 1000; i++) {
+            int expected = random.nextInt(players);
+            int rank = service.rank(sorted.get(expected).player());
+            if (rank != expected + 1) {
+                throw new IllegalStateException("Posição " + rank + " em vez de " + (expected + 1));
+            }
+        }
+        System.out.printf("%n%d jogadores; ordem e posições conferidas%n", players);
+    }
+
+    private static String player(int i) {
+        return "player-" + i;
+    }
+
+    @Benchmark
+    public PlayerStats update() {
+        String player = player(random.nextInt(players));
+        service.record(player, 1, random.nextInt(2), 2, random.nextInt(3), 10, 6);
+        service.rankPending();
+        return service.get(player).orElseThrow();
+    }
+
+    @Benchmark
+    public List<PlayerStats> top10() {
+        return service.top(10);
+    }
+
+    @Benchmark
+    public List<PlayerStats> top100() {
+        return service.top(100);
+    }
+
+    // Acima da lista pronta: percorre a skip list sob o lock
+    @Benchmark
+    public List<PlayerStats> top1000() {
+        return service.top(1000);
+    }
+
+    @Benchmark
+    public int rank() {
+        return service.rank(player(random.nextInt(players)));
+    }
+}
@@ -0,0 +1,134 @@
+package com.jogoforca.controller;
+
+import com.jogoforca.model.Game;
+import com.jogoforca.service.ClusterRebalancer;
+import com.jogoforca.service.ClusterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Administração do cluster: consulta e alteração da lista de nós (com rebalanceamento) e
+ * recebimento de jogos transferidos por outros nós.
+ * <p>
+ * Tudo que altera o cluster exige o segredo compartilhado no cabeçalho
+ * {@link ClusterService#SECRET_HEADER}; sem ele a resposta é 403.
+ */
+@RestController
+@RequestMapping("/api/cluster")
+public class ClusterController {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterController.class);
+
+    private final ClusterService clusterService;
+    private final ClusterRebalancer rebalancer;
+
+    public ClusterController(ClusterService clusterService, ClusterRebalancer rebalancer) {
+        this.clusterService = clusterService;
+        this.rebalancer = rebalancer;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> cluster() {
+        return ResponseEntity.ok(rebalancer.getStats());
+    }
+
+    /**
+     * Substitui a lista de nós. Sem o cabeçalho de propagação, a lista é repassada a todos os nós.
+     */
+    @PutMapping("/nodes")
+    public ResponseEntity<?> replaceNodes(@RequestBody Map<String, List<String>> request,
+            @RequestHeader(value = ClusterRebalancer.PROPAGATED_HEADER, required = false) String propagated,
+            @RequestHeader(value = ClusterService.SECRET_HEADER, required = false) String secret) {
+        if (!clusterService.isAuthorized(secret)) {
+            return forbidden();
+        }
+        List<String> nodes = request.get("nodes");
+        if (nodes == null) {
+            return ResponseEntity.badRequest().body(Map.of("detail", "Campo 'nodes' é obrigatório"));
+        }
+        return changeNodes(nodes, propagated == null);
+    }
+
+    @PostMapping("/nodes")
+    public ResponseEntity<?> addNode(@RequestBody Map<String, String> request,
+            @RequestHeader(value = ClusterService.SECRET_HEADER, required = false) String secret) {
+        if (!clusterService.isAuthorized(secret)) {
+            return forbidden();
+        }
+        String url = request.get("url");
+        if (url == null || url.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("detail", "Campo 'url' é obrigatório"));
+        }
+        List<String> nodes = new ArrayList<>(clusterService.nodes());
+        nodes.add(url);
+        return changeNodes(nodes, true);
+    }
+
+    @DeleteMapping("/nodes")
+    public ResponseEntity<?> removeNode(@RequestParam String url,
+            @RequestHeader(value = ClusterService.SECRET_HEADER, required = false) String secret) {
+        if (!clusterService.isAuthorized(secret)) {
+            return forbidden();
+        }
+        List<String> nodes = new ArrayList<>(clusterService.nodes());
+        if (!nodes.remove(ClusterService.normalize(url))) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("detail", "Nó não encontrado: " + url));
+        }
+        return changeNodes(nodes, true);
+    }
+
+    @PostMapping("/rebalance")
+    public ResponseEntity<?> rebalance(
+            @RequestHeader(value = ClusterService.SECRET_HEADER, required = false) String secret) {
+        if (!clusterService.isAuthorized(secret)) {
+            return forbidden();
+        }
+        rebalancer.rebalance();
+        return ResponseEntity.accepted().body(rebalancer.getStats());
+    }
+
+    /**
+     * Recebe um jogo transferido por outro nó (corpo no formato do {@code GameCodec}).
+     */
+    @PutMapping(value = "/games/{gameId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> receiveGame(@PathVariable String gameId, @RequestBody byte[] data,
+            @RequestHeader(value = ClusterService.SECRET_HEADER, required = false) String secret) {
+        if (!clusterService.isAuthorized(secret)) {
+            return forbidden();
+        }
+        try {
+            Game game = rebalancer.receive(gameId, data);
+            log.debug("[cluster] jogo {} recebido (versão {})", gameId, game.getVersion());
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            log.warn("[cluster] jogo {} recebido inválido: {}", gameId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("detail", e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<?> forbidden() {
+        log.warn("[cluster] requisição de administração sem o segredo do cluster recusada");
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(Map.of("detail", "Segredo do cluster ausente ou inválido (jogoforca.cluster.secret)"));
+    }
+
+    private ResponseEntity<?> changeNodes(List<String> nodes, boolean propagate) {
+        try {
+            List<String> failed = rebalancer.changeNodes(nodes, propagate);
+            Map<String, Object> body = new LinkedHashMap<>(rebalancer.getStats());
+            body.put("propagation_failed", failed);
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("detail", e.getMessage()));
+        }
+    }
+}
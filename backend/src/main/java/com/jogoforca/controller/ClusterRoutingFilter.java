@@ -0,0 +1,196 @@
+package com.jogoforca.controller;
+
+import com.jogoforca.service.ClusterService;
+import com.jogoforca.service.GameRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Encaminha as requisições de {@code /api/game/{gameId}/**} ao nó dono do jogo quando ele
+ * não está neste nó. A resposta do dono é repassada em partes, o que também serve para o
+ * stream SSE de eventos.
+ * <p>
+ * Jogos presentes aqui são sempre atendidos localmente, mesmo que o anel já aponte outro
+ * dono: é o caso de um jogo ainda não transferido durante o rebalanceamento. Se o dono
+ * ainda não recebeu o jogo, a requisição volta ao dono anterior; o cabeçalho de saltos
+ * impede que ela circule indefinidamente.
+ */
+@Component
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRoutingFilter.class);
+
+    static final String HOPS_HEADER = "X-Jogoforca-Hops";
+    static final String NODE_HEADER = "X-Jogoforca-Node";
+    private static final String GAME_PATH = "/api/game/";
+    private static final int MAX_HOPS = 2;
+    private static final List<String> REQUEST_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, HttpHeaders.IF_NONE_MATCH, HttpHeaders.ORIGIN,
+            "Last-Event-ID");
+    private static final List<String> RESPONSE_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL, HttpHeaders.RETRY_AFTER,
+            HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, HttpHeaders.VARY);
+
+    private final ClusterService cluster;
+    private final GameRepository games;
+    private final RateLimitFilter rateLimitFilter;
+    private final Duration forwardTimeout;
+    private final HttpClient http;
+
+    public ClusterRoutingFilter(ClusterService cluster, GameRepository games, RateLimitFilter rateLimitFilter,
+            @Value("${jogoforca.cluster.forward-timeout:PT65S}") Duration forwardTimeout) {
+        this.cluster = cluster;
+        this.games = games;
+        this.rateLimitFilter = rateLimitFilter;
+        this.forwardTimeout = forwardTimeout;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(GAME_PATH) || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String gameId = gameIdOf(request.getRequestURI());
+        String target = gameId == null ? null : routeTo(gameId, hops(request));
+        if (target == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        // O encaminhamento não ocupa vaga de requisição simultânea neste nó
+        rateLimitFilter.releaseSlot(request);
+        forward(request, response, target);
+    }
+
+    /**
+     * Nó para onde encaminhar, ou {@code null} para atender aqui.
+     */
+    private String routeTo(String gameId, int hops) {
+        if (hops >= MAX_HOPS || games.contains(gameId)) {
+            return null;
+        }
+        String owner = cluster.owner(gameId);
+        if (!cluster.isSelf(owner)) {
+            return owner;
+        }
+        String previous = cluster.previousOwner(gameId);
+        return previous == null || cluster.isSelf(previous) ? null : previous;
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response, String target)
+            throws IOException {
+        String query = request.getQueryString();
+        URI uri = URI.create(target + request.getRequestURI() + (query == null ? "" : "?" + query));
+        HttpRequest.Builder builder = cluster.authenticate(HttpRequest.newBuilder(uri))
+                .header(HOPS_HEADER, String.valueOf(hops(request) + 1));
+        for (String name : REQUEST_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                builder.header(name, value);
+            }
+        }
+        // O stream de eventos fica aberto enquanto o cliente quiser
+        if (!isEventStream(request)) {
+            builder.timeout(forwardTimeout);
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        builder.method(request.getMethod(), body.length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(body));
+
+        HttpResponse<InputStream> upstream;
+        try {
+            upstream = http.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            cluster.recordForward(false);
+            log.warn("[cluster] falha ao encaminhar {} {} para {}: {}", request.getMethod(), uri, target, e.toString());
+            writeError(response, "Nó responsável pelo jogo indisponível: " + target);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, "Encaminhamento interrompido");
+            return;
+        }
+        cluster.recordForward(true);
+        log.debug("[cluster] {} {} -> {} ({})", request.getMethod(), request.getRequestURI(), target,
+                upstream.statusCode());
+
+        response.setStatus(upstream.statusCode());
+        for (String name : RESPONSE_HEADERS) {
+            upstream.headers().firstValue(name).ifPresent(value -> response.setHeader(name, value));
+        }
+        response.setHeader(NODE_HEADER, target);
+        try (InputStream in = upstream.body()) {
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+                // Repassa cada parte assim que chega (eventos SSE)
+                out.flush();
+            }
+        }
+    }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return request.getRequestURI().endsWith("/events") || request.getRequestURI().endsWith("/spectate")
+                || (accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+
+    private static void writeError(HttpServletResponse response, String detail) throws IOException {
+        if (response.isCommitted()) {
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_BAD_GATEWAY);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"detail\":\"" + detail.replace("\"", "'") + "\"}");
+    }
+
+    private static int hops(HttpServletRequest request) {
+        String value = request.getHeader(HOPS_HEADER);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return MAX_HOPS;
+        }
+    }
+
+    // "/api/game/{gameId}" ou "/api/game/{gameId}/..."; "/api/game/new" e os lotes não têm dono
+    static String gameIdOf(String uri) {
+        int start = GAME_PATH.length();
+        int end = uri.indexOf('/', start);
+        String gameId = end < 0 ? uri.substring(start) : uri.substring(start, end);
+        return gameId.isEmpty() || "new".equals(gameId) || "batch".equals(gameId) ? null : gameId;
+    }
+}
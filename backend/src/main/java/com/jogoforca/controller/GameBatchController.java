@@ -0,0 +1,216 @@
+package com.jogoforca.controller;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.jogoforca.model.BatchCreateRequest;
+import com.jogoforca.model.BatchGuessRequest;
+import com.jogoforca.model.BatchStateRequest;
+import com.jogoforca.service.BatchResult;
+import com.jogoforca.service.GameService;
+import com.jogoforca.service.RequestRateLimiter;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Versões em lote de criar jogo, adivinhar letra e consultar estado, para ferramentas que
+ * controlam muitas salas. Cada item tem o próprio resultado: {@code status} (o código que a
+ * requisição individual teria) e {@code body} ou {@code detail}.
+ * <p>
+ * Em cluster, os lotes atuam sobre os jogos do nó que recebeu a requisição; jogos de outro
+ * nó aparecem como não encontrados.
+ * <p>
+ * Com o controle de admissão ligado, cada item de criação custa {@code create-cost} fichas do
+ * balde do cliente e cada tentativa custa uma ficha do cliente e uma do jogo, como as
+ * requisições individuais. Itens sem fichas têm resultado 429 e não são executados. A
+ * consulta em lote custa uma ficha, como qualquer POST.
+ */
+@RestController
+@RequestMapping("/api/game/batch")
+@CrossOrigin(origins = "*")
+public class GameBatchController {
+
+    private static final Logger log = LoggerFactory.getLogger(GameBatchController.class);
+
+    private final GameService gameService;
+    private final GameResponseCache responseCache;
+    private final RequestRateLimiter limiter;
+    private final int maxItems;
+
+    public GameBatchController(GameService gameService, GameResponseCache responseCache, RequestRateLimiter limiter,
+            @Value("${jogoforca.batch.max-items:1000}") int maxItems) {
+        this.gameService = gameService;
+        this.responseCache = responseCache;
+        this.limiter = limiter;
+        this.maxItems = maxItems;
+    }
+
+    @PostMapping("/new")
+    public ResponseEntity<?> createGames(@Valid @RequestBody BatchCreateRequest request,
+            @RequestAttribute(name = RateLimitFilter.CLIENT_ATTRIBUTE, required = false) String client) {
+        ResponseEntity<?> tooLarge = checkSize(request.getGames().size());
+        if (tooLarge != null) {
+            return tooLarge;
+        }
+        log.debug("[batch] criando {} jogos", request.getGames().size());
+        long[] waits = admit(client, request.getGames().size(), limiter.createCost(), i -> null);
+        List<BatchResult<RawValue>> results = gameService.createGames(admitted(request.getGames(), waits),
+                responseCache::rawJson);
+        return ResponseEntity.ok(toResponse(merge(waits, results, i -> null), HttpStatus.BAD_REQUEST));
+    }
+
+    @PostMapping("/guess")
+    public ResponseEntity<?> guessLetters(@Valid @RequestBody BatchGuessRequest request,
+            @RequestAttribute(name = RateLimitFilter.CLIENT_ATTRIBUTE, required = false) String client) {
+        ResponseEntity<?> tooLarge = checkSize(request.getGuesses().size());
+        if (tooLarge != null) {
+            return tooLarge;
+        }
+        List<String> gameIds = new ArrayList<>(request.getGuesses().size());
+        List<String> letters = new ArrayList<>(request.getGuesses().size());
+        for (BatchGuessRequest.Guess guess : request.getGuesses()) {
+            if (guess == null || guess.getGameId() == null) {
+                return ResponseEntity.badRequest().body(Map.of("detail", "Toda tentativa precisa de gameId"));
+            }
+            gameIds.add(guess.getGameId());
+            letters.add(guess.getLetter());
+        }
+        log.debug("[batch] {} tentativas", gameIds.size());
+        long[] waits = admit(client, gameIds.size(), 1, gameIds::get);
+        List<BatchResult<Map<String, Object>>> results = gameService.guessLetters(admitted(gameIds, waits),
+                admitted(letters, waits));
+        return ResponseEntity.ok(toResponse(merge(waits, results, gameIds::get), HttpStatus.BAD_REQUEST));
+    }
+
+    @PostMapping("/state")
+    public ResponseEntity<?> gameStates(@Valid @RequestBody BatchStateRequest request) {
+        ResponseEntity<?> tooLarge = checkSize(request.getGameIds().size());
+        if (tooLarge != null) {
+            return tooLarge;
+        }
+        if (request.getGameIds().stream().anyMatch(Objects::isNull)) {
+            return ResponseEntity.badRequest().body(Map.of("detail", "Lista de jogos contém ID vazio"));
+        }
+        List<BatchResult<RawValue>> results = gameService.readGames(request.getGameIds(),
+                responseCache::rawJson);
+        return ResponseEntity.ok(toResponse(results, HttpStatus.NOT_FOUND));
+    }
+
+    private ResponseEntity<?> checkSize(int size) {
+        if (size > maxItems) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("detail", "Lote com " + size + " itens; o máximo é " + maxItems));
+        }
+        return null;
+    }
+
+    /**
+     * Cobra as fichas de cada item, na ordem do lote: 0 se liberado, ou ms até poder tentar
+     * de novo. Depois que o balde do cliente esvazia, os itens restantes são todos recusados.
+     * Sem cliente (controle de admissão desligado ou lote encaminhado), tudo é liberado.
+     *
+     * @param gameIdOf jogo do item, cujo balde também é cobrado, ou {@code null}
+     */
+    private long[] admit(String client, int size, int cost, IntFunction<String> gameIdOf) {
+        long[] waits = new long[size];
+        if (client == null) {
+            return waits;
+        }
+        for (int i = 0; i < size; i++) {
+            long waitMs = limiter.acquireClient(client, cost);
+            if (waitMs > 0) {
+                log.debug("[batch] cliente {} sem fichas a partir do item {} de {}", client, i, size);
+                Arrays.fill(waits, i, size, waitMs);
+                break;
+            }
+            String gameId = gameIdOf.apply(i);
+            waits[i] = gameId == null ? 0 : limiter.acquireGame(gameId);
+        }
+        return waits;
+    }
+
+    private static <T> List<T> admitted(List<T> items, long[] waits) {
+        List<T> admitted = new ArrayList<>(items.size());
+        for (int i = 0; i < waits.length; i++) {
+            if (waits[i] == 0) {
+                admitted.add(items.get(i));
+            }
+        }
+        return admitted;
+    }
+
+    // Resultados dos itens liberados, na ordem, intercalados com os recusados
+    private static <T> List<BatchResult<T>> merge(long[] waits, List<BatchResult<T>> results,
+            IntFunction<String> gameIdOf) {
+        List<BatchResult<T>> merged = new ArrayList<>(waits.length);
+        Iterator<BatchResult<T>> admitted = results.iterator();
+        for (int i = 0; i < waits.length; i++) {
+            merged.add(waits[i] == 0 ? admitted.next()
+                    : new BatchResult<>(gameIdOf.apply(i), null, new ThrottledException(waits[i])));
+        }
+        return merged;
+    }
+
+    /**
+     * Item recusado pelo controle de admissão.
+     */
+    private static final class ThrottledException extends RuntimeException {
+        private final long waitMs;
+
+        ThrottledException(long waitMs) {
+            super("Muitas requisições; tente novamente em instantes", null, false, false);
+            this.waitMs = waitMs;
+        }
+    }
+
+    /**
+     * @param clientError status dos erros de validação ({@code IllegalArgumentException} e
+     *                    {@code IllegalStateException}), como no endpoint individual
+     */
+    private static Map<String, Object> toResponse(List<? extends BatchResult<?>> results, HttpStatus clientError) {
+        List<Map<String, Object>> items = new ArrayList<>(results.size());
+        int failed = 0;
+        for (BatchResult<?> result : results) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("game_id", result.gameId());
+            if (result.isOk()) {
+                item.put("status", HttpStatus.OK.value());
+                item.put("body", result.value());
+            } else {
+                failed++;
+                RuntimeException e = result.error();
+                if (e instanceof ThrottledException throttled) {
+                    item.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+                    item.put("detail", e.getMessage());
+                    item.put("retry_after_ms", throttled.waitMs);
+                    items.add(item);
+                    continue;
+                }
+                boolean isClientError = e instanceof IllegalArgumentException || e instanceof IllegalStateException;
+                if (!isClientError) {
+                    log.error("[batch] erro no jogo {}", result.gameId(), e);
+                }
+                item.put("status", (isClientError ? clientError : HttpStatus.INTERNAL_SERVER_ERROR).value());
+                item.put("detail", e.getMessage());
+            }
+            items.add(item);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("results", items);
+        response.put("succeeded", results.size() - failed);
+        response.put("failed", failed);
+        return response;
+    }
+}
@@ -5,13 +5,21 @@ import com.jogoforca.model.GameConfig;
 import com.jogoforca.model.GuessLetter;
 import com.jogoforca.model.JoinGameRequest;
 import com.jogoforca.model.WordSubmit;
+import com.jogoforca.service.GameHistory;
 import com.jogoforca.service.GameService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,10 +30,23 @@ import org.slf4j.LoggerFactory;
 public class GameController {
 
     private final GameService gameService;
+    private final GameEventStreams gameEventStreams;
+    private final GameVersionWaiters gameVersionWaiters;
+    private final GameResponseCache responseCache;
+    private final GameHistory gameHistory;
+    private final GameSpectators gameSpectators;
     private static final Logger log = LoggerFactory.getLogger(GameController.class);
+    private static final long MAX_LONG_POLL_MS = 60_000;
 
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, GameEventStreams gameEventStreams,
+            GameVersionWaiters gameVersionWaiters, GameResponseCache responseCache, GameHistory gameHistory,
+            GameSpectators gameSpectators) {
         this.gameService = gameService;
+        this.gameEventStreams = gameEventStreams;
+        this.gameVersionWaiters = gameVersionWaiters;
+        this.responseCache = responseCache;
+        this.gameHistory = gameHistory;
+        this.gameSpectators = gameSpectators;
     }
 
     @PostMapping("/new")
@@ -33,9 +54,9 @@ public class GameController {
         try {
             log.debug("[createGame] payload mode={}, players={} ", config.getMode(), config.getPlayers());
             Game game = gameService.createGame(config);
-            Map<String, Object> resp = convertToResponse(game);
+            ResponseEntity<byte[]> resp = convertToResponse(game);
             log.debug("[createGame] created gameId={} status={}", game.getGameId(), game.getGameStatus());
-            return ResponseEntity.ok(resp);
+            return resp;
         } catch (IllegalArgumentException e) {
             log.warn("[createGame] bad request: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("detail", e.getMessage()));
@@ -47,26 +68,35 @@ public class GameController {
     }
 
     @PostMapping("/{gameId}/submit-word")
-    public ResponseEntity<?> submitWord(@PathVariable String gameId,
+    public Mono<ResponseEntity<?>> submitWord(@PathVariable String gameId,
             @Valid @RequestBody WordSubmit wordSubmit) {
         try {
             log.debug("[submitWord] gameId={} wordLength={} hint={} generateHint={}", gameId,
                     wordSubmit.getWord() != null ? wordSubmit.getWord().length() : null,
                     wordSubmit.getHint(), wordSubmit.getGenerateHint());
-            Game game = gameService.submitWord(gameId, wordSubmit.getWord(),
-                    wordSubmit.getHint(), wordSubmit.getGenerateHint());
-            Map<String, Object> resp = convertToResponse(game);
-            log.debug("[submitWord] gameId={} -> status={} guesser={} hint={}", gameId, game.getGameStatus(),
-                    game.getWordGuesser(), game.getHint() != null ? "presente" : "ausente");
-            return ResponseEntity.ok(resp);
-        } catch (IllegalArgumentException | IllegalStateException e) {
+            return gameService.submitWordAsync(gameId, wordSubmit.getWord(),
+                    wordSubmit.getHint(), wordSubmit.getGenerateHint())
+                    .<ResponseEntity<?>>map(game -> {
+                        ResponseEntity<byte[]> resp = convertToResponse(game);
+                        log.debug("[submitWord] gameId={} -> status={} guesser={} hint={}", gameId,
+                                game.getGameStatus(), game.getWordGuesser(),
+                                game.getHint() != null ? "presente" : "ausente");
+                        return resp;
+                    })
+                    .onErrorResume(e -> Mono.just(submitWordError(gameId, e)));
+        } catch (Exception e) {
+            return Mono.just(submitWordError(gameId, e));
+        }
+    }
+
+    private ResponseEntity<?> submitWordError(String gameId, Throwable e) {
+        if (e instanceof IllegalArgumentException || e instanceof IllegalStateException) {
             log.warn("[submitWord] bad request for gameId {}: {}", gameId, e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("detail", e.getMessage()));
-        } catch (Exception e) {
-            log.error("[submitWord] error gameId={}", gameId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("detail", "Erro ao submeter palavra: " + e.getMessage()));
         }
+        log.error("[submitWord] error gameId={}", gameId, e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("detail", "Erro ao submeter palavra: " + e.getMessage()));
     }
 
     @PostMapping("/{gameId}/guess")
@@ -93,10 +123,10 @@ public class GameController {
         try {
             log.debug("[join] gameId={} player={}", gameId, joinGameRequest.getPlayer());
             Game game = gameService.joinGame(gameId, joinGameRequest.getPlayer());
-            Map<String, Object> resp = convertToResponse(game);
+            ResponseEntity<byte[]> resp = convertToResponse(game);
             log.debug("[join] gameId={} players={} status={} creator={} guesser={} ", gameId, game.getPlayers(),
                     game.getGameStatus(), game.getWordCreator(), game.getWordGuesser());
-            return ResponseEntity.ok(resp);
+            return resp;
         } catch (IllegalArgumentException | IllegalStateException e) {
             log.warn("[join] bad request for gameId {}: {}", gameId, e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("detail", e.getMessage()));
@@ -108,14 +138,20 @@ public class GameController {
     }
 
     @GetMapping("/{gameId}")
-    public ResponseEntity<?> getGameState(@PathVariable String gameId) {
+    public ResponseEntity<?> getGameState(@PathVariable String gameId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             log.debug("[state] gameId={} requested", gameId);
             Game game = gameService.getGame(gameId);
-            Map<String, Object> resp = convertToResponse(game);
-            log.debug("[state] gameId={} status={} attemptsLeft={} guessedLetters={} ", gameId, game.getGameStatus(),
-                    game.getAttemptsLeft(), game.getGuessedLetters());
-            return ResponseEntity.ok(resp);
+            return gameService.read(game, g -> {
+                String etag = GameResponses.etag(g);
+                if (GameResponses.matchesEtag(ifNoneMatch, etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                }
+                log.debug("[state] gameId={} status={} attemptsLeft={} guessedLetters={} ", gameId,
+                        g.getGameStatus(), g.getAttemptsLeft(), g.getGuessedLetters());
+                return responseCache.stateResponse(g);
+            });
         } catch (IllegalArgumentException e) {
             log.warn("[state] not found gameId {}: {}", gameId, e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -127,15 +163,126 @@ public class GameController {
         }
     }
 
+    /**
+     * Long-poll: responde assim que a versão do jogo for diferente de {@code waitForVersion},
+     * ou com 304 ao fim de {@code timeout} milissegundos sem alterações.
+     */
+    @GetMapping(value = "/{gameId}", params = "waitForVersion")
+    public DeferredResult<ResponseEntity<?>> waitForGameState(@PathVariable String gameId,
+            @RequestParam long waitForVersion,
+            @RequestParam(defaultValue = "25000") long timeout) {
+        long timeoutMs = Math.max(1, Math.min(timeout, MAX_LONG_POLL_MS));
+        try {
+            log.debug("[state] gameId={} waitForVersion={} timeout={}", gameId, waitForVersion, timeoutMs);
+            Game game = gameService.getGame(gameId);
+            // Registrar sob o lock do jogo: nenhuma alteração passa entre a checagem e o registro
+            return gameService.read(game, g -> {
+                ResponseEntity<?> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(GameResponses.etag(g)).build();
+                DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(timeoutMs, notModified);
+                gameVersionWaiters.await(g, waitForVersion, result);
+                return result;
+            });
+        } catch (IllegalArgumentException e) {
+            log.warn("[state] not found gameId {}: {}", gameId, e.getMessage());
+            DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+            result.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("detail", e.getMessage())));
+            return result;
+        }
+    }
+
+    @GetMapping(value = "/{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGameEvents(@PathVariable String gameId) {
+        try {
+            log.debug("[events] gameId={} subscribe", gameId);
+            Game game = gameService.getGame(gameId);
+            return ResponseEntity.ok(gameService.read(game, gameEventStreams::subscribe));
+        } catch (IllegalArgumentException e) {
+            log.warn("[events] not found gameId {}: {}", gameId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalStateException e) {
+            log.warn("[events] rejected gameId {}: {}", gameId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    /**
+     * Assiste ao jogo sem participar: um evento {@code state} com o estado completo na entrada
+     * e a cada alteração. Não altera {@code players} nem conta no limite de jogadores.
+     */
+    @GetMapping(value = "/{gameId}/spectate", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> spectateGame(@PathVariable String gameId) {
+        try {
+            log.debug("[spectate] gameId={} subscribe", gameId);
+            Game game = gameService.getGame(gameId);
+            return ResponseEntity.ok(gameService.read(game, gameSpectators::subscribe));
+        } catch (IllegalArgumentException e) {
+            log.warn("[spectate] not found gameId {}: {}", gameId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalStateException e) {
+            log.warn("[spectate] rejected gameId {}: {}", gameId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    /**
+     * Eventos posteriores à versão {@code since}, para um cliente que já tem o estado nela,
+     * lidos direto do histórico. Se o histórico não alcança {@code since} (eventos mais antigos
+     * descartados, jogo restaurado da persistência ou vindo de outro nó depois dessa versão),
+     * responde {@code reset: true} com o estado completo.
+     */
+    @GetMapping(value = "/{gameId}/events", params = "since")
+    public ResponseEntity<?> gameEventsSince(@PathVariable String gameId, @RequestParam long since) {
+        try {
+            log.debug("[history] gameId={} since={}", gameId, since);
+            Game game = gameService.getGame(gameId);
+            return ResponseEntity.ok(gameService.read(game, g -> {
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("game_id", gameId);
+                body.put("version", g.getVersion());
+                List<Map<String, Object>> events = new ArrayList<>();
+                if (since >= g.getVersion() || eventsSince(g, since, events)) {
+                    body.put("reset", false);
+                    body.put("events", events);
+                } else {
+                    body.put("reset", true);
+                    body.put("state", responseCache.rawJson(g));
+                }
+                return body;
+            }));
+        } catch (IllegalArgumentException e) {
+            log.warn("[history] not found gameId {}: {}", gameId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("detail", e.getMessage()));
+        }
+    }
+
+    // Eventos após since com o estado gravado depois de cada um; false se não chega à versão atual
+    private boolean eventsSince(Game game, long since, List<Map<String, Object>> events) {
+        long[] lastSeq = {since};
+        try {
+            boolean covered = gameHistory.eventsSince(game.getGameId(), since, (event, state) -> {
+                lastSeq[0] = event.seq();
+                events.add(GameResponses.eventToMap(event, state));
+            });
+            return covered && lastSeq[0] == game.getVersion();
+        } catch (RuntimeException e) {
+            log.warn("[history] falha ao ler o histórico do jogo {}: {}", game.getGameId(), e.getMessage());
+            events.clear();
+            return false;
+        }
+    }
+
     @PostMapping("/{gameId}/next-round")
     public ResponseEntity<?> nextRound(@PathVariable String gameId) {
         try {
             log.debug("[nextRound] gameId={} requested", gameId);
             Game game = gameService.nextRound(gameId);
-            Map<String, Object> resp = convertToResponse(game);
+            ResponseEntity<byte[]> resp = convertToResponse(game);
             log.debug("[nextRound] gameId={} -> status={} round={} creator={} guesser={}", gameId, game.getGameStatus(),
                     game.getCurrentRound(), game.getWordCreator(), game.getWordGuesser());
-            return ResponseEntity.ok(resp);
+            return resp;
         } catch (IllegalArgumentException | IllegalStateException e) {
             log.warn("[nextRound] bad request for gameId {}: {}", gameId, e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("detail", e.getMessage()));
@@ -153,9 +300,9 @@ public class GameController {
             String player = request.get("player");
             log.debug("[abandon] gameId={} player={}", gameId, player);
             Game game = gameService.abandonGame(gameId, player);
-            Map<String, Object> resp = convertToResponse(game);
+            ResponseEntity<byte[]> resp = convertToResponse(game);
             log.debug("[abandon] gameId={} status={} players={}", gameId, game.getGameStatus(), game.getPlayers());
-            return ResponseEntity.ok(resp);
+            return resp;
         } catch (IllegalArgumentException | IllegalStateException e) {
             log.warn("[abandon] bad request for gameId {}: {}", gameId, e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("detail", e.getMessage()));
@@ -183,25 +330,7 @@ public class GameController {
         }
     }
 
-    private Map<String, Object> convertToResponse(Game game) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("game_id", game.getGameId());
-        response.put("mode", game.getMode());
-        response.put("players", game.getPlayers());
-        response.put("current_round", game.getCurrentRound());
-        response.put("max_rounds", game.getMaxRounds());
-        response.put("scores", game.getScores());
-        response.put("word_creator", game.getWordCreator() != null ? game.getWordCreator() : "");
-        response.put("word_guesser", game.getWordGuesser() != null ? game.getWordGuesser() : "");
-        response.put("word_length", game.getWordLength() != null ? game.getWordLength() : 0);
-        response.put("hint", game.getHint() != null ? game.getHint() : "");
-        response.put("guessed_letters", game.getGuessedLetters());
-        response.put("correct_positions", game.getCorrectPositions());
-        response.put("attempts_left", game.getAttemptsLeft());
-        response.put("max_attempts", game.getMaxAttempts());
-        response.put("game_status", game.getGameStatus());
-        response.put("round_winner", game.getRoundWinner() != null ? game.getRoundWinner() : "");
-        response.put("game_winner", game.getGameWinner() != null ? game.getGameWinner() : "");
-        return response;
+    private ResponseEntity<byte[]> convertToResponse(Game game) {
+        return gameService.read(game, responseCache::stateResponse);
     }
 }
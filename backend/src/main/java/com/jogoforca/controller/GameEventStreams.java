@@ -0,0 +1,363 @@
+package com.jogoforca.controller;
+
+import com.jogoforca.model.Game;
+import com.jogoforca.service.GameChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registro de assinantes SSE por jogo.
+ * <p>
+ * Ao assinar, o cliente recebe um evento {@code snapshot} com o estado completo. Depois,
+ * a cada alteração feita pelo {@code GameService}, recebe um evento {@code delta} apenas
+ * com os campos que mudaram. Jogos sem assinantes não geram trabalho algum.
+ * <p>
+ * O envio acontece fora da thread que alterou o jogo. Cada assinante tem no máximo um
+ * envio em andamento; alterações que chegam nesse meio tempo são agregadas em um único
+ * delta, de modo que clientes lentos não acumulam fila.
+ */
+@Component
+public class GameEventStreams {
+
+    private static final Logger log = LoggerFactory.getLogger(GameEventStreams.class);
+
+    private final Map<String, GameStream> streams = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final long emitterTimeoutMs;
+    private final long stalledSendNanos;
+    private final int maxSubscribersPerGame;
+
+    public GameEventStreams(@Value("${jogoforca.events.emitter-timeout:PT30M}") Duration emitterTimeout,
+            @Value("${jogoforca.events.stalled-send-timeout:PT30S}") Duration stalledSendTimeout,
+            @Value("${jogoforca.events.max-subscribers-per-game:50}") int maxSubscribersPerGame,
+            @Value("${jogoforca.events.dispatch-threads:4}") int dispatchThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.emitterTimeoutMs = emitterTimeout.toMillis();
+        this.stalledSendNanos = stalledSendTimeout.toNanos();
+        this.maxSubscribersPerGame = maxSubscribersPerGame;
+        if (virtualThreads) {
+            // Um envio por thread virtual: escrita lenta em um socket não ocupa uma thread do pool
+            this.dispatcher = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("sse-dispatch-", 1).factory());
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, r -> {
+                Thread t = new Thread(r, "sse-dispatch-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streams.values().forEach(GameStream::completeAll);
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Registra um novo assinante para o jogo e agenda o envio do estado atual.
+     */
+    public SseEmitter subscribe(Game game) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        while (true) {
+            GameStream stream = streams.computeIfAbsent(game.getGameId(), GameStream::new);
+            if (stream.subscribers.size() >= maxSubscribersPerGame) {
+                throw new IllegalStateException("Limite de conexões para este jogo atingido");
+            }
+            Subscriber subscriber = new Subscriber(stream, emitter);
+            // Um stream recém-fechado (último assinante saiu) não aceita mais ninguém; tenta de novo
+            if (stream.add(subscriber, game)) {
+                emitter.onCompletion(() -> stream.remove(subscriber));
+                emitter.onTimeout(() -> stream.remove(subscriber));
+                emitter.onError(e -> stream.remove(subscriber));
+                return emitter;
+            }
+        }
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event) {
+        GameStream stream = streams.get(event.gameId());
+        if (stream == null) {
+            return;
+        }
+        if (GameChangedEvent.MIGRATED_OUT.equals(event.action())) {
+            // O jogo continua em outro nó: o EventSource reconecta e é encaminhado ao novo dono
+            stream.close("moved", Map.of("game_id", event.gameId()));
+            return;
+        }
+        if (event.isDeleted()) {
+            stream.close("deleted", Map.of("game_id", event.gameId(), "reason", event.action()));
+            return;
+        }
+        stream.publishChange(event.game());
+    }
+
+    /**
+     * Mantém as conexões vivas através de proxies e detecta assinantes travados.
+     */
+    @Scheduled(fixedDelayString = "${jogoforca.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (GameStream stream : streams.values()) {
+            for (Subscriber subscriber : stream.subscribers) {
+                long sendStarted = subscriber.sendStartedAt;
+                if (sendStarted != 0 && now - sendStarted > stalledSendNanos) {
+                    log.debug("[events] assinante lento removido gameId={}", stream.gameId);
+                    subscriber.emitter.completeWithError(new IOException("Envio SSE travado"));
+                    stream.remove(subscriber);
+                } else {
+                    subscriber.enqueueHeartbeat();
+                }
+            }
+        }
+    }
+
+    public int subscriberCount(String gameId) {
+        GameStream stream = streams.get(gameId);
+        return stream == null ? 0 : stream.subscribers.size();
+    }
+
+    private final class GameStream {
+        private final String gameId;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        // Último estado enviado; base para o cálculo dos deltas
+        private Map<String, Object> lastState;
+        private boolean closed;
+
+        GameStream(String gameId) {
+            this.gameId = gameId;
+        }
+
+        boolean add(Subscriber subscriber, Game game) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                lastState = snapshot(game);
+                subscribers.add(subscriber);
+                subscriber.enqueue("snapshot", lastState);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(Subscriber subscriber) {
+            lock.lock();
+            try {
+                subscribers.remove(subscriber);
+                if (subscribers.isEmpty() && !closed) {
+                    closed = true;
+                    streams.remove(gameId, this);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void publishChange(Game game) {
+            lock.lock();
+            try {
+                if (subscribers.isEmpty()) {
+                    return;
+                }
+                Map<String, Object> state = snapshot(game);
+                Map<String, Object> delta = diff(lastState, state);
+                lastState = state;
+                if (!delta.isEmpty()) {
+                    subscribers.forEach(s -> s.enqueue("delta", delta));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close(String eventName, Map<String, Object> data) {
+            lock.lock();
+            try {
+                closed = true;
+                streams.remove(gameId, this);
+                subscribers.forEach(s -> s.enqueueFinal(eventName, data));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void completeAll() {
+            subscribers.forEach(s -> s.emitter.complete());
+        }
+    }
+
+    private final class Subscriber {
+        private final GameStream stream;
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        // Dados pendentes agregados enquanto um envio está em andamento
+        private String pendingEvent;
+        private Map<String, Object> pendingData;
+        private boolean pendingHeartbeat;
+        private boolean completeAfterSend;
+        private boolean sending;
+        private volatile long sendStartedAt;
+
+        Subscriber(GameStream stream, SseEmitter emitter) {
+            this.stream = stream;
+            this.emitter = emitter;
+        }
+
+        void enqueue(String eventName, Map<String, Object> data) {
+            lock.lock();
+            try {
+                if (pendingData == null) {
+                    pendingEvent = eventName;
+                    pendingData = new LinkedHashMap<>(data);
+                } else {
+                    // Um snapshot pendente absorve os deltas seguintes e continua sendo snapshot
+                    pendingData.putAll(data);
+                }
+                scheduleLocked();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void enqueueFinal(String eventName, Map<String, Object> data) {
+            lock.lock();
+            try {
+                pendingEvent = eventName;
+                pendingData = new LinkedHashMap<>(data);
+                completeAfterSend = true;
+                scheduleLocked();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void enqueueHeartbeat() {
+            lock.lock();
+            try {
+                if (!sending && pendingData == null) {
+                    pendingHeartbeat = true;
+                    scheduleLocked();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void scheduleLocked() {
+            if (sending) {
+                return;
+            }
+            sending = true;
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RuntimeException e) {
+                sending = false;
+                log.warn("[events] não foi possível agendar envio para gameId={}: {}", stream.gameId, e.getMessage());
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                String eventName;
+                Map<String, Object> data;
+                boolean heartbeat;
+                boolean complete;
+                lock.lock();
+                try {
+                    if (pendingData == null && !pendingHeartbeat) {
+                        sending = false;
+                        return;
+                    }
+                    eventName = pendingEvent;
+                    data = pendingData;
+                    heartbeat = pendingHeartbeat;
+                    complete = completeAfterSend;
+                    pendingEvent = null;
+                    pendingData = null;
+                    pendingHeartbeat = false;
+                    completeAfterSend = false;
+                } finally {
+                    lock.unlock();
+                }
+
+                sendStartedAt = System.nanoTime();
+                try {
+                    if (data != null) {
+                        emitter.send(SseEmitter.event().name(eventName).data(data));
+                    } else if (heartbeat) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                    if (complete) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Cliente desconectou; o emitter já foi finalizado
+                    stream.remove(this);
+                    lock.lock();
+                    try {
+                        sending = false;
+                    } finally {
+                        lock.unlock();
+                    }
+                    return;
+                } finally {
+                    sendStartedAt = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Cópia do estado com coleções copiadas, para que o delta compare valores e não referências.
+     */
+    private static Map<String, Object> snapshot(Game game) {
+        Map<String, Object> state = GameResponses.toMap(game);
+        state.replaceAll((key, value) -> {
+            if (value instanceof List<?> list) {
+                return new ArrayList<>(list);
+            }
+            if (value instanceof Map<?, ?> map) {
+                return new HashMap<>(map);
+            }
+            return value;
+        });
+        return state;
+    }
+
+    private static Map<String, Object> diff(Map<String, Object> previous, Map<String, Object> current) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            if (previous == null || !Objects.equals(previous.get(entry.getKey()), entry.getValue())) {
+                delta.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return delta;
+    }
+}
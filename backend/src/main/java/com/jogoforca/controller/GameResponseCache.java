@@ -0,0 +1,98 @@
+package com.jogoforca.controller;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.jogoforca.model.Game;
+import com.jogoforca.service.GameChangedEvent;
+import com.jogoforca.service.GameRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JSON do estado de cada jogo, codificado uma vez por versão e reaproveitado por todas as
+ * leituras (polling, long-poll, respostas das alterações, lotes e espectadores).
+ * <p>
+ * Toda alteração feita pelo {@code GameService} incrementa a versão do jogo, então uma
+ * entrada com versão diferente da atual é recodificada na próxima leitura. Deve ser
+ * consultado sob o lock do jogo.
+ */
+@Component
+public class GameResponseCache {
+
+    private record Entry(long version, String etag, byte[] json) {
+    }
+
+    private final GameRepository games;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public GameResponseCache(GameRepository games) {
+        this.games = games;
+    }
+
+    /**
+     * Resposta 200 com o JSON e o ETag da versão atual.
+     */
+    ResponseEntity<byte[]> stateResponse(Game game) {
+        Entry entry = entry(game);
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.json());
+    }
+
+    /**
+     * O mesmo JSON, para ser embutido sem nova serialização em outra resposta.
+     */
+    RawValue rawJson(Game game) {
+        return new RawValue(new String(entry(game).json(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Bytes do JSON da versão atual; não devem ser alterados.
+     */
+    byte[] json(Game game) {
+        return entry(game).json();
+    }
+
+    private Entry entry(Game game) {
+        Entry entry = entries.get(game.getGameId());
+        if (entry != null && entry.version() == game.getVersion()) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        entry = new Entry(game.getVersion(), GameResponses.etag(game), GameResponses.toJson(game));
+        // Um jogo já removido (lido por quem o obteve antes da remoção) não volta ao cache
+        if (games.contains(game.getGameId())) {
+            entries.put(game.getGameId(), entry);
+        }
+        return entry;
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event) {
+        if (event.isDeleted()) {
+            entries.remove(event.gameId());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hit_ratio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return stats;
+    }
+}
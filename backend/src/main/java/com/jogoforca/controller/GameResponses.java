@@ -0,0 +1,186 @@
+package com.jogoforca.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.jogoforca.model.Game;
+import com.jogoforca.service.GameEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversão do estado de um {@link Game} para o formato JSON exposto pela API.
+ * <p>
+ * {@link #toJson(Game)} escreve os bytes direto com o {@link JsonGenerator}, sem mapa
+ * intermediário nem reflexão; {@link #toMap(Game)} é usado onde os campos precisam ser
+ * comparados (deltas do SSE).
+ */
+final class GameResponses {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private GameResponses() {
+    }
+
+    static Map<String, Object> toMap(Game game) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("game_id", game.getGameId());
+        response.put("mode", game.getMode());
+        response.put("players", game.getPlayers());
+        response.put("current_round", game.getCurrentRound());
+        response.put("max_rounds", game.getMaxRounds());
+        response.put("scores", game.getScores());
+        response.put("word_creator", game.getWordCreator() != null ? game.getWordCreator() : "");
+        response.put("word_guesser", game.getWordGuesser() != null ? game.getWordGuesser() : "");
+        response.put("word_length", game.getWordLength() != null ? game.getWordLength() : 0);
+        response.put("hint", game.getHint() != null ? game.getHint() : "");
+        response.put("guessed_letters", game.getGuessedLetters());
+        response.put("correct_positions", game.getCorrectPositions());
+        response.put("attempts_left", game.getAttemptsLeft());
+        response.put("max_attempts", game.getMaxAttempts());
+        response.put("game_status", game.getGameStatus());
+        response.put("round_winner", game.getRoundWinner() != null ? game.getRoundWinner() : "");
+        response.put("game_winner", game.getGameWinner() != null ? game.getGameWinner() : "");
+        response.put("cpu_level", game.getCpuLevel() != null ? game.getCpuLevel() : "");
+        response.put("version", game.getVersion());
+        return response;
+    }
+
+    static byte[] toJson(Game game) {
+        try (ByteArrayBuilder out = new ByteArrayBuilder(512);
+                JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeStringField("game_id", game.getGameId());
+            json.writeStringField("mode", game.getMode());
+            writeStrings(json, "players", game.getPlayers());
+            json.writeNumberField("current_round", game.getCurrentRound());
+            json.writeNumberField("max_rounds", game.getMaxRounds());
+            json.writeFieldName("scores");
+            if (game.getScores() == null) {
+                json.writeNull();
+            } else {
+                json.writeStartObject();
+                for (Map.Entry<String, Integer> score : game.getScores().entrySet()) {
+                    json.writeNumberField(score.getKey(), score.getValue());
+                }
+                json.writeEndObject();
+            }
+            json.writeStringField("word_creator", orEmpty(game.getWordCreator()));
+            json.writeStringField("word_guesser", orEmpty(game.getWordGuesser()));
+            json.writeNumberField("word_length", game.getWordLength() != null ? game.getWordLength() : 0);
+            json.writeStringField("hint", orEmpty(game.getHint()));
+            writeStrings(json, "guessed_letters", game.getGuessedLetters());
+            json.writeFieldName("correct_positions");
+            if (game.getCorrectPositions() == null) {
+                json.writeNull();
+            } else {
+                json.writeStartObject();
+                for (Map.Entry<String, List<Integer>> entry : game.getCorrectPositions().entrySet()) {
+                    json.writeArrayFieldStart(entry.getKey());
+                    for (int position : entry.getValue()) {
+                        json.writeNumber(position);
+                    }
+                    json.writeEndArray();
+                }
+                json.writeEndObject();
+            }
+            json.writeNumberField("attempts_left", game.getAttemptsLeft());
+            json.writeNumberField("max_attempts", game.getMaxAttempts());
+            json.writeStringField("game_status", game.getGameStatus());
+            json.writeStringField("round_winner", orEmpty(game.getRoundWinner()));
+            json.writeStringField("game_winner", orEmpty(game.getGameWinner()));
+            json.writeStringField("cpu_level", orEmpty(game.getCpuLevel()));
+            json.writeNumberField("version", game.getVersion());
+            json.writeEndObject();
+            json.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Evento do histórico com a entrada pública da operação e os campos do estado logo depois
+     * dele, o bastante para um cliente na versão anterior acompanhar sem pedir o estado todo.
+     * A palavra secreta só aparece na tentativa que encerra a rodada, como na resposta de
+     * {@code /guess}.
+     */
+    static Map<String, Object> eventToMap(GameEvent event, Game game) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("seq", event.seq());
+        response.put("type", event.type().action());
+        switch (event.type()) {
+            case CREATED -> {
+                response.put("mode", game.getMode());
+                response.put("max_rounds", game.getMaxRounds());
+                response.put("cpu_level", orEmpty(game.getCpuLevel()));
+            }
+            case JOIN, ABANDON -> response.put("player", event.arg(0));
+            case SUBMIT_WORD -> response.put("hint", orEmpty(game.getHint()));
+            case GUESS -> {
+                String letter = event.arg(0);
+                response.put("letter", letter);
+                response.put("positions", game.getCorrectPositions().getOrDefault(letter, List.of()));
+                if (!"playing".equals(game.getGameStatus())) {
+                    response.put("revealed_word", game.getSecretWord());
+                }
+            }
+            case NEXT_ROUND -> {
+            }
+        }
+        response.put("players", game.getPlayers());
+        response.put("current_round", game.getCurrentRound());
+        response.put("word_creator", orEmpty(game.getWordCreator()));
+        response.put("word_guesser", orEmpty(game.getWordGuesser()));
+        response.put("word_length", game.getWordLength() != null ? game.getWordLength() : 0);
+        response.put("attempts_left", game.getAttemptsLeft());
+        response.put("game_status", game.getGameStatus());
+        response.put("round_winner", orEmpty(game.getRoundWinner()));
+        response.put("game_winner", orEmpty(game.getGameWinner()));
+        response.put("scores", game.getScores());
+        return response;
+    }
+
+    private static void writeStrings(JsonGenerator json, String field, List<String> values) throws IOException {
+        json.writeFieldName(field);
+        if (values == null) {
+            json.writeNull();
+            return;
+        }
+        json.writeStartArray();
+        for (String value : values) {
+            json.writeString(value);
+        }
+        json.writeEndArray();
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    static String etag(Game game) {
+        return "\"" + game.getGameId() + "-" + game.getVersion() + "\"";
+    }
+
+    static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if ("*".equals(value) || etag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
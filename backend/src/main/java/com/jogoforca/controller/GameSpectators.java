@@ -0,0 +1,374 @@
+package com.jogoforca.controller;
+
+import com.jogoforca.model.Game;
+import com.jogoforca.service.GameChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Espectadores de jogos: assinantes SSE somente leitura, que não entram em {@code players}
+ * e não contam no limite de participantes.
+ * <p>
+ * Cada jogo assistido tem uma sala com um único fluxo de difusão. A cada versão o evento
+ * {@code state} é montado uma vez, com o JSON do {@link GameResponseCache}, e os mesmos
+ * bytes são escritos para todos os espectadores. A alteração do jogo só guarda o quadro
+ * mais recente da sala; a distribuição acontece fora do lock do jogo, em uma tarefa por sala.
+ * <p>
+ * Cada espectador guarda no máximo um quadro pendente: quem ainda está recebendo uma versão
+ * pula direto para a mais recente (as intermediárias são descartadas). Espectadores com
+ * envio travado além de {@code stalled-send-timeout} são desconectados.
+ */
+@Component
+public class GameSpectators {
+
+    private static final Logger log = LoggerFactory.getLogger(GameSpectators.class);
+
+    private static final Frame PING = new Frame(encode(": ping\n\n"), 0, false);
+
+    // Evento SSE já codificado; version ordena os quadros de estado, last encerra a conexão
+    private record Frame(Set<DataWithMediaType> data, long version, boolean last) {
+    }
+
+    private final GameResponseCache responseCache;
+    private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final long emitterTimeoutMs;
+    private final long stalledSendNanos;
+    private final int maxPerGame;
+
+    private final LongAdder subscriptions = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder framesEncoded = new LongAdder();
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder framesCoalesced = new LongAdder();
+    private final LongAdder stalledDropped = new LongAdder();
+
+    public GameSpectators(GameResponseCache responseCache,
+            @Value("${jogoforca.spectators.emitter-timeout:PT30M}") Duration emitterTimeout,
+            @Value("${jogoforca.events.stalled-send-timeout:PT30S}") Duration stalledSendTimeout,
+            @Value("${jogoforca.spectators.max-per-game:5000}") int maxPerGame,
+            @Value("${jogoforca.spectators.dispatch-threads:8}") int dispatchThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.responseCache = responseCache;
+        this.emitterTimeoutMs = emitterTimeout.toMillis();
+        this.stalledSendNanos = stalledSendTimeout.toNanos();
+        this.maxPerGame = maxPerGame;
+        if (virtualThreads) {
+            this.dispatcher = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("spectate-dispatch-", 1).factory());
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, r -> {
+                Thread t = new Thread(r, "spectate-dispatch-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rooms.values().forEach(room -> room.spectators.forEach(s -> s.emitter.complete()));
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Registra um espectador e agenda o envio do estado atual. Chamar sob o lock do jogo.
+     */
+    public SseEmitter subscribe(Game game) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        while (true) {
+            Room room = rooms.computeIfAbsent(game.getGameId(), Room::new);
+            if (room.spectators.size() >= maxPerGame) {
+                rejected.increment();
+                throw new IllegalStateException("Limite de espectadores para este jogo atingido");
+            }
+            Spectator spectator = new Spectator(room, emitter);
+            // Uma sala recém-fechada (último espectador saiu) não aceita mais ninguém; tenta de novo
+            if (room.add(spectator, game)) {
+                emitter.onCompletion(() -> room.remove(spectator));
+                emitter.onTimeout(() -> room.remove(spectator));
+                emitter.onError(e -> room.remove(spectator));
+                subscriptions.increment();
+                return emitter;
+            }
+        }
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event) {
+        Room room = rooms.get(event.gameId());
+        if (room == null) {
+            return;
+        }
+        if (GameChangedEvent.MIGRATED_OUT.equals(event.action())) {
+            // O jogo continua em outro nó: o EventSource reconecta e é encaminhado ao novo dono
+            room.close(finalFrame("moved", "{\"game_id\":\"" + event.gameId() + "\"}"));
+            return;
+        }
+        if (event.isDeleted()) {
+            room.close(finalFrame("deleted",
+                    "{\"game_id\":\"" + event.gameId() + "\",\"reason\":\"" + event.action() + "\"}"));
+            return;
+        }
+        room.publish(stateFrame(event.game()));
+    }
+
+    /**
+     * Mantém as conexões vivas através de proxies e desconecta espectadores travados.
+     */
+    @Scheduled(fixedDelayString = "${jogoforca.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Room room : rooms.values()) {
+            for (Spectator spectator : room.spectators) {
+                long sendStarted = spectator.sendStartedAt;
+                if (sendStarted != 0 && now - sendStarted > stalledSendNanos) {
+                    log.debug("[spectate] espectador lento removido gameId={}", room.gameId);
+                    stalledDropped.increment();
+                    spectator.emitter.completeWithError(new IOException("Envio SSE travado"));
+                    room.remove(spectator);
+                } else {
+                    spectator.ping();
+                }
+            }
+        }
+    }
+
+    public int spectatorCount(String gameId) {
+        Room room = rooms.get(gameId);
+        return room == null ? 0 : room.spectators.size();
+    }
+
+    private final class Room {
+        private final String gameId;
+        private final Set<Spectator> spectators = ConcurrentHashMap.newKeySet();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicBoolean fanOutScheduled = new AtomicBoolean();
+        // Quadro mais recente, trocado sob o lock do jogo e distribuído por fanOut
+        private volatile Frame latest;
+        private boolean closed;
+
+        Room(String gameId) {
+            this.gameId = gameId;
+        }
+
+        boolean add(Spectator spectator, Game game) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                // Quem entra na mesma versão reaproveita o quadro já montado
+                Frame current = latest;
+                if (current == null || current.version() != game.getVersion()) {
+                    current = stateFrame(game);
+                    latest = current;
+                }
+                // Antes de entrar na sala: a distribuição só alcança o espectador depois disso
+                spectator.offer(current);
+                spectators.add(spectator);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(Spectator spectator) {
+            lock.lock();
+            try {
+                spectators.remove(spectator);
+                if (spectators.isEmpty() && !closed) {
+                    closed = true;
+                    rooms.remove(gameId, this);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void publish(Frame frame) {
+            latest = frame;
+            if (fanOutScheduled.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+
+        void close(Frame frame) {
+            lock.lock();
+            try {
+                closed = true;
+                rooms.remove(gameId, this);
+            } finally {
+                lock.unlock();
+            }
+            publish(frame);
+        }
+
+        private void schedule() {
+            try {
+                dispatcher.execute(this::fanOut);
+            } catch (RuntimeException e) {
+                fanOutScheduled.set(false);
+                log.warn("[spectate] não foi possível agendar a difusão de gameId={}: {}", gameId, e.getMessage());
+            }
+        }
+
+        // Uma execução por vez; versões publicadas durante a volta são entregues na seguinte
+        private void fanOut() {
+            while (true) {
+                Frame frame = latest;
+                for (Spectator spectator : spectators) {
+                    spectator.offer(frame);
+                }
+                fanOutScheduled.set(false);
+                if (latest == frame || !fanOutScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private final class Spectator {
+        private final Room room;
+        private final SseEmitter emitter;
+        private final AtomicReference<Frame> pending = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // Versão do último quadro aceito; só a entrada na sala e o fanOut da sala oferecem quadros
+        private volatile long offeredVersion = -1;
+        private volatile long sendStartedAt;
+
+        Spectator(Room room, SseEmitter emitter) {
+            this.room = room;
+            this.emitter = emitter;
+        }
+
+        void offer(Frame frame) {
+            if (frame.version() <= offeredVersion) {
+                return;
+            }
+            offeredVersion = frame.version();
+            Frame replaced = pending.getAndSet(frame);
+            if (replaced != null && replaced != PING) {
+                framesCoalesced.increment();
+            }
+            scheduleSend();
+        }
+
+        void ping() {
+            if (!sending.get() && pending.compareAndSet(null, PING)) {
+                scheduleSend();
+            }
+        }
+
+        private void scheduleSend() {
+            if (!sending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RuntimeException e) {
+                sending.set(false);
+                log.warn("[spectate] não foi possível agendar envio para gameId={}: {}", room.gameId, e.getMessage());
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Frame frame = pending.getAndSet(null);
+                if (frame == null) {
+                    sending.set(false);
+                    // Um quadro oferecido entre a leitura e a liberação ainda precisa sair
+                    if (pending.get() == null || !sending.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                sendStartedAt = System.nanoTime();
+                try {
+                    emitter.send(frame.data());
+                    if (frame != PING) {
+                        framesSent.increment();
+                    }
+                    if (frame.last()) {
+                        emitter.complete();
+                        room.remove(this);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Espectador desconectou; o emitter já foi finalizado
+                    room.remove(this);
+                    sending.set(false);
+                    return;
+                } finally {
+                    sendStartedAt = 0;
+                }
+            }
+        }
+    }
+
+    // Chamar sob o lock do jogo: o JSON vem do cache da versão atual
+    private Frame stateFrame(Game game) {
+        framesEncoded.increment();
+        byte[] json = responseCache.json(game);
+        byte[] head = ("id: " + game.getVersion() + "\nevent: state\ndata: ").getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[head.length + json.length + 2];
+        System.arraycopy(head, 0, frame, 0, head.length);
+        System.arraycopy(json, 0, frame, head.length, json.length);
+        frame[frame.length - 2] = '\n';
+        frame[frame.length - 1] = '\n';
+        return new Frame(Set.of(new DataWithMediaType(frame, MediaType.TEXT_EVENT_STREAM)), game.getVersion(), false);
+    }
+
+    private static Frame finalFrame(String eventName, String json) {
+        return new Frame(encode("event: " + eventName + "\ndata: " + json + "\n\n"), Long.MAX_VALUE, true);
+    }
+
+    private static Set<DataWithMediaType> encode(String text) {
+        return Set.of(new DataWithMediaType(text.getBytes(StandardCharsets.UTF_8), MediaType.TEXT_EVENT_STREAM));
+    }
+
+    public Map<String, Object> getStats() {
+        long spectators = 0;
+        int largest = 0;
+        for (Room room : rooms.values()) {
+            int size = room.spectators.size();
+            spectators += size;
+            largest = Math.max(largest, size);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rooms", rooms.size());
+        stats.put("spectators", spectators);
+        stats.put("largest_room", largest);
+        stats.put("max_per_game", maxPerGame);
+        stats.put("subscriptions", subscriptions.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("frames_encoded", framesEncoded.sum());
+        stats.put("frames_sent", framesSent.sum());
+        stats.put("frames_coalesced", framesCoalesced.sum());
+        stats.put("stalled_dropped", stalledDropped.sum());
+        return stats;
+    }
+}
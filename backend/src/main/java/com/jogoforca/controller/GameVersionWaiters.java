@@ -0,0 +1,89 @@
+package com.jogoforca.controller;
+
+import com.jogoforca.model.Game;
+import com.jogoforca.service.GameChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Requisições de long-poll estacionadas até que a versão de um jogo mude.
+ * <p>
+ * Nenhuma thread fica presa: cada espera é um {@link DeferredResult} completado pelo
+ * evento de alteração do jogo ou pelo timeout da requisição.
+ */
+@Component
+public class GameVersionWaiters {
+
+    private final Map<String, Queue<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final GameResponseCache responseCache;
+
+    public GameVersionWaiters(GameResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    private record Waiter(long knownVersion, DeferredResult<ResponseEntity<?>> result) {
+    }
+
+    /**
+     * Estaciona a requisição até que a versão do jogo seja diferente de {@code knownVersion}.
+     * Se ela já for diferente, responde imediatamente. Deve ser chamado sob o lock do jogo.
+     */
+    public void await(Game game, long knownVersion, DeferredResult<ResponseEntity<?>> result) {
+        String gameId = game.getGameId();
+        Queue<Waiter> queue = waiters.computeIfAbsent(gameId, id -> new ConcurrentLinkedQueue<>());
+        Waiter waiter = new Waiter(knownVersion, result);
+        queue.add(waiter);
+        // Também executado após timeout ou erro
+        result.onCompletion(() -> queue.remove(waiter));
+
+        // Verificar de novo após registrar, para não perder uma alteração concorrente
+        if (game.getVersion() != knownVersion) {
+            queue.remove(waiter);
+            result.setResult(responseCache.stateResponse(game));
+        }
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event) {
+        if (GameChangedEvent.MIGRATED_OUT.equals(event.action())) {
+            // Responde com o estado atual; a próxima espera já é encaminhada ao novo dono
+            Queue<Waiter> queue = waiters.remove(event.gameId());
+            if (queue != null) {
+                ResponseEntity<?> current = responseCache.stateResponse(event.game());
+                queue.forEach(w -> w.result().setResult(current));
+            }
+            return;
+        }
+        if (event.isDeleted()) {
+            Queue<Waiter> queue = waiters.remove(event.gameId());
+            if (queue != null) {
+                ResponseEntity<?> gone = ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("detail", "Jogo não encontrado"));
+                queue.forEach(w -> w.result().setResult(gone));
+            }
+            return;
+        }
+
+        Queue<Waiter> queue = waiters.get(event.gameId());
+        if (queue == null || queue.isEmpty()) {
+            return;
+        }
+        // O mesmo corpo é compartilhado por todas as requisições que estavam esperando
+        Game game = event.game();
+        ResponseEntity<?> response = responseCache.stateResponse(game);
+        for (Waiter waiter : queue) {
+            if (waiter.knownVersion() != game.getVersion()) {
+                queue.remove(waiter);
+                waiter.result().setResult(response);
+            }
+        }
+    }
+}
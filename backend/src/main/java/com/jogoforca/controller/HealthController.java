@@ -1,5 +1,15 @@
 package com.jogoforca.controller;
 
+import com.jogoforca.service.CpuGuesserService;
+import com.jogoforca.service.GameHistory;
+import com.jogoforca.service.GameRepository;
+import com.jogoforca.service.HintCacheService;
+import com.jogoforca.service.MatchmakingService;
+import com.jogoforca.service.OllamaService;
+import com.jogoforca.service.PlayerStatsService;
+import com.jogoforca.service.RequestRateLimiter;
+import com.jogoforca.service.WordDictionary;
+import com.jogoforca.service.WordPoolService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,10 +22,103 @@ import java.util.Map;
 @RequestMapping("/api/health")
 public class HealthController {
 
+    private final WordPoolService wordPoolService;
+    private final WordDictionary wordDictionary;
+    private final HintCacheService hintCacheService;
+    private final GameRepository gameRepository;
+    private final GameResponseCache responseCache;
+    private final CpuGuesserService cpuGuesser;
+    private final RequestRateLimiter rateLimiter;
+    private final OllamaService ollamaService;
+    private final GameHistory gameHistory;
+    private final GameSpectators gameSpectators;
+    private final MatchmakingService matchmaking;
+    private final PlayerStatsService playerStats;
+
+    public HealthController(WordPoolService wordPoolService, WordDictionary wordDictionary,
+            HintCacheService hintCacheService,
+            GameRepository gameRepository, GameResponseCache responseCache, CpuGuesserService cpuGuesser,
+            RequestRateLimiter rateLimiter, OllamaService ollamaService, GameHistory gameHistory,
+            GameSpectators gameSpectators, MatchmakingService matchmaking,
+            PlayerStatsService playerStats) {
+        this.wordPoolService = wordPoolService;
+        this.wordDictionary = wordDictionary;
+        this.hintCacheService = hintCacheService;
+        this.gameRepository = gameRepository;
+        this.responseCache = responseCache;
+        this.cpuGuesser = cpuGuesser;
+        this.rateLimiter = rateLimiter;
+        this.ollamaService = ollamaService;
+        this.gameHistory = gameHistory;
+        this.gameSpectators = gameSpectators;
+        this.matchmaking = matchmaking;
+        this.playerStats = playerStats;
+    }
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> health() {
         Map<String, Object> body = new HashMap<>();
         body.put("status", "ok");
         return ResponseEntity.ok(body);
     }
+
+    @GetMapping("/word-pool")
+    public ResponseEntity<Map<String, Object>> wordPool() {
+        return ResponseEntity.ok(wordPoolService.getStats());
+    }
+
+    @GetMapping("/dictionary")
+    public ResponseEntity<Map<String, Object>> dictionary() {
+        return ResponseEntity.ok(wordDictionary.getStats());
+    }
+
+    @GetMapping("/hint-cache")
+    public ResponseEntity<Map<String, Object>> hintCache() {
+        return ResponseEntity.ok(hintCacheService.getStats());
+    }
+
+    @GetMapping("/game-store")
+    public ResponseEntity<Map<String, Object>> gameStore() {
+        return ResponseEntity.ok(gameRepository.getStats());
+    }
+
+    @GetMapping("/cpu-guesser")
+    public ResponseEntity<Map<String, Object>> cpuGuesser() {
+        return ResponseEntity.ok(cpuGuesser.getStats());
+    }
+
+    @GetMapping("/rate-limit")
+    public ResponseEntity<Map<String, Object>> rateLimit() {
+        return ResponseEntity.ok(rateLimiter.getStats());
+    }
+
+    @GetMapping("/ollama")
+    public ResponseEntity<Map<String, Object>> ollama() {
+        return ResponseEntity.ok(ollamaService.getStats());
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<Map<String, Object>> history() {
+        return ResponseEntity.ok(gameHistory.getStats());
+    }
+
+    @GetMapping("/spectators")
+    public ResponseEntity<Map<String, Object>> spectators() {
+        return ResponseEntity.ok(gameSpectators.getStats());
+    }
+
+    @GetMapping("/matchmaking")
+    public ResponseEntity<Map<String, Object>> matchmaking() {
+        return ResponseEntity.ok(matchmaking.getStats());
+    }
+
+    @GetMapping("/leaderboard")
+    public ResponseEntity<Map<String, Object>> leaderboard() {
+        return ResponseEntity.ok(playerStats.getStats());
+    }
+
+    @GetMapping("/response-cache")
+    public ResponseEntity<Map<String, Object>> responseCache() {
+        return ResponseEntity.ok(responseCache.getStats());
+    }
 }
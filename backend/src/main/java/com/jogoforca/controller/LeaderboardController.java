@@ -0,0 +1,71 @@
+package com.jogoforca.controller;
+
+import com.jogoforca.service.PlayerStats;
+import com.jogoforca.service.PlayerStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classificação geral e estatísticas por jogador.
+ */
+@RestController
+@RequestMapping("/api/leaderboard")
+@CrossOrigin(origins = "*")
+public class LeaderboardController {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardController.class);
+
+    private final PlayerStatsService playerStats;
+
+    public LeaderboardController(PlayerStatsService playerStats) {
+        this.playerStats = playerStats;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> top(@RequestParam(defaultValue = "10") int top) {
+        try {
+            List<PlayerStats> leaders = playerStats.top(top);
+            List<Map<String, Object>> entries = new ArrayList<>(leaders.size());
+            for (int i = 0; i < leaders.size(); i++) {
+                entries.add(toMap(leaders.get(i), i + 1));
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("total_players", playerStats.size());
+            response.put("leaders", entries);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("[leaderboard] bad request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("detail", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/players/{player}")
+    public ResponseEntity<?> player(@PathVariable String player) {
+        return playerStats.get(player)
+                .<ResponseEntity<?>>map(stats -> ResponseEntity.ok(toMap(stats, playerStats.rank(player))))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("detail", "Jogador sem estatísticas")));
+    }
+
+    private static Map<String, Object> toMap(PlayerStats stats, int rank) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("rank", rank);
+        response.put("player", stats.player());
+        response.put("games_played", stats.gamesPlayed());
+        response.put("games_won", stats.gamesWon());
+        response.put("rounds_played", stats.roundsPlayed());
+        response.put("rounds_won", stats.roundsWon());
+        response.put("letters_guessed", stats.lettersGuessed());
+        response.put("letters_hit", stats.lettersHit());
+        response.put("hit_rate", stats.hitRate());
+        return response;
+    }
+}
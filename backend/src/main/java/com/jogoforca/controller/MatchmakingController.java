@@ -0,0 +1,90 @@
+package com.jogoforca.controller;
+
+import com.jogoforca.model.MatchmakingRequest;
+import com.jogoforca.service.MatchmakingService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fila de pareamento PvP: o jogador entra com as preferências e consulta a ficha até
+ * receber o {@code game_id} da sala formada. Entrar na fila passa pelo {@link RateLimitFilter}
+ * e custa o mesmo que criar um jogo; fichas abertas além do limite por cliente ou por jogador
+ * são recusadas com 429.
+ */
+@RestController
+@RequestMapping("/api/matchmaking")
+@CrossOrigin(origins = "*")
+public class MatchmakingController {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchmakingController.class);
+
+    private final MatchmakingService matchmaking;
+
+    public MatchmakingController(MatchmakingService matchmaking) {
+        this.matchmaking = matchmaking;
+    }
+
+    @PostMapping("/tickets")
+    public ResponseEntity<?> enqueue(@Valid @RequestBody MatchmakingRequest request,
+            @RequestAttribute(name = RateLimitFilter.CLIENT_ATTRIBUTE, required = false) String client) {
+        try {
+            log.debug("[matchmaking] enqueue player={} roomSize={} language={} difficulty={}", request.getPlayer(),
+                    request.getRoomSize(), request.getLanguage(), request.getDifficulty());
+            MatchmakingService.Ticket ticket = matchmaking.enqueue(request.getPlayer(), request.getRoomSize(),
+                    request.getLanguage(), request.getDifficulty(), client);
+            return ResponseEntity.ok(toMap(ticket));
+        } catch (MatchmakingService.TooManyTicketsException e) {
+            log.warn("[matchmaking] limite de fichas: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("detail", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            log.warn("[matchmaking] bad request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("detail", e.getMessage()));
+        } catch (IllegalStateException e) {
+            log.warn("[matchmaking] fila cheia: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("detail", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<?> getTicket(@PathVariable String ticketId) {
+        return matchmaking.getTicket(ticketId)
+                .<ResponseEntity<?>>map(ticket -> ResponseEntity.ok(toMap(ticket)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("detail", "Ficha de pareamento não encontrada")));
+    }
+
+    @DeleteMapping("/tickets/{ticketId}")
+    public ResponseEntity<?> cancel(@PathVariable String ticketId) {
+        try {
+            log.debug("[matchmaking] cancel ticketId={}", ticketId);
+            return ResponseEntity.ok(toMap(matchmaking.cancel(ticketId)));
+        } catch (IllegalArgumentException e) {
+            log.warn("[matchmaking] not found ticketId {}: {}", ticketId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("detail", e.getMessage()));
+        } catch (IllegalStateException e) {
+            log.warn("[matchmaking] cancel rejected ticketId {}: {}", ticketId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("detail", e.getMessage()));
+        }
+    }
+
+    private static Map<String, Object> toMap(MatchmakingService.Ticket ticket) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("ticket_id", ticket.getTicketId());
+        response.put("player", ticket.getPlayer());
+        response.put("room_size", ticket.getRoomSize());
+        response.put("language", ticket.getLanguage());
+        response.put("difficulty", ticket.getDifficulty());
+        response.put("status", ticket.getStatus().value());
+        response.put("game_id", ticket.getGameId() != null ? ticket.getGameId() : "");
+        response.put("waited_ms", TimeUnit.NANOSECONDS.toMillis(ticket.getWaitNanos()));
+        return response;
+    }
+}
@@ -0,0 +1,187 @@
+package com.jogoforca.controller;
+
+import com.jogoforca.service.ClusterService;
+import com.jogoforca.service.GameRepository;
+import com.jogoforca.service.RequestRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Controle de admissão de {@code /api/game/**} e {@code /api/matchmaking/**}, antes do
+ * roteamento do cluster.
+ * <p>
+ * Toda requisição ocupa uma vaga de requisição simultânea; acima do limite o nó responde
+ * 503 na hora em vez de acumular threads. Requisições encaminhadas a outro nó liberam a
+ * vaga antes do encaminhamento. Requisições que alteram jogos (POST e DELETE)
+ * retiram fichas do balde do cliente no nó de entrada e do balde do jogo no nó que o
+ * atende; sem fichas, a resposta é 429 com {@code Retry-After}. Os lotes de criação e de
+ * tentativas são cobrados item a item pelo {@link GameBatchController}. Entrar na fila de
+ * pareamento custa o mesmo que criar um jogo, pois cada sala formada cria um.
+ * <p>
+ * O cliente é o endereço de quem conectou. Se esse endereço é um proxy confiável
+ * ({@code trusted-proxies}, como o frontend Flask), o {@code X-Forwarded-For} é lido da
+ * direita para a esquerda e o cliente é o primeiro endereço que não é de um proxy confiável.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String GAME_PATH = "/api/game/";
+    private static final String MATCHMAKING_PATH = "/api/matchmaking/";
+
+    /**
+     * Cliente identificado pelo filtro, para quem cobra fichas depois (itens dos lotes).
+     */
+    static final String CLIENT_ATTRIBUTE = "com.jogoforca.controller.RateLimitFilter.client";
+
+    // Vaga ocupada pela requisição (true até ser liberada)
+    private static final String SLOT_ATTRIBUTE = "com.jogoforca.controller.RateLimitFilter.slot";
+
+    private final RequestRateLimiter limiter;
+    private final ClusterService cluster;
+    private final GameRepository games;
+    private final Set<String> trustedProxies;
+
+    public RateLimitFilter(RequestRateLimiter limiter, ClusterService cluster, GameRepository games,
+            @Value("${jogoforca.rate-limit.trusted-proxies:127.0.0.1,0:0:0:0:0:0:0:1}") List<String> trustedProxies) {
+        this.limiter = limiter;
+        this.cluster = cluster;
+        this.games = games;
+        this.trustedProxies = Set.copyOf(trustedProxies.stream().map(String::trim).filter(a -> !a.isEmpty()).toList());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !limiter.isEnabled() || !(uri.startsWith(GAME_PATH) || uri.startsWith(MATCHMAKING_PATH))
+                || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limiter.enter()) {
+            log.warn("[rateLimit] nó sobrecarregado, recusando {} {}", request.getMethod(), request.getRequestURI());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1000, "Servidor sobrecarregado; tente novamente em instantes");
+            return;
+        }
+        AtomicBoolean slot = new AtomicBoolean(true);
+        request.setAttribute(SLOT_ATTRIBUTE, slot);
+        try {
+            long waitMs = isWrite(request) ? acquire(request) : 0;
+            if (waitMs > 0) {
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, waitMs, "Muitas requisições; tente novamente em instantes");
+                return;
+            }
+            chain.doFilter(request, response);
+        } finally {
+            releaseSlot(request);
+        }
+    }
+
+    /**
+     * Libera a vaga de requisição simultânea antes do fim da requisição. Usado ao encaminhar
+     * para outro nó: a resposta (streams SSE e long-polls, inclusive) pode levar muito tempo
+     * e quem a processa é o nó dono, que conta a requisição nas vagas dele.
+     */
+    void releaseSlot(HttpServletRequest request) {
+        if (request.getAttribute(SLOT_ATTRIBUTE) instanceof AtomicBoolean slot && slot.getAndSet(false)) {
+            limiter.exit();
+        }
+    }
+
+    private long acquire(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        // Encaminhada por outro nó do cluster (com o segredo): o cliente já foi cobrado no nó de entrada
+        boolean forwarded = request.getHeader(ClusterRoutingFilter.HOPS_HEADER) != null
+                && cluster.isAuthorized(request.getHeader(ClusterService.SECRET_HEADER));
+        int cost = costOf(uri);
+        if (!forwarded) {
+            String client = clientOf(request);
+            request.setAttribute(CLIENT_ATTRIBUTE, client);
+            long waitMs = cost == 0 ? 0 : limiter.acquireClient(client, cost);
+            if (waitMs > 0) {
+                log.debug("[rateLimit] cliente {} sem fichas para {} {}", client, request.getMethod(), uri);
+                return waitMs;
+            }
+        }
+        // O balde do jogo vale só no nó que o atende
+        String gameId = uri.startsWith(GAME_PATH) ? ClusterRoutingFilter.gameIdOf(uri) : null;
+        if (gameId != null && games.contains(gameId)) {
+            long waitMs = limiter.acquireGame(gameId);
+            if (waitMs > 0) {
+                log.debug("[rateLimit] jogo {} sem fichas para {} {}", gameId, request.getMethod(), uri);
+                return waitMs;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "POST".equals(method) || "DELETE".equals(method);
+    }
+
+    // Lotes de criação e de tentativas são cobrados por item no GameBatchController
+    private int costOf(String uri) {
+        if (uri.equals(GAME_PATH + "new") || uri.equals(MATCHMAKING_PATH + "tickets")) {
+            return limiter.createCost();
+        }
+        if (uri.equals(GAME_PATH + "batch/new") || uri.equals(GAME_PATH + "batch/guess")) {
+            return 0;
+        }
+        return 1;
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String client = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || !trustedProxies.contains(client)) {
+            return client;
+        }
+        // Cada proxy acrescenta à direita quem conectou nele; à esquerda o cliente pode forjar
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!trustedProxies.contains(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long waitMs, String detail)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitMs + 999) / 1000)));
+        // O @CrossOrigin do controller não chega a ser aplicado
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"detail\":\"" + detail + "\"}");
+    }
+}
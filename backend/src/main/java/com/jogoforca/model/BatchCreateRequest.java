@@ -0,0 +1,11 @@
+package com.jogoforca.model;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BatchCreateRequest {
+    @NotEmpty(message = "Lista de jogos é obrigatória")
+    private List<GameConfig> games;
+}
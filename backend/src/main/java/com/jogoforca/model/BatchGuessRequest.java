@@ -0,0 +1,17 @@
+package com.jogoforca.model;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BatchGuessRequest {
+    @NotEmpty(message = "Lista de tentativas é obrigatória")
+    private List<Guess> guesses;
+
+    @Data
+    public static class Guess {
+        private String gameId;
+        private String letter;
+    }
+}
@@ -1,12 +1,16 @@
 package com.jogoforca.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.jogoforca.service.RoundState;
 import lombok.Data;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Data
 public class Game {
     private String gameId;
-    private String mode; // "pvp" ou "pvc"
+    private String mode; // "pvp", "pvc" ou "pvc_duel"
     private List<String> players;
     private int currentRound;
     private int maxRounds;
@@ -23,11 +27,16 @@ public class Game {
     private String gameStatus; // "waiting_word", "playing", "round_finished", "game_finished"
     private String roundWinner;
     private String gameWinner;
+    private String cpuLevel; // Nível da CPU adivinhadora no modo "pvc_duel": "easy", "medium" ou "hard"
+    private long version; // Incrementada a cada alteração feita pelo GameService
+    @JsonIgnore
+    private transient RoundState roundState; // Estado compacto da rodada (máscaras de bits)
 
     public Game() {
-        this.guessedLetters = new ArrayList<>();
-        this.correctPositions = new HashMap<>();
-        this.scores = new HashMap<>();
+        // Coleções seguras para leitura concorrente; as alterações são serializadas pelo GameService
+        this.guessedLetters = new CopyOnWriteArrayList<>();
+        this.correctPositions = new ConcurrentHashMap<>();
+        this.scores = new ConcurrentHashMap<>();
         this.maxAttempts = 6;
         this.attemptsLeft = 6;
     }
@@ -9,9 +9,12 @@ import java.util.List;
 @Data
 public class GameConfig {
     @NotBlank(message = "Modo é obrigatório")
-    private String mode; // "pvp" ou "pvc"
+    private String mode; // "pvp", "pvc" ou "pvc_duel"
 
     @NotNull(message = "Lista de jogadores é obrigatória")
     @Size(min = 1, max = 5, message = "Deve ter entre 1 e 5 jogadores")
     private List<String> players;
+
+    // Só no modo "pvc_duel": "easy", "medium" (padrão) ou "hard"
+    private String cpuLevel;
 }
@@ -0,0 +1,19 @@
+package com.jogoforca.model;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class MatchmakingRequest {
+    @NotBlank(message = "Nome do jogador é obrigatório")
+    private String player;
+
+    // Jogadores na sala, de 2 (padrão) a 5
+    private Integer roomSize;
+
+    // Um dos idiomas de jogoforca.matchmaking.languages (padrão: o primeiro)
+    private String language;
+
+    // "easy", "medium" (padrão) ou "hard"
+    private String difficulty;
+}
@@ -0,0 +1,21 @@
+package com.jogoforca.service;
+
+/**
+ * Resultado de um item de uma operação em lote: o valor ou o erro daquele item.
+ *
+ * @param gameId jogo do item ({@code null} na criação que falhou antes de gerar o ID)
+ */
+public record BatchResult<T>(String gameId, T value, RuntimeException error) {
+
+    static <T> BatchResult<T> ok(String gameId, T value) {
+        return new BatchResult<>(gameId, value, null);
+    }
+
+    static <T> BatchResult<T> failed(String gameId, RuntimeException error) {
+        return new BatchResult<>(gameId, null, error);
+    }
+
+    public boolean isOk() {
+        return error == null;
+    }
+}
@@ -0,0 +1,200 @@
+package com.jogoforca.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jogoforca.model.Game;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mudanças na lista de nós do cluster e transferência dos jogos que trocaram de dono.
+ * <p>
+ * A nova lista é repassada aos demais nós (antigos e novos) e cada um, em segundo plano,
+ * envia ao novo dono os jogos que deixaram de ser seus, no formato do {@link GameCodec}.
+ * Enquanto não é transferido, o jogo continua sendo atendido pelo nó antigo.
+ */
+@Component
+public class ClusterRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRebalancer.class);
+
+    /**
+     * Marca uma lista de nós já repassada por outro nó, para não ser repassada de novo.
+     */
+    public static final String PROPAGATED_HEADER = "X-Jogoforca-Cluster-Propagated";
+
+    private final ClusterService cluster;
+    private final GameService gameService;
+    private final GameRepository games;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http;
+    private final Duration transferTimeout;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "cluster-rebalance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong migratedOut = new AtomicLong();
+    private final AtomicLong migratedIn = new AtomicLong();
+    private final AtomicLong migrationErrors = new AtomicLong();
+    private final AtomicLong rebalances = new AtomicLong();
+
+    public ClusterRebalancer(ClusterService cluster, GameService gameService, GameRepository games,
+            @Value("${jogoforca.cluster.transfer-timeout:PT10S}") Duration transferTimeout) {
+        this.cluster = cluster;
+        this.gameService = gameService;
+        this.games = games;
+        this.transferTimeout = transferTimeout;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(transferTimeout)
+                .build();
+    }
+
+    /**
+     * Aplica a nova lista de nós e inicia a transferência dos jogos em segundo plano.
+     *
+     * @param propagate repassar a lista aos outros nós (falso quando ela veio de outro nó)
+     * @return nós que não aceitaram a nova lista
+     */
+    public List<String> changeNodes(List<String> nodes, boolean propagate) {
+        List<String> previous = cluster.updateNodes(nodes);
+        List<String> failed = new ArrayList<>();
+        if (propagate) {
+            Set<String> targets = new LinkedHashSet<>(previous);
+            targets.addAll(cluster.nodes());
+            targets.remove(cluster.selfUrl());
+            for (String target : targets) {
+                if (!sendNodes(target)) {
+                    failed.add(target);
+                }
+            }
+        }
+        rebalance();
+        return failed;
+    }
+
+    /**
+     * Agenda uma passada pelos jogos locais, transferindo os que pertencem a outro nó.
+     */
+    public void rebalance() {
+        executor.execute(this::moveGames);
+    }
+
+    /**
+     * Recebe um jogo transferido por outro nó.
+     */
+    public Game receive(String gameId, byte[] data) {
+        Game game = GameCodec.decode(data);
+        if (!gameId.equals(game.getGameId())) {
+            throw new IllegalArgumentException("Jogo recebido não corresponde a " + gameId);
+        }
+        gameService.adoptGame(game);
+        migratedIn.incrementAndGet();
+        return game;
+    }
+
+    private void moveGames() {
+        rebalances.incrementAndGet();
+        long start = System.nanoTime();
+        int moved = 0;
+        int failed = 0;
+        for (String gameId : games.ids()) {
+            String owner = cluster.owner(gameId);
+            if (cluster.isSelf(owner)) {
+                continue;
+            }
+            if (gameService.releaseGame(gameId, game -> sendGame(owner, game))) {
+                moved++;
+            } else if (games.contains(gameId)) {
+                failed++;
+            }
+        }
+        migratedOut.addAndGet(moved);
+        migrationErrors.addAndGet(failed);
+        cluster.finishRebalance();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (failed > 0) {
+            log.warn("[cluster] rebalanceamento: {} jogos transferidos, {} falharam e continuam aqui ({} ms)",
+                    moved, failed, elapsedMs);
+        } else {
+            log.info("[cluster] rebalanceamento: {} jogos transferidos em {} ms", moved, elapsedMs);
+        }
+    }
+
+    private boolean sendGame(String node, Game game) {
+        HttpRequest request = cluster.authenticate(
+                HttpRequest.newBuilder(URI.create(node + "/api/cluster/games/" + game.getGameId())))
+                .timeout(transferTimeout)
+                .header("Content-Type", "application/octet-stream")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(GameCodec.encode(game)))
+                .build();
+        return send(request, "jogo " + game.getGameId() + " para " + node);
+    }
+
+    private boolean sendNodes(String node) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(Map.of("nodes", cluster.nodes()));
+            HttpRequest request = cluster.authenticate(HttpRequest.newBuilder(URI.create(node + "/api/cluster/nodes")))
+                    .timeout(transferTimeout)
+                    .header("Content-Type", "application/json")
+                    .header(PROPAGATED_HEADER, "true")
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            return send(request, "lista de nós para " + node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private boolean send(HttpRequest request, String what) {
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 == 2) {
+                return true;
+            }
+            log.warn("[cluster] falha ao enviar {}: HTTP {} {}", what, response.statusCode(), response.body());
+        } catch (IOException e) {
+            log.warn("[cluster] falha ao enviar {}: {}", what, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(cluster.getStats());
+        stats.put("local_games", games.size());
+        stats.put("rebalances", rebalances.get());
+        stats.put("migrated_out", migratedOut.get());
+        stats.put("migrated_in", migratedIn.get());
+        stats.put("migration_errors", migrationErrors.get());
+        return stats;
+    }
+}
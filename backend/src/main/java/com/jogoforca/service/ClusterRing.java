@@ -0,0 +1,78 @@
+package com.jogoforca.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Anel de hash consistente imutável: cada nó ocupa {@code virtualNodes} pontos do anel e o
+ * dono de uma chave é o primeiro ponto a partir do hash dela. Ao adicionar um nó, só as
+ * chaves que caem nos novos pontos mudam de dono.
+ * <p>
+ * O hash depende apenas das URLs, então todos os nós com a mesma lista chegam ao mesmo anel.
+ */
+final class ClusterRing {
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    private record Point(long hash, String node) {
+    }
+
+    ClusterRing(List<String> nodes, int virtualNodes) {
+        this.nodes = nodes.stream().distinct().sorted().toList();
+        List<Point> ring = new ArrayList<>(this.nodes.size() * virtualNodes);
+        for (String node : this.nodes) {
+            for (int v = 0; v < virtualNodes; v++) {
+                ring.add(new Point(hash(node + "#" + v), node));
+            }
+        }
+        ring.sort(Comparator.comparingLong(Point::hash));
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i).hash();
+            owners[i] = ring.get(i).node();
+        }
+    }
+
+    List<String> nodes() {
+        return nodes;
+    }
+
+    boolean contains(String node) {
+        return nodes.contains(node);
+    }
+
+    /**
+     * Nó dono da chave, ou {@code null} se o anel estiver vazio.
+     */
+    String owner(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    // FNV-1a de 64 bits seguido da mistura final do MurmurHash3, para espalhar chaves parecidas
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
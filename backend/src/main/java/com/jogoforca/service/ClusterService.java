@@ -0,0 +1,178 @@
+package com.jogoforca.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Divisão dos jogos entre os nós do backend por hash consistente do {@code gameId}.
+ * <p>
+ * Cada nó conhece a lista completa de nós ({@code jogoforca.cluster.nodes}) e a própria URL
+ * ({@code jogoforca.cluster.self-url}); com a lista vazia o nó atende todos os jogos. Os
+ * IDs de jogos novos são sorteados até caírem neste nó, então quem cria o jogo é o dono dele.
+ * Durante um rebalanceamento o anel anterior é mantido, para achar jogos que ainda não
+ * foram transferidos.
+ * <p>
+ * Chamadas entre nós e a administração do cluster levam o segredo compartilhado
+ * ({@code jogoforca.cluster.secret}) no cabeçalho {@link #SECRET_HEADER}; sem segredo
+ * configurado, a administração fica desativada.
+ */
+@Service
+public class ClusterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterService.class);
+
+    /**
+     * Segredo compartilhado entre os nós, exigido na administração e nas transferências.
+     */
+    public static final String SECRET_HEADER = "X-Jogoforca-Cluster-Secret";
+
+    private final String selfUrl;
+    private final byte[] secret;
+    private final int virtualNodes;
+    private volatile ClusterRing ring;
+    private volatile ClusterRing previousRing;
+
+    private final AtomicLong forwarded = new AtomicLong();
+    private final AtomicLong forwardErrors = new AtomicLong();
+
+    public ClusterService(
+            @Value("${jogoforca.cluster.self-url:http://localhost:${server.port:8080}}") String selfUrl,
+            @Value("${jogoforca.cluster.nodes:}") String nodes,
+            @Value("${jogoforca.cluster.virtual-nodes:128}") int virtualNodes,
+            @Value("${jogoforca.cluster.secret:}") String secret) {
+        this.selfUrl = normalize(selfUrl);
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.virtualNodes = virtualNodes;
+        List<String> configured = parseNodes(nodes);
+        this.ring = new ClusterRing(configured.isEmpty() ? List.of(this.selfUrl) : configured, virtualNodes);
+        if (!ring.contains(this.selfUrl)) {
+            log.warn("[cluster] {} não está na lista de nós {}; nenhum jogo novo será criado aqui",
+                    this.selfUrl, ring.nodes());
+        } else if (ring.nodes().size() > 1) {
+            log.info("[cluster] nó {} em um cluster de {} nós", this.selfUrl, ring.nodes().size());
+        }
+        if (this.secret.length == 0 && ring.nodes().size() > 1) {
+            log.warn("[cluster] jogoforca.cluster.secret vazio: administração e transferências entre nós recusadas");
+        }
+    }
+
+    public String selfUrl() {
+        return selfUrl;
+    }
+
+    /**
+     * Se o valor do cabeçalho {@link #SECRET_HEADER} confere com o segredo do cluster.
+     * Sem segredo configurado, nada é aceito.
+     */
+    public boolean isAuthorized(String presented) {
+        return secret.length > 0 && presented != null
+                && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Acrescenta o segredo do cluster a uma chamada para outro nó.
+     */
+    public HttpRequest.Builder authenticate(HttpRequest.Builder request) {
+        return secret.length == 0 ? request : request.header(SECRET_HEADER, new String(secret, StandardCharsets.UTF_8));
+    }
+
+    public List<String> nodes() {
+        return ring.nodes();
+    }
+
+    public boolean isSelf(String node) {
+        return selfUrl.equals(node);
+    }
+
+    /**
+     * Nó dono do jogo no anel atual.
+     */
+    public String owner(String gameId) {
+        return ring.owner(gameId);
+    }
+
+    /**
+     * Dono do jogo antes do rebalanceamento em andamento, ou {@code null} se não houver um.
+     */
+    public String previousOwner(String gameId) {
+        ClusterRing previous = previousRing;
+        return previous == null ? null : previous.owner(gameId);
+    }
+
+    /**
+     * Se um jogo novo com este ID pode ser criado aqui. Sem este nó no anel (nó sendo
+     * desativado), aceita qualquer ID para não travar a criação.
+     */
+    boolean acceptsNewGame(String gameId) {
+        ClusterRing current = ring;
+        return !current.contains(selfUrl) || selfUrl.equals(current.owner(gameId));
+    }
+
+    /**
+     * Troca a lista de nós e guarda o anel anterior até {@link #finishRebalance()}.
+     *
+     * @return nós do anel anterior
+     */
+    public List<String> updateNodes(List<String> nodes) {
+        List<String> normalized = nodes.stream().map(ClusterService::normalize).filter(n -> !n.isEmpty()).toList();
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("A lista de nós não pode ser vazia");
+        }
+        ClusterRing current = ring;
+        if (previousRing == null) {
+            previousRing = current;
+        }
+        ring = new ClusterRing(normalized, virtualNodes);
+        log.info("[cluster] nós alterados: {} -> {}", current.nodes(), ring.nodes());
+        return current.nodes();
+    }
+
+    public void finishRebalance() {
+        previousRing = null;
+    }
+
+    public boolean isRebalancing() {
+        return previousRing != null;
+    }
+
+    public void recordForward(boolean success) {
+        (success ? forwarded : forwardErrors).incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("self", selfUrl);
+        stats.put("nodes", ring.nodes());
+        stats.put("node_count", ring.nodes().size());
+        stats.put("rebalancing", isRebalancing());
+        stats.put("forwarded", forwarded.get());
+        stats.put("forward_errors", forwardErrors.get());
+        return stats;
+    }
+
+    static List<String> parseNodes(String nodes) {
+        return Arrays.stream(nodes.split(","))
+                .map(ClusterService::normalize)
+                .filter(n -> !n.isEmpty())
+                .toList();
+    }
+
+    public static String normalize(String url) {
+        String trimmed = url.trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+}
@@ -0,0 +1,191 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Joga as rodadas em que a CPU adivinha (modo {@value GameService#MODE_PVC_DUEL}).
+ * <p>
+ * Cada alteração de um jogo nessa situação agenda uma jogada após {@code move-delay}, para
+ * que os jogadores acompanhem as tentativas. A jogada escolhe a letra com o
+ * {@link HangmanSolver} olhando só o que é público (tamanho, letras tentadas e posições
+ * reveladas) e a envia pelo {@link GameService}, como qualquer tentativa. A sessão do motor
+ * é mantida entre as jogadas e recebe apenas as tentativas novas.
+ */
+@Service
+public class CpuGuesserService {
+
+    private static final Logger log = LoggerFactory.getLogger(CpuGuesserService.class);
+
+    private final GameService gameService;
+    private final GameRepository games;
+    private final WordDictionary dictionary;
+    private final Duration moveDelay;
+    private final Random random = new Random();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "cpu-guesser");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, RoundSession> sessions = new ConcurrentHashMap<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private HangmanSolver solver;
+
+    private final AtomicLong moves = new AtomicLong();
+    private final AtomicLong roundsWon = new AtomicLong();
+    private final AtomicLong roundsLost = new AtomicLong();
+    private final AtomicLong totalMoveNanos = new AtomicLong();
+    private final AtomicLong maxMoveNanos = new AtomicLong();
+
+    // Sessão do motor para uma rodada; applied = quantas letras tentadas ela já recebeu
+    private static final class RoundSession {
+        final int round;
+        final HangmanSolver.Session session;
+        int applied;
+
+        RoundSession(int round, HangmanSolver.Session session) {
+            this.round = round;
+            this.session = session;
+        }
+    }
+
+    public CpuGuesserService(GameService gameService, GameRepository games, WordDictionary dictionary,
+            @Value("${jogoforca.cpu-guesser.move-delay:PT0.8S}") Duration moveDelay) {
+        this.gameService = gameService;
+        this.games = games;
+        this.dictionary = dictionary;
+        this.moveDelay = moveDelay;
+    }
+
+    @PostConstruct
+    void init() {
+        solver = HangmanSolver.of(dictionary);
+    }
+
+    static boolean isCpuGuessing(Game game) {
+        return GameService.MODE_PVC_DUEL.equals(game.getMode())
+                && GameService.CPU.equals(game.getWordGuesser())
+                && "playing".equals(game.getGameStatus());
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event) {
+        Game game = event.game();
+        if (event.isDeleted()) {
+            sessions.remove(event.gameId());
+            return;
+        }
+        if (isCpuGuessing(game)) {
+            schedule(event.gameId());
+        } else if (sessions.remove(event.gameId()) != null && "guess".equals(event.action())) {
+            // A rodada da CPU acabou nesta tentativa
+            (GameService.CPU.equals(game.getRoundWinner()) ? roundsWon : roundsLost).incrementAndGet();
+        }
+    }
+
+    // Retoma as rodadas da CPU restauradas da persistência
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRestoredGames() {
+        for (String gameId : games.ids()) {
+            Game game = games.get(gameId);
+            if (game != null && isCpuGuessing(game)) {
+                schedule(gameId);
+            }
+        }
+    }
+
+    private void schedule(String gameId) {
+        if (pending.add(gameId)) {
+            scheduler.schedule(() -> move(gameId), moveDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void move(String gameId) {
+        pending.remove(gameId);
+        Game game = games.get(gameId);
+        if (game == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        Integer letter = gameService.read(game, g -> isCpuGuessing(g) ? chooseLetter(g) : null);
+        if (letter == null || letter < 0) {
+            return;
+        }
+        recordMove(System.nanoTime() - start);
+        try {
+            gameService.guessLetterAsCpu(gameId, LetterAlphabet.asString(letter));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // O jogo mudou entre a escolha e a tentativa (abandono, remoção)
+            log.debug("[cpuGuesser] jogada descartada no jogo {}: {}", gameId, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("[cpuGuesser] erro na jogada do jogo {}", gameId, e);
+        }
+    }
+
+    // Chamado sob o lock do jogo
+    private int chooseLetter(Game game) {
+        RoundSession current = sessions.get(game.getGameId());
+        if (current == null || current.round != game.getCurrentRound()
+                || current.applied > game.getGuessedLetters().size()) {
+            current = new RoundSession(game.getCurrentRound(), solver.newSession(game.getWordLength()));
+            sessions.put(game.getGameId(), current);
+        }
+        List<String> guessed = game.getGuessedLetters();
+        for (int i = current.applied; i < guessed.size(); i++) {
+            String letter = guessed.get(i);
+            List<Integer> positions = game.getCorrectPositions().get(letter);
+            int mask = 0;
+            if (positions != null) {
+                for (int position : positions) {
+                    mask |= 1 << position;
+                }
+            }
+            current.session.apply(LetterAlphabet.indexOf(letter.charAt(0)), mask);
+        }
+        current.applied = guessed.size();
+        return current.session.nextLetter(HangmanSolver.Level.parse(game.getCpuLevel()), random);
+    }
+
+    private void recordMove(long nanos) {
+        moves.incrementAndGet();
+        totalMoveNanos.addAndGet(nanos);
+        maxMoveNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public Map<String, Object> getStats() {
+        long moveCount = moves.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active_rounds", sessions.size());
+        stats.put("moves", moveCount);
+        stats.put("rounds_won", roundsWon.get());
+        stats.put("rounds_lost", roundsLost.get());
+        stats.put("avg_move_ms", moveCount == 0 ? 0.0 : totalMoveNanos.get() / 1_000_000.0 / moveCount);
+        stats.put("max_move_ms", maxMoveNanos.get() / 1_000_000.0);
+        stats.put("move_delay_ms", moveDelay.toMillis());
+        return stats;
+    }
+}
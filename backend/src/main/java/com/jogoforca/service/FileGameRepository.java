@@ -0,0 +1,528 @@
+package com.jogoforca.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jogoforca.model.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Armazenamento persistente em disco local. Os jogos continuam em memória no
+ * {@link GameStore} (mesma expiração e limite), e cada alteração grava o estado completo
+ * do jogo em um log só de acréscimo.
+ * <p>
+ * A gravação é write-behind: quem altera o jogo só serializa o estado e enfileira; uma
+ * única thread grava os registros em lote com um fsync por lote. Periodicamente o log é
+ * compactado em um snapshot com o último estado de cada jogo, e os segmentos cobertos são
+ * apagados. Na inicialização, antes de o servidor aceitar requisições, o snapshot mais
+ * recente e os segmentos seguintes são lidos e os estados finais são decodificados em
+ * paralelo.
+ * <p>
+ * Formato de cada registro: tamanho (int), CRC32C (int), operação (byte), tamanho do id
+ * (short), id em UTF-8 e o estado no formato do {@link GameCodec}. Um registro incompleto
+ * ou corrompido no fim de um arquivo (queda durante a escrita) encerra a leitura daquele
+ * arquivo. Registros em JSON, de antes do formato binário, continuam sendo lidos.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "jogoforca.game-store.persistence", havingValue = "file")
+public class FileGameRepository implements GameRepository, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(FileGameRepository.class);
+
+    static final String RESTORED = "restored";
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    // Tamanho + CRC
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_BATCH = 4096;
+    private static final Pattern FILE_NAME = Pattern.compile("(log|snapshot)-(\\d{10})\\.(log|dat)");
+
+    private final GameStore memory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path dataDir;
+    private final long flushIntervalMs;
+    private final boolean fsync;
+    private final long snapshotIntervalNanos;
+    private final long snapshotLogBytes;
+    private final boolean snapshotOnShutdown;
+    private final BlockingQueue<Record> queue;
+    // Último estado serializado de cada jogo; base dos snapshots, sem precisar do lock dos jogos
+    private final Map<String, byte[]> latest = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread writer;
+    // Acessados só pela thread de escrita (ou em start/stop, com ela parada)
+    private FileChannel segmentChannel;
+    private long segment;
+    private long bytesSinceSnapshot;
+    private long lastSnapshotNanos;
+
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong fsyncs = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+    private volatile int restoredGames;
+    private volatile long restoreMillis;
+
+    private record Record(byte op, String gameId, byte[] data) {
+    }
+
+    public FileGameRepository(GameStore memory, ApplicationEventPublisher eventPublisher,
+            @Value("${jogoforca.game-store.data-dir:data/games}") String dataDir,
+            @Value("${jogoforca.game-store.flush-interval-ms:20}") long flushIntervalMs,
+            @Value("${jogoforca.game-store.fsync:true}") boolean fsync,
+            @Value("${jogoforca.game-store.snapshot-interval:PT5M}") Duration snapshotInterval,
+            @Value("${jogoforca.game-store.snapshot-log-bytes:67108864}") long snapshotLogBytes,
+            @Value("${jogoforca.game-store.write-queue-capacity:100000}") int writeQueueCapacity,
+            @Value("${jogoforca.game-store.snapshot-on-shutdown:true}") boolean snapshotOnShutdown) {
+        if (flushIntervalMs < 1 || snapshotLogBytes < 1 || writeQueueCapacity < 1) {
+            throw new IllegalArgumentException("Configuração inválida da persistência de jogos");
+        }
+        this.memory = memory;
+        this.eventPublisher = eventPublisher;
+        this.dataDir = Path.of(dataDir);
+        this.flushIntervalMs = flushIntervalMs;
+        this.fsync = fsync;
+        this.snapshotIntervalNanos = snapshotInterval.toNanos();
+        this.snapshotLogBytes = snapshotLogBytes;
+        this.snapshotOnShutdown = snapshotOnShutdown;
+        this.queue = new LinkedBlockingQueue<>(writeQueueCapacity);
+    }
+
+    @Override
+    public void put(Game game) {
+        // O estado é gravado pelo touch da publicação "created", ainda sob o lock do jogo
+        memory.put(game);
+    }
+
+    @Override
+    public Game get(String gameId) {
+        return memory.get(gameId);
+    }
+
+    @Override
+    public boolean contains(String gameId) {
+        return memory.contains(gameId);
+    }
+
+    @Override
+    public void touch(Game game) {
+        memory.touch(game);
+        if (!memory.contains(game.getGameId())) {
+            return;
+        }
+        byte[] data = encode(game);
+        latest.put(game.getGameId(), data);
+        enqueue(new Record(PUT, game.getGameId(), data));
+    }
+
+    @Override
+    public Game remove(String gameId) {
+        // A remoção é gravada ao receber o evento de exclusão, como nas expirações
+        return memory.remove(gameId);
+    }
+
+    @Override
+    public Set<String> ids() {
+        return memory.ids();
+    }
+
+    @Override
+    public int size() {
+        return memory.size();
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event) {
+        if (event.isDeleted() && latest.remove(event.gameId()) != null) {
+            enqueue(new Record(DELETE, event.gameId(), null));
+        }
+    }
+
+    private void enqueue(Record record) {
+        if (!running) {
+            return;
+        }
+        try {
+            // Fila cheia: quem altera espera o disco (contrapressão) em vez de crescer sem limite
+            queue.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeErrors.incrementAndGet();
+            log.warn("[gameRepository] gravação do jogo {} interrompida", record.gameId());
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            Files.createDirectories(dataDir);
+            long lastSegment = restore();
+            openSegment(lastSegment + 1);
+            lastSnapshotNanos = System.nanoTime();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir os dados dos jogos em " + dataDir, e);
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "game-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            // Snapshot final: o próximo start lê um único arquivo
+            if (snapshotOnShutdown) {
+                snapshot();
+            }
+            segmentChannel.force(false);
+            segmentChannel.close();
+        } catch (IOException e) {
+            log.error("[gameRepository] falha ao gravar snapshot final: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Fase anterior à do servidor web: restaura antes de aceitar requisições e só para
+     * depois que as requisições em andamento terminaram.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void writeLoop() {
+        List<Record> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                Record first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null && !running) {
+                    return;
+                }
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    append(batch);
+                }
+                if (snapshotDue()) {
+                    snapshot();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                writeErrors.incrementAndGet();
+                log.error("[gameRepository] falha ao gravar {} registros: {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void append(List<Record> batch) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        long total = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            Record record = batch.get(i);
+            buffers[i] = encodeRecord(record.op(), record.gameId(), record.data());
+            total += buffers[i].remaining();
+        }
+        long written = 0;
+        while (written < total) {
+            written += segmentChannel.write(buffers);
+        }
+        // Um único fsync para o lote inteiro
+        if (fsync) {
+            segmentChannel.force(false);
+            fsyncs.incrementAndGet();
+        }
+        recordsWritten.addAndGet(batch.size());
+        bytesWritten.addAndGet(total);
+        bytesSinceSnapshot += total;
+    }
+
+    private boolean snapshotDue() {
+        if (bytesSinceSnapshot == 0) {
+            return false;
+        }
+        return bytesSinceSnapshot >= snapshotLogBytes
+                || System.nanoTime() - lastSnapshotNanos >= snapshotIntervalNanos;
+    }
+
+    /**
+     * Troca de segmento e grava o último estado de cada jogo. O snapshot cobre todos os
+     * segmentos até o anterior; registros enfileirados no meio do caminho vão para o novo
+     * segmento e, na leitura, sobrescrevem o snapshot.
+     */
+    private void snapshot() throws IOException {
+        long covered = segment;
+        openSegment(segment + 1);
+
+        Path target = dataDir.resolve(fileName("snapshot", covered, "dat"));
+        Path tmp = dataDir.resolve(target.getFileName() + ".tmp");
+        int games = 0;
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+            for (Map.Entry<String, byte[]> entry : latest.entrySet()) {
+                ByteBuffer record = encodeRecord(PUT, entry.getKey(), entry.getValue());
+                if (record.remaining() > buffer.remaining()) {
+                    writeFully(out, buffer.flip());
+                    buffer.clear();
+                }
+                if (record.remaining() > buffer.capacity()) {
+                    writeFully(out, record);
+                } else {
+                    buffer.put(record);
+                }
+                games++;
+            }
+            writeFully(out, buffer.flip());
+            out.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (Map.Entry<Long, Path> old : listFiles("log").headMap(covered, true).entrySet()) {
+            Files.deleteIfExists(old.getValue());
+        }
+        for (Map.Entry<Long, Path> old : listFiles("snapshot").headMap(covered, false).entrySet()) {
+            Files.deleteIfExists(old.getValue());
+        }
+        bytesSinceSnapshot = 0;
+        lastSnapshotNanos = System.nanoTime();
+        snapshots.incrementAndGet();
+        log.debug("[gameRepository] snapshot {} gravado com {} jogos", covered, games);
+    }
+
+    private void openSegment(long number) throws IOException {
+        if (segmentChannel != null) {
+            segmentChannel.force(false);
+            segmentChannel.close();
+        }
+        segment = number;
+        segmentChannel = FileChannel.open(dataDir.resolve(fileName("log", number, "log")),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Lê o snapshot mais recente e os segmentos seguintes e carrega os jogos na memória.
+     * Retorna o número do último arquivo existente.
+     */
+    long restore() throws IOException {
+        long started = System.nanoTime();
+        try (Stream<Path> leftovers = Files.list(dataDir)) {
+            for (Path tmp : leftovers.filter(p -> p.toString().endsWith(".tmp")).toList()) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        TreeMap<Long, Path> snapshotFiles = listFiles("snapshot");
+        TreeMap<Long, Path> logFiles = listFiles("log");
+        long snapshotNumber = snapshotFiles.isEmpty() ? 0 : snapshotFiles.lastKey();
+
+        // Última versão serializada de cada jogo; nada é decodificado nesta fase
+        Map<String, byte[]> states = new HashMap<>();
+        if (!snapshotFiles.isEmpty()) {
+            readRecords(snapshotFiles.lastEntry().getValue(), states);
+        }
+        for (Path segmentFile : logFiles.tailMap(snapshotNumber, false).values()) {
+            readRecords(segmentFile, states);
+        }
+
+        List<Game> restored = states.entrySet().parallelStream()
+                .map(entry -> {
+                    Game game = decode(entry.getKey(), entry.getValue());
+                    if (game != null) {
+                        memory.put(game);
+                        latest.put(entry.getKey(), entry.getValue());
+                    }
+                    return game;
+                })
+                .filter(Objects::nonNull)
+                .toList();
+        // Ouvintes (métricas, SSE) passam a conhecer os jogos restaurados
+        for (Game game : restored) {
+            eventPublisher.publishEvent(new GameChangedEvent(game, RESTORED));
+        }
+
+        restoredGames = restored.size();
+        restoreMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("[gameRepository] {} jogos restaurados de {} em {} ms", restoredGames, dataDir, restoreMillis);
+        long lastLog = logFiles.isEmpty() ? 0 : logFiles.lastKey();
+        return Math.max(snapshotNumber, lastLog);
+    }
+
+    private void readRecords(Path file, Map<String, byte[]> states) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo grande demais: " + file);
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // lê até o fim
+            }
+            buffer.flip();
+        }
+
+        CRC32C crc = new CRC32C();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length < 3 || length > buffer.remaining()) {
+                log.warn("[gameRepository] registro incompleto em {} (posição {}); restante ignorado", file, start);
+                return;
+            }
+            crc.reset();
+            crc.update(buffer.slice(buffer.position(), length));
+            if ((int) crc.getValue() != expectedCrc) {
+                log.warn("[gameRepository] registro corrompido em {} (posição {}); restante ignorado", file, start);
+                return;
+            }
+            byte op = buffer.get();
+            byte[] id = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(id);
+            byte[] data = new byte[length - 3 - id.length];
+            buffer.get(data);
+            String gameId = new String(id, StandardCharsets.UTF_8);
+            if (op == PUT) {
+                states.put(gameId, data);
+            } else {
+                states.remove(gameId);
+            }
+        }
+    }
+
+    private TreeMap<Long, Path> listFiles(String kind) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(dataDir)) {
+            paths.forEach(path -> {
+                Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches() && matcher.group(1).equals(kind)) {
+                    files.put(Long.parseLong(matcher.group(2)), path);
+                }
+            });
+        }
+        return files;
+    }
+
+    private static String fileName(String kind, long number, String extension) {
+        return String.format("%s-%010d.%s", kind, number, extension);
+    }
+
+    private static ByteBuffer encodeRecord(byte op, String gameId, byte[] data) {
+        byte[] id = gameId.getBytes(StandardCharsets.UTF_8);
+        int length = 3 + id.length + (data == null ? 0 : data.length);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + length);
+        buffer.putInt(length).putInt(0).put(op).putShort((short) id.length).put(id);
+        if (data != null) {
+            buffer.put(data);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), HEADER_BYTES, length);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static byte[] encode(Game game) {
+        return GameCodec.encode(game);
+    }
+
+    private Game decode(String gameId, byte[] data) {
+        try {
+            if (data.length > 0 && data[0] == '{') {
+                return decodeJson(data);
+            }
+            return GameCodec.decode(data);
+        } catch (IOException | RuntimeException e) {
+            log.warn("[gameRepository] jogo {} ignorado na restauração: {}", gameId, e.getMessage());
+            return null;
+        }
+    }
+
+    // Registros gravados em JSON antes do formato binário
+    private Game decodeJson(byte[] data) throws IOException {
+        Game game = objectMapper.readValue(data, Game.class);
+        // O Jackson cria ArrayList/LinkedHashMap; o jogo em memória usa coleções concorrentes
+        game.setPlayers(new CopyOnWriteArrayList<>(game.getPlayers()));
+        game.setGuessedLetters(new CopyOnWriteArrayList<>(game.getGuessedLetters()));
+        game.setCorrectPositions(new ConcurrentHashMap<>(game.getCorrectPositions()));
+        game.setScores(new ConcurrentHashMap<>(game.getScores()));
+        return game;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = memory.getStats();
+        stats.put("persistence", "file");
+        stats.put("records_written", recordsWritten.get());
+        stats.put("bytes_written", bytesWritten.get());
+        stats.put("fsyncs", fsyncs.get());
+        stats.put("snapshots", snapshots.get());
+        stats.put("write_errors", writeErrors.get());
+        stats.put("write_queue", queue.size());
+        stats.put("restored_games", restoredGames);
+        stats.put("restore_ms", restoreMillis);
+        return stats;
+    }
+}
@@ -0,0 +1,40 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+
+/**
+ * Publicado pelo {@link GameService} sempre que um jogo é alterado ou removido.
+ * É entregue de forma síncrona, na mesma thread que fez a alteração.
+ *
+ * @param game   jogo após a alteração (ou o jogo removido, veja {@link #isDeleted()})
+ * @param action operação que causou a mudança: created, join, submit_word, guess, next_round,
+ *               abandon, deleted, expired, evicted, migrated_in ou migrated_out
+ * @param event  registro da operação para o {@link GameHistory}; só nas alterações feitas
+ *               pelas regras do jogo, {@code null} nas demais
+ */
+public record GameChangedEvent(Game game, String action, GameEvent event) {
+
+    public static final String DELETED = "deleted";
+    public static final String EXPIRED = "expired";
+    public static final String EVICTED = "evicted";
+    // Jogo recebido de outro nó do cluster / entregue ao nó que passou a ser o dono
+    public static final String MIGRATED_IN = "migrated_in";
+    public static final String MIGRATED_OUT = "migrated_out";
+
+    public GameChangedEvent(Game game, String action) {
+        this(game, action, null);
+    }
+
+    public String gameId() {
+        return game.getGameId();
+    }
+
+    /**
+     * Indica que o jogo saiu do armazenamento: removido via API, expirado, descartado por limite
+     * ou transferido para outro nó.
+     */
+    public boolean isDeleted() {
+        return DELETED.equals(action) || EXPIRED.equals(action) || EVICTED.equals(action)
+                || MIGRATED_OUT.equals(action);
+    }
+}
@@ -0,0 +1,456 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Formato binário compacto do estado de um {@link Game}, usado na persistência.
+ * <p>
+ * O primeiro byte é a versão do esquema. Nomes de jogadores e demais textos repetidos
+ * ficam em uma tabela de strings do próprio jogo e são referenciados por índice; modos,
+ * status e {@code "CPU"} são constantes fixas da versão. Inteiros usam varint (zigzag
+ * para pontuações), as letras tentadas são um bitset sobre o {@link LetterAlphabet}
+ * seguido da ordem das tentativas, e as posições corretas são máscaras de bits.
+ * <p>
+ * Para evoluir o esquema, novos campos entram no fim com uma nova versão; o decodificador
+ * continua aceitando as versões anteriores e usa valores padrão para o que faltar.
+ */
+public final class GameCodec {
+
+    // v2: nível da CPU no fim
+    static final byte SCHEMA_VERSION = 2;
+
+    // Referência 0 = null; 1..N = constantes; depois, a tabela de strings do jogo
+    private static final List<String> CONSTANTS_V1 = List.of(
+            "pvp", "pvc", "waiting_players", "waiting_word", "playing", "round_finished",
+            "game_finished", "CPU", "");
+    private static final Map<String, Integer> CONSTANT_REFS = new HashMap<>();
+
+    static {
+        for (int i = 0; i < CONSTANTS_V1.size(); i++) {
+            CONSTANT_REFS.put(CONSTANTS_V1.get(i), i + 1);
+        }
+    }
+
+    private GameCodec() {
+    }
+
+    public static byte[] encode(Game game) {
+        Output out = new Output(128);
+        List<String> table = new ArrayList<>(8);
+        intern(table, game.getMode());
+        if (game.getPlayers() != null) {
+            for (String player : game.getPlayers()) {
+                intern(table, player);
+            }
+        }
+        intern(table, game.getWordCreator());
+        intern(table, game.getWordGuesser());
+        intern(table, game.getRoundWinner());
+        intern(table, game.getGameWinner());
+        if (game.getScores() != null) {
+            game.getScores().keySet().forEach(name -> intern(table, name));
+        }
+
+        out.writeByte(SCHEMA_VERSION);
+        out.writeString(game.getGameId());
+        out.writeVarint(table.size());
+        for (String value : table) {
+            out.writeString(value);
+        }
+
+        out.writeVarint(ref(table, game.getMode()));
+        List<String> players = game.getPlayers();
+        out.writeVarint(players == null ? 0 : players.size() + 1);
+        if (players != null) {
+            for (String player : players) {
+                out.writeVarint(ref(table, player));
+            }
+        }
+        out.writeVarint(game.getCurrentRound());
+        out.writeVarint(game.getMaxRounds());
+        Map<String, Integer> scores = game.getScores();
+        out.writeVarint(scores == null ? 0 : scores.size());
+        if (scores != null) {
+            for (Map.Entry<String, Integer> score : scores.entrySet()) {
+                out.writeVarint(ref(table, score.getKey()));
+                out.writeZigzag(score.getValue());
+            }
+        }
+        out.writeVarint(ref(table, game.getWordCreator()));
+        out.writeVarint(ref(table, game.getWordGuesser()));
+        out.writeNullableString(game.getSecretWord());
+        out.writeNullableString(game.getHint());
+        out.writeVarint(game.getWordLength() == null ? 0 : game.getWordLength() + 1L);
+        writeGuessedLetters(out, game.getGuessedLetters());
+        writeCorrectPositions(out, game.getCorrectPositions());
+        out.writeVarint(game.getAttemptsLeft());
+        out.writeVarint(game.getMaxAttempts());
+        out.writeVarint(ref(table, game.getGameStatus()));
+        out.writeVarint(ref(table, game.getRoundWinner()));
+        out.writeVarint(ref(table, game.getGameWinner()));
+        out.writeVarint(game.getVersion());
+        out.writeNullableString(game.getCpuLevel());
+        return out.toByteArray();
+    }
+
+    /**
+     * Lê um jogo gravado por {@link #encode(Game)} nesta versão ou em uma anterior.
+     *
+     * @throws IllegalArgumentException se os dados estiverem truncados ou corrompidos
+     */
+    public static Game decode(byte[] data) {
+        Input in = new Input(data);
+        int schemaVersion = in.readByte();
+        if (schemaVersion < 1 || schemaVersion > SCHEMA_VERSION) {
+            throw new IllegalArgumentException("Versão de esquema desconhecida: " + schemaVersion);
+        }
+        Game game = new Game();
+        game.setGameId(in.readString());
+        String[] table = new String[in.readCount()];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = in.readString();
+        }
+
+        game.setMode(deref(table, in.readVarintInt()));
+        int playerCount = in.readCount();
+        if (playerCount > 0) {
+            String[] players = new String[playerCount - 1];
+            for (int i = 0; i < players.length; i++) {
+                players[i] = deref(table, in.readVarintInt());
+            }
+            game.setPlayers(new CopyOnWriteArrayList<>(players));
+        }
+        game.setCurrentRound(in.readVarintInt());
+        game.setMaxRounds(in.readVarintInt());
+        int scoreCount = in.readCount();
+        Map<String, Integer> scores = new ConcurrentHashMap<>();
+        for (int i = 0; i < scoreCount; i++) {
+            String name = deref(table, in.readVarintInt());
+            if (name == null) {
+                throw new IllegalArgumentException("Pontuação sem jogador");
+            }
+            scores.put(name, in.readZigzag());
+        }
+        game.setScores(scores);
+        game.setWordCreator(deref(table, in.readVarintInt()));
+        game.setWordGuesser(deref(table, in.readVarintInt()));
+        game.setSecretWord(in.readNullableString());
+        game.setHint(in.readNullableString());
+        int wordLength = in.readVarintInt();
+        game.setWordLength(wordLength == 0 ? null : wordLength - 1);
+        game.setGuessedLetters(readGuessedLetters(in));
+        game.setCorrectPositions(readCorrectPositions(in));
+        game.setAttemptsLeft(in.readVarintInt());
+        game.setMaxAttempts(in.readVarintInt());
+        game.setGameStatus(deref(table, in.readVarintInt()));
+        game.setRoundWinner(deref(table, in.readVarintInt()));
+        game.setGameWinner(deref(table, in.readVarintInt()));
+        game.setVersion(in.readVarint());
+        if (schemaVersion >= 2) {
+            game.setCpuLevel(in.readNullableString());
+        }
+        return game;
+    }
+
+    private static void intern(List<String> table, String value) {
+        if (value != null && !CONSTANT_REFS.containsKey(value) && !table.contains(value)) {
+            table.add(value);
+        }
+    }
+
+    private static int ref(List<String> table, String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer constant = CONSTANT_REFS.get(value);
+        if (constant != null) {
+            return constant;
+        }
+        int index = table.indexOf(value);
+        if (index < 0) {
+            throw new IllegalStateException("String fora da tabela: " + value);
+        }
+        return CONSTANTS_V1.size() + 1 + index;
+    }
+
+    private static String deref(String[] table, int ref) {
+        if (ref == 0) {
+            return null;
+        }
+        if (ref <= CONSTANTS_V1.size()) {
+            return CONSTANTS_V1.get(ref - 1);
+        }
+        int index = ref - CONSTANTS_V1.size() - 1;
+        if (index >= table.length) {
+            throw new IllegalArgumentException("Referência inválida na tabela de strings: " + ref);
+        }
+        return table[index];
+    }
+
+    /**
+     * Bitset das letras e, em seguida, a ordem das tentativas: para cada letra, a sua
+     * posição entre as letras do bitset, com o mínimo de bits necessário.
+     */
+    private static void writeGuessedLetters(Output out, List<String> guessedLetters) {
+        int count = guessedLetters == null ? 0 : guessedLetters.size();
+        int[] indexes = new int[count];
+        long bitset = 0;
+        for (int i = 0; i < count; i++) {
+            String letter = guessedLetters.get(i);
+            int index = letter.length() == 1 ? LetterAlphabet.indexOf(letter.charAt(0)) : -1;
+            if (index < 0) {
+                throw new IllegalArgumentException("Letra fora do alfabeto: " + letter);
+            }
+            indexes[i] = index;
+            bitset |= 1L << index;
+        }
+        out.writeVarint(bitset);
+        int bits = rankBits(count);
+        long packed = 0;
+        int pending = 0;
+        for (int index : indexes) {
+            int rank = Long.bitCount(bitset & ((1L << index) - 1));
+            packed |= (long) rank << pending;
+            pending += bits;
+            while (pending >= 8) {
+                out.writeByte((byte) packed);
+                packed >>>= 8;
+                pending -= 8;
+            }
+        }
+        if (pending > 0) {
+            out.writeByte((byte) packed);
+        }
+    }
+
+    private static List<String> readGuessedLetters(Input in) {
+        long bitset = in.readVarint();
+        if (bitset >>> LetterAlphabet.SIZE != 0) {
+            throw new IllegalArgumentException("Letra tentada fora do alfabeto");
+        }
+        int count = Long.bitCount(bitset);
+        int[] byRank = new int[count];
+        int rank = 0;
+        for (long mask = bitset; mask != 0; mask &= mask - 1) {
+            byRank[rank++] = Long.numberOfTrailingZeros(mask);
+        }
+        int bits = rankBits(count);
+        String[] letters = new String[count];
+        long packed = 0;
+        int available = 0;
+        for (int i = 0; i < count; i++) {
+            while (available < bits) {
+                packed |= (long) (in.readByte() & 0xFF) << available;
+                available += 8;
+            }
+            int letterRank = (int) (packed & ((1L << bits) - 1));
+            packed >>>= bits;
+            available -= bits;
+            if (letterRank >= count) {
+                throw new IllegalArgumentException("Ordem das tentativas inválida");
+            }
+            letters[i] = LetterAlphabet.asString(byRank[letterRank]);
+        }
+        return new CopyOnWriteArrayList<>(letters);
+    }
+
+    private static int rankBits(int count) {
+        return count <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(count - 1);
+    }
+
+    private static void writeCorrectPositions(Output out, Map<String, List<Integer>> correctPositions) {
+        int count = correctPositions == null ? 0 : correctPositions.size();
+        out.writeVarint(count);
+        if (count == 0) {
+            return;
+        }
+        for (Map.Entry<String, List<Integer>> entry : correctPositions.entrySet()) {
+            String letter = entry.getKey();
+            int index = letter.length() == 1 ? LetterAlphabet.indexOf(letter.charAt(0)) : -1;
+            if (index < 0) {
+                throw new IllegalArgumentException("Letra fora do alfabeto: " + letter);
+            }
+            int mask = 0;
+            for (int position : entry.getValue()) {
+                if (position < 0 || position >= Integer.SIZE) {
+                    throw new IllegalArgumentException("Posição fora da máscara: " + position);
+                }
+                mask |= 1 << position;
+            }
+            out.writeByte((byte) index);
+            out.writeVarint(mask & 0xFFFFFFFFL);
+        }
+    }
+
+    private static Map<String, List<Integer>> readCorrectPositions(Input in) {
+        int count = in.readCount();
+        Map<String, List<Integer>> correctPositions = new ConcurrentHashMap<>();
+        for (int i = 0; i < count; i++) {
+            int index = in.readByte();
+            if (index < 0 || index >= LetterAlphabet.SIZE) {
+                throw new IllegalArgumentException("Letra fora do alfabeto: " + index);
+            }
+            long mask = in.readVarint();
+            if (mask >>> Integer.SIZE != 0) {
+                throw new IllegalArgumentException("Máscara de posições inválida");
+            }
+            Integer[] positions = new Integer[Long.bitCount(mask)];
+            int p = 0;
+            for (long m = mask; m != 0; m &= m - 1) {
+                positions[p++] = Long.numberOfTrailingZeros(m);
+            }
+            correctPositions.put(LetterAlphabet.asString(index), new ArrayList<>(Arrays.asList(positions)));
+        }
+        return correctPositions;
+    }
+
+    private static final class Output {
+        private byte[] buffer;
+        private int size;
+
+        Output(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void writeByte(byte value) {
+            ensure(1);
+            buffer[size++] = value;
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeZigzag(int value) {
+            writeVarint(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+
+        void writeString(String value) {
+            writeUtf8(value, 0);
+        }
+
+        // 0 = null; senão tamanho + 1
+        void writeNullableString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            writeUtf8(value, 1);
+        }
+
+        // Prefixo com o tamanho em bytes (mais {@code bias}); ASCII é copiado sem alocar
+        private void writeUtf8(String value, int bias) {
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                if (value.charAt(i) >= 0x80) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    writeVarint(bytes.length + (long) bias);
+                    ensure(bytes.length);
+                    System.arraycopy(bytes, 0, buffer, size, bytes.length);
+                    size += bytes.length;
+                    return;
+                }
+            }
+            writeVarint(length + (long) bias);
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                buffer[size++] = (byte) value.charAt(i);
+            }
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Input {
+        private final byte[] data;
+        private int position;
+
+        Input(byte[] data) {
+            if (data == null) {
+                throw new IllegalArgumentException("Dados do jogo ausentes");
+            }
+            this.data = data;
+        }
+
+        int readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Dados do jogo truncados");
+            }
+            return data[position++];
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint inválido");
+        }
+
+        int readVarintInt() {
+            long value = readVarint();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Valor fora do intervalo: " + value);
+            }
+            return (int) value;
+        }
+
+        // Quantidade de itens a seguir; cada um ocupa ao menos um byte
+        int readCount() {
+            int count = readVarintInt();
+            if (count > data.length - position + 1) {
+                throw new IllegalArgumentException("Quantidade de itens maior que os dados: " + count);
+            }
+            return count;
+        }
+
+        int readZigzag() {
+            long value = readVarint();
+            return (int) (value >>> 1) ^ -(int) (value & 1);
+        }
+
+        String readString() {
+            return readUtf8(readVarintInt());
+        }
+
+        String readNullableString() {
+            int length = readVarintInt();
+            return length == 0 ? null : readUtf8(length - 1);
+        }
+
+        private String readUtf8(int length) {
+            if (length > data.length - position) {
+                throw new IllegalArgumentException("Dados do jogo truncados");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
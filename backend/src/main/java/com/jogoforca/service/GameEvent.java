@@ -0,0 +1,49 @@
+package com.jogoforca.service;
+
+import java.util.List;
+
+/**
+ * Alteração de um jogo feita pelo {@link GameService}, como registrada no {@link GameHistory}.
+ * <p>
+ * Guarda só a entrada da operação e as escolhas não determinísticas feitas durante ela; o
+ * efeito é obtido reaplicando as {@link GameRules} em ordem.
+ *
+ * @param seq   versão do jogo após a alteração
+ * @param type  operação
+ * @param args  entrada da operação (veja {@link Type}); pode conter {@code null}
+ * @param picks sorteios feitos pelas regras, na ordem
+ * @param words palavras escolhidas pela CPU, na ordem
+ */
+public record GameEvent(long seq, Type type, List<String> args, int[] picks, List<String> words) {
+
+    /**
+     * Operações registradas; {@code action} é a mesma do {@link GameChangedEvent}.
+     */
+    public enum Type {
+        // args: modo, nível da CPU, jogadores...
+        CREATED("created"),
+        // args: jogador
+        JOIN("join"),
+        // args: palavra, dica
+        SUBMIT_WORD("submit_word"),
+        // args: letra
+        GUESS("guess"),
+        NEXT_ROUND("next_round"),
+        // args: jogador
+        ABANDON("abandon");
+
+        private final String action;
+
+        Type(String action) {
+            this.action = action;
+        }
+
+        public String action() {
+            return action;
+        }
+    }
+
+    public String arg(int index) {
+        return index < args.size() ? args.get(index) : null;
+    }
+}
@@ -0,0 +1,423 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import com.jogoforca.model.GameConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Histórico de eventos de cada jogo em memória, para recuperação incremental
+ * ({@code GET /api/game/{gameId}/events?since=N}) e reconstrução determinística do jogo.
+ * <p>
+ * Cada {@link GameEvent} é gravado em um {@code byte[]} por jogo: tipo (1 byte), argumentos
+ * como UTF-8 com tamanho em varint, sorteios em varint e palavras da CPU. A sequência de cada
+ * evento é a versão do jogo, implícita pela posição no log. A cada {@value #CHECKPOINT_INTERVAL}
+ * versões guarda-se também um checkpoint: o estado completo depois do evento, no formato do
+ * {@link GameCodec}. O estado depois de qualquer evento é reconstruído a partir do checkpoint
+ * anterior mais próximo (ou da criação), reaplicando as regras.
+ * <p>
+ * Acima de {@code max-events-per-game} os eventos mais antigos são descartados até um
+ * checkpoint perto da metade do log, que passa a ser o ponto de partida. Jogos restaurados
+ * da persistência ou recebidos de outro nó começam o histórico na versão em que chegaram,
+ * com um checkpoint no primeiro evento. Quem pede eventos anteriores ao primeiro guardado
+ * recebe o estado completo.
+ * <p>
+ * Gravação e leitura acontecem sob o lock do jogo (o {@link GameChangedEvent} é síncrono).
+ */
+@Service
+public class GameHistory {
+
+    private static final int NULL_STRING = 0;
+
+    /**
+     * Versões entre checkpoints; menor com {@code max-events-per-game} baixo, para sempre
+     * haver um checkpoint onde truncar.
+     */
+    static final int CHECKPOINT_INTERVAL = 64;
+
+    private final int maxEventsPerGame;
+    private final int checkpointInterval;
+    private final Map<String, Log> logs = new ConcurrentHashMap<>();
+    // Totais dos logs atuais, mantidos a cada alteração para as estatísticas não varrerem os jogos
+    private final AtomicLong liveEvents = new AtomicLong();
+    private final AtomicLong liveBytes = new AtomicLong();
+    private final AtomicLong liveCheckpointBytes = new AtomicLong();
+    private final AtomicLong eventsRecorded = new AtomicLong();
+    private final AtomicLong truncations = new AtomicLong();
+    private final AtomicLong replays = new AtomicLong();
+
+    public GameHistory(@Value("${jogoforca.history.max-events-per-game:512}") int maxEventsPerGame) {
+        this.maxEventsPerGame = Math.max(2, maxEventsPerGame);
+        this.checkpointInterval = Math.min(CHECKPOINT_INTERVAL, this.maxEventsPerGame / 2);
+    }
+
+    // Eventos de um jogo (bytes concatenados e o início de cada um) e os checkpoints
+    private static final class Log {
+        byte[] data = new byte[64];
+        int length;
+        int[] offsets = new int[16];
+        int count;
+        long firstSeq;
+        // Estado depois do evento de índice checkpointIndexes[i], em ordem crescente de índice
+        int[] checkpointIndexes = new int[4];
+        byte[][] checkpointStates = new byte[4][];
+        int checkpoints;
+        int checkpointBytes;
+
+        Log(long firstSeq) {
+            this.firstSeq = firstSeq;
+        }
+
+        long nextSeq() {
+            return firstSeq + count;
+        }
+
+        void append(byte[] event) {
+            if (length + event.length > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + event.length));
+            }
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = length;
+            System.arraycopy(event, 0, data, length, event.length);
+            length += event.length;
+        }
+
+        // Checkpoint do último evento gravado
+        void checkpoint(Game after) {
+            if (checkpoints == checkpointIndexes.length) {
+                checkpointIndexes = Arrays.copyOf(checkpointIndexes, checkpoints * 2);
+                checkpointStates = Arrays.copyOf(checkpointStates, checkpoints * 2);
+            }
+            byte[] state = GameCodec.encode(after);
+            checkpointIndexes[checkpoints] = count - 1;
+            checkpointStates[checkpoints++] = state;
+            checkpointBytes += state.length;
+        }
+
+        // Posição do último checkpoint com índice até index, ou -1
+        int checkpointAtOrBefore(int index) {
+            int i = checkpoints - 1;
+            while (i >= 0 && checkpointIndexes[i] > index) {
+                i--;
+            }
+            return i;
+        }
+
+        // Descarta os eventos anteriores ao último checkpoint até a metade; devolve quantos
+        int dropOldestHalf() {
+            int checkpoint = checkpointAtOrBefore(count / 2);
+            int events = checkpoint < 0 ? 0 : checkpointIndexes[checkpoint];
+            if (events == 0) {
+                return 0;
+            }
+            int start = offsets[events];
+            System.arraycopy(data, start, data, 0, length - start);
+            length -= start;
+            for (int i = events; i < count; i++) {
+                offsets[i - events] = offsets[i] - start;
+            }
+            count -= events;
+            firstSeq += events;
+            for (int i = 0; i < checkpoint; i++) {
+                checkpointBytes -= checkpointStates[i].length;
+            }
+            for (int i = checkpoint; i < checkpoints; i++) {
+                checkpointIndexes[i - checkpoint] = checkpointIndexes[i] - events;
+                checkpointStates[i - checkpoint] = checkpointStates[i];
+            }
+            Arrays.fill(checkpointStates, checkpoints - checkpoint, checkpoints, null);
+            checkpoints -= checkpoint;
+            return events;
+        }
+
+        GameEvent read(int index) {
+            return read(new Reader(data, offsets[index]), index);
+        }
+
+        GameEvent read(Reader in, int index) {
+            GameEvent.Type type = GameEvent.Type.values()[in.data[in.pos++]];
+            List<String> args = in.strings();
+            int[] picks = new int[in.varint()];
+            for (int i = 0; i < picks.length; i++) {
+                picks[i] = in.varint();
+            }
+            List<String> words = in.strings();
+            return new GameEvent(firstSeq + index, type, args, picks, words);
+        }
+
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event) {
+        if (event.isDeleted()) {
+            forget(logs.remove(event.gameId()));
+            return;
+        }
+        GameEvent recorded = event.event();
+        if (recorded == null) {
+            return;
+        }
+        Log log = logs.get(event.gameId());
+        if (log == null || log.nextSeq() != recorded.seq()) {
+            // Primeiro evento visto aqui, ou lacuna (o jogo mudou sem passar pelo GameService)
+            forget(log);
+            log = new Log(recorded.seq());
+            logs.put(event.gameId(), log);
+        }
+        byte[] encoded = encode(recorded);
+        log.append(encoded);
+        eventsRecorded.incrementAndGet();
+        liveEvents.incrementAndGet();
+        liveBytes.addAndGet(encoded.length);
+        // Sem checkpoint, um log só pode começar pela criação
+        boolean first = log.count == 1 && recorded.type() != GameEvent.Type.CREATED;
+        if (first || recorded.seq() % checkpointInterval == 0) {
+            int before = log.checkpointBytes;
+            log.checkpoint(event.game());
+            liveCheckpointBytes.addAndGet(log.checkpointBytes - before);
+        }
+        if (log.count > maxEventsPerGame) {
+            int before = log.length;
+            int beforeCheckpoints = log.checkpointBytes;
+            int dropped = log.dropOldestHalf();
+            liveEvents.addAndGet(-dropped);
+            liveBytes.addAndGet(log.length - before);
+            liveCheckpointBytes.addAndGet(log.checkpointBytes - beforeCheckpoints);
+            truncations.incrementAndGet();
+        }
+    }
+
+    private void forget(Log log) {
+        if (log != null) {
+            liveEvents.addAndGet(-log.count);
+            liveBytes.addAndGet(-log.length);
+            liveCheckpointBytes.addAndGet(-log.checkpointBytes);
+        }
+    }
+
+    /**
+     * Recuperação incremental: chama {@code afterEach} com cada evento de sequência maior que
+     * {@code since} e o estado do jogo logo depois dele, reconstruído a partir do checkpoint
+     * anterior. O estado é o mesmo objeto, alterado a cada evento. Devolve {@code false}, sem
+     * chamar nada, se o histórico não cobre a partir de {@code since} (eventos descartados,
+     * jogo sem histórico ou que chegou a este nó depois dessa versão). Chamar sob o lock do jogo.
+     */
+    public boolean eventsSince(String gameId, long since, BiConsumer<GameEvent, Game> afterEach) {
+        Log log = logs.get(gameId);
+        if (log == null || since < log.firstSeq - 1) {
+            return false;
+        }
+        int from = (int) Math.min(log.count, since + 1 - log.firstSeq);
+        if (from < log.count) {
+            rebuild(gameId, log, from, afterEach);
+        }
+        return true;
+    }
+
+    /**
+     * Estado depois do último evento, reconstruído a partir do checkpoint mais recente (ou da
+     * criação) reaplicando as regras; vazio se não há histórico. Chamar sob o lock do jogo.
+     */
+    public Optional<Game> replay(String gameId) {
+        Log log = logs.get(gameId);
+        if (log == null || log.count == 0) {
+            return Optional.empty();
+        }
+        replays.incrementAndGet();
+        Game[] last = new Game[1];
+        rebuild(gameId, log, log.count - 1, (event, game) -> last[0] = game);
+        return Optional.of(last[0]);
+    }
+
+    // Chama afterEach a partir do evento de índice from, partindo do último checkpoint até ele
+    private static void rebuild(String gameId, Log log, int from, BiConsumer<GameEvent, Game> afterEach) {
+        int checkpoint = log.checkpointAtOrBefore(from);
+        int index = 0;
+        Game game = null;
+        if (checkpoint >= 0) {
+            index = log.checkpointIndexes[checkpoint];
+            game = GameCodec.decode(log.checkpointStates[checkpoint]);
+            if (index == from) {
+                afterEach.accept(log.read(index), game);
+            }
+            index++;
+        } else if (log.firstSeq != 1) {
+            throw new IllegalStateException("Histórico sem checkpoint inicial no jogo " + gameId);
+        }
+        for (; index < log.count; index++) {
+            GameEvent event = log.read(index);
+            game = apply(gameId, game, event);
+            game.setVersion(event.seq());
+            if (index >= from) {
+                afterEach.accept(event, game);
+            }
+        }
+    }
+
+    static Game apply(String gameId, Game game, GameEvent event) {
+        ReplayedChoices choices = new ReplayedChoices(event);
+        switch (event.type()) {
+            case CREATED -> {
+                GameConfig config = new GameConfig();
+                config.setMode(event.arg(0));
+                config.setCpuLevel(event.arg(1));
+                config.setPlayers(new ArrayList<>(event.args().subList(2, event.args().size())));
+                game = GameRules.create(gameId, config, choices);
+            }
+            case JOIN -> GameRules.join(game, event.arg(0), choices);
+            case SUBMIT_WORD -> GameRules.submitWord(game, event.arg(0), event.arg(1));
+            case GUESS -> GameRules.guess(game, event.arg(0), GameRules.cpuGuesses(game));
+            case NEXT_ROUND -> GameRules.nextRound(game, choices);
+            case ABANDON -> GameRules.abandon(game, event.arg(0), choices);
+        }
+        return game;
+    }
+
+    // Devolve as escolhas gravadas no evento, na mesma ordem
+    private static final class ReplayedChoices implements GameRules.Choices {
+        private final GameEvent event;
+        private int nextPick;
+        private int nextWord;
+
+        ReplayedChoices(GameEvent event) {
+            this.event = event;
+        }
+
+        @Override
+        public int pick(int bound) {
+            if (nextPick >= event.picks().length || event.picks()[nextPick] >= bound) {
+                throw new IllegalStateException("Histórico inconsistente no evento " + event.seq());
+            }
+            return event.picks()[nextPick++];
+        }
+
+        @Override
+        public String cpuWord(Game game) {
+            if (nextWord >= event.words().size()) {
+                throw new IllegalStateException("Histórico inconsistente no evento " + event.seq());
+            }
+            return event.words().get(nextWord++);
+        }
+    }
+
+    static byte[] encode(GameEvent event) {
+        Writer out = new Writer();
+        out.write(event.type().ordinal());
+        out.strings(event.args());
+        out.varint(event.picks().length);
+        for (int pick : event.picks()) {
+            out.varint(pick);
+        }
+        out.strings(event.words());
+        return out.toByteArray();
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[16];
+        private int length;
+
+        void write(int value) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, length * 2);
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        void varint(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        // Tamanho + 1 (0 = null) e os bytes em UTF-8
+        void strings(List<String> values) {
+            varint(values.size());
+            for (String value : values) {
+                if (value == null) {
+                    varint(NULL_STRING);
+                    continue;
+                }
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                varint(bytes.length + 1);
+                for (byte b : bytes) {
+                    write(b);
+                }
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    private static final class Reader {
+        final byte[] data;
+        int pos;
+
+        Reader(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+
+        int varint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        List<String> strings() {
+            int size = varint();
+            if (size == 0) {
+                return List.of();
+            }
+            String[] values = new String[size];
+            for (int i = 0; i < size; i++) {
+                int length = varint();
+                if (length != NULL_STRING) {
+                    values[i] = new String(data, pos, length - 1, StandardCharsets.UTF_8);
+                    pos += length - 1;
+                }
+            }
+            return Arrays.asList(values);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long events = liveEvents.get();
+        long bytes = liveBytes.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("games", logs.size());
+        stats.put("events", events);
+        stats.put("event_bytes", bytes);
+        stats.put("avg_event_bytes", events == 0 ? 0.0 : (double) bytes / events);
+        stats.put("checkpoint_bytes", liveCheckpointBytes.get());
+        stats.put("checkpoint_interval", checkpointInterval);
+        stats.put("events_recorded", eventsRecorded.get());
+        stats.put("max_events_per_game", maxEventsPerGame);
+        stats.put("truncations", truncations.get());
+        stats.put("replays", replays.get());
+        return stats;
+    }
+}
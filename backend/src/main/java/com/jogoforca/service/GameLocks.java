@@ -0,0 +1,29 @@
+package com.jogoforca.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Locks por jogo, distribuídos em faixas (striping): alterações no mesmo jogo são
+ * serializadas, enquanto jogos diferentes quase sempre caem em locks diferentes e
+ * seguem em paralelo. O número de locks é fixo, independente da quantidade de jogos.
+ */
+final class GameLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    GameLocks(int stripes) {
+        // Arredonda para potência de 2 para escolher a faixa com uma máscara
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    ReentrantLock forGame(String gameId) {
+        int h = gameId.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+}
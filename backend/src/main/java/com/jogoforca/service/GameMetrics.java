@@ -0,0 +1,129 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Métricas dos jogos em memória e dos serviços de apoio.
+ * <p>
+ * O gauge {@code jogoforca.games.live} (por {@code status} e {@code mode}) é mantido a
+ * partir dos eventos de alteração, sem varrer o armazenamento a cada coleta. As
+ * estatísticas do pool de palavras, do cache de dicas, do armazenamento e do cluster são
+ * expostas como gauges com a tag {@code stat} igual às chaves de {@code /api/health/*} e
+ * {@code /api/cluster}.
+ */
+@Component
+public class GameMetrics implements MeterBinder {
+
+    private final WordPoolService wordPoolService;
+    private final HintCacheService hintCacheService;
+    private final GameRepository gameRepository;
+    private final ClusterRebalancer clusterRebalancer;
+    private final CpuGuesserService cpuGuesser;
+    private final RequestRateLimiter rateLimiter;
+    private final OllamaService ollamaService;
+    private final GameHistory gameHistory;
+    private final MatchmakingService matchmaking;
+    private final PlayerStatsService playerStats;
+    // Grupo (status e modo) em que cada jogo está contado
+    private final Map<String, GroupKey> groupByGame = new ConcurrentHashMap<>();
+    private final Map<GroupKey, AtomicLong> liveByGroup = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    private record GroupKey(String status, String mode) {
+    }
+
+    public GameMetrics(WordPoolService wordPoolService, HintCacheService hintCacheService,
+            GameRepository gameRepository, ClusterRebalancer clusterRebalancer, CpuGuesserService cpuGuesser,
+            RequestRateLimiter rateLimiter, OllamaService ollamaService, GameHistory gameHistory,
+            MatchmakingService matchmaking, PlayerStatsService playerStats) {
+        this.wordPoolService = wordPoolService;
+        this.hintCacheService = hintCacheService;
+        this.gameRepository = gameRepository;
+        this.clusterRebalancer = clusterRebalancer;
+        this.cpuGuesser = cpuGuesser;
+        this.rateLimiter = rateLimiter;
+        this.ollamaService = ollamaService;
+        this.gameHistory = gameHistory;
+        this.matchmaking = matchmaking;
+        this.playerStats = playerStats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        liveByGroup.forEach((key, count) -> registerLiveGauge(registry, key, count));
+        bindStats(registry, "jogoforca.word_pool", "Estatísticas de /api/health/word-pool", wordPoolService::getStats);
+        bindStats(registry, "jogoforca.hint_cache", "Estatísticas de /api/health/hint-cache", hintCacheService::getStats);
+        bindStats(registry, "jogoforca.game_store", "Estatísticas de /api/health/game-store", gameRepository::getStats);
+        bindStats(registry, "jogoforca.cluster", "Estatísticas de /api/cluster", clusterRebalancer::getStats);
+        bindStats(registry, "jogoforca.cpu_guesser", "Estatísticas de /api/health/cpu-guesser", cpuGuesser::getStats);
+        bindStats(registry, "jogoforca.rate_limit", "Estatísticas de /api/health/rate-limit", rateLimiter::getStats);
+        bindStats(registry, "jogoforca.ollama", "Estatísticas de /api/health/ollama", ollamaService::getStats);
+        bindStats(registry, "jogoforca.history", "Estatísticas de /api/health/history", gameHistory::getStats);
+        bindStats(registry, "jogoforca.matchmaking", "Estatísticas de /api/health/matchmaking", matchmaking::getStats);
+        bindStats(registry, "jogoforca.leaderboard", "Estatísticas de /api/health/leaderboard", playerStats::getStats);
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event) {
+        Game game = event.game();
+        if (event.isDeleted()) {
+            GroupKey previous = groupByGame.remove(event.gameId());
+            if (previous != null) {
+                liveByGroup.get(previous).decrementAndGet();
+            }
+            return;
+        }
+        GroupKey current = new GroupKey(String.valueOf(game.getGameStatus()), String.valueOf(game.getMode()));
+        AtomicLong currentCount = liveByGroup.computeIfAbsent(current, this::newGroup);
+        GroupKey previous = groupByGame.put(event.gameId(), current);
+        if (current.equals(previous)) {
+            return;
+        }
+        currentCount.incrementAndGet();
+        if (previous != null) {
+            liveByGroup.get(previous).decrementAndGet();
+        }
+    }
+
+    private AtomicLong newGroup(GroupKey key) {
+        AtomicLong count = new AtomicLong();
+        MeterRegistry current = registry;
+        if (current != null) {
+            registerLiveGauge(current, key, count);
+        }
+        return count;
+    }
+
+    private static void registerLiveGauge(MeterRegistry registry, GroupKey key, AtomicLong count) {
+        Gauge.builder("jogoforca.games.live", count, AtomicLong::get)
+                .description("Jogos em memória por status e modo")
+                .tags("status", key.status(), "mode", key.mode())
+                .register(registry);
+    }
+
+    private static void bindStats(MeterRegistry registry, String name, String description,
+            Supplier<Map<String, Object>> stats) {
+        for (Map.Entry<String, Object> entry : stats.get().entrySet()) {
+            if (!(entry.getValue() instanceof Number)) {
+                continue;
+            }
+            String key = entry.getKey();
+            Gauge.builder(name, stats, s -> ((Number) s.get().get(key)).doubleValue())
+                    .description(description)
+                    .tag("stat", key)
+                    .strongReference(true)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Armazenamento dos jogos usado pelo {@link GameService}.
+ * <p>
+ * As alterações de um jogo são feitas sob o lock do jogo e terminam com {@link #touch(Game)},
+ * de modo que a implementação pode registrar o estado completo naquele momento.
+ */
+public interface GameRepository {
+
+    void put(Game game);
+
+    /**
+     * Busca o jogo e registra o acesso. Retorna {@code null} se não existir.
+     */
+    Game get(String gameId);
+
+    boolean contains(String gameId);
+
+    /**
+     * Registra uma alteração no jogo. Chamado sob o lock do jogo.
+     */
+    void touch(Game game);
+
+    Game remove(String gameId);
+
+    Set<String> ids();
+
+    int size();
+
+    Map<String, Object> getStats();
+}
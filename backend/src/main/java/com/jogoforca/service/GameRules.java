@@ -0,0 +1,451 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import com.jogoforca.model.GameConfig;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Regras do jogo aplicadas diretamente sobre um {@link Game}, sem locks, armazenamento nem
+ * eventos.
+ * <p>
+ * O {@link GameService} chama estes métodos sob o lock do jogo; o {@link GameHistory} os
+ * reaplica para reconstruir um jogo a partir dos eventos. Toda escolha não determinística
+ * (sorteio de papéis, palavra da CPU) passa por {@link Choices}, e o resultado fica
+ * registrado no evento: a reaplicação devolve as mesmas escolhas e chega ao mesmo estado.
+ */
+final class GameRules {
+
+    /**
+     * Escolhas não determinísticas, feitas na ordem em que as regras as pedem.
+     */
+    interface Choices {
+        /**
+         * Sorteio em {@code [0, bound)}.
+         */
+        int pick(int bound);
+
+        /**
+         * Palavra de uma rodada criada pela CPU.
+         */
+        String cpuWord(Game game);
+    }
+
+    private GameRules() {
+    }
+
+    static void validateConfig(GameConfig config) {
+        if (!"pvp".equals(config.getMode()) && !isAgainstCpu(config.getMode())) {
+            throw new IllegalArgumentException("Modo inválido. Use 'pvp', 'pvc' ou 'pvc_duel'");
+        }
+
+        // PvP agora permite iniciar com 1 jogador e convidar outros
+        if ("pvp".equals(config.getMode()) && config.getPlayers().size() < 1) {
+            throw new IllegalArgumentException("Modo PvP requer pelo menos 1 jogador para iniciar");
+        }
+
+        if ("pvp".equals(config.getMode()) && config.getPlayers().size() > 5) {
+            throw new IllegalArgumentException("Modo PvP permite no máximo 5 jogadores");
+        }
+
+        if (isAgainstCpu(config.getMode()) && config.getPlayers().size() != 1) {
+            throw new IllegalArgumentException("Modo PvC requer exatamente 1 jogador");
+        }
+
+        if (GameService.MODE_PVC_DUEL.equals(config.getMode())) {
+            HangmanSolver.Level.parse(config.getCpuLevel());
+        }
+    }
+
+    /**
+     * Novo jogo a partir de uma configuração já validada.
+     */
+    static Game create(String gameId, GameConfig config, Choices choices) {
+        Game game = new Game();
+        game.setGameId(gameId);
+        game.setMode(config.getMode());
+        game.setPlayers(new CopyOnWriteArrayList<>(config.getPlayers()));
+        game.setCurrentRound(1);
+
+        // Determinar número máximo de rodadas
+        int maxRounds;
+        if (isAgainstCpu(config.getMode())) {
+            // PvC: melhor de 3 para evitar empates
+            maxRounds = 3;
+        } else if (config.getPlayers().size() == 2) {
+            // PvP com 2 jogadores: melhor de 3
+            maxRounds = 3;
+        } else {
+            // PvP com mais jogadores: 2 rodadas
+            maxRounds = 2;
+        }
+        game.setMaxRounds(maxRounds);
+
+        // Inicializar scores
+        Map<String, Integer> scores = new ConcurrentHashMap<>();
+        for (String player : config.getPlayers()) {
+            scores.put(player, 0);
+        }
+        if (isAgainstCpu(config.getMode())) {
+            scores.put(GameService.CPU, 0);
+        }
+        game.setScores(scores);
+
+        game.setGameStatus("waiting_word");
+
+        // Configurar papéis
+        if ("pvp".equals(config.getMode())) {
+            if (config.getPlayers().size() >= 2) {
+                int creatorIndex = choices.pick(config.getPlayers().size());
+                game.setWordCreator(config.getPlayers().get(creatorIndex));
+                game.setWordGuesser(config.getPlayers().get((creatorIndex + 1) % config.getPlayers().size()));
+                game.setGameStatus("waiting_word");
+            } else {
+                // Aguardando mais jogadores entrarem via link de convite
+                game.setGameStatus("waiting_players");
+            }
+        } else if (GameService.MODE_PVC_DUEL.equals(config.getMode())) {
+            // Duelo: o jogador cria a primeira palavra e a CPU adivinha
+            game.setWordCreator(config.getPlayers().get(0));
+            game.setWordGuesser(GameService.CPU);
+            game.setCpuLevel(HangmanSolver.Level.parse(config.getCpuLevel()).name().toLowerCase(Locale.ROOT));
+            game.setGameStatus("waiting_word");
+        } else {
+            // PvC
+            game.setWordCreator(GameService.CPU);
+            game.setWordGuesser(config.getPlayers().get(0));
+            startCpuRound(game, choices);
+        }
+        return game;
+    }
+
+    static void join(Game game, String playerName, Choices choices) {
+        if (!"pvp".equals(game.getMode())) {
+            throw new IllegalStateException("Apenas jogos PvP aceitam convites");
+        }
+
+        if (playerName == null || playerName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Nome do jogador é obrigatório");
+        }
+
+        if (game.getPlayers().contains(playerName)) {
+            throw new IllegalArgumentException("Este jogador já está no jogo");
+        }
+
+        if (game.getPlayers().size() >= 5) {
+            throw new IllegalStateException("Limite de jogadores atingido");
+        }
+
+        if ("playing".equals(game.getGameStatus())) {
+            throw new IllegalStateException("Jogo já em andamento");
+        }
+
+        game.getPlayers().add(playerName);
+
+        // Adicionar jogador ao mapa de scores
+        game.getScores().put(playerName, 0);
+
+        // Se agora houver pelo menos 2 jogadores e ainda estamos aguardando jogadores,
+        // definir papéis
+        if (game.getPlayers().size() >= 2 && "waiting_players".equals(game.getGameStatus())) {
+            int creatorIndex = choices.pick(game.getPlayers().size());
+            game.setWordCreator(game.getPlayers().get(creatorIndex));
+            game.setWordGuesser(game.getPlayers().get((creatorIndex + 1) % game.getPlayers().size()));
+            game.setGameStatus("waiting_word");
+
+            // Ajustar número de rodadas para 2 jogadores
+            if (game.getPlayers().size() == 2) {
+                game.setMaxRounds(3);
+            }
+        }
+    }
+
+    static void checkCanSubmitWord(Game game) {
+        if (!acceptsPlayerWords(game.getMode())) {
+            throw new IllegalStateException("Esta ação só é válida para os modos PvP e pvc_duel");
+        }
+
+        if (!"waiting_word".equals(game.getGameStatus())) {
+            throw new IllegalStateException("Não é possível submeter palavra neste momento");
+        }
+    }
+
+    /**
+     * Palavra secreta (já em maiúsculas) e dica opcional enviadas pelo criador da rodada.
+     */
+    static void submitWord(Game game, String secretWord, String hint) {
+        checkCanSubmitWord(game);
+        game.setSecretWord(secretWord);
+        game.setWordLength(secretWord.length());
+        game.setRoundState(RoundState.of(secretWord));
+        if (hint != null) {
+            game.setHint(hint);
+        }
+        game.setGameStatus("playing");
+    }
+
+    /**
+     * Indica se a tentativa da rodada atual cabe à CPU (modo {@value GameService#MODE_PVC_DUEL}).
+     */
+    static boolean cpuGuesses(Game game) {
+        return GameService.MODE_PVC_DUEL.equals(game.getMode()) && GameService.CPU.equals(game.getWordGuesser());
+    }
+
+    static Map<String, Object> guess(Game game, String letter, boolean cpu) {
+        if (!"playing".equals(game.getGameStatus())) {
+            throw new IllegalStateException("Jogo não está em andamento");
+        }
+
+        if (cpu != cpuGuesses(game)) {
+            throw new IllegalStateException(cpu ? "A CPU não está adivinhando nesta rodada"
+                    : "A CPU está adivinhando nesta rodada");
+        }
+
+        String trimmed = letter.trim();
+        int letterIndex = trimmed.length() == 1
+                ? LetterAlphabet.indexOf(Character.toUpperCase(trimmed.charAt(0)))
+                : -1;
+
+        if (letterIndex < 0) {
+            throw new IllegalArgumentException("Deve enviar apenas uma letra");
+        }
+
+        RoundState round = roundState(game);
+
+        if (round.isGuessed(letterIndex)) {
+            throw new IllegalArgumentException("Letra já foi tentada");
+        }
+
+        letter = LetterAlphabet.asString(letterIndex);
+        game.getGuessedLetters().add(letter);
+
+        // Verificar se letra está na palavra
+        String secretWord = game.getSecretWord();
+        int positionMask = round.guess(letterIndex);
+        List<Integer> positions = positionsOf(positionMask);
+
+        boolean isCorrect = positionMask != 0;
+
+        if (isCorrect) {
+            game.getCorrectPositions().put(letter, positions);
+        } else {
+            game.setAttemptsLeft(game.getAttemptsLeft() - 1);
+        }
+
+        // Verificar se palavra foi completada
+        boolean allLettersFound = round.isSolved();
+
+        String revealedWord = null;
+
+        String roundWinner = null;
+        if (allLettersFound) {
+            roundWinner = game.getWordGuesser();
+        } else if (game.getAttemptsLeft() <= 0) {
+            roundWinner = game.getWordCreator();
+        }
+
+        if (roundWinner != null) {
+            game.setRoundWinner(roundWinner);
+            game.getScores().merge(roundWinner, 1, Integer::sum);
+            game.setGameStatus("round_finished");
+            revealedWord = secretWord;
+            // Verificar se jogo terminou
+            checkGameFinished(game, roundWinner);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("letter", letter);
+        result.put("is_correct", isCorrect);
+        result.put("positions", positions);
+        result.put("attempts_left", game.getAttemptsLeft());
+        result.put("game_status", game.getGameStatus());
+        result.put("round_winner", game.getRoundWinner());
+        result.put("revealed_word", revealedWord);
+        return result;
+    }
+
+    // Jogos sem o estado compacto (ex.: montados fora do GameService) são reconstruídos a partir das letras tentadas
+    private static RoundState roundState(Game game) {
+        RoundState round = game.getRoundState();
+        if (round == null) {
+            round = RoundState.of(game.getSecretWord());
+            for (String guessed : game.getGuessedLetters()) {
+                round.guess(LetterAlphabet.indexOf(guessed.charAt(0)));
+            }
+            game.setRoundState(round);
+        }
+        return round;
+    }
+
+    private static List<Integer> positionsOf(int positionMask) {
+        if (positionMask == 0) {
+            return List.of();
+        }
+        Integer[] positions = new Integer[Integer.bitCount(positionMask)];
+        int i = 0;
+        for (int mask = positionMask; mask != 0; mask &= mask - 1) {
+            positions[i++] = Integer.numberOfTrailingZeros(mask);
+        }
+        return List.of(positions);
+    }
+
+    static void nextRound(Game game, Choices choices) {
+        if (!"round_finished".equals(game.getGameStatus()) && !"game_finished".equals(game.getGameStatus())) {
+            throw new IllegalStateException("Rodada atual ainda não terminou");
+        }
+
+        if ("game_finished".equals(game.getGameStatus())) {
+            throw new IllegalStateException("Jogo já terminou");
+        }
+
+        // Verificar se ainda há rodadas disponíveis
+        if (game.getCurrentRound() >= game.getMaxRounds()) {
+            throw new IllegalStateException("Todas as rodadas já foram jogadas");
+        }
+
+        // Resetar estado da rodada
+        game.setCurrentRound(game.getCurrentRound() + 1);
+        game.setGuessedLetters(new CopyOnWriteArrayList<>());
+        game.setCorrectPositions(new ConcurrentHashMap<>());
+        game.setAttemptsLeft(6);
+        game.setSecretWord(null);
+        game.setWordLength(null);
+        game.setRoundState(null);
+        game.setRoundWinner(null);
+        game.setGameStatus("waiting_word");
+
+        // Trocar papéis
+        if ("pvp".equals(game.getMode())) {
+            if (game.getPlayers().size() == 2) {
+                String oldCreator = game.getWordCreator();
+                String oldGuesser = game.getWordGuesser();
+                game.setWordCreator(oldGuesser);
+                game.setWordGuesser(oldCreator);
+            } else {
+                int currentGuesserIndex = game.getPlayers().indexOf(game.getWordGuesser());
+                int nextGuesserIndex = (currentGuesserIndex + 1) % game.getPlayers().size();
+
+                List<String> availableCreators = new ArrayList<>();
+                for (int i = 0; i < game.getPlayers().size(); i++) {
+                    if (i != nextGuesserIndex) {
+                        availableCreators.add(game.getPlayers().get(i));
+                    }
+                }
+                game.setWordCreator(availableCreators.get(choices.pick(availableCreators.size())));
+                game.setWordGuesser(game.getPlayers().get(nextGuesserIndex));
+            }
+        } else if (GameService.MODE_PVC_DUEL.equals(game.getMode())) {
+            // Duelo: jogador e CPU trocam de papel; quando a CPU cria, a rodada já começa
+            String oldCreator = game.getWordCreator();
+            game.setWordCreator(game.getWordGuesser());
+            game.setWordGuesser(oldCreator);
+            if (GameService.CPU.equals(game.getWordCreator())) {
+                startCpuRound(game, choices);
+            }
+        } else {
+            // Modo PvC - CPU sempre é o criador da palavra
+            startCpuRound(game, choices);
+        }
+    }
+
+    // Rodada com palavra escolhida pela CPU: já começa em andamento
+    private static void startCpuRound(Game game, Choices choices) {
+        String word = choices.cpuWord(game);
+        game.setSecretWord(word);
+        game.setWordLength(word.length());
+        game.setRoundState(RoundState.of(word));
+        game.setGameStatus("playing");
+    }
+
+    static void abandon(Game game, String player, Choices choices) {
+        if (player == null || player.isBlank()) {
+            throw new IllegalArgumentException("Nome do jogador é obrigatório");
+        }
+
+        if (!game.getPlayers().contains(player)) {
+            throw new IllegalArgumentException("Jogador não está no jogo");
+        }
+
+        // Remover jogador da lista
+        game.getPlayers().remove(player);
+
+        // Remover score do jogador
+        if (game.getScores() != null) {
+            game.getScores().remove(player);
+        }
+
+        // Se o jogo ficou sem jogadores, marcar como terminado
+        if (game.getPlayers().isEmpty()) {
+            game.setGameStatus("game_finished");
+            game.setGameWinner(null);
+        }
+        // Se era PvP com 2 jogadores e sobrou apenas 1, declarar vencedor
+        else if ("pvp".equals(game.getMode()) && game.getPlayers().size() == 1) {
+            game.setGameStatus("game_finished");
+            game.setGameWinner(game.getPlayers().get(0));
+        }
+        // Se o jogador que abandonou era o criador ou adivinhador da rodada atual
+        else {
+            if (player.equals(game.getWordCreator()) || player.equals(game.getWordGuesser())) {
+                // Avançar para próxima rodada ou finalizar jogo
+                if (game.getCurrentRound() >= game.getMaxRounds()) {
+                    game.setGameStatus("game_finished");
+                    determineWinner(game);
+                } else {
+                    // Iniciar próxima rodada
+                    try {
+                        nextRound(game, choices);
+                    } catch (Exception e) {
+                        // Se falhar, finalizar jogo
+                        game.setGameStatus("game_finished");
+                        determineWinner(game);
+                    }
+                }
+            }
+        }
+    }
+
+    // Só quem acabou de pontuar pode ter chegado a 2 pontos; sem isso, a última rodada encerra o jogo
+    private static void checkGameFinished(Game game, String scorer) {
+        if (game.getScores().get(scorer) >= 2) {
+            game.setGameStatus("game_finished");
+            game.setGameWinner(scorer);
+        } else if (game.getCurrentRound() >= game.getMaxRounds()) {
+            game.setGameStatus("game_finished");
+            determineWinner(game);
+        }
+    }
+
+    // Maior pontuação em uma passada; empate = sem vencedor
+    private static void determineWinner(Game game) {
+        String winner = null;
+        int maxScore = Integer.MIN_VALUE;
+        boolean tied = false;
+        if (game.getScores() != null) {
+            for (Map.Entry<String, Integer> entry : game.getScores().entrySet()) {
+                if (entry.getValue() > maxScore) {
+                    maxScore = entry.getValue();
+                    winner = entry.getKey();
+                    tied = false;
+                } else if (entry.getValue() == maxScore) {
+                    tied = true;
+                }
+            }
+        }
+        game.setGameWinner(tied ? null : winner);
+    }
+
+    static boolean isAgainstCpu(String mode) {
+        return "pvc".equals(mode) || GameService.MODE_PVC_DUEL.equals(mode);
+    }
+
+    static boolean acceptsPlayerWords(String mode) {
+        return "pvp".equals(mode) || GameService.MODE_PVC_DUEL.equals(mode);
+    }
+}
@@ -2,322 +2,219 @@ package com.jogoforca.service;
 
 import com.jogoforca.model.Game;
 import com.jogoforca.model.GameConfig;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
 
 @Service
 public class GameService {
 
-    private final Map<String, Game> games = new ConcurrentHashMap<>();
     private final OllamaService ollamaService;
+    private final WordPoolService wordPoolService;
+    private final HintCacheService hintCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GameRepository games;
+    private final ClusterService cluster;
+    private final GameLocks locks = new GameLocks(LOCK_STRIPES);
     private final Random random = new Random();
 
-    public GameService(OllamaService ollamaService) {
+    private static final int LOCK_STRIPES = 1024;
+
+    /**
+     * Jogador vs CPU com papéis alternados: na primeira rodada o jogador cria a palavra e a
+     * CPU adivinha (veja {@link CpuGuesserService}), na seguinte a CPU cria, e assim por diante.
+     */
+    public static final String MODE_PVC_DUEL = "pvc_duel";
+    public static final String CPU = "CPU";
+
+    public GameService(OllamaService ollamaService, WordPoolService wordPoolService,
+            HintCacheService hintCacheService, ApplicationEventPublisher eventPublisher,
+            GameRepository games, ClusterService cluster) {
+        this.games = games;
+        this.cluster = cluster;
         this.ollamaService = ollamaService;
+        this.wordPoolService = wordPoolService;
+        this.hintCacheService = hintCacheService;
+        this.eventPublisher = eventPublisher;
     }
 
     public Game createGame(GameConfig config) {
-        validateConfig(config);
+        GameRules.validateConfig(config);
 
         String gameId = generateGameId();
-        Game game = new Game();
-        game.setGameId(gameId);
-        game.setMode(config.getMode());
-        game.setPlayers(config.getPlayers());
-        game.setCurrentRound(1);
-
-        // Determinar número máximo de rodadas
-        int maxRounds;
-        if ("pvc".equals(config.getMode())) {
-            // PvC: melhor de 3 para evitar empates
-            maxRounds = 3;
-        } else if (config.getPlayers().size() == 2) {
-            // PvP com 2 jogadores: melhor de 3
-            maxRounds = 3;
-        } else {
-            // PvP com mais jogadores: 2 rodadas
-            maxRounds = 2;
-        }
-        game.setMaxRounds(maxRounds);
-
-        // Inicializar scores
-        Map<String, Integer> scores = new HashMap<>();
-        for (String player : config.getPlayers()) {
-            scores.put(player, 0);
-        }
-        if ("pvc".equals(config.getMode())) {
-            scores.put("CPU", 0);
-        }
-        game.setScores(scores);
-
-        game.setGameStatus("waiting_word");
-
-        // Configurar papéis
-        if ("pvp".equals(config.getMode())) {
-            if (config.getPlayers().size() >= 2) {
-                int creatorIndex = random.nextInt(config.getPlayers().size());
-                game.setWordCreator(config.getPlayers().get(creatorIndex));
-                game.setWordGuesser(config.getPlayers().get((creatorIndex + 1) % config.getPlayers().size()));
-                game.setGameStatus("waiting_word");
-            } else {
-                // Aguardando mais jogadores entrarem via link de convite
-                game.setGameStatus("waiting_players");
-            }
-        } else {
-            // PvC
-            game.setWordCreator("CPU");
-            game.setWordGuesser(config.getPlayers().get(0));
-            String word = ollamaService.generateWord();
-            game.setSecretWord(word);
-            game.setWordLength(word.length());
-            game.setGameStatus("playing");
+        RecordingChoices choices = new RecordingChoices(gameId);
+        Game game = GameRules.create(gameId, config, choices);
+
+        ReentrantLock lock = locks.forGame(gameId);
+        lock.lock();
+        try {
+            games.put(game);
+            List<String> args = new ArrayList<>();
+            args.add(config.getMode());
+            args.add(config.getCpuLevel());
+            args.addAll(config.getPlayers());
+            publishChange(game, GameEvent.Type.CREATED, choices, args);
+        } finally {
+            lock.unlock();
         }
-
-        games.put(gameId, game);
         return game;
     }
 
     public Game joinGame(String gameId, String playerName) {
-        Game game = getGame(gameId);
-
-        if (!"pvp".equals(game.getMode())) {
-            throw new IllegalStateException("Apenas jogos PvP aceitam convites");
-        }
-
-        if (playerName == null || playerName.trim().isEmpty()) {
-            throw new IllegalArgumentException("Nome do jogador é obrigatório");
-        }
-
-        if (game.getPlayers().contains(playerName)) {
-            throw new IllegalArgumentException("Este jogador já está no jogo");
-        }
-
-        if (game.getPlayers().size() >= 5) {
-            throw new IllegalStateException("Limite de jogadores atingido");
+        ReentrantLock lock = locks.forGame(gameId);
+        lock.lock();
+        try {
+            Game game = getGame(gameId);
+            RecordingChoices choices = new RecordingChoices(gameId);
+            GameRules.join(game, playerName, choices);
+            publishChange(game, GameEvent.Type.JOIN, choices, Collections.singletonList(playerName));
+            return game;
+        } finally {
+            lock.unlock();
         }
-
-        if ("playing".equals(game.getGameStatus())) {
-            throw new IllegalStateException("Jogo já em andamento");
-        }
-
-        game.getPlayers().add(playerName);
-
-        // Adicionar jogador ao mapa de scores
-        game.getScores().put(playerName, 0);
-
-        // Se agora houver pelo menos 2 jogadores e ainda estamos aguardando jogadores,
-        // definir papéis
-        if (game.getPlayers().size() >= 2 && "waiting_players".equals(game.getGameStatus())) {
-            int creatorIndex = random.nextInt(game.getPlayers().size());
-            game.setWordCreator(game.getPlayers().get(creatorIndex));
-            game.setWordGuesser(game.getPlayers().get((creatorIndex + 1) % game.getPlayers().size()));
-            game.setGameStatus("waiting_word");
-
-            // Ajustar número de rodadas para 2 jogadores
-            if (game.getPlayers().size() == 2) {
-                game.setMaxRounds(3);
-            }
-        }
-
-        return game;
     }
 
     public Game submitWord(String gameId, String word) {
-        Game game = getGame(gameId);
-
-        if (!"pvp".equals(game.getMode())) {
-            throw new IllegalStateException("Esta ação só é válida para modo PvP");
-        }
-
-        if (!"waiting_word".equals(game.getGameStatus())) {
-            throw new IllegalStateException("Não é possível submeter palavra neste momento");
-        }
-
-        word = word.toUpperCase().trim();
-
-        if (!word.matches("[A-ZÀÁÂÃÄÅÆÇÈÉÊËÌÍÎÏÐÑÒÓÔÕÖØÙÚÛÜÝÞŸ]+")) {
-            throw new IllegalArgumentException("Palavra deve conter apenas letras");
+        ReentrantLock lock = locks.forGame(gameId);
+        lock.lock();
+        try {
+            Game game = getGame(gameId);
+            String secretWord = word.toUpperCase().trim();
+            GameRules.submitWord(game, secretWord, null);
+            publishChange(game, GameEvent.Type.SUBMIT_WORD, null, Arrays.asList(secretWord, null));
+            return game;
+        } finally {
+            lock.unlock();
         }
-
-        game.setSecretWord(word);
-        game.setWordLength(word.length());
-        game.setGameStatus("playing");
-
-        return game;
     }
 
     public Game submitWord(String gameId, String word, String hint, Boolean generateHint) {
-        Game game = getGame(gameId);
-
-        if (!"pvp".equals(game.getMode())) {
-            throw new IllegalStateException("Esta ação só é válida para modo PvP");
-        }
-
-        if (!"waiting_word".equals(game.getGameStatus())) {
-            throw new IllegalStateException("Não é possível submeter palavra neste momento");
-        }
-
-        word = word.toUpperCase().trim();
-
-        if (!word.matches("[A-ZÀÁÂÃÄÅÆÇÈÉÊËÌÍÎÏÐÑÒÓÔÕÖØÙÚÛÜÝÞŸ]+")) {
-            throw new IllegalArgumentException("Palavra deve conter apenas letras");
-        }
+        return submitWordAsync(gameId, word, hint, generateHint).block();
+    }
 
-        game.setSecretWord(word);
-        game.setWordLength(word.length());
+    /**
+     * Submete a palavra secreta sem bloquear enquanto a dica é gerada pela IA.
+     * Erros de validação são lançados imediatamente, antes da dica ser pedida.
+     */
+    public Mono<Game> submitWordAsync(String gameId, String word, String hint, Boolean generateHint) {
+        ReentrantLock lock = locks.forGame(gameId);
+        Game game;
+        lock.lock();
+        try {
+            game = getGame(gameId);
+            GameRules.checkCanSubmitWord(game);
+        } finally {
+            lock.unlock();
+        }
+
+        String secretWord = word.toUpperCase().trim();
+        // Valida a palavra antes de pedir a dica
+        RoundState.of(secretWord);
 
         // Processar dica
+        Mono<String> hintMono;
         if (generateHint != null && generateHint) {
-            // Gerar dica com IA
-            String generatedHint = ollamaService.generateHint(word);
-            game.setHint(generatedHint);
+            // Gerar dica com IA, reaproveitando dicas já geradas para a mesma palavra
+            hintMono = generateHint(secretWord);
         } else if (hint != null && !hint.trim().isEmpty()) {
             // Usar dica fornecida pelo usuário
-            game.setHint(hint.trim());
+            hintMono = Mono.just(hint.trim());
+        } else {
+            hintMono = Mono.empty();
         }
 
-        game.setGameStatus("playing");
-
-        return game;
+        return hintMono
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .map(resolvedHint -> {
+                    // O estado pode ter mudado enquanto a dica era gerada: validar de novo sob o lock
+                    lock.lock();
+                    try {
+                        GameRules.submitWord(game, secretWord, resolvedHint.orElse(null));
+                        publishChange(game, GameEvent.Type.SUBMIT_WORD, null,
+                                Arrays.asList(secretWord, resolvedHint.orElse(null)));
+                        return game;
+                    } finally {
+                        lock.unlock();
+                    }
+                });
     }
 
-    public Map<String, Object> guessLetter(String gameId, String letter) {
-        Game game = getGame(gameId);
-
-        if (!"playing".equals(game.getGameStatus())) {
-            throw new IllegalStateException("Jogo não está em andamento");
-        }
-
-        letter = letter.toUpperCase().trim();
-
-        if (!letter.matches("[A-ZÀÁÂÃÄÅÆÇÈÉÊËÌÍÎÏÐÑÒÓÔÕÖØÙÚÛÜÝÞŸ]")) {
-            throw new IllegalArgumentException("Deve enviar apenas uma letra");
-        }
-
-        if (game.getGuessedLetters().contains(letter)) {
-            throw new IllegalArgumentException("Letra já foi tentada");
-        }
-
-        game.getGuessedLetters().add(letter);
-
-        // Verificar se letra está na palavra
-        String secretWord = game.getSecretWord();
-        List<Integer> positions = new ArrayList<>();
-        for (int i = 0; i < secretWord.length(); i++) {
-            if (secretWord.charAt(i) == letter.charAt(0)) {
-                positions.add(i);
-            }
+    private Mono<String> generateHint(String word) {
+        Optional<String> cached = hintCacheService.get(word);
+        if (cached.isPresent()) {
+            return Mono.just(cached.get());
         }
+        // Só dicas realmente geradas pela IA vão para o cache; a genérica não
+        return ollamaService.tryGenerateHintAsync(word)
+                .doOnNext(generated -> hintCacheService.put(word, generated))
+                .switchIfEmpty(Mono.fromSupplier(ollamaService::fallbackHint));
+    }
 
-        boolean isCorrect = !positions.isEmpty();
-
-        if (isCorrect) {
-            game.getCorrectPositions().put(letter, positions);
-        } else {
-            game.setAttemptsLeft(game.getAttemptsLeft() - 1);
-        }
+    public Map<String, Object> guessLetter(String gameId, String letter) {
+        return guessLetter(gameId, letter, false);
+    }
 
-        // Verificar se palavra foi completada
-        boolean allLettersFound = secretWord.chars()
-                .mapToObj(c -> String.valueOf((char) c))
-                .allMatch(c -> game.getCorrectPositions().containsKey(c));
-
-        String revealedWord = null;
-
-        if (allLettersFound) {
-            game.setRoundWinner(game.getWordGuesser());
-            game.getScores().put(game.getWordGuesser(),
-                    game.getScores().get(game.getWordGuesser()) + 1);
-            game.setGameStatus("round_finished");
-            revealedWord = secretWord;
-        } else if (game.getAttemptsLeft() <= 0) {
-            game.setRoundWinner(game.getWordCreator());
-            game.getScores().put(game.getWordCreator(),
-                    game.getScores().get(game.getWordCreator()) + 1);
-            game.setGameStatus("round_finished");
-            revealedWord = secretWord;
-        }
+    /**
+     * Tentativa da CPU nas rodadas em que ela adivinha (modo {@value #MODE_PVC_DUEL}).
+     */
+    Map<String, Object> guessLetterAsCpu(String gameId, String letter) {
+        return guessLetter(gameId, letter, true);
+    }
 
-        // Verificar se jogo terminou
-        if ("round_finished".equals(game.getGameStatus())) {
-            checkGameFinished(game);
+    private Map<String, Object> guessLetter(String gameId, String letter, boolean cpu) {
+        ReentrantLock lock = locks.forGame(gameId);
+        lock.lock();
+        try {
+            Game game = getGame(gameId);
+            Map<String, Object> result = GameRules.guess(game, letter, cpu);
+            publishChange(game, GameEvent.Type.GUESS, null,
+                    Collections.singletonList((String) result.get("letter")));
+            return result;
+        } finally {
+            lock.unlock();
         }
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("letter", letter);
-        result.put("is_correct", isCorrect);
-        result.put("positions", positions);
-        result.put("attempts_left", game.getAttemptsLeft());
-        result.put("game_status", game.getGameStatus());
-        result.put("round_winner", game.getRoundWinner());
-        result.put("revealed_word", revealedWord);
-
-        return result;
     }
 
     public Game startNextRound(String gameId) {
-        Game game = getGame(gameId);
-
-        if (!"round_finished".equals(game.getGameStatus()) && !"game_finished".equals(game.getGameStatus())) {
-            throw new IllegalStateException("Rodada atual ainda não terminou");
-        }
-
-        if ("game_finished".equals(game.getGameStatus())) {
-            throw new IllegalStateException("Jogo já terminou");
-        }
-
-        // Verificar se ainda há rodadas disponíveis
-        if (game.getCurrentRound() >= game.getMaxRounds()) {
-            throw new IllegalStateException("Todas as rodadas já foram jogadas");
-        }
-
-        // Resetar estado da rodada
-        game.setCurrentRound(game.getCurrentRound() + 1);
-        game.setGuessedLetters(new ArrayList<>());
-        game.setCorrectPositions(new HashMap<>());
-        game.setAttemptsLeft(6);
-        game.setSecretWord(null);
-        game.setWordLength(null);
-        game.setRoundWinner(null);
-        game.setGameStatus("waiting_word");
-
-        // Trocar papéis
-        if ("pvp".equals(game.getMode())) {
-            if (game.getPlayers().size() == 2) {
-                String oldCreator = game.getWordCreator();
-                String oldGuesser = game.getWordGuesser();
-                game.setWordCreator(oldGuesser);
-                game.setWordGuesser(oldCreator);
-            } else {
-                int currentGuesserIndex = game.getPlayers().indexOf(game.getWordGuesser());
-                int nextGuesserIndex = (currentGuesserIndex + 1) % game.getPlayers().size();
-
-                List<String> availableCreators = new ArrayList<>();
-                for (int i = 0; i < game.getPlayers().size(); i++) {
-                    if (i != nextGuesserIndex) {
-                        availableCreators.add(game.getPlayers().get(i));
-                    }
-                }
-                game.setWordCreator(availableCreators.get(random.nextInt(availableCreators.size())));
-                game.setWordGuesser(game.getPlayers().get(nextGuesserIndex));
-            }
-        } else {
-            // Modo PvC - CPU sempre é o criador da palavra
-            String word = ollamaService.generateWord();
-            game.setSecretWord(word);
-            game.setWordLength(word.length());
-            game.setGameStatus("playing");
+        ReentrantLock lock = locks.forGame(gameId);
+        lock.lock();
+        try {
+            Game game = getGame(gameId);
+            RecordingChoices choices = new RecordingChoices(gameId);
+            GameRules.nextRound(game, choices);
+            publishChange(game, GameEvent.Type.NEXT_ROUND, choices, List.of());
+            return game;
+        } finally {
+            lock.unlock();
         }
-
-        return game;
     }
 
     public Game nextRound(String gameId) {
         return startNextRound(gameId);
     }
 
+    /**
+     * Lê o jogo sob o mesmo lock usado pelas alterações, obtendo uma visão consistente.
+     */
+    public <T> T read(Game game, Function<Game, T> reader) {
+        ReentrantLock lock = locks.forGame(game.getGameId());
+        lock.lock();
+        try {
+            return reader.apply(game);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public Game getGame(String gameId) {
         Game game = games.get(gameId);
         if (game == null) {
@@ -327,139 +224,204 @@ public class GameService {
     }
 
     public void deleteGame(String gameId) {
-        if (!games.containsKey(gameId)) {
-            throw new IllegalArgumentException("Jogo não encontrado");
+        ReentrantLock lock = locks.forGame(gameId);
+        lock.lock();
+        try {
+            Game game = games.remove(gameId);
+            if (game == null) {
+                throw new IllegalArgumentException("Jogo não encontrado");
+            }
+            publishChange(game, GameChangedEvent.DELETED);
+        } finally {
+            lock.unlock();
         }
-        games.remove(gameId);
     }
 
-    public Map<String, Object> listGames() {
-        Map<String, Object> result = new HashMap<>();
-        result.put("games", new ArrayList<>(games.keySet()));
-        result.put("total", games.size());
-        return result;
+    /**
+     * Cria vários jogos em paralelo. Cada resultado traz o jogo convertido por {@code view},
+     * lido sob o lock do jogo, ou o erro daquela configuração.
+     */
+    public <T> List<BatchResult<T>> createGames(List<GameConfig> configs, Function<Game, T> view) {
+        List<List<Integer>> groups = new ArrayList<>(configs.size());
+        for (int i = 0; i < configs.size(); i++) {
+            groups.add(List.of(i));
+        }
+        return runBatch(configs.size(), groups, i -> {
+            GameConfig config = configs.get(i);
+            if (config == null || config.getPlayers() == null) {
+                throw new IllegalArgumentException("Lista de jogadores é obrigatória");
+            }
+            Game game = createGame(config);
+            return BatchResult.ok(game.getGameId(), read(game, view));
+        }, i -> null);
     }
 
-    private void validateConfig(GameConfig config) {
-        if (!"pvp".equals(config.getMode()) && !"pvc".equals(config.getMode())) {
-            throw new IllegalArgumentException("Modo inválido. Use 'pvp' ou 'pvc'");
-        }
-
-        // PvP agora permite iniciar com 1 jogador e convidar outros
-        if ("pvp".equals(config.getMode()) && config.getPlayers().size() < 1) {
-            throw new IllegalArgumentException("Modo PvP requer pelo menos 1 jogador para iniciar");
-        }
-
-        if ("pvp".equals(config.getMode()) && config.getPlayers().size() > 5) {
-            throw new IllegalArgumentException("Modo PvP permite no máximo 5 jogadores");
-        }
+    /**
+     * Aplica várias tentativas em paralelo entre jogos diferentes; as tentativas de um mesmo
+     * jogo são feitas na ordem em que aparecem na lista.
+     */
+    public List<BatchResult<Map<String, Object>>> guessLetters(List<String> gameIds, List<String> letters) {
+        Map<String, List<Integer>> byGame = new LinkedHashMap<>();
+        for (int i = 0; i < gameIds.size(); i++) {
+            byGame.computeIfAbsent(String.valueOf(gameIds.get(i)), id -> new ArrayList<>()).add(i);
+        }
+        return runBatch(gameIds.size(), byGame.values(), i -> {
+            String letter = letters.get(i);
+            if (letter == null) {
+                throw new IllegalArgumentException("Letra é obrigatória");
+            }
+            return BatchResult.ok(gameIds.get(i), guessLetter(gameIds.get(i), letter));
+        }, gameIds::get);
+    }
 
-        if ("pvc".equals(config.getMode()) && config.getPlayers().size() != 1) {
-            throw new IllegalArgumentException("Modo PvC requer exatamente 1 jogador");
+    /**
+     * Lê vários jogos em paralelo, cada um sob o seu lock.
+     */
+    public <T> List<BatchResult<T>> readGames(List<String> gameIds, Function<Game, T> reader) {
+        List<List<Integer>> groups = new ArrayList<>(gameIds.size());
+        for (int i = 0; i < gameIds.size(); i++) {
+            groups.add(List.of(i));
         }
+        return runBatch(gameIds.size(), groups,
+                i -> BatchResult.ok(gameIds.get(i), read(getGame(gameIds.get(i)), reader)), gameIds::get);
     }
 
-    private void checkGameFinished(Game game) {
-        if ("pvp".equals(game.getMode()) && game.getPlayers().size() == 2) {
-            for (Map.Entry<String, Integer> entry : game.getScores().entrySet()) {
-                if (entry.getValue() >= 2) {
-                    game.setGameStatus("game_finished");
-                    game.setGameWinner(entry.getKey());
-                    break;
-                }
-            }
-        } else {
-            for (Map.Entry<String, Integer> entry : game.getScores().entrySet()) {
-                if (entry.getValue() >= 2) {
-                    game.setGameStatus("game_finished");
-                    game.setGameWinner(entry.getKey());
-                    break;
-                }
+    // Um grupo por thread virtual; os itens de um grupo rodam em sequência, na ordem da lista
+    private <T> List<BatchResult<T>> runBatch(int size, Collection<List<Integer>> groups,
+            IntFunction<BatchResult<T>> item, IntFunction<String> gameIdOf) {
+        @SuppressWarnings("unchecked")
+        BatchResult<T>[] results = new BatchResult[size];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<Integer> group : groups) {
+                executor.execute(() -> {
+                    for (int i : group) {
+                        try {
+                            results[i] = item.apply(i);
+                        } catch (RuntimeException e) {
+                            results[i] = BatchResult.failed(gameIdOf.apply(i), e);
+                        }
+                    }
+                });
             }
         }
+        // close() espera todas as tarefas, então os resultados já estão visíveis aqui
+        return Arrays.asList(results);
     }
 
-    public Game abandonGame(String gameId, String player) {
-        Game game = getGame(gameId);
-
-        if (player == null || player.isBlank()) {
-            throw new IllegalArgumentException("Nome do jogador é obrigatório");
+    /**
+     * Entrega o jogo a outro nó do cluster. {@code transfer} envia o estado sob o lock do
+     * jogo; se ele confirmar o envio, o jogo sai deste nó.
+     *
+     * @return se o jogo foi transferido
+     */
+    public boolean releaseGame(String gameId, Predicate<Game> transfer) {
+        ReentrantLock lock = locks.forGame(gameId);
+        lock.lock();
+        try {
+            Game game = games.get(gameId);
+            if (game == null || !transfer.test(game)) {
+                return false;
+            }
+            games.remove(gameId);
+            eventPublisher.publishEvent(new GameChangedEvent(game, GameChangedEvent.MIGRATED_OUT));
+            return true;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        if (!game.getPlayers().contains(player)) {
-            throw new IllegalArgumentException("Jogador não está no jogo");
+    /**
+     * Recebe um jogo transferido por outro nó, mantendo a versão que ele já tinha.
+     */
+    public void adoptGame(Game game) {
+        ReentrantLock lock = locks.forGame(game.getGameId());
+        lock.lock();
+        try {
+            games.put(game);
+            games.touch(game);
+            eventPublisher.publishEvent(new GameChangedEvent(game, GameChangedEvent.MIGRATED_IN));
+        } finally {
+            lock.unlock();
         }
+    }
 
-        // Remover jogador da lista
-        game.getPlayers().remove(player);
+    public Map<String, Object> listGames() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("games", new ArrayList<>(games.ids()));
+        result.put("total", games.size());
+        return result;
+    }
 
-        // Remover score do jogador
-        if (game.getScores() != null) {
-            game.getScores().remove(player);
+    public Game abandonGame(String gameId, String player) {
+        ReentrantLock lock = locks.forGame(gameId);
+        lock.lock();
+        try {
+            Game game = getGame(gameId);
+            RecordingChoices choices = new RecordingChoices(gameId);
+            GameRules.abandon(game, player, choices);
+            publishChange(game, GameEvent.Type.ABANDON, choices, Collections.singletonList(player));
+            return game;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        // Se o jogo ficou sem jogadores, marcar como terminado
-        if (game.getPlayers().isEmpty()) {
-            game.setGameStatus("game_finished");
-            game.setGameWinner(null);
-        }
-        // Se era PvP com 2 jogadores e sobrou apenas 1, declarar vencedor
-        else if ("pvp".equals(game.getMode()) && game.getPlayers().size() == 1) {
-            game.setGameStatus("game_finished");
-            game.setGameWinner(game.getPlayers().get(0));
-        }
-        // Se o jogador que abandonou era o criador ou adivinhador da rodada atual
-        else {
-            if (player.equals(game.getWordCreator()) || player.equals(game.getWordGuesser())) {
-                // Avançar para próxima rodada ou finalizar jogo
-                if (game.getCurrentRound() >= game.getMaxRounds()) {
-                    game.setGameStatus("game_finished");
-                    determineWinner(game);
-                } else {
-                    // Iniciar próxima rodada
-                    try {
-                        nextRound(gameId);
-                    } catch (Exception e) {
-                        // Se falhar, finalizar jogo
-                        game.setGameStatus("game_finished");
-                        determineWinner(game);
-                    }
-                }
-            }
+    // Toda alteração passa por aqui: avança a versão do jogo e notifica os interessados
+    private void publishChange(Game game, String action) {
+        if (!GameChangedEvent.DELETED.equals(action)) {
+            game.setVersion(game.getVersion() + 1);
+            games.touch(game);
         }
+        eventPublisher.publishEvent(new GameChangedEvent(game, action));
+    }
 
-        return game;
+    // Alteração feita pelas regras: registra também a entrada e as escolhas para o histórico
+    private void publishChange(Game game, GameEvent.Type type, RecordingChoices choices, List<String> args) {
+        game.setVersion(game.getVersion() + 1);
+        games.touch(game);
+        GameEvent event = new GameEvent(game.getVersion(), type, Collections.unmodifiableList(args),
+                choices == null ? new int[0] : choices.picks.stream().mapToInt(Integer::intValue).toArray(),
+                choices == null ? List.of() : List.copyOf(choices.words));
+        eventPublisher.publishEvent(new GameChangedEvent(game, type.action(), event));
     }
 
-    private void determineWinner(Game game) {
-        if (game.getScores() == null || game.getScores().isEmpty()) {
-            game.setGameWinner(null);
-            return;
-        }
+    // Escolhas reais (sorteio e pool de palavras), guardadas para o evento
+    private final class RecordingChoices implements GameRules.Choices {
+        private final String gameId;
+        private final List<Integer> picks = new ArrayList<>(1);
+        private final List<String> words = new ArrayList<>(1);
 
-        int maxScore = game.getScores().values().stream()
-                .max(Integer::compareTo)
-                .orElse(0);
+        RecordingChoices(String gameId) {
+            this.gameId = gameId;
+        }
 
-        List<String> winners = game.getScores().entrySet().stream()
-                .filter(e -> e.getValue() == maxScore)
-                .map(Map.Entry::getKey)
-                .toList();
+        @Override
+        public int pick(int bound) {
+            int value = random.nextInt(bound);
+            picks.add(value);
+            return value;
+        }
 
-        if (winners.size() == 1) {
-            game.setGameWinner(winners.get(0));
-        } else {
-            // Empate - pode escolher um aleatoriamente ou deixar null
-            game.setGameWinner(null);
+        @Override
+        public String cpuWord(Game game) {
+            String word = wordPoolService.nextWord(gameId);
+            words.add(word);
+            return word;
         }
     }
 
-    private String generateGameId() {
+    // Sorteia até o ID cair neste nó do cluster (com N nós, N tentativas em média)
+    String generateGameId() {
         String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < 8; i++) {
-            sb.append(chars.charAt(random.nextInt(chars.length())));
+        while (true) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                sb.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            String gameId = sb.toString();
+            if (cluster.acceptsNewGame(gameId)) {
+                return gameId;
+            }
         }
-        return sb.toString();
     }
 }
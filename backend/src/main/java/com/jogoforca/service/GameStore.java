@@ -0,0 +1,286 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Armazenamento em memória dos jogos, com limite de tamanho e expiração.
+ * <p>
+ * Cada acesso apenas atualiza o instante do último uso. A expiração é feita por uma
+ * roda de tempo (timing wheel): cada jogo fica agendado em um único slot, e a cada tick
+ * o varredor só olha os jogos daquele slot. Jogos finalizados expiram após
+ * {@code finished-ttl} sem acesso; os demais, após {@code idle-ttl}.
+ * <p>
+ * Ao passar de {@code max-games}, os jogos usados há mais tempo são removidos em lote
+ * (finalizados primeiro), amortizando o custo da busca entre várias inserções.
+ */
+@Component
+public class GameStore implements GameRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(GameStore.class);
+
+    private final Map<String, Entry> games = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxGames;
+    private final int evictionBatch;
+    private final long finishedTtlNanos;
+    private final long idleTtlNanos;
+    private final long tickNanos;
+    private final Queue<String>[] wheel;
+    private final long startNanos = System.nanoTime();
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
+    private long lastSweptTick;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+
+    private static final class Entry {
+        final Game game;
+        volatile long lastAccessNanos;
+        // Tick em que o jogo está agendado na roda; agendamentos antigos são ignorados
+        volatile long scheduledTick;
+
+        Entry(Game game, long now) {
+            this.game = game;
+            this.lastAccessNanos = now;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public GameStore(ApplicationEventPublisher eventPublisher,
+            @Value("${jogoforca.game-store.max-games:10000}") int maxGames,
+            @Value("${jogoforca.game-store.finished-ttl:PT10M}") Duration finishedTtl,
+            @Value("${jogoforca.game-store.idle-ttl:PT2H}") Duration idleTtl,
+            @Value("${jogoforca.game-store.sweep-interval-ms:1000}") long sweepIntervalMs,
+            @Value("${jogoforca.game-store.wheel-size:512}") int wheelSize) {
+        if (maxGames < 1 || wheelSize < 2 || sweepIntervalMs < 1) {
+            throw new IllegalArgumentException("Configuração inválida do armazenamento de jogos");
+        }
+        this.eventPublisher = eventPublisher;
+        this.maxGames = maxGames;
+        this.evictionBatch = Math.max(1, maxGames / 100);
+        this.finishedTtlNanos = finishedTtl.toNanos();
+        this.idleTtlNanos = idleTtl.toNanos();
+        this.tickNanos = Duration.ofMillis(sweepIntervalMs).toNanos();
+        this.wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    @Override
+    public void put(Game game) {
+        long now = System.nanoTime();
+        Entry entry = new Entry(game, now);
+        games.put(game.getGameId(), entry);
+        created.incrementAndGet();
+        schedule(game.getGameId(), entry, now);
+        if (games.size() > maxGames) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    /**
+     * Busca o jogo e registra o acesso. Retorna {@code null} se não existir.
+     */
+    @Override
+    public Game get(String gameId) {
+        Entry entry = games.get(gameId);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastAccessNanos = System.nanoTime();
+        return entry.game;
+    }
+
+    @Override
+    public boolean contains(String gameId) {
+        return games.containsKey(gameId);
+    }
+
+    /**
+     * Registra uma alteração. Se o novo prazo de expiração ficou mais curto (por exemplo,
+     * o jogo terminou), o jogo é reagendado para o slot mais próximo.
+     */
+    @Override
+    public void touch(Game game) {
+        Entry entry = games.get(game.getGameId());
+        if (entry == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        entry.lastAccessNanos = now;
+        if (tickOf(deadline(entry)) < entry.scheduledTick) {
+            schedule(game.getGameId(), entry, now);
+        }
+    }
+
+    @Override
+    public Game remove(String gameId) {
+        Entry entry = games.remove(gameId);
+        if (entry == null) {
+            return null;
+        }
+        deleted.incrementAndGet();
+        return entry.game;
+    }
+
+    @Override
+    public Set<String> ids() {
+        return games.keySet();
+    }
+
+    @Override
+    public int size() {
+        return games.size();
+    }
+
+    /**
+     * Avança a roda até o tick atual, expirando ou reagendando os jogos de cada slot.
+     */
+    @Scheduled(fixedDelayString = "${jogoforca.game-store.sweep-interval-ms:1000}")
+    public void sweep() {
+        long currentTick = currentTick();
+        long now = System.nanoTime();
+        // Um único varredor por vez; ticks perdidos (pausas longas) são processados em sequência
+        if (!maintenanceLock.tryLock()) {
+            return;
+        }
+        try {
+            long fromTick = Math.max(lastSweptTick + 1, currentTick - wheel.length + 1);
+            for (long tick = fromTick; tick <= currentTick; tick++) {
+                sweepSlot(tick, now);
+            }
+            lastSweptTick = currentTick;
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    private void sweepSlot(long tick, long now) {
+        Queue<String> slot = wheel[(int) (tick % wheel.length)];
+        int pending = slot.size();
+        for (int i = 0; i < pending; i++) {
+            String gameId = slot.poll();
+            if (gameId == null) {
+                break;
+            }
+            Entry entry = games.get(gameId);
+            if (entry == null) {
+                continue;
+            }
+            if (entry.scheduledTick > tick) {
+                // Agendado para uma volta futura deste mesmo slot: mantém; senão é um agendamento antigo
+                if ((entry.scheduledTick - tick) % wheel.length == 0) {
+                    slot.add(gameId);
+                }
+                continue;
+            }
+            if (now - deadline(entry) >= 0) {
+                if (games.remove(gameId, entry)) {
+                    expired.incrementAndGet();
+                    log.debug("[gameStore] jogo expirado gameId={} status={}", gameId, entry.game.getGameStatus());
+                    eventPublisher.publishEvent(new GameChangedEvent(entry.game, GameChangedEvent.EXPIRED));
+                }
+            } else {
+                schedule(gameId, entry, now);
+            }
+        }
+    }
+
+    private void schedule(String gameId, Entry entry, long now) {
+        // Nunca agenda para o tick atual ou passado: o próximo varredor precisa enxergar o slot.
+        // Prazos além de uma volta da roda são revisitados e reagendados no caminho.
+        long nowTick = tickOf(now);
+        long tick = Math.min(Math.max(tickOf(deadline(entry)), nowTick + 1), nowTick + wheel.length - 1);
+        entry.scheduledTick = tick;
+        wheel[(int) (tick % wheel.length)].add(gameId);
+    }
+
+    private long deadline(Entry entry) {
+        long ttl = "game_finished".equals(entry.game.getGameStatus()) ? finishedTtlNanos : idleTtlNanos;
+        return entry.lastAccessNanos + ttl;
+    }
+
+    private long currentTick() {
+        return tickOf(System.nanoTime());
+    }
+
+    private long tickOf(long nanos) {
+        return Math.max(0, (nanos - startNanos) / tickNanos);
+    }
+
+    // Remove em lote os jogos menos usados; jogos finalizados saem antes dos ativos
+    private void evictLeastRecentlyUsed() {
+        maintenanceLock.lock();
+        try {
+            int excess = games.size() - maxGames;
+            if (excess <= 0) {
+                return;
+            }
+            int toEvict = Math.min(games.size(), excess + evictionBatch - 1);
+            Comparator<Map.Entry<String, Entry>> evictionOrder = Comparator
+                    .comparing((Map.Entry<String, Entry> e) -> !isFinished(e.getValue()))
+                    .thenComparingLong(e -> e.getValue().lastAccessNanos);
+            // Heap com os "toEvict" primeiros da ordem de remoção; o topo é o último deles
+            PriorityQueue<Map.Entry<String, Entry>> oldest =
+                    new PriorityQueue<>(toEvict + 1, evictionOrder.reversed());
+            for (Map.Entry<String, Entry> e : games.entrySet()) {
+                oldest.add(e);
+                if (oldest.size() > toEvict) {
+                    oldest.poll();
+                }
+            }
+            List<Entry> victims = new ArrayList<>(oldest.size());
+            for (Map.Entry<String, Entry> e : oldest) {
+                if (games.remove(e.getKey(), e.getValue())) {
+                    victims.add(e.getValue());
+                }
+            }
+            evicted.addAndGet(victims.size());
+            log.debug("[gameStore] {} jogos removidos por limite de capacidade ({})", victims.size(), maxGames);
+            for (Entry victim : victims) {
+                eventPublisher.publishEvent(new GameChangedEvent(victim.game, GameChangedEvent.EVICTED));
+            }
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    private static boolean isFinished(Entry entry) {
+        return "game_finished".equals(entry.game.getGameStatus());
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("live", games.size());
+        stats.put("max_games", maxGames);
+        stats.put("created", created.get());
+        stats.put("expired", expired.get());
+        stats.put("evicted", evicted.get());
+        stats.put("deleted", deleted.get());
+        return stats;
+    }
+}
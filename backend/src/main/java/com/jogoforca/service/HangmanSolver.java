@@ -0,0 +1,303 @@
+package com.jogoforca.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Motor da CPU adivinhadora: mantém o conjunto de palavras candidatas do dicionário e escolhe
+ * a próxima letra.
+ * <p>
+ * Para cada tamanho de palavra há um bitset de palavras por letra ("contém a letra") e por
+ * letra e posição ("tem a letra nesta posição"). Uma tentativa estreita os candidatos só com
+ * operações sobre {@code long[]}: um erro remove quem contém a letra; um acerto mantém quem tem
+ * a letra exatamente nas posições reveladas. No nível {@link Level#HARD} a letra escolhida é a
+ * de maior informação esperada: a entropia da divisão dos candidatos pelas posições em que a
+ * letra apareceria.
+ * <p>
+ * Palavras fora do dicionário esvaziam o conjunto; a partir daí a CPU segue a frequência das
+ * letras em português.
+ */
+public final class HangmanSolver {
+
+    static final int LETTERS = 26;
+    // Frequência aproximada das letras em português; as acentuadas só entram sem candidatos
+    private static final String FREQUENCY_ORDER = "AEOSRINDMUTCLPVGHQBFZJXKWYÃÇÉÁÓÍÚÊÔÕÂÀ";
+    private static final int[] FREQUENCY_INDEXES = FREQUENCY_ORDER.chars()
+            .map(c -> LetterAlphabet.indexOf((char) c))
+            .toArray();
+
+    /**
+     * Nível da CPU: {@code noise} é a chance de ignorar os candidatos e chutar uma letra comum.
+     * {@code EASY} e {@code MEDIUM} escolhem a letra presente em mais candidatos; {@code HARD},
+     * a de maior entropia.
+     */
+    public enum Level {
+        EASY(0.6), MEDIUM(0.25), HARD(0);
+
+        private final double noise;
+
+        Level(double noise) {
+            this.noise = noise;
+        }
+
+        /**
+         * Nível pelo nome (easy, medium, hard); vazio usa {@code MEDIUM}.
+         */
+        public static Level parse(String name) {
+            if (name == null || name.isBlank()) {
+                return MEDIUM;
+            }
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Nível da CPU inválido. Use 'easy', 'medium' ou 'hard'");
+            }
+        }
+    }
+
+    // Índices das palavras de um tamanho
+    private static final class LengthIndex {
+        final int length;
+        final int words;
+        final long[][] containing;
+        final long[][][] at;
+        // Máscara de posições de cada letra em cada palavra: masks[palavra * 26 + letra]
+        final int[] masks;
+
+        LengthIndex(List<String> words, int length) {
+            this.length = length;
+            this.words = words.size();
+            int longs = (this.words + 63) >>> 6;
+            this.containing = new long[LETTERS][longs];
+            this.at = new long[LETTERS][length][longs];
+            this.masks = new int[this.words * LETTERS];
+            for (int w = 0; w < this.words; w++) {
+                String word = words.get(w);
+                for (int p = 0; p < length; p++) {
+                    int letter = word.charAt(p) - 'A';
+                    containing[letter][w >>> 6] |= 1L << w;
+                    at[letter][p][w >>> 6] |= 1L << w;
+                    masks[w * LETTERS + letter] |= 1 << p;
+                }
+            }
+        }
+
+        long[] all() {
+            long[] bits = new long[(words + 63) >>> 6];
+            Arrays.fill(bits, -1L);
+            if ((words & 63) != 0) {
+                bits[bits.length - 1] = (1L << (words & 63)) - 1;
+            }
+            return bits;
+        }
+    }
+
+    private final LengthIndex[] byLength;
+
+    private HangmanSolver(LengthIndex[] byLength) {
+        this.byLength = byLength;
+    }
+
+    public static HangmanSolver of(WordDictionary dictionary) {
+        LengthIndex[] byLength = new LengthIndex[WordDictionary.MAX_LENGTH + 1];
+        for (int length = 1; length <= WordDictionary.MAX_LENGTH; length++) {
+            byLength[length] = index(dictionary.wordsOfLength(length), length);
+        }
+        return new HangmanSolver(byLength);
+    }
+
+    /**
+     * Motor sobre uma lista qualquer de palavras em A-Z (ex.: benchmarks).
+     */
+    static HangmanSolver of(List<String> words) {
+        LengthIndex[] byLength = new LengthIndex[WordDictionary.MAX_LENGTH + 1];
+        for (int length = 1; length <= WordDictionary.MAX_LENGTH; length++) {
+            int size = length;
+            byLength[length] = index(words.stream().filter(w -> w.length() == size).toList(), length);
+        }
+        return new HangmanSolver(byLength);
+    }
+
+    private static LengthIndex index(List<String> words, int length) {
+        return words.isEmpty() ? null : new LengthIndex(words, length);
+    }
+
+    /**
+     * Nova rodada para uma palavra de {@code length} letras.
+     */
+    public Session newSession(int length) {
+        LengthIndex index = length > 0 && length < byLength.length ? byLength[length] : null;
+        return new Session(index);
+    }
+
+    /**
+     * Candidatos e letras já tentadas de uma rodada. Não é thread-safe.
+     */
+    public static final class Session {
+        private final LengthIndex index;
+        private final long[] candidates;
+        private long guessed;
+        // Buffer reaproveitado no cálculo da entropia
+        private int[] groupBuffer = new int[0];
+
+        private Session(LengthIndex index) {
+            this.index = index;
+            this.candidates = index == null ? new long[0] : index.all();
+        }
+
+        public boolean isGuessed(int letterIndex) {
+            return (guessed & (1L << letterIndex)) != 0;
+        }
+
+        /**
+         * Registra o resultado de uma tentativa: a letra (índice do {@link LetterAlphabet}) e a
+         * máscara das posições reveladas (0 se errou).
+         */
+        public void apply(int letterIndex, int positionMask) {
+            guessed |= 1L << letterIndex;
+            if (index == null) {
+                return;
+            }
+            if (letterIndex >= LETTERS) {
+                // Letra acentuada: nenhuma palavra do dicionário a contém
+                if (positionMask != 0) {
+                    Arrays.fill(candidates, 0);
+                }
+                return;
+            }
+            if (positionMask == 0) {
+                andNot(candidates, index.containing[letterIndex]);
+                return;
+            }
+            long[][] at = index.at[letterIndex];
+            for (int p = 0; p < index.length; p++) {
+                if ((positionMask & (1 << p)) != 0) {
+                    and(candidates, at[p]);
+                } else {
+                    andNot(candidates, at[p]);
+                }
+            }
+        }
+
+        public int candidateCount() {
+            int count = 0;
+            for (long bits : candidates) {
+                count += Long.bitCount(bits);
+            }
+            return count;
+        }
+
+        /**
+         * Próxima letra (índice do {@link LetterAlphabet}), ou -1 se todas já foram tentadas.
+         */
+        public int nextLetter(Level level, Random random) {
+            int total = candidateCount();
+            if (total == 0) {
+                return byFrequency(null);
+            }
+            if (level.noise > 0 && random.nextDouble() < level.noise) {
+                return byFrequency(random);
+            }
+            int best = -1;
+            double bestScore = -1;
+            int bestHits = -1;
+            for (int letter = 0; letter < LETTERS; letter++) {
+                if (isGuessed(letter)) {
+                    continue;
+                }
+                int hits = countAnd(candidates, index.containing[letter]);
+                if (hits == 0) {
+                    continue;
+                }
+                double score = level == Level.HARD ? entropy(letter, hits, total) : hits;
+                if (score > bestScore || (score == bestScore && hits > bestHits)) {
+                    best = letter;
+                    bestScore = score;
+                    bestHits = hits;
+                }
+            }
+            return best >= 0 ? best : byFrequency(null);
+        }
+
+        // Entropia (bits) da divisão dos candidatos pelas posições da letra
+        private double entropy(int letter, int hits, int total) {
+            if (groupBuffer.length < hits) {
+                groupBuffer = new int[Math.max(hits, groupBuffer.length * 2)];
+            }
+            int n = 0;
+            long[] containing = index.containing[letter];
+            for (int i = 0; i < candidates.length; i++) {
+                long bits = candidates[i] & containing[i];
+                while (bits != 0) {
+                    int w = (i << 6) + Long.numberOfTrailingZeros(bits);
+                    groupBuffer[n++] = index.masks[w * LETTERS + letter];
+                    bits &= bits - 1;
+                }
+            }
+            Arrays.sort(groupBuffer, 0, n);
+            double entropy = term(total - hits, total);
+            int run = 1;
+            for (int i = 1; i <= n; i++) {
+                if (i < n && groupBuffer[i] == groupBuffer[i - 1]) {
+                    run++;
+                } else {
+                    entropy += term(run, total);
+                    run = 1;
+                }
+            }
+            return entropy;
+        }
+
+        private static double term(int count, int total) {
+            if (count == 0) {
+                return 0;
+            }
+            double p = (double) count / total;
+            return -p * Math.log(p) / Math.log(2);
+        }
+
+        // Ordem de frequência; com random, sorteia entre as 12 primeiras ainda livres
+        private int byFrequency(Random random) {
+            if (random != null) {
+                int[] free = new int[12];
+                int n = 0;
+                for (int i = 0; i < FREQUENCY_INDEXES.length && n < free.length; i++) {
+                    if (!isGuessed(FREQUENCY_INDEXES[i])) {
+                        free[n++] = FREQUENCY_INDEXES[i];
+                    }
+                }
+                if (n > 0) {
+                    return free[random.nextInt(n)];
+                }
+            }
+            for (int letter : FREQUENCY_INDEXES) {
+                if (!isGuessed(letter)) {
+                    return letter;
+                }
+            }
+            return -1;
+        }
+
+        private static void and(long[] target, long[] other) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] &= other[i];
+            }
+        }
+
+        private static void andNot(long[] target, long[] other) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] &= ~other[i];
+            }
+        }
+
+        private static int countAnd(long[] a, long[] b) {
+            int count = 0;
+            for (int i = 0; i < a.length; i++) {
+                count += Long.bitCount(a[i] & b[i]);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.jogoforca.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Cache de dicas geradas pela IA, indexado pela palavra em maiúsculas e sem acentos.
+ * <p>
+ * Limitado por tamanho (remove a entrada usada há mais tempo) e por tempo de vida.
+ * Pode ser pré-carregado a partir de um arquivo com linhas no formato {@code PALAVRA;dica}.
+ */
+@Service
+public class HintCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(HintCacheService.class);
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final String warmupFile;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    private record Entry(String hint, long expiresAt) {
+    }
+
+    public HintCacheService(@Value("${jogoforca.hint-cache.max-size:1000}") int maxSize,
+            @Value("${jogoforca.hint-cache.ttl:PT24H}") Duration ttl,
+            @Value("${jogoforca.hint-cache.warmup-file:}") String warmupFile) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Tamanho do cache de dicas deve ser positivo");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.warmupFile = warmupFile;
+        // accessOrder = true: a iteração começa pela entrada usada há mais tempo
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @PostConstruct
+    void warmUp() {
+        if (warmupFile == null || warmupFile.isBlank()) {
+            return;
+        }
+        Path path = Path.of(warmupFile);
+        int loaded = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int sep = line.indexOf(';');
+                if (line.isBlank() || line.startsWith("#") || sep <= 0) {
+                    continue;
+                }
+                String hint = line.substring(sep + 1).trim();
+                if (!hint.isEmpty()) {
+                    put(line.substring(0, sep), hint);
+                    loaded++;
+                }
+            }
+            log.info("[hintCache] {} dicas carregadas de {}", loaded, path);
+        } catch (IOException e) {
+            log.warn("[hintCache] não foi possível carregar dicas de {}: {}", path, e.getMessage());
+        }
+    }
+
+    public Optional<String> get(String word) {
+        String key = normalize(word);
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.expiresAt() >= 0) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+            hits.incrementAndGet();
+            return Optional.of(entry.hint());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String word, String hint) {
+        String key = normalize(word);
+        lock.lock();
+        try {
+            entries.put(key, new Entry(hint, System.nanoTime() + ttlNanos));
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long h = hits.get();
+        long m = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("max_size", maxSize);
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hit_rate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        return stats;
+    }
+
+    static String normalize(String word) {
+        String decomposed = Normalizer.normalize(word.trim(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toUpperCase(Locale.ROOT);
+    }
+}
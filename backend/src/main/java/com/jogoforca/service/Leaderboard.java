@@ -0,0 +1,163 @@
+package com.jogoforca.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Classificação dos jogadores em uma skip list indexada: inserir, remover e consultar a
+ * posição custam O(log n), e os N primeiros saem em O(N) a partir do topo.
+ * <p>
+ * Ordem: {@link PlayerStats#rankingScore()} decrescente e, no empate, nome crescente. Cada
+ * ligação guarda quantos nós ela pula ({@code span}), o que dá a posição somando os saltos
+ * no caminho da busca. Não é thread-safe: o {@link PlayerStatsService} a usa sob o próprio lock.
+ */
+final class Leaderboard {
+
+    private static final int MAX_LEVEL = 32;
+
+    private static final class Node {
+        final PlayerStats stats;
+        // Cópia da pontuação no próprio nó: a busca só segue até os dados do jogador no empate
+        final long score;
+        final Node[] next;
+        final int[] span;
+
+        Node(PlayerStats stats, int level) {
+            this.stats = stats;
+            this.score = stats == null ? 0 : stats.rankingScore();
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    private final Node head = new Node(null, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    // Negativo se a vem antes de b na classificação
+    static int compare(PlayerStats a, PlayerStats b) {
+        int byScore = Long.compare(b.rankingScore(), a.rankingScore());
+        return byScore != 0 ? byScore : a.player().compareTo(b.player());
+    }
+
+    private static int compare(Node node, PlayerStats stats, long score) {
+        int byScore = Long.compare(score, node.score);
+        return byScore != 0 ? byScore : node.stats.player().compareTo(stats.player());
+    }
+
+    private static int randomLevel() {
+        // Probabilidade 1/4 por nível, como no sorted set do Redis
+        int bits = ThreadLocalRandom.current().nextInt();
+        int level = 1;
+        while (level < MAX_LEVEL && (bits & 3) == 0) {
+            level++;
+            bits >>>= 2;
+            if (bits == 0) {
+                bits = ThreadLocalRandom.current().nextInt();
+            }
+        }
+        return level;
+    }
+
+    void insert(PlayerStats stats) {
+        long score = stats.rankingScore();
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], stats, score) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = size;
+            }
+            level = nodeLevel;
+        }
+        Node node = new Node(stats, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    /**
+     * Remove a entrada com exatamente estes dados (a mesma instância inserida).
+     */
+    boolean remove(PlayerStats stats) {
+        long score = stats.rankingScore();
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], stats, score) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        Node target = x.next[0];
+        if (target == null || compare(target, stats, score) != 0) {
+            return false;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Posição (1 = primeiro) da entrada, ou 0 se não está na classificação.
+     */
+    int rank(PlayerStats stats) {
+        long score = stats.rankingScore();
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], stats, score) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && compare(x, stats, score) == 0) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * As {@code n} primeiras entradas, em ordem.
+     */
+    List<PlayerStats> top(int n) {
+        List<PlayerStats> top = new ArrayList<>(Math.min(n, size));
+        for (Node x = head.next[0]; x != null && top.size() < n; x = x.next[0]) {
+            top.add(x.stats);
+        }
+        return top;
+    }
+}
@@ -0,0 +1,64 @@
+package com.jogoforca.service;
+
+import java.util.Arrays;
+
+/**
+ * Alfabeto aceito pelo jogo (A-Z e letras acentuadas maiúsculas), com índice de 0 a
+ * {@link #SIZE} - 1 para cada letra. Cabe em um {@code long}, permitindo guardar
+ * conjuntos de letras como bitset.
+ */
+final class LetterAlphabet {
+
+    static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZÀÁÂÃÄÅÆÇÈÉÊËÌÍÎÏÐÑÒÓÔÕÖØÙÚÛÜÝÞŸ";
+    static final int SIZE = LETTERS.length();
+
+    private static final byte[] INDEX;
+    // Strings de uma letra pré-alocadas, para não criar uma nova a cada tentativa
+    private static final String[] AS_STRING = new String[SIZE];
+
+    static {
+        char max = 0;
+        for (int i = 0; i < SIZE; i++) {
+            max = (char) Math.max(max, LETTERS.charAt(i));
+        }
+        INDEX = new byte[max + 1];
+        Arrays.fill(INDEX, (byte) -1);
+        for (int i = 0; i < SIZE; i++) {
+            INDEX[LETTERS.charAt(i)] = (byte) i;
+            AS_STRING[i] = String.valueOf(LETTERS.charAt(i));
+        }
+    }
+
+    private LetterAlphabet() {
+    }
+
+    /**
+     * Índice da letra (já em maiúsculas), ou -1 se não pertence ao alfabeto.
+     */
+    static int indexOf(char c) {
+        return c < INDEX.length ? INDEX[c] : -1;
+    }
+
+    static char letterAt(int index) {
+        return LETTERS.charAt(index);
+    }
+
+    static String asString(int index) {
+        return AS_STRING[index];
+    }
+
+    /**
+     * Verifica se a palavra (já em maiúsculas) contém apenas letras do alfabeto.
+     */
+    static boolean isWord(String word) {
+        if (word.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (indexOf(word.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,516 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import com.jogoforca.model.GameConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila de pareamento para salas PvP: jogadores entram com preferências (tamanho da sala,
+ * idioma e dificuldade) e são agrupados em salas criadas por {@link GameService#createGame}.
+ * <p>
+ * Cada combinação de preferências tem a própria fila (sem locks: deque concorrente e
+ * contador atômico). Quem completa uma sala forma o jogo na hora; uma varredura periódica
+ * cobre o resto. Uma fila só é consumida por uma thread de cada vez, por CAS, e o estado de
+ * cada ficha muda por CAS, de modo que cancelamento e pareamento não disputam a mesma ficha.
+ * <p>
+ * Quando o jogador mais antigo de uma fila espera {@code max-wait}, a sala é criada com quem
+ * estiver esperando (pelo menos 2). Sozinho por {@code ticket-timeout}, o jogador sai da fila
+ * com a ficha expirada. O pareamento é por nó: em cluster, só se encontram jogadores que
+ * entraram pelo mesmo nó.
+ * <p>
+ * Cada cliente (IP) e cada nome de jogador têm um limite de fichas abertas (esperando ou com a
+ * sala sendo criada); acima dele a entrada falha com {@link TooManyTicketsException}.
+ */
+@Service
+public class MatchmakingService {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchmakingService.class);
+
+    public static final int MIN_ROOM_SIZE = 2;
+    public static final int MAX_ROOM_SIZE = 5;
+    private static final Set<String> DIFFICULTIES = Set.of("easy", "medium", "hard");
+
+    /**
+     * Situação de uma ficha de pareamento.
+     */
+    public enum Status {
+        WAITING, CLAIMED, MATCHED, CANCELLED, EXPIRED;
+
+        public String value() {
+            // CLAIMED é interno: a sala está sendo criada
+            return this == CLAIMED ? "waiting" : name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Entrada recusada: o cliente ou o jogador já tem o máximo de fichas abertas.
+     */
+    public static final class TooManyTicketsException extends IllegalStateException {
+        TooManyTicketsException(String message) {
+            super(message);
+        }
+    }
+
+    private record BucketKey(int roomSize, String language, String difficulty) {
+    }
+
+    /**
+     * Pedido de um jogador na fila.
+     */
+    public static final class Ticket {
+        private final String ticketId;
+        private final String player;
+        private final String client;
+        private final BucketKey key;
+        private final long enqueuedAtNanos = System.nanoTime();
+        private final AtomicInteger status = new AtomicInteger(Status.WAITING.ordinal());
+        private volatile String gameId;
+        private volatile long finishedAtNanos;
+
+        private Ticket(String ticketId, String player, String client, BucketKey key) {
+            this.ticketId = ticketId;
+            this.player = player;
+            this.client = client;
+            this.key = key;
+        }
+
+        public String getTicketId() {
+            return ticketId;
+        }
+
+        public String getPlayer() {
+            return player;
+        }
+
+        public int getRoomSize() {
+            return key.roomSize();
+        }
+
+        public String getLanguage() {
+            return key.language();
+        }
+
+        public String getDifficulty() {
+            return key.difficulty();
+        }
+
+        public Status getStatus() {
+            return Status.values()[status.get()];
+        }
+
+        public String getGameId() {
+            return gameId;
+        }
+
+        /**
+         * Tempo na fila até sair dela, ou até agora se ainda espera.
+         */
+        public long getWaitNanos() {
+            long finished = finishedAtNanos;
+            return (finished != 0 ? finished : System.nanoTime()) - enqueuedAtNanos;
+        }
+
+        private boolean transition(Status from, Status to) {
+            return status.compareAndSet(from.ordinal(), to.ordinal());
+        }
+    }
+
+    private static final class Bucket {
+        final BucketKey key;
+        final ConcurrentLinkedDeque<Ticket> queue = new ConcurrentLinkedDeque<>();
+        // Fichas WAITING na fila; as canceladas ou expiradas saem da deque só quando alcançadas
+        final AtomicInteger waiting = new AtomicInteger();
+        final AtomicBoolean matching = new AtomicBoolean();
+
+        Bucket(BucketKey key) {
+            this.key = key;
+        }
+    }
+
+    private final GameService gameService;
+    private final long maxWaitNanos;
+    private final long ticketTimeoutNanos;
+    private final long retentionNanos;
+    private final int maxQueued;
+    private final int maxPerClient;
+    private final int maxPerPlayer;
+    private final Set<String> languages;
+    private final String defaultLanguage;
+    private final Map<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    // Fichas encerradas, em ordem de encerramento, para descarte após a retenção
+    private final ConcurrentLinkedQueue<Ticket> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waitingTotal = new AtomicInteger();
+    // Fichas abertas por cliente e por nome; a chave sai do mapa quando a contagem zera
+    private final Map<String, Integer> openByClient = new ConcurrentHashMap<>();
+    private final Map<String, Integer> openByPlayer = new ConcurrentHashMap<>();
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong matches = new AtomicLong();
+    private final AtomicLong partialMatches = new AtomicLong();
+    private final AtomicLong matchedPlayers = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong createFailures = new AtomicLong();
+    private final AtomicLong limited = new AtomicLong();
+    private final Counter matchCounter;
+    private final Timer waitTimer;
+    // Vazão calculada na varredura, a cada segundo
+    private long rateSampledAt = System.nanoTime();
+    private long rateSampledMatches;
+    private long rateSampledPlayers;
+    private volatile double matchesPerSec;
+    private volatile double playersPerSec;
+
+    public MatchmakingService(GameService gameService, MeterRegistry meterRegistry,
+            @Value("${jogoforca.matchmaking.max-wait:PT10S}") Duration maxWait,
+            @Value("${jogoforca.matchmaking.ticket-timeout:PT2M}") Duration ticketTimeout,
+            @Value("${jogoforca.matchmaking.ticket-retention:PT5M}") Duration retention,
+            @Value("${jogoforca.matchmaking.max-queued:100000}") int maxQueued,
+            @Value("${jogoforca.matchmaking.max-tickets-per-client:10}") int maxPerClient,
+            @Value("${jogoforca.matchmaking.max-tickets-per-player:1}") int maxPerPlayer,
+            @Value("${jogoforca.matchmaking.languages:pt,en,es}") List<String> languages) {
+        this.gameService = gameService;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.ticketTimeoutNanos = Math.max(ticketTimeout.toNanos(), maxWaitNanos);
+        this.retentionNanos = retention.toNanos();
+        this.maxQueued = maxQueued;
+        this.maxPerClient = maxPerClient;
+        this.maxPerPlayer = maxPerPlayer;
+        this.languages = new HashSet<>();
+        for (String language : languages) {
+            this.languages.add(language.trim().toLowerCase(Locale.ROOT));
+        }
+        this.defaultLanguage = languages.isEmpty() ? "pt" : languages.get(0).trim().toLowerCase(Locale.ROOT);
+        this.matchCounter = Counter.builder("jogoforca.matchmaking.matches")
+                .description("Salas formadas pelo pareamento")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("jogoforca.matchmaking.wait")
+                .description("Espera na fila até a sala ser formada")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Coloca o jogador na fila; a sala pode ser formada antes do retorno.
+     *
+     * @param client IP de quem pediu, ou {@code null} para não limitar por cliente
+     */
+    public Ticket enqueue(String player, Integer roomSize, String language, String difficulty, String client) {
+        if (player == null || player.isBlank()) {
+            throw new IllegalArgumentException("Nome do jogador é obrigatório");
+        }
+        int size = roomSize != null ? roomSize : MIN_ROOM_SIZE;
+        if (size < MIN_ROOM_SIZE || size > MAX_ROOM_SIZE) {
+            throw new IllegalArgumentException("Tamanho da sala deve ser entre " + MIN_ROOM_SIZE + " e " + MAX_ROOM_SIZE);
+        }
+        String lang = language == null || language.isBlank() ? defaultLanguage : language.trim().toLowerCase(Locale.ROOT);
+        if (!languages.contains(lang)) {
+            throw new IllegalArgumentException("Idioma não suportado: " + language);
+        }
+        String level = difficulty == null || difficulty.isBlank() ? "medium" : difficulty.trim().toLowerCase(Locale.ROOT);
+        if (!DIFFICULTIES.contains(level)) {
+            throw new IllegalArgumentException("Dificuldade inválida. Use 'easy', 'medium' ou 'hard'");
+        }
+        String name = player.trim();
+        if (!reserve(openByPlayer, name, maxPerPlayer)) {
+            limited.incrementAndGet();
+            throw new TooManyTicketsException("O jogador já está na fila de pareamento");
+        }
+        if (client != null && !reserve(openByClient, client, maxPerClient)) {
+            release(openByPlayer, name);
+            limited.incrementAndGet();
+            throw new TooManyTicketsException("Muitas fichas de pareamento abertas; tente novamente em instantes");
+        }
+        if (waitingTotal.incrementAndGet() > maxQueued) {
+            waitingTotal.decrementAndGet();
+            releaseOpen(name, client);
+            throw new IllegalStateException("Fila de pareamento cheia; tente novamente em instantes");
+        }
+
+        BucketKey key = new BucketKey(size, lang, level);
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), name, client, key);
+        tickets.put(ticket.ticketId, ticket);
+        Bucket bucket = buckets.computeIfAbsent(key, Bucket::new);
+        bucket.queue.offerLast(ticket);
+        enqueued.incrementAndGet();
+        if (bucket.waiting.incrementAndGet() >= size) {
+            match(bucket, System.nanoTime());
+        }
+        return ticket;
+    }
+
+    public Optional<Ticket> getTicket(String ticketId) {
+        return Optional.ofNullable(tickets.get(ticketId));
+    }
+
+    /**
+     * Tira o jogador da fila. Falha se a sala já foi formada (ou está sendo).
+     */
+    public Ticket cancel(String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            throw new IllegalArgumentException("Ficha de pareamento não encontrada");
+        }
+        if (ticket.transition(Status.WAITING, Status.CANCELLED)) {
+            leaveQueue(ticket);
+            cancelled.incrementAndGet();
+            return ticket;
+        }
+        if (ticket.getStatus() == Status.CANCELLED) {
+            return ticket;
+        }
+        throw new IllegalStateException("A ficha não está mais na fila (" + ticket.getStatus().value() + ")");
+    }
+
+    /**
+     * Forma salas atrasadas, expira jogadores sozinhos, descarta fichas antigas e atualiza a vazão.
+     */
+    @Scheduled(fixedDelayString = "${jogoforca.matchmaking.sweep-interval-ms:100}")
+    public void sweep() {
+        long now = System.nanoTime();
+        for (Bucket bucket : buckets.values()) {
+            match(bucket, now);
+            expireStale(bucket, now);
+        }
+        Ticket oldest;
+        while ((oldest = finished.peek()) != null && now - oldest.finishedAtNanos >= retentionNanos) {
+            finished.poll();
+            tickets.remove(oldest.ticketId, oldest);
+        }
+        sampleRates(now);
+    }
+
+    // Forma salas enquanto houver jogadores suficientes ou alguém esperando além de max-wait
+    private void match(Bucket bucket, long now) {
+        int roomSize = bucket.key.roomSize();
+        while (bucket.matching.compareAndSet(false, true)) {
+            boolean stuck = false;
+            try {
+                while (true) {
+                    Ticket head = firstWaiting(bucket);
+                    if (head == null) {
+                        break;
+                    }
+                    int waiting = bucket.waiting.get();
+                    boolean overdue = now - head.enqueuedAtNanos >= maxWaitNanos;
+                    if (waiting < roomSize && !(overdue && waiting >= MIN_ROOM_SIZE)) {
+                        break;
+                    }
+                    if (!formRoom(bucket)) {
+                        stuck = true;
+                        break;
+                    }
+                }
+            } finally {
+                bucket.matching.set(false);
+            }
+            // Quem entrou enquanto a fila estava ocupada pode ter completado uma sala
+            if (stuck || bucket.waiting.get() < roomSize) {
+                return;
+            }
+        }
+    }
+
+    private Ticket firstWaiting(Bucket bucket) {
+        Ticket head;
+        while ((head = bucket.queue.peekFirst()) != null && head.getStatus() != Status.WAITING) {
+            bucket.queue.pollFirst();
+        }
+        return head;
+    }
+
+    // Reserva até roomSize jogadores com nomes distintos e cria o jogo; false se não deu
+    private boolean formRoom(Bucket bucket) {
+        int roomSize = bucket.key.roomSize();
+        List<Ticket> room = new ArrayList<>(roomSize);
+        List<Ticket> skipped = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        Ticket ticket;
+        while (room.size() < roomSize && (ticket = bucket.queue.pollFirst()) != null) {
+            if (ticket.getStatus() != Status.WAITING) {
+                continue;
+            }
+            // Nomes repetidos não podem dividir a sala: esperam a próxima
+            if (!names.add(ticket.player)) {
+                skipped.add(ticket);
+                continue;
+            }
+            if (ticket.transition(Status.WAITING, Status.CLAIMED)) {
+                bucket.waiting.decrementAndGet();
+                room.add(ticket);
+            }
+        }
+        for (int i = skipped.size() - 1; i >= 0; i--) {
+            bucket.queue.offerFirst(skipped.get(i));
+        }
+        if (room.size() < MIN_ROOM_SIZE) {
+            requeue(bucket, room);
+            return false;
+        }
+
+        GameConfig config = new GameConfig();
+        config.setMode("pvp");
+        config.setPlayers(new ArrayList<>(room.stream().map(t -> t.player).toList()));
+        Game game;
+        try {
+            game = gameService.createGame(config);
+        } catch (RuntimeException e) {
+            createFailures.incrementAndGet();
+            log.warn("[matchmaking] falha ao criar sala {}: {}", bucket.key, e.getMessage());
+            requeue(bucket, room);
+            return false;
+        }
+
+        long now = System.nanoTime();
+        for (Ticket matched : room) {
+            matched.gameId = game.getGameId();
+            matched.finishedAtNanos = now;
+            matched.transition(Status.CLAIMED, Status.MATCHED);
+            releaseOpen(matched.player, matched.client);
+            waitTimer.record(now - matched.enqueuedAtNanos, TimeUnit.NANOSECONDS);
+            finished.add(matched);
+        }
+        waitingTotal.addAndGet(-room.size());
+        matches.incrementAndGet();
+        matchedPlayers.addAndGet(room.size());
+        matchCounter.increment();
+        if (room.size() < roomSize) {
+            partialMatches.incrementAndGet();
+        }
+        log.debug("[matchmaking] sala {} formada com {} jogadores ({})", game.getGameId(), room.size(), bucket.key);
+        return true;
+    }
+
+    // Devolve fichas reservadas ao início da fila, na ordem original
+    private void requeue(Bucket bucket, List<Ticket> room) {
+        for (int i = room.size() - 1; i >= 0; i--) {
+            Ticket ticket = room.get(i);
+            ticket.transition(Status.CLAIMED, Status.WAITING);
+            bucket.waiting.incrementAndGet();
+            bucket.queue.offerFirst(ticket);
+        }
+    }
+
+    private void expireStale(Bucket bucket, long now) {
+        if (!bucket.matching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Ticket head;
+            while ((head = firstWaiting(bucket)) != null && now - head.enqueuedAtNanos >= ticketTimeoutNanos) {
+                bucket.queue.pollFirst();
+                if (head.transition(Status.WAITING, Status.EXPIRED)) {
+                    leaveQueue(head);
+                    expired.incrementAndGet();
+                }
+            }
+        } finally {
+            bucket.matching.set(false);
+        }
+    }
+
+    private void leaveQueue(Ticket ticket) {
+        ticket.finishedAtNanos = System.nanoTime();
+        buckets.get(ticket.key).waiting.decrementAndGet();
+        waitingTotal.decrementAndGet();
+        releaseOpen(ticket.player, ticket.client);
+        finished.add(ticket);
+    }
+
+    // Conta mais uma ficha aberta para a chave; false se ela já tem o máximo
+    private static boolean reserve(Map<String, Integer> open, String key, int max) {
+        boolean[] reserved = new boolean[1];
+        open.compute(key, (k, count) -> {
+            int current = count == null ? 0 : count;
+            reserved[0] = current < max;
+            return reserved[0] ? current + 1 : count;
+        });
+        return reserved[0];
+    }
+
+    private static void release(Map<String, Integer> open, String key) {
+        open.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    // Chamado uma vez por ficha, quando ela deixa de estar aberta (pareada, cancelada ou expirada)
+    private void releaseOpen(String player, String client) {
+        release(openByPlayer, player);
+        if (client != null) {
+            release(openByClient, client);
+        }
+    }
+
+    // Só a varredura (uma thread por vez) escreve os campos de amostragem
+    private void sampleRates(long now) {
+        long elapsed = now - rateSampledAt;
+        if (elapsed < TimeUnit.SECONDS.toNanos(1)) {
+            return;
+        }
+        long matchCount = matches.get();
+        long playerCount = matchedPlayers.get();
+        matchesPerSec = (matchCount - rateSampledMatches) * 1e9 / elapsed;
+        playersPerSec = (playerCount - rateSampledPlayers) * 1e9 / elapsed;
+        rateSampledAt = now;
+        rateSampledMatches = matchCount;
+        rateSampledPlayers = playerCount;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("waiting", waitingTotal.get());
+        stats.put("buckets", buckets.size());
+        stats.put("tickets", tickets.size());
+        stats.put("enqueued", enqueued.get());
+        stats.put("matches", matches.get());
+        stats.put("partial_matches", partialMatches.get());
+        stats.put("matched_players", matchedPlayers.get());
+        stats.put("cancelled", cancelled.get());
+        stats.put("expired", expired.get());
+        stats.put("create_failures", createFailures.get());
+        stats.put("limited", limited.get());
+        stats.put("open_clients", openByClient.size());
+        stats.put("open_players", openByPlayer.size());
+        stats.put("matches_per_sec", matchesPerSec);
+        stats.put("players_per_sec", playersPerSec);
+        HistogramSnapshot snapshot = waitTimer.takeSnapshot();
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            stats.put("wait_p" + Math.round(percentile.percentile() * 100) + "_ms",
+                    percentile.value(TimeUnit.MILLISECONDS));
+        }
+        stats.put("wait_max_ms", snapshot.max(TimeUnit.MILLISECONDS));
+        stats.put("max_wait_ms", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+        stats.put("ticket_timeout_ms", TimeUnit.NANOSECONDS.toMillis(ticketTimeoutNanos));
+        stats.put("max_queued", maxQueued);
+        stats.put("max_tickets_per_client", maxPerClient);
+        stats.put("max_tickets_per_player", maxPerPlayer);
+        return stats;
+    }
+}
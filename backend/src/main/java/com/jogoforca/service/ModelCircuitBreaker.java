@@ -0,0 +1,90 @@
+package com.jogoforca.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Circuit breaker simples por modelo: após {@code failureThreshold} falhas seguidas o
+ * modelo é ignorado durante {@code openDuration}. Passado esse tempo, apenas uma
+ * chamada de teste é liberada; se ela falhar, o circuito volta a abrir. Uma chamada de teste
+ * cancelada antes do resultado devolve a vaga com {@link #release(Permit)}.
+ */
+class ModelCircuitBreaker {
+
+    private static final long CLOSED = 0L;
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // 0 = fechado; caso contrário, instante (nanoTime) a partir do qual uma chamada de teste é liberada
+    private final AtomicLong retryAt = new AtomicLong(CLOSED);
+
+    /**
+     * Autorização de uma chamada: com o circuito fechado, ou a chamada de teste do meio-aberto,
+     * que reservou a vaga até {@code probeUntil}.
+     */
+    record Permit(long probeUntil) {
+        private static final Permit CLOSED_CIRCUIT = new Permit(CLOSED);
+    }
+
+    ModelCircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Indica se uma chamada agora seria liberada, sem reservar a vaga de teste.
+     */
+    boolean isAvailable() {
+        long at = retryAt.get();
+        return at == CLOSED || System.nanoTime() - at >= 0;
+    }
+
+    /**
+     * Libera a chamada, ou {@code null} se o circuito está aberto ou a vaga de teste já foi
+     * tomada. Deve ser chamado quando a chamada começa de fato.
+     */
+    Permit tryAcquire() {
+        long at = retryAt.get();
+        if (at == CLOSED) {
+            return Permit.CLOSED_CIRCUIT;
+        }
+        long now = System.nanoTime();
+        if (now - at < 0) {
+            return null;
+        }
+        // Meio-aberto: só a primeira chamada após o prazo passa; as demais esperam o resultado
+        long probeUntil = nonZero(now + openNanos);
+        return retryAt.compareAndSet(at, probeUntil) ? new Permit(probeUntil) : null;
+    }
+
+    /**
+     * Chamada cancelada sem resultado: se era a de teste e nada mudou desde então, a próxima
+     * chamada já pode testar o modelo.
+     */
+    void release(Permit permit) {
+        if (permit.probeUntil() != CLOSED) {
+            retryAt.compareAndSet(permit.probeUntil(), nonZero(System.nanoTime()));
+        }
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+        retryAt.set(CLOSED);
+    }
+
+    void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            retryAt.set(nonZero(System.nanoTime() + openNanos));
+        }
+    }
+
+    boolean isOpen() {
+        return retryAt.get() != CLOSED;
+    }
+
+    private static long nonZero(long value) {
+        return value == CLOSED ? 1L : value;
+    }
+}
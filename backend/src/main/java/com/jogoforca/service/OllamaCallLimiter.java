@@ -0,0 +1,176 @@
+package com.jogoforca.service;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite global de gerações simultâneas no Ollama, com fila de espera limitada.
+ * <p>
+ * Ninguém bloqueia: quem não consegue vaga entra na fila como um {@link MonoSink} e é
+ * liberado quando outra geração termina. Com a fila cheia, ou após {@code queueTimeout} na
+ * fila, a geração falha na hora com {@link OverloadedException}; o {@link OllamaService}
+ * trata isso como "sem resposta" e usa o fallback.
+ */
+final class OllamaCallLimiter {
+
+    /**
+     * Geração recusada por falta de vaga.
+     */
+    static final class OverloadedException extends RuntimeException {
+        OverloadedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    // Vaga concedida; liberar mais de uma vez não tem efeito
+    private final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                OllamaCallLimiter.this.release();
+            }
+        }
+    }
+
+    private static final class Waiter {
+        final MonoSink<Permit> sink;
+        // 0 = esperando, 1 = recebeu a vaga, 2 = desistiu
+        final AtomicInteger state = new AtomicInteger();
+        volatile Permit permit;
+
+        Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Duration queueTimeout;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private int inFlight;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong queueTimeouts = new AtomicLong();
+
+    OllamaCallLimiter(int maxConcurrent, int maxQueued, Duration queueTimeout) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.queueTimeout = queueTimeout;
+    }
+
+    /**
+     * Executa {@code source} só depois de conseguir uma vaga, liberada ao terminar, falhar
+     * ou ser cancelado.
+     */
+    <T> Mono<T> limit(Mono<T> source) {
+        return acquire()
+                .timeout(queueTimeout)
+                .onErrorMap(TimeoutException.class, e -> {
+                    queueTimeouts.incrementAndGet();
+                    return new OverloadedException("Tempo de espera por vaga no Ollama esgotado");
+                })
+                .flatMap(permit -> source.doFinally(signal -> permit.release()));
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = null;
+            lock.lock();
+            try {
+                if (inFlight < maxConcurrent) {
+                    inFlight++;
+                } else if (waiters.size() < maxQueued) {
+                    waiter = new Waiter(sink);
+                    waiters.addLast(waiter);
+                } else {
+                    rejected.incrementAndGet();
+                    sink.error(new OverloadedException("Fila do Ollama cheia"));
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (waiter == null) {
+                admitted.incrementAndGet();
+                sink.success(new Permit());
+                return;
+            }
+            queued.incrementAndGet();
+            Waiter registered = waiter;
+            sink.onCancel(() -> {
+                if (registered.state.compareAndSet(0, 2)) {
+                    lock.lock();
+                    try {
+                        waiters.remove(registered);
+                    } finally {
+                        lock.unlock();
+                    }
+                } else {
+                    // Recebeu a vaga junto com o cancelamento: devolve
+                    registered.permit.release();
+                }
+            });
+        });
+    }
+
+    private void release() {
+        while (true) {
+            Waiter next;
+            lock.lock();
+            try {
+                next = waiters.pollFirst();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            // A vaga passa direto para o próximo da fila, sem voltar ao contador
+            Permit permit = new Permit();
+            next.permit = permit;
+            if (next.state.compareAndSet(0, 1)) {
+                admitted.incrementAndGet();
+                next.sink.success(permit);
+                return;
+            }
+        }
+    }
+
+    Map<String, Object> getStats() {
+        int active;
+        int waiting;
+        lock.lock();
+        try {
+            active = inFlight;
+            waiting = waiters.size();
+        } finally {
+            lock.unlock();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("in_flight", active);
+        stats.put("max_concurrent", maxConcurrent);
+        stats.put("queued", waiting);
+        stats.put("max_queued", maxQueued);
+        stats.put("queue_timeout_ms", queueTimeout.toMillis());
+        stats.put("admitted", admitted.get());
+        stats.put("queued_total", queued.get());
+        stats.put("rejected", rejected.get());
+        stats.put("queue_timeouts", queueTimeouts.get());
+        return stats;
+    }
+}
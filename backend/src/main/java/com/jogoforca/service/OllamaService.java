@@ -2,83 +2,239 @@ package com.jogoforca.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 @Service
 public class OllamaService {
 
+    private static final Logger log = LoggerFactory.getLogger(OllamaService.class);
+
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
     private final Random random;
+    private final Map<String, ModelCircuitBreaker> breakers;
+    private final MeterRegistry meterRegistry;
+    private final Counter fallbackWords;
+    private final Counter fallbackHints;
+    private final OllamaCallLimiter callLimiter;
     private static final List<String> FALLBACK_WORDS = List.of(
             "PYTHON", "CODIGO", "PROGRAMA", "COMPUTADOR", "DESENVOLVIMENTO",
             "JAVA", "SPRING", "BOOT", "SISTEMA", "APLICACAO");
 
-    private static final List<String> MODELS = List.of(
-            "phi3:mini", "phi", "tinyllama", "llama3.2:1b");
+    private static final String FALLBACK_HINT = "Tente adivinhar!";
+
+    // Modelos disputados em cada geração, na ordem de disparo
+    private final List<String> models;
+    private final Duration wordTimeout;
+    private final Duration hintTimeout;
+    // Intervalo entre o disparo de um modelo e o próximo na corrida (0 = todos em paralelo)
+    private final Duration hedgeDelay;
 
-    public OllamaService() {
+    public OllamaService(MeterRegistry meterRegistry,
+            @Value("${jogoforca.ollama.base-url:http://localhost:11434}") String baseUrl,
+            @Value("${jogoforca.ollama.max-concurrent:8}") int maxConcurrent,
+            @Value("${jogoforca.ollama.max-queued:32}") int maxQueued,
+            @Value("${jogoforca.ollama.queue-timeout:PT2S}") Duration queueTimeout,
+            @Value("${jogoforca.ollama.models:phi3:mini,phi,tinyllama,llama3.2:1b}") List<String> models,
+            @Value("${jogoforca.ollama.word-timeout:PT5S}") Duration wordTimeout,
+            @Value("${jogoforca.ollama.hint-timeout:PT8S}") Duration hintTimeout,
+            @Value("${jogoforca.ollama.hedge-delay:PT0.25S}") Duration hedgeDelay,
+            @Value("${jogoforca.ollama.breaker-failure-threshold:3}") int breakerFailureThreshold,
+            @Value("${jogoforca.ollama.breaker-open-duration:PT30S}") Duration breakerOpenDuration) {
+        this.models = models.stream().map(String::trim).filter(model -> !model.isEmpty()).distinct().toList();
+        if (this.models.isEmpty() || wordTimeout.isNegative() || wordTimeout.isZero() || hintTimeout.isNegative()
+                || hintTimeout.isZero() || hedgeDelay.isNegative() || breakerFailureThreshold < 1) {
+            throw new IllegalArgumentException("Configuração inválida do Ollama");
+        }
+        this.wordTimeout = wordTimeout;
+        this.hintTimeout = hintTimeout;
+        this.hedgeDelay = hedgeDelay;
         this.webClient = WebClient.builder()
-                .baseUrl("http://localhost:11434")
+                .baseUrl(baseUrl)
                 .build();
         this.objectMapper = new ObjectMapper();
         this.random = new Random();
+        this.breakers = new LinkedHashMap<>();
+        for (String model : this.models) {
+            breakers.put(model, new ModelCircuitBreaker(breakerFailureThreshold, breakerOpenDuration));
+        }
+        this.meterRegistry = meterRegistry;
+        this.fallbackWords = Counter.builder("jogoforca.llm.fallbacks")
+                .description("Palavras ou dicas predefinidas usadas no lugar da IA")
+                .tag("kind", "word")
+                .register(meterRegistry);
+        this.fallbackHints = Counter.builder("jogoforca.llm.fallbacks")
+                .description("Palavras ou dicas predefinidas usadas no lugar da IA")
+                .tag("kind", "hint")
+                .register(meterRegistry);
+        this.callLimiter = new OllamaCallLimiter(maxConcurrent, maxQueued, queueTimeout);
     }
 
+    /**
+     * Versão bloqueante de {@link #generateWordAsync()}. Só usar em threads virtuais ou de
+     * segundo plano; nunca em threads de requisição do pool de plataforma.
+     */
     public String generateWord() {
-        for (String model : MODELS) {
-            try {
-                String word = tryGenerateWithModel(model);
-                if (word != null && isValidWord(word)) {
-                    return word;
-                }
-            } catch (Exception e) {
-                System.out.println("Modelo " + model + " falhou: " + e.getMessage());
-            }
-        }
+        return generateWordAsync().block();
+    }
 
+    /**
+     * Gera uma palavra disputando os modelos em paralelo; usa uma palavra predefinida
+     * se nenhum modelo responder a tempo com uma palavra válida.
+     */
+    public Mono<String> generateWordAsync() {
         // Fallback para palavras predefinidas
+        return tryGenerateWordAsync().switchIfEmpty(Mono.fromSupplier(this::fallbackWord));
+    }
+
+    /**
+     * Como {@link #generateWordAsync()}, mas completa vazio em vez de aplicar o fallback.
+     */
+    public Mono<String> tryGenerateWordAsync() {
+        return raceModels("word", this::tryGenerateWithModel, wordTimeout);
+    }
+
+    public String fallbackWord() {
+        fallbackWords.increment();
         return FALLBACK_WORDS.get(random.nextInt(FALLBACK_WORDS.size()));
     }
 
-    private String tryGenerateWithModel(String model) {
-        try {
-            Map<String, Object> requestBody = Map.of(
-                    "model", model,
-                    "prompt", "Uma palavra em português: substantivo comum, 5-10 letras. Só a palavra:",
-                    "stream", false,
-                    "options", Map.of(
-                            "temperature", 0.7,
-                            "num_predict", 5,
-                            "top_p", 0.9));
-            String response = webClient.post()
-                    .uri("/api/generate")
-                    .bodyValue(Objects.requireNonNull(requestBody))
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .block();
-
-            if (response != null) {
-                JsonNode jsonNode = objectMapper.readTree(response);
-                String word = jsonNode.get("response").asText().trim().toUpperCase();
-
-                // Limpar caracteres especiais
-                word = word.replaceAll("[^A-ZÀÁÂÃÄÅÆÇÈÉÊËÌÍÎÏÐÑÒÓÔÕÖØÙÚÛÜÝÞŸ]", "");
-
-                return word;
+    /**
+     * Dispara uma tentativa por modelo (escalonadas por {@code hedge-delay}), fica com a
+     * primeira resposta válida e cancela as demais. Modelos com circuito aberto são
+     * ignorados; o circuito é consultado quando a tentativa começa (depois do atraso do
+     * hedge), e uma chamada de teste cancelada devolve a vaga. A corrida inteira é limitada a
+     * um único {@code timeout}.
+     * <p>
+     * Cada tentativa é medida em {@code jogoforca.llm.attempts} (modelo e resultado) e a
+     * corrida em {@code jogoforca.llm.generations}.
+     * <p>
+     * Cada corrida ocupa uma vaga do {@link OllamaCallLimiter}; sem vaga (fila cheia ou espera
+     * esgotada) ela completa vazia na hora, com resultado {@code rejected}, e o chamador usa
+     * o fallback.
+     */
+    private Mono<String> raceModels(String kind, Function<String, Mono<String>> attempt, Duration timeout) {
+        List<Mono<String>> attempts = new ArrayList<>();
+        for (String model : models) {
+            ModelCircuitBreaker breaker = breakers.get(model);
+            if (!breaker.isAvailable()) {
+                continue;
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao gerar palavra com " + model, e);
+            Mono<String> call = Mono.defer(() -> {
+                ModelCircuitBreaker.Permit permit = breaker.tryAcquire();
+                if (permit == null) {
+                    // Circuito reaberto ou teste em andamento desde a montagem da corrida
+                    return Mono.empty();
+                }
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return attempt.apply(model)
+                        .timeout(timeout)
+                        .doOnSuccess(value -> {
+                            breaker.recordSuccess();
+                            sample.stop(attemptTimer(kind, model, value != null ? "success" : "invalid"));
+                        })
+                        .doOnError(e -> {
+                            breaker.recordFailure();
+                            sample.stop(attemptTimer(kind, model, e instanceof TimeoutException ? "timeout" : "error"));
+                        })
+                        // Perdeu a corrida para outro modelo ou para o timeout da corrida
+                        .doOnCancel(() -> {
+                            breaker.release(permit);
+                            sample.stop(attemptTimer(kind, model, "cancelled"));
+                        });
+            }).onErrorResume(e -> {
+                log.warn("[ollama] modelo {} falhou: {}", model, e.getMessage());
+                return Mono.empty();
+            });
+            if (!attempts.isEmpty() && !hedgeDelay.isZero()) {
+                call = call.delaySubscription(hedgeDelay.multipliedBy(attempts.size()));
+            }
+            attempts.add(call);
+        }
+
+        if (attempts.isEmpty()) {
+            // Todos os circuitos abertos
+            return Mono.defer(() -> {
+                generationTimer(kind, "no_model").record(Duration.ZERO);
+                return Mono.empty();
+            });
         }
-        return null;
+
+        Mono<String> race = Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return Mono.firstWithValue(attempts)
+                    .timeout(timeout, Mono.empty())
+                    .onErrorResume(e -> Mono.empty())
+                    .doOnSuccess(value -> sample.stop(generationTimer(kind, value != null ? "success" : "empty")));
+        });
+        return callLimiter.limit(race)
+                .onErrorResume(OllamaCallLimiter.OverloadedException.class, e -> {
+                    log.debug("[ollama] geração de {} recusada: {}", kind, e.getMessage());
+                    generationTimer(kind, "rejected").record(Duration.ZERO);
+                    return Mono.empty();
+                });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = callLimiter.getStats();
+        stats.put("open_circuits", breakers.values().stream().filter(ModelCircuitBreaker::isOpen).count());
+        return stats;
+    }
+
+    private Timer attemptTimer(String kind, String model, String outcome) {
+        return Timer.builder("jogoforca.llm.attempts")
+                .description("Tentativas de geração por modelo")
+                .tags("kind", kind, "model", model, "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Timer generationTimer(String kind, String outcome) {
+        return Timer.builder("jogoforca.llm.generations")
+                .description("Corridas entre modelos para gerar uma palavra ou dica")
+                .tags("kind", kind, "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Mono<String> tryGenerateWithModel(String model) {
+        Map<String, Object> requestBody = Map.of(
+                "model", model,
+                "prompt", "Uma palavra em português: substantivo comum, 5-10 letras. Só a palavra:",
+                "stream", false,
+                "options", Map.of(
+                        "temperature", 0.7,
+                        "num_predict", 5,
+                        "top_p", 0.9));
+        return webClient.post()
+                .uri("/api/generate")
+                .bodyValue(Objects.requireNonNull(requestBody))
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(this::extractResponse)
+                .map(response -> {
+                    String word = response.trim().toUpperCase();
+
+                    // Limpar caracteres especiais
+                    return word.replaceAll("[^A-ZÀÁÂÃÄÅÆÇÈÉÊËÌÍÎÏÐÑÒÓÔÕÖØÙÚÛÜÝÞŸ]", "");
+                })
+                .filter(this::isValidWord);
     }
 
     private boolean isValidWord(String word) {
@@ -88,59 +244,75 @@ public class OllamaService {
                 word.matches("[A-ZÀÁÂÃÄÅÆÇÈÉÊËÌÍÎÏÐÑÒÓÔÕÖØÙÚÛÜÝÞŸ]+");
     }
 
+    /**
+     * Versão bloqueante de {@link #generateHintAsync(String)}. Só usar em threads virtuais ou
+     * de segundo plano; nunca em threads de requisição do pool de plataforma.
+     */
     public String generateHint(String word) {
-        for (String model : MODELS) {
-            try {
-                String hint = tryGenerateHintWithModel(model, word);
-                if (hint != null && !hint.trim().isEmpty() && hint.length() <= 100) {
-                    return hint;
-                }
-            } catch (Exception e) {
-                System.out.println("Modelo " + model + " falhou ao gerar dica: " + e.getMessage());
-            }
-        }
+        return generateHintAsync(word).block();
+    }
 
-        // Fallback: dica genérica
-        return "Tente adivinhar!";
+    public Mono<String> generateHintAsync(String word) {
+        return tryGenerateHintAsync(word)
+                // Fallback: dica genérica
+                .switchIfEmpty(Mono.fromSupplier(this::fallbackHint));
     }
 
-    private String tryGenerateHintWithModel(String model, String word) {
-        try {
-            String prompt = String.format(
-                    "Dê uma dica curta (máximo 10 palavras) para a palavra '%s'. Apenas a dica, sem a palavra:",
-                    word);
-
-            Map<String, Object> requestBody = Map.of(
-                    "model", model,
-                    "prompt", prompt,
-                    "stream", false,
-                    "options", Map.of(
-                            "temperature", 0.7,
-                            "num_predict", 20,
-                            "top_p", 0.9));
-
-            String response = webClient.post()
-                    .uri("/api/generate")
-                    .bodyValue(Objects.requireNonNull(requestBody))
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(8))
-                    .block();
-
-            if (response != null) {
-                JsonNode jsonNode = objectMapper.readTree(response);
-                String hint = jsonNode.get("response").asText().trim();
-
-                // Limpar e validar dica
-                if (hint.length() > 100) {
-                    hint = hint.substring(0, 100);
-                }
+    /**
+     * Como {@link #generateHintAsync(String)}, mas completa vazio em vez de usar a dica genérica.
+     */
+    public Mono<String> tryGenerateHintAsync(String word) {
+        return raceModels("hint", model -> tryGenerateHintWithModel(model, word), hintTimeout);
+    }
+
+    public String fallbackHint() {
+        fallbackHints.increment();
+        return FALLBACK_HINT;
+    }
+
+    private Mono<String> tryGenerateHintWithModel(String model, String word) {
+        String prompt = String.format(
+                "Dê uma dica curta (máximo 10 palavras) para a palavra '%s'. Apenas a dica, sem a palavra:",
+                word);
+
+        Map<String, Object> requestBody = Map.of(
+                "model", model,
+                "prompt", prompt,
+                "stream", false,
+                "options", Map.of(
+                        "temperature", 0.7,
+                        "num_predict", 20,
+                        "top_p", 0.9));
+
+        return webClient.post()
+                .uri("/api/generate")
+                .bodyValue(Objects.requireNonNull(requestBody))
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(this::extractResponse)
+                .map(response -> {
+                    String hint = response.trim();
 
-                return hint;
+                    // Limpar e validar dica
+                    if (hint.length() > 100) {
+                        hint = hint.substring(0, 100);
+                    }
+
+                    return hint;
+                })
+                .filter(hint -> !hint.isEmpty());
+    }
+
+    private String extractResponse(String body) {
+        try {
+            JsonNode jsonNode = objectMapper.readTree(body);
+            JsonNode response = jsonNode.get("response");
+            if (response == null) {
+                throw new IllegalStateException("Resposta do Ollama sem campo 'response'");
             }
+            return response.asText();
         } catch (Exception e) {
-            throw new RuntimeException("Erro ao gerar dica com " + model, e);
+            throw new IllegalStateException("Resposta inválida do Ollama: " + e.getMessage(), e);
         }
-        return null;
     }
 }
@@ -0,0 +1,36 @@
+package com.jogoforca.service;
+
+/**
+ * Estatísticas acumuladas de um jogador, identificado pelo nome. Imutável: cada atualização
+ * gera uma nova instância.
+ *
+ * @param gamesPlayed    jogos encerrados (ou abandonados) em que participou
+ * @param gamesWon       jogos vencidos
+ * @param roundsPlayed   rodadas encerradas em que criou ou adivinhou a palavra
+ * @param roundsWon      rodadas vencidas
+ * @param lettersGuessed letras tentadas como adivinhador
+ * @param lettersHit     letras tentadas que estavam na palavra
+ */
+public record PlayerStats(String player, int gamesPlayed, int gamesWon, int roundsPlayed, int roundsWon,
+        int lettersGuessed, int lettersHit) {
+
+    static PlayerStats empty(String player) {
+        return new PlayerStats(player, 0, 0, 0, 0, 0, 0);
+    }
+
+    PlayerStats plus(int games, int wins, int rounds, int roundWins, int guessed, int hit) {
+        return new PlayerStats(player, gamesPlayed + games, gamesWon + wins, roundsPlayed + rounds,
+                roundsWon + roundWins, lettersGuessed + guessed, lettersHit + hit);
+    }
+
+    public double hitRate() {
+        return lettersGuessed == 0 ? 0.0 : (double) lettersHit / lettersGuessed;
+    }
+
+    /**
+     * Chave da classificação: jogos vencidos e, no empate, rodadas vencidas.
+     */
+    long rankingScore() {
+        return ((long) gamesWon << 32) | (roundsWon & 0xFFFFFFFFL);
+    }
+}
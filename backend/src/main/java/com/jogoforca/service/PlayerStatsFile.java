@@ -0,0 +1,222 @@
+package com.jogoforca.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Estatísticas dos jogadores em disco, no mesmo esquema do {@link FileGameRepository}: log
+ * só de acréscimo com o estado completo do jogador a cada alteração e snapshots periódicos
+ * que cobrem os segmentos anteriores.
+ * <p>
+ * Formato de cada registro: tamanho (int), CRC32C (int), tamanho do nome (short), nome em
+ * UTF-8 e os seis contadores (int). Um registro incompleto ou corrompido encerra a leitura
+ * daquele arquivo. Não é thread-safe: o {@link PlayerStatsService} chama sempre da mesma
+ * thread de gravação.
+ */
+final class PlayerStatsFile {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerStatsFile.class);
+
+    // Tamanho + CRC
+    private static final int HEADER_BYTES = 8;
+    private static final int COUNTERS_BYTES = 6 * Integer.BYTES;
+    private static final Pattern FILE_NAME = Pattern.compile("(log|snapshot)-(\\d{10})\\.(log|dat)");
+
+    private final Path dataDir;
+    private final boolean fsync;
+    private FileChannel segmentChannel;
+    private long segment;
+    private long bytesSinceSnapshot;
+
+    PlayerStatsFile(Path dataDir, boolean fsync) {
+        this.dataDir = dataDir;
+        this.fsync = fsync;
+    }
+
+    long bytesSinceSnapshot() {
+        return bytesSinceSnapshot;
+    }
+
+    /**
+     * Lê o snapshot mais recente e os segmentos seguintes e abre um novo segmento para as
+     * próximas gravações.
+     */
+    Map<String, PlayerStats> open() throws IOException {
+        Files.createDirectories(dataDir);
+        try (Stream<Path> leftovers = Files.list(dataDir)) {
+            for (Path tmp : leftovers.filter(p -> p.toString().endsWith(".tmp")).toList()) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        TreeMap<Long, Path> snapshotFiles = listFiles("snapshot");
+        TreeMap<Long, Path> logFiles = listFiles("log");
+        long snapshotNumber = snapshotFiles.isEmpty() ? 0 : snapshotFiles.lastKey();
+
+        Map<String, PlayerStats> players = new HashMap<>();
+        if (!snapshotFiles.isEmpty()) {
+            readRecords(snapshotFiles.lastEntry().getValue(), players);
+        }
+        for (Path segmentFile : logFiles.tailMap(snapshotNumber, false).values()) {
+            readRecords(segmentFile, players);
+            bytesSinceSnapshot += Files.size(segmentFile);
+        }
+        long lastLog = logFiles.isEmpty() ? 0 : logFiles.lastKey();
+        openSegment(Math.max(snapshotNumber, lastLog) + 1);
+        return players;
+    }
+
+    /**
+     * Acrescenta o estado atual dos jogadores ao segmento aberto. Retorna os bytes gravados.
+     */
+    long append(Collection<PlayerStats> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        long total = 0;
+        int i = 0;
+        for (PlayerStats stats : batch) {
+            buffers[i] = encodeRecord(stats);
+            total += buffers[i++].remaining();
+        }
+        long written = 0;
+        while (written < total) {
+            written += segmentChannel.write(buffers);
+        }
+        if (fsync) {
+            segmentChannel.force(false);
+        }
+        bytesSinceSnapshot += total;
+        return total;
+    }
+
+    /**
+     * Troca de segmento e grava o estado de todos os jogadores. Quem já foi gravado no
+     * segmento anterior está em {@code players} com o mesmo valor ou um mais novo, que também
+     * irá para o novo segmento.
+     */
+    void snapshot(Collection<PlayerStats> players) throws IOException {
+        long covered = segment;
+        openSegment(segment + 1);
+
+        Path target = dataDir.resolve(fileName("snapshot", covered, "dat"));
+        Path tmp = dataDir.resolve(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+            for (PlayerStats stats : players) {
+                ByteBuffer record = encodeRecord(stats);
+                if (record.remaining() > buffer.remaining()) {
+                    writeFully(out, buffer.flip());
+                    buffer.clear();
+                }
+                buffer.put(record);
+            }
+            writeFully(out, buffer.flip());
+            out.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (Path old : listFiles("log").headMap(covered, true).values()) {
+            Files.deleteIfExists(old);
+        }
+        for (Path old : listFiles("snapshot").headMap(covered, false).values()) {
+            Files.deleteIfExists(old);
+        }
+        bytesSinceSnapshot = 0;
+    }
+
+    void close() throws IOException {
+        if (segmentChannel != null) {
+            segmentChannel.force(false);
+            segmentChannel.close();
+            segmentChannel = null;
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        close();
+        segment = number;
+        segmentChannel = FileChannel.open(dataDir.resolve(fileName("log", number, "log")),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static void readRecords(Path file, Map<String, PlayerStats> players) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32C crc = new CRC32C();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length < 2 + COUNTERS_BYTES || length > buffer.remaining()) {
+                log.warn("[leaderboard] registro incompleto em {} (posição {}); restante ignorado", file, start);
+                return;
+            }
+            crc.reset();
+            crc.update(buffer.slice(buffer.position(), length));
+            if ((int) crc.getValue() != expectedCrc) {
+                log.warn("[leaderboard] registro corrompido em {} (posição {}); restante ignorado", file, start);
+                return;
+            }
+            byte[] name = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(name);
+            String player = new String(name, StandardCharsets.UTF_8);
+            players.put(player, new PlayerStats(player, buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                    buffer.getInt(), buffer.getInt(), buffer.getInt()));
+        }
+    }
+
+    private TreeMap<Long, Path> listFiles(String kind) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(dataDir)) {
+            paths.forEach(path -> {
+                Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches() && matcher.group(1).equals(kind)) {
+                    files.put(Long.parseLong(matcher.group(2)), path);
+                }
+            });
+        }
+        return files;
+    }
+
+    private static String fileName(String kind, long number, String extension) {
+        return String.format("%s-%010d.%s", kind, number, extension);
+    }
+
+    private static ByteBuffer encodeRecord(PlayerStats stats) {
+        byte[] name = stats.player().getBytes(StandardCharsets.UTF_8);
+        int length = 2 + name.length + COUNTERS_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + length);
+        buffer.putInt(length).putInt(0).putShort((short) name.length).put(name)
+                .putInt(stats.gamesPlayed()).putInt(stats.gamesWon())
+                .putInt(stats.roundsPlayed()).putInt(stats.roundsWon())
+                .putInt(stats.lettersGuessed()).putInt(stats.lettersHit());
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), HEADER_BYTES, length);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Estatísticas por jogador e classificação geral, atualizadas a cada evento de jogo.
+ * <p>
+ * Nada é recalculado a partir dos jogos: cada tentativa soma uma letra ao adivinhador, cada
+ * rodada encerrada soma uma rodada ao criador e ao adivinhador e cada jogo encerrado (ou
+ * abandonado) soma um jogo aos participantes. Os eventos chegam sob o lock do jogo, então ali
+ * só o contador do próprio jogador é atualizado (sem lock global) e o jogador entra na fila
+ * de reposicionamento. Uma única thread esvazia a fila e reordena a classificação, uma
+ * {@link Leaderboard} (skip list, O(log n) por alteração): {@link #top(int)} e
+ * {@link #rank(String)} podem ficar alguns milissegundos atrás de {@link #get(String)}. Os
+ * primeiros {@code top-cache} colocados ficam em uma lista pronta, refeita só quando uma
+ * alteração chega até ela: as consultas comuns do ranking não pegam lock.
+ * <p>
+ * Com {@code persistence=file}, os jogadores alterados são gravados em lote a cada
+ * {@code flush-interval-ms} no log do {@link PlayerStatsFile}, compactado em snapshot quando
+ * passa de {@code snapshot-log-bytes} e no desligamento. As estatísticas são por nó: em
+ * cluster, cada nó conta os jogos de que é dono.
+ */
+@Service
+public class PlayerStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerStatsService.class);
+
+    public static final int MAX_TOP = 1000;
+    private static final int MAX_RANK_BATCH = 1024;
+
+    private final Map<String, PlayerStats> players = new ConcurrentHashMap<>();
+    // Jogadores alterados à espera de reposicionamento, cada um uma vez só na fila
+    private final BlockingQueue<String> rankQueue = new LinkedBlockingQueue<>();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    // Guardados pelo lock: a skip list e a versão de cada jogador que está nela
+    private final Leaderboard leaderboard = new Leaderboard();
+    private final Map<String, PlayerStats> ranked = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean running;
+    private Thread ranker;
+    // Primeiros colocados prontos para leitura; null = precisa ser refeita
+    private volatile List<PlayerStats> topCache;
+    private final int topCacheSize;
+
+    // Jogos já contados como encerrados, para abandono posterior não contar de novo
+    private final Set<String> finishedGames = ConcurrentHashMap.newKeySet();
+    // Jogadores alterados ainda não gravados; o estado gravado é o de players no momento
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final PlayerStatsFile file;
+    private final ReentrantLock fileLock = new ReentrantLock();
+    private final long snapshotLogBytes;
+
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong topRebuilds = new AtomicLong();
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+    private volatile int restoredPlayers;
+    private volatile long restoreMillis;
+
+    public PlayerStatsService(
+            @Value("${jogoforca.leaderboard.persistence:file}") String persistence,
+            @Value("${jogoforca.leaderboard.data-dir:data/leaderboard}") String dataDir,
+            @Value("${jogoforca.leaderboard.fsync:false}") boolean fsync,
+            @Value("${jogoforca.leaderboard.snapshot-log-bytes:16777216}") long snapshotLogBytes,
+            @Value("${jogoforca.leaderboard.top-cache:100}") int topCacheSize) {
+        if (!"file".equals(persistence) && !"memory".equals(persistence)) {
+            throw new IllegalArgumentException("jogoforca.leaderboard.persistence deve ser 'file' ou 'memory'");
+        }
+        if (snapshotLogBytes < 1 || topCacheSize < 1 || topCacheSize > MAX_TOP) {
+            throw new IllegalArgumentException("Configuração inválida da classificação");
+        }
+        this.file = "file".equals(persistence) ? new PlayerStatsFile(Path.of(dataDir), fsync) : null;
+        this.snapshotLogBytes = snapshotLogBytes;
+        this.topCacheSize = topCacheSize;
+    }
+
+    @PostConstruct
+    void start() {
+        restore();
+        running = true;
+        ranker = new Thread(this::rankLoop, "leaderboard-ranker");
+        ranker.setDaemon(true);
+        ranker.start();
+    }
+
+    private void restore() {
+        if (file == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        Map<String, PlayerStats> restored;
+        try {
+            restored = file.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir a classificação", e);
+        }
+        lock.lock();
+        try {
+            for (PlayerStats stats : restored.values()) {
+                players.put(stats.player(), stats);
+                ranked.put(stats.player(), stats);
+                leaderboard.insert(stats);
+            }
+        } finally {
+            lock.unlock();
+        }
+        restoredPlayers = restored.size();
+        restoreMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("[leaderboard] {} jogadores restaurados em {} ms", restoredPlayers, restoreMillis);
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event) {
+        Game game = event.game();
+        if (event.isDeleted()) {
+            finishedGames.remove(event.gameId());
+            return;
+        }
+        if (event.event() == null) {
+            // Jogo restaurado ou recebido de outro nó: se já acabou, foi contado onde terminou
+            if ("game_finished".equals(game.getGameStatus())) {
+                finishedGames.add(event.gameId());
+            }
+            return;
+        }
+        switch (event.event().type()) {
+            case GUESS -> onGuess(game, event.event().arg(0));
+            case ABANDON -> onAbandon(game, event.event().arg(0));
+            default -> {
+            }
+        }
+    }
+
+    private void onGuess(Game game, String letter) {
+        String creator = game.getWordCreator();
+        String guesser = game.getWordGuesser();
+        int hit = game.getCorrectPositions().containsKey(letter) ? 1 : 0;
+        // A tentativa só acontece com a rodada em andamento: qualquer outro estado é o fim dela
+        boolean roundOver = !"playing".equals(game.getGameStatus());
+        int rounds = roundOver ? 1 : 0;
+        String roundWinner = game.getRoundWinner();
+
+        record(guesser, 0, 0, rounds, roundOver && guesser.equals(roundWinner) ? 1 : 0, 1, hit);
+        if (roundOver) {
+            record(creator, 0, 0, 1, creator.equals(roundWinner) ? 1 : 0, 0, 0);
+        }
+        if ("game_finished".equals(game.getGameStatus())) {
+            onGameFinished(game);
+        }
+    }
+
+    private void onAbandon(Game game, String player) {
+        if (finishedGames.contains(game.getGameId())) {
+            return;
+        }
+        // Quem abandona perde o jogo; os demais contam quando ele terminar
+        record(player, 1, 0, 0, 0, 0, 0);
+        if ("game_finished".equals(game.getGameStatus())) {
+            onGameFinished(game);
+        }
+    }
+
+    private void onGameFinished(Game game) {
+        if (!finishedGames.add(game.getGameId())) {
+            return;
+        }
+        String winner = game.getGameWinner();
+        for (String player : game.getPlayers()) {
+            record(player, 1, player.equals(winner) ? 1 : 0, 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Soma os contadores ao jogador e o põe na fila de reposicionamento da classificação.
+     * A CPU não é classificada.
+     */
+    void record(String player, int games, int wins, int rounds, int roundWins, int guessed, int hit) {
+        if (player == null || GameService.CPU.equals(player)) {
+            return;
+        }
+        players.compute(player, (name, previous) -> (previous != null ? previous : PlayerStats.empty(name))
+                .plus(games, wins, rounds, roundWins, guessed, hit));
+        if (file != null) {
+            pending.add(player);
+        }
+        if (queued.add(player)) {
+            rankQueue.add(player);
+        }
+        updates.incrementAndGet();
+    }
+
+    private void rankLoop() {
+        List<String> batch = new ArrayList<>(MAX_RANK_BATCH);
+        while (running) {
+            try {
+                String first = rankQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    rankQueue.drainTo(batch, MAX_RANK_BATCH - 1);
+                    rank(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                batch.clear();
+                log.error("[leaderboard] falha ao reposicionar jogadores: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Reposiciona já, nesta thread, os jogadores que estão na fila (benchmarks e testes, sem a
+     * thread de reposicionamento).
+     */
+    void rankPending() {
+        List<String> batch = new ArrayList<>();
+        rankQueue.drainTo(batch);
+        rank(batch);
+    }
+
+    private void rank(List<String> batch) {
+        lock.lock();
+        try {
+            for (String player : batch) {
+                // Sai do conjunto antes da leitura: uma alteração depois dela volta para a fila
+                queued.remove(player);
+                PlayerStats updated = players.get(player);
+                PlayerStats previous = ranked.put(player, updated);
+                if (previous != null) {
+                    leaderboard.remove(previous);
+                }
+                leaderboard.insert(updated);
+                invalidateTop(previous, updated);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A lista pronta só muda se o jogador estava nela ou entrou nela
+    private void invalidateTop(PlayerStats previous, PlayerStats updated) {
+        List<PlayerStats> top = topCache;
+        if (top == null) {
+            return;
+        }
+        if (top.size() < topCacheSize) {
+            topCache = null;
+            return;
+        }
+        PlayerStats last = top.get(top.size() - 1);
+        if ((previous != null && Leaderboard.compare(previous, last) <= 0) || Leaderboard.compare(updated, last) <= 0) {
+            topCache = null;
+        }
+    }
+
+    /**
+     * Os {@code n} primeiros colocados, em ordem.
+     */
+    public List<PlayerStats> top(int n) {
+        if (n < 1 || n > MAX_TOP) {
+            throw new IllegalArgumentException("top deve estar entre 1 e " + MAX_TOP);
+        }
+        if (n > topCacheSize) {
+            lock.lock();
+            try {
+                return leaderboard.top(n);
+            } finally {
+                lock.unlock();
+            }
+        }
+        List<PlayerStats> top = topCache;
+        if (top == null) {
+            lock.lock();
+            try {
+                top = topCache;
+                if (top == null) {
+                    top = List.copyOf(leaderboard.top(topCacheSize));
+                    topCache = top;
+                    topRebuilds.incrementAndGet();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return top.size() <= n ? top : top.subList(0, n);
+    }
+
+    public Optional<PlayerStats> get(String player) {
+        return Optional.ofNullable(players.get(player));
+    }
+
+    /**
+     * Posição do jogador (1 = primeiro), ou 0 se ele ainda não tem estatísticas.
+     */
+    public int rank(String player) {
+        lock.lock();
+        try {
+            PlayerStats stats = ranked.get(player);
+            return stats == null ? 0 : leaderboard.rank(stats);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return players.size();
+    }
+
+    @Scheduled(fixedDelayString = "${jogoforca.leaderboard.flush-interval-ms:1000}")
+    public void flush() {
+        if (file == null) {
+            return;
+        }
+        fileLock.lock();
+        try {
+            writePending();
+            if (file.bytesSinceSnapshot() >= snapshotLogBytes) {
+                snapshot();
+            }
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        if (ranker != null) {
+            try {
+                ranker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (file == null) {
+            return;
+        }
+        fileLock.lock();
+        try {
+            writePending();
+            // Snapshot final: o próximo início lê um único arquivo
+            if (file.bytesSinceSnapshot() > 0) {
+                snapshot();
+            }
+            file.close();
+        } catch (IOException e) {
+            log.error("[leaderboard] falha ao fechar os dados: {}", e.getMessage());
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    private void writePending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PlayerStats> batch = new ArrayList<>(pending.size());
+        for (String player : pending) {
+            // Sai antes da leitura: uma alteração depois dela é gravada no próximo lote
+            if (pending.remove(player)) {
+                batch.add(players.get(player));
+            }
+        }
+        try {
+            bytesWritten.addAndGet(file.append(batch));
+            recordsWritten.addAndGet(batch.size());
+        } catch (IOException e) {
+            writeErrors.incrementAndGet();
+            // Volta para a fila; a próxima tentativa grava o estado mais novo
+            for (PlayerStats stats : batch) {
+                pending.add(stats.player());
+            }
+            log.error("[leaderboard] falha ao gravar {} jogadores: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void snapshot() {
+        long started = System.nanoTime();
+        try {
+            file.snapshot(players.values());
+            snapshots.incrementAndGet();
+            log.debug("[leaderboard] snapshot com {} jogadores em {} ms", players.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException e) {
+            writeErrors.incrementAndGet();
+            log.error("[leaderboard] falha ao gravar snapshot: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("players", players.size());
+        stats.put("updates", updates.get());
+        stats.put("pending_ranks", rankQueue.size());
+        stats.put("top_cache_size", topCacheSize);
+        stats.put("top_cache_rebuilds", topRebuilds.get());
+        stats.put("persistence", file != null ? "file" : "memory");
+        stats.put("pending_writes", pending.size());
+        stats.put("records_written", recordsWritten.get());
+        stats.put("bytes_written", bytesWritten.get());
+        stats.put("snapshots", snapshots.get());
+        stats.put("write_errors", writeErrors.get());
+        stats.put("restored_players", restoredPlayers);
+        stats.put("restore_ms", restoreMillis);
+        return stats;
+    }
+}
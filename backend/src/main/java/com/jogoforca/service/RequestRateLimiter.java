@@ -0,0 +1,117 @@
+package com.jogoforca.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Controle de admissão das requisições de jogo: token bucket por cliente (IP) e por jogo,
+ * e um teto de requisições simultâneas no nó.
+ * <p>
+ * Cada requisição tem um custo em fichas; criar jogos custa mais ({@code create-cost}),
+ * pois é o que pode acionar a IA. Recusas são contadas em {@code jogoforca.requests.throttled}
+ * (tag {@code reason}) e em {@code /api/health/rate-limit}.
+ */
+@Service
+public class RequestRateLimiter {
+
+    private final boolean enabled;
+    private final TokenBucketLimiter clients;
+    private final TokenBucketLimiter games;
+    private final int createCost;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter throttledClient;
+    private final Counter throttledGame;
+    private final Counter rejectedOverload;
+
+    public RequestRateLimiter(MeterRegistry meterRegistry,
+            @Value("${jogoforca.rate-limit.enabled:true}") boolean enabled,
+            @Value("${jogoforca.rate-limit.stripes:4096}") int stripes,
+            @Value("${jogoforca.rate-limit.client-rate:10}") double clientRate,
+            @Value("${jogoforca.rate-limit.client-burst:20}") int clientBurst,
+            @Value("${jogoforca.rate-limit.game-rate:5}") double gameRate,
+            @Value("${jogoforca.rate-limit.game-burst:10}") int gameBurst,
+            @Value("${jogoforca.rate-limit.create-cost:5}") int createCost,
+            @Value("${jogoforca.rate-limit.max-in-flight:1000}") int maxInFlight) {
+        this.enabled = enabled;
+        this.clients = new TokenBucketLimiter(stripes, clientRate, clientBurst);
+        this.games = new TokenBucketLimiter(stripes, gameRate, gameBurst);
+        this.createCost = Math.max(1, createCost);
+        this.maxInFlight = maxInFlight;
+        this.throttledClient = throttledCounter(meterRegistry, "client");
+        this.throttledGame = throttledCounter(meterRegistry, "game");
+        this.rejectedOverload = throttledCounter(meterRegistry, "overload");
+    }
+
+    private static Counter throttledCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("jogoforca.requests.throttled")
+                .description("Requisições recusadas pelo controle de admissão")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int createCost() {
+        return createCost;
+    }
+
+    /**
+     * Retira fichas do balde do cliente: 0 se liberado, ou ms até poder tentar de novo.
+     */
+    public long acquireClient(String client, int cost) {
+        long waitMs = clients.tryAcquire(client, cost);
+        if (waitMs > 0) {
+            throttledClient.increment();
+        }
+        return waitMs;
+    }
+
+    /**
+     * Retira uma ficha do balde do jogo: 0 se liberado, ou ms até poder tentar de novo.
+     */
+    public long acquireGame(String gameId) {
+        long waitMs = games.tryAcquire(gameId, 1);
+        if (waitMs > 0) {
+            throttledGame.increment();
+        }
+        return waitMs;
+    }
+
+    /**
+     * Ocupa uma vaga de requisição simultânea; {@code false} se o nó já está no limite.
+     * Quem recebe {@code true} deve chamar {@link #exit()} ao terminar.
+     */
+    public boolean enter() {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            rejectedOverload.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("stripes", clients.stripes());
+        stats.put("in_flight", inFlight.get());
+        stats.put("max_in_flight", maxInFlight);
+        stats.put("throttled_client", (long) throttledClient.count());
+        stats.put("throttled_game", (long) throttledGame.count());
+        stats.put("rejected_overload", (long) rejectedOverload.count());
+        return stats;
+    }
+}
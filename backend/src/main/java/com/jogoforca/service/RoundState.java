@@ -0,0 +1,58 @@
+package com.jogoforca.service;
+
+/**
+ * Estado compacto de uma rodada.
+ * <p>
+ * A palavra secreta é pré-processada em uma máscara de posições por letra; as letras
+ * tentadas ficam em um bitset sobre o {@link LetterAlphabet} e as posições reveladas em
+ * outra máscara. Uma tentativa é um acesso a array mais operações de bits, e a
+ * verificação de vitória é uma comparação de inteiros.
+ */
+public final class RoundState {
+
+    // Uma posição por bit do int, o mesmo limite das máscaras de posições do GameCodec
+    static final int MAX_WORD_LENGTH = 31;
+
+    private final int[] positionMasks = new int[LetterAlphabet.SIZE];
+    private final int fullMask;
+    private long guessedLetters;
+    private int revealedMask;
+
+    private RoundState(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            positionMasks[LetterAlphabet.indexOf(word.charAt(i))] |= 1 << i;
+        }
+        this.fullMask = (1 << word.length()) - 1;
+    }
+
+    /**
+     * Cria o estado para uma palavra já em maiúsculas e validada pelo {@link LetterAlphabet}.
+     */
+    static RoundState of(String word) {
+        if (!LetterAlphabet.isWord(word)) {
+            throw new IllegalArgumentException("Palavra deve conter apenas letras");
+        }
+        if (word.length() > MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Palavra deve ter no máximo " + MAX_WORD_LENGTH + " letras");
+        }
+        return new RoundState(word);
+    }
+
+    boolean isGuessed(int letterIndex) {
+        return (guessedLetters & (1L << letterIndex)) != 0;
+    }
+
+    /**
+     * Registra a tentativa e retorna a máscara das posições da letra (0 se errou).
+     */
+    int guess(int letterIndex) {
+        guessedLetters |= 1L << letterIndex;
+        int positions = positionMasks[letterIndex];
+        revealedMask |= positions;
+        return positions;
+    }
+
+    boolean isSolved() {
+        return revealedMask == fullMask;
+    }
+}
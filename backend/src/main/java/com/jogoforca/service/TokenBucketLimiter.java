@@ -0,0 +1,76 @@
+package com.jogoforca.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token bucket sem locks, dividido em faixas por hash da chave (IP, gameId).
+ * <p>
+ * Cada faixa é um único {@code long}: instante da última retirada (ms desde a criação, 40
+ * bits) e fichas em falta em milésimos (24 bits). Guardar o que falta, e não o saldo, faz o
+ * valor 0 significar "balde cheio", então as faixas já nascem cheias. Uma retirada calcula a
+ * reposição desde o último instante e grava o novo estado com um único CAS.
+ * <p>
+ * Chaves que caem na mesma faixa dividem o balde; com faixas suficientes isso só limita um
+ * pouco mais cedo, e a memória fica fixa por mais clientes que apareçam.
+ */
+final class TokenBucketLimiter {
+
+    private static final int SCALE = 1000;
+    private static final int DEFICIT_BITS = 24;
+    private static final long DEFICIT_MASK = (1L << DEFICIT_BITS) - 1;
+    // Uma faixa por linha de cache (8 longs), para CAS em faixas vizinhas não disputarem a linha
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray state;
+    private final int stripeMask;
+    private final long capacity;
+    // Milésimos de ficha por ms = fichas por segundo
+    private final double refillPerMs;
+    private final long origin = System.nanoTime();
+
+    TokenBucketLimiter(int stripes, double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1 || (long) burst * SCALE > DEFICIT_MASK) {
+            throw new IllegalArgumentException("Token bucket inválido: rate=" + ratePerSecond + ", burst=" + burst);
+        }
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.state = new AtomicLongArray(size * PADDING);
+        this.stripeMask = size - 1;
+        this.capacity = (long) burst * SCALE;
+        this.refillPerMs = ratePerSecond;
+    }
+
+    /**
+     * Retira {@code cost} fichas do balde da chave. Devolve 0 se conseguiu, ou quantos ms
+     * faltam para haver fichas suficientes.
+     */
+    long tryAcquire(String key, int cost) {
+        int index = stripe(key) * PADDING;
+        long need = Math.min((long) cost * SCALE, capacity);
+        while (true) {
+            long now = (System.nanoTime() - origin) / 1_000_000;
+            long current = state.get(index);
+            long last = current >>> DEFICIT_BITS;
+            long deficit = current & DEFICIT_MASK;
+            if (now > last) {
+                deficit -= (long) Math.min(deficit, (now - last) * refillPerMs);
+            }
+            long missing = deficit + need - capacity;
+            if (missing > 0) {
+                // Sem CAS: o instante antigo continua valendo para a reposição
+                return Math.max(1, (long) Math.ceil(missing / refillPerMs));
+            }
+            if (state.compareAndSet(index, current, (now << DEFICIT_BITS) | (deficit + need))) {
+                return 0;
+            }
+        }
+    }
+
+    int stripes() {
+        return stripeMask + 1;
+    }
+
+    private int stripe(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+}
@@ -0,0 +1,490 @@
+package com.jogoforca.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Dicionário local de palavras do modo PvC, carregado de um arquivo {@code PALAVRA;categoria}.
+ * <p>
+ * As letras de todas as palavras ficam em um único {@code byte[]} (só A-Z) com um vetor de
+ * deslocamentos; cada palavra é identificada pelo índice. Para cada combinação de categoria e
+ * dificuldade (inclusive "qualquer") há um vetor de índices ordenado por tamanho, com o início
+ * de cada tamanho: uma faixa de tamanhos é um trecho contíguo e o sorteio é O(1).
+ * <p>
+ * A dificuldade vem da frequência das letras no próprio dicionário: palavras com letras raras
+ * e poucas letras distintas são mais difíceis de adivinhar. As palavras são divididas em três
+ * níveis de mesmo tamanho.
+ */
+@Service
+public class WordDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(WordDictionary.class);
+
+    // Nenhuma palavra maior do que uma rodada aceita
+    static final int MAX_LENGTH = RoundState.MAX_WORD_LENGTH;
+    private static final String DEFAULT_RESOURCE = "dictionary/palavras.txt";
+
+    public enum Difficulty {
+        EASY, MEDIUM, HARD;
+
+        /**
+         * Nível pelo nome (easy, medium, hard); vazio ou "any" significa qualquer nível.
+         */
+        public static Difficulty parse(String name) {
+            if (name == null || name.isBlank() || "any".equalsIgnoreCase(name)) {
+                return null;
+            }
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Dificuldade inválida: " + name);
+            }
+        }
+    }
+
+    /**
+     * Restrições de sorteio; {@code difficulty} e {@code category} nulos aceitam qualquer valor.
+     */
+    public record Constraints(int minLength, int maxLength, Difficulty difficulty, String category) {
+    }
+
+    // Palavras de uma combinação categoria x dificuldade, ordenadas por tamanho
+    private record Slice(int[] ids, int[] lengthStart) {
+
+        int from(int minLength) {
+            return lengthStart[Math.max(0, Math.min(minLength, MAX_LENGTH + 1))];
+        }
+
+        int to(int maxLength) {
+            return lengthStart[Math.max(0, Math.min(maxLength + 1, MAX_LENGTH + 1))];
+        }
+    }
+
+    private final String path;
+    private final Constraints defaults;
+
+    // Preenchidos uma única vez no carregamento, antes de o serviço ser usado
+    private byte[] letters = new byte[0];
+    private int[] offsets = {0};
+    private byte[] categoryOf = new byte[0];
+    private byte[] difficultyOf = new byte[0];
+    private List<String> categories = List.of();
+    private Slice[] slices = new Slice[0];
+    private String source = "";
+    private long loadMillis;
+
+    public WordDictionary(@Value("${jogoforca.dictionary.path:}") String path,
+            @Value("${jogoforca.dictionary.min-length:5}") int minLength,
+            @Value("${jogoforca.dictionary.max-length:10}") int maxLength,
+            @Value("${jogoforca.dictionary.difficulty:}") String difficulty,
+            @Value("${jogoforca.dictionary.category:}") String category) {
+        if (minLength < 1 || minLength > maxLength) {
+            throw new IllegalArgumentException("Faixa de tamanhos do dicionário inválida: exige 1 <= min <= max");
+        }
+        this.path = path;
+        this.defaults = new Constraints(minLength, maxLength, Difficulty.parse(difficulty),
+                category == null || category.isBlank() ? null : category.trim().toLowerCase(Locale.ROOT));
+    }
+
+    @PostConstruct
+    void load() {
+        long start = System.nanoTime();
+        try {
+            if (path != null && !path.isBlank()) {
+                index(map(Path.of(path)));
+                source = path;
+            } else {
+                ClassPathResource resource = new ClassPathResource(DEFAULT_RESOURCE);
+                // Fora do jar o recurso é um arquivo comum e também pode ser mapeado
+                if (resource.isFile()) {
+                    index(map(resource.getFile().toPath()));
+                } else {
+                    try (InputStream in = resource.getInputStream()) {
+                        index(ByteBuffer.wrap(in.readAllBytes()));
+                    }
+                }
+                source = "classpath:" + DEFAULT_RESOURCE;
+            }
+        } catch (IOException e) {
+            log.warn("[dictionary] não foi possível carregar o dicionário: {}", e.toString());
+            return;
+        }
+        loadMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("[dictionary] {} palavras em {} categorias carregadas de {} em {} ms",
+                size(), categories.size(), source, loadMillis);
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    // Lê as linhas direto do buffer; linhas com caracteres fora de A-Z são ignoradas
+    private void index(ByteBuffer data) {
+        ByteArrayBuilder packed = new ByteArrayBuilder(data.remaining());
+        List<Integer> wordOffsets = new ArrayList<>();
+        List<Byte> wordCategories = new ArrayList<>();
+        Map<String, Integer> categoryIds = new LinkedHashMap<>();
+        int skipped = 0;
+
+        int limit = data.limit();
+        int pos = data.position();
+        while (pos < limit) {
+            int end = pos;
+            while (end < limit && data.get(end) != '\n') {
+                end++;
+            }
+            int lineEnd = end > pos && data.get(end - 1) == '\r' ? end - 1 : end;
+            if (lineEnd > pos && data.get(pos) != '#') {
+                int sep = pos;
+                while (sep < lineEnd && data.get(sep) != ';') {
+                    sep++;
+                }
+                int length = sep - pos;
+                if (length < 1 || length > MAX_LENGTH || !isUpperAscii(data, pos, sep)) {
+                    skipped++;
+                } else {
+                    String category = sep < lineEnd
+                            ? text(data, sep + 1, lineEnd).trim().toLowerCase(Locale.ROOT)
+                            : "";
+                    Integer id = categoryIds.get(category);
+                    if (id == null) {
+                        if (categoryIds.size() == Byte.MAX_VALUE) {
+                            throw new IllegalStateException("Dicionário com categorias demais");
+                        }
+                        id = categoryIds.size();
+                        categoryIds.put(category, id);
+                    }
+                    wordOffsets.add(packed.size());
+                    wordCategories.add(id.byteValue());
+                    for (int i = pos; i < sep; i++) {
+                        packed.add(data.get(i));
+                    }
+                }
+            }
+            pos = end + 1;
+        }
+
+        int count = wordOffsets.size();
+        int[] newOffsets = new int[count + 1];
+        byte[] newCategories = new byte[count];
+        for (int i = 0; i < count; i++) {
+            newOffsets[i] = wordOffsets.get(i);
+            newCategories[i] = wordCategories.get(i);
+        }
+        newOffsets[count] = packed.size();
+        byte[] newLetters = packed.toArray();
+        byte[] newDifficulties = difficulties(newLetters, newOffsets);
+        List<String> newCategoryNames = List.copyOf(categoryIds.keySet());
+
+        letters = newLetters;
+        offsets = newOffsets;
+        categoryOf = newCategories;
+        difficultyOf = newDifficulties;
+        categories = newCategoryNames;
+        slices = buildSlices(newOffsets, newCategories, newDifficulties, newCategoryNames.size());
+        if (skipped > 0) {
+            log.debug("[dictionary] {} linhas ignoradas (só A-Z, até {} letras)", skipped, MAX_LENGTH);
+        }
+    }
+
+    private static boolean isUpperAscii(ByteBuffer data, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = data.get(i);
+            if (b < 'A' || b > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String text(ByteBuffer data, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = from; i < to; i++) {
+            bytes[i - from] = data.get(i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Pontua cada palavra pela raridade média das letras distintas (1 - fração das palavras
+     * que contêm a letra) mais o inverso da quantidade de letras distintas, e divide em terços.
+     */
+    private static byte[] difficulties(byte[] letters, int[] offsets) {
+        int count = offsets.length - 1;
+        int[] wordsWithLetter = new int[26];
+        for (int w = 0; w < count; w++) {
+            int mask = letterMask(letters, offsets, w);
+            for (int c = 0; c < 26; c++) {
+                if ((mask & (1 << c)) != 0) {
+                    wordsWithLetter[c]++;
+                }
+            }
+        }
+        double[] scores = new double[count];
+        for (int w = 0; w < count; w++) {
+            int mask = letterMask(letters, offsets, w);
+            int distinct = Integer.bitCount(mask);
+            double rarity = 0;
+            for (int c = 0; c < 26; c++) {
+                if ((mask & (1 << c)) != 0) {
+                    rarity += 1.0 - (double) wordsWithLetter[c] / count;
+                }
+            }
+            scores[w] = rarity / distinct + 1.0 / distinct;
+        }
+        double[] sorted = scores.clone();
+        Arrays.sort(sorted);
+        double easyLimit = count == 0 ? 0 : sorted[count / 3];
+        double mediumLimit = count == 0 ? 0 : sorted[2 * count / 3];
+        byte[] levels = new byte[count];
+        for (int w = 0; w < count; w++) {
+            levels[w] = (byte) (scores[w] < easyLimit ? Difficulty.EASY.ordinal()
+                    : scores[w] < mediumLimit ? Difficulty.MEDIUM.ordinal() : Difficulty.HARD.ordinal());
+        }
+        return levels;
+    }
+
+    private static int letterMask(byte[] letters, int[] offsets, int word) {
+        int mask = 0;
+        for (int i = offsets[word]; i < offsets[word + 1]; i++) {
+            mask |= 1 << (letters[i] - 'A');
+        }
+        return mask;
+    }
+
+    // Posição (categoria + 1) * 4 + (dificuldade + 1); 0 em cada eixo significa "qualquer"
+    private static int sliceIndex(int category, int difficulty) {
+        return (category + 1) * (Difficulty.values().length + 1) + difficulty + 1;
+    }
+
+    private static Slice[] buildSlices(int[] offsets, byte[] categoryOf, byte[] difficultyOf, int categoryCount) {
+        int levels = Difficulty.values().length;
+        Slice[] result = new Slice[(categoryCount + 1) * (levels + 1)];
+        for (int category = -1; category < categoryCount; category++) {
+            for (int difficulty = -1; difficulty < levels; difficulty++) {
+                result[sliceIndex(category, difficulty)] = buildSlice(offsets, categoryOf, difficultyOf,
+                        category, difficulty);
+            }
+        }
+        return result;
+    }
+
+    // Ordenação por contagem: os tamanhos vão de 1 a MAX_LENGTH
+    private static Slice buildSlice(int[] offsets, byte[] categoryOf, byte[] difficultyOf, int category,
+            int difficulty) {
+        int count = offsets.length - 1;
+        int[] lengthStart = new int[MAX_LENGTH + 2];
+        for (int w = 0; w < count; w++) {
+            if (matches(categoryOf, difficultyOf, w, category, difficulty)) {
+                lengthStart[offsets[w + 1] - offsets[w] + 1]++;
+            }
+        }
+        for (int length = 1; length < lengthStart.length; length++) {
+            lengthStart[length] += lengthStart[length - 1];
+        }
+        int[] ids = new int[lengthStart[MAX_LENGTH + 1]];
+        int[] next = lengthStart.clone();
+        for (int w = 0; w < count; w++) {
+            if (matches(categoryOf, difficultyOf, w, category, difficulty)) {
+                ids[next[offsets[w + 1] - offsets[w]]++] = w;
+            }
+        }
+        return new Slice(ids, lengthStart);
+    }
+
+    private static boolean matches(byte[] categoryOf, byte[] difficultyOf, int word, int category, int difficulty) {
+        return (category < 0 || categoryOf[word] == category) && (difficulty < 0 || difficultyOf[word] == difficulty);
+    }
+
+    private Slice slice(Constraints constraints) {
+        int category = -1;
+        if (constraints.category() != null) {
+            category = categories.indexOf(constraints.category());
+            if (category < 0) {
+                return null;
+            }
+        }
+        int difficulty = constraints.difficulty() == null ? -1 : constraints.difficulty().ordinal();
+        int index = sliceIndex(category, difficulty);
+        return index < slices.length ? slices[index] : null;
+    }
+
+    /**
+     * Sorteia uma palavra com as restrições padrão (configuração {@code jogoforca.dictionary.*}).
+     */
+    public Optional<String> randomWord() {
+        return randomWord(defaults);
+    }
+
+    public Optional<String> randomWord(Constraints constraints) {
+        Slice slice = slice(constraints);
+        if (slice == null) {
+            return Optional.empty();
+        }
+        int from = slice.from(constraints.minLength());
+        int to = slice.to(constraints.maxLength());
+        if (from >= to) {
+            return Optional.empty();
+        }
+        return Optional.of(word(slice.ids()[ThreadLocalRandom.current().nextInt(from, to)]));
+    }
+
+    /**
+     * Sorteia com {@code random} uma palavra com as restrições padrão que não esteja em
+     * {@code used}. Se todas as palavras da faixa já foram usadas, repete uma delas.
+     */
+    public Optional<String> randomWord(RandomGenerator random, Set<String> used) {
+        return randomWord(defaults, random, used);
+    }
+
+    public Optional<String> randomWord(Constraints constraints, RandomGenerator random, Set<String> used) {
+        Slice slice = slice(constraints);
+        if (slice == null) {
+            return Optional.empty();
+        }
+        int from = slice.from(constraints.minLength());
+        int size = slice.to(constraints.maxLength()) - from;
+        if (size <= 0) {
+            return Optional.empty();
+        }
+        // A partir da posição sorteada, a primeira palavra ainda não usada no jogo
+        int start = random.nextInt(size);
+        for (int i = 0; i < size; i++) {
+            String word = word(slice.ids()[from + (start + i) % size]);
+            if (!used.contains(word)) {
+                return Optional.of(word);
+            }
+        }
+        return Optional.of(word(slice.ids()[from + start]));
+    }
+
+    /**
+     * Todas as palavras de um tamanho (em ordem do arquivo), sem restrição de categoria ou nível.
+     */
+    public List<String> wordsOfLength(int length) {
+        if (slices.length == 0 || length < 1 || length > MAX_LENGTH) {
+            return List.of();
+        }
+        Slice all = slices[sliceIndex(-1, -1)];
+        int from = all.from(length);
+        int to = all.to(length);
+        List<String> words = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            words.add(word(all.ids()[i]));
+        }
+        return words;
+    }
+
+    /**
+     * Nível da palavra, ou vazio se ela não está no dicionário.
+     */
+    public Optional<Difficulty> difficultyOf(String word) {
+        int id = find(word);
+        return id < 0 ? Optional.empty() : Optional.of(Difficulty.values()[difficultyOf[id]]);
+    }
+
+    /**
+     * Categoria da palavra, ou vazio se ela não está no dicionário.
+     */
+    public Optional<String> categoryOf(String word) {
+        int id = find(word);
+        return id < 0 ? Optional.empty() : Optional.of(categories.get(categoryOf[id]));
+    }
+
+    // Busca linear só entre as palavras do mesmo tamanho
+    private int find(String word) {
+        if (word == null || slices.length == 0 || word.isEmpty() || word.length() > MAX_LENGTH) {
+            return -1;
+        }
+        Slice all = slices[sliceIndex(-1, -1)];
+        for (int i = all.from(word.length()); i < all.to(word.length()); i++) {
+            int id = all.ids()[i];
+            int offset = offsets[id];
+            int c = 0;
+            while (c < word.length() && letters[offset + c] == word.charAt(c)) {
+                c++;
+            }
+            if (c == word.length()) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    private String word(int id) {
+        int start = offsets[id];
+        return new String(letters, start, offsets[id + 1] - start, StandardCharsets.US_ASCII);
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    public List<String> categories() {
+        return categories;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("source", source);
+        stats.put("words", size());
+        stats.put("categories", categories.size());
+        stats.put("letters_bytes", letters.length);
+        stats.put("load_ms", loadMillis);
+        stats.put("min_length", defaults.minLength());
+        stats.put("max_length", defaults.maxLength());
+        stats.put("difficulty", defaults.difficulty() == null ? "any"
+                : defaults.difficulty().name().toLowerCase(Locale.ROOT));
+        stats.put("category", defaults.category() == null ? "any" : defaults.category());
+        return stats;
+    }
+
+    // Vetor de bytes que cresce conforme as palavras são lidas
+    private static final class ByteArrayBuilder {
+        private byte[] bytes;
+        private int size;
+
+        ByteArrayBuilder(int capacity) {
+            bytes = new byte[Math.max(16, capacity)];
+        }
+
+        void add(byte b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = b;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.jogoforca.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escolha da palavra das rodadas do modo PvC.
+ * <p>
+ * A fonte principal é o {@link WordDictionary} local. Uma fração das rodadas
+ * ({@code jogoforca.word-pool.llm-share}) usa palavras geradas pelo Ollama: um produtor em
+ * segundo plano mantém uma fila limitada de palavras já validadas, de forma que a criação de
+ * rodadas apenas retira uma palavra da fila (O(1)) em vez de esperar pelo Ollama. Quando a
+ * fila fica abaixo da marca mínima, os produtores voltam a gerar palavras até atingir a marca
+ * máxima. Fila vazia nunca atrasa a rodada: a palavra vem do dicionário.
+ * <p>
+ * As palavras do dicionário são sorteadas com {@link SecureRandom}, e as já usadas em cada
+ * jogo ficam só no servidor: a palavra da CPU não pode ser calculada a partir do ID do jogo
+ * nem das palavras das rodadas anteriores.
+ */
+@Service
+public class WordPoolService {
+
+    private static final Logger log = LoggerFactory.getLogger(WordPoolService.class);
+
+    private final OllamaService ollamaService;
+    private final WordDictionary dictionary;
+    private final double llmShare;
+    private final BlockingQueue<String> pool;
+    private final int capacity;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final int refillConcurrency;
+    private final AtomicInteger activeRefills = new AtomicInteger();
+    private final SecureRandom random = new SecureRandom();
+    // Palavras já sorteadas por jogo, para não repetir dentro do mesmo jogo
+    private final Map<String, Set<String>> usedWords = new ConcurrentHashMap<>();
+
+    // Métricas
+    private final AtomicLong wordsServed = new AtomicLong();
+    private final AtomicLong dictionaryWords = new AtomicLong();
+    private final AtomicLong fallbackWords = new AtomicLong();
+    private final AtomicLong wordsGenerated = new AtomicLong();
+    private final AtomicLong refillFailures = new AtomicLong();
+    private final AtomicLong totalRefillNanos = new AtomicLong();
+    private final AtomicLong maxRefillNanos = new AtomicLong();
+    private final AtomicLong lastRefillNanos = new AtomicLong();
+
+    public WordPoolService(OllamaService ollamaService, WordDictionary dictionary,
+            @Value("${jogoforca.word-pool.llm-share:0.2}") double llmShare,
+            @Value("${jogoforca.word-pool.capacity:50}") int capacity,
+            @Value("${jogoforca.word-pool.low-watermark:10}") int lowWatermark,
+            @Value("${jogoforca.word-pool.high-watermark:40}") int highWatermark,
+            @Value("${jogoforca.word-pool.refill-concurrency:2}") int refillConcurrency) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacidade do pool de palavras deve ser positiva");
+        }
+        if (lowWatermark < 0 || lowWatermark > highWatermark || highWatermark > capacity) {
+            throw new IllegalArgumentException(
+                    "Marcas do pool de palavras inválidas: exige 0 <= low <= high <= capacity");
+        }
+        if (llmShare < 0 || llmShare > 1) {
+            throw new IllegalArgumentException("Fração de palavras da IA deve estar entre 0 e 1");
+        }
+        if (refillConcurrency < 1) {
+            throw new IllegalArgumentException("Concorrência de reabastecimento deve ser positiva");
+        }
+        this.ollamaService = ollamaService;
+        this.dictionary = dictionary;
+        this.llmShare = llmShare;
+        this.capacity = capacity;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.refillConcurrency = refillConcurrency;
+        this.pool = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    void warmUp() {
+        refill();
+    }
+
+    /**
+     * Palavra da próxima rodada do jogo, sem bloquear. Na fração configurada das rodadas
+     * tenta o pool da IA; nas demais, ou com o pool vazio, sorteia do dicionário uma palavra
+     * ainda não usada no jogo. Sem dicionário, cai no pool e por fim na palavra de fallback
+     * do {@link OllamaService}.
+     */
+    public String nextWord(String gameId) {
+        Set<String> used = usedWords.computeIfAbsent(gameId, id -> ConcurrentHashMap.newKeySet());
+        String word = null;
+        if (llmShare > 0 && ThreadLocalRandom.current().nextDouble() < llmShare) {
+            word = poll();
+        }
+        if (word == null) {
+            word = dictionary.randomWord(random, used).orElse(null);
+            if (word != null) {
+                dictionaryWords.incrementAndGet();
+            }
+        }
+        if (word == null && llmShare > 0) {
+            word = poll();
+        }
+        if (word == null) {
+            fallbackWords.incrementAndGet();
+            word = ollamaService.fallbackWord();
+        }
+        used.add(word);
+        wordsServed.incrementAndGet();
+        return word;
+    }
+
+    @EventListener
+    public void onGameChanged(GameChangedEvent event) {
+        if (event.isDeleted()) {
+            usedWords.remove(event.gameId());
+        }
+    }
+
+    private String poll() {
+        String word = pool.poll();
+        if (pool.size() < lowWatermark) {
+            refill();
+        }
+        return word;
+    }
+
+    /**
+     * Inicia produtores até o limite de concorrência configurado quando o pool está
+     * abaixo da marca mínima. Não bloqueia o chamador: cada produtor é uma cadeia
+     * reativa que pede uma palavra por vez ao {@link OllamaService}.
+     */
+    @Scheduled(fixedDelayString = "${jogoforca.word-pool.refill-interval-ms:2000}")
+    public void refill() {
+        // Sem palavras da IA nas rodadas, o Ollama não é chamado
+        if (llmShare == 0 || pool.size() >= Math.max(lowWatermark, 1)) {
+            return;
+        }
+        // Cada chamada inicia no máximo as vagas livres, mesmo que um produtor termine na hora
+        int slots = refillConcurrency - activeRefills.get();
+        for (int i = 0; i < slots; i++) {
+            int active = activeRefills.get();
+            if (active >= refillConcurrency || !activeRefills.compareAndSet(active, active + 1)) {
+                return;
+            }
+            refillStep();
+        }
+    }
+
+    // Gera palavras até a marca máxima; para na primeira falha e aguarda o próximo ciclo
+    private void refillStep() {
+        if (pool.size() >= highWatermark) {
+            activeRefills.decrementAndGet();
+            return;
+        }
+        long start = System.nanoTime();
+        ollamaService.tryGenerateWordAsync()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .subscribe(word -> {
+                    recordRefillLatency(System.nanoTime() - start);
+                    if (word.isEmpty()) {
+                        refillFailures.incrementAndGet();
+                        log.debug("[wordPool] modelos indisponíveis; pool com {} palavras", pool.size());
+                        activeRefills.decrementAndGet();
+                    } else if (!pool.offer(word.get())) {
+                        activeRefills.decrementAndGet();
+                    } else {
+                        wordsGenerated.incrementAndGet();
+                        refillStep();
+                    }
+                }, error -> {
+                    refillFailures.incrementAndGet();
+                    log.warn("[wordPool] erro ao reabastecer: {}", error.getMessage());
+                    activeRefills.decrementAndGet();
+                });
+    }
+
+    private void recordRefillLatency(long nanos) {
+        lastRefillNanos.set(nanos);
+        totalRefillNanos.addAndGet(nanos);
+        maxRefillNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    public Map<String, Object> getStats() {
+        long attempts = wordsGenerated.get() + refillFailures.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", pool.size());
+        stats.put("capacity", capacity);
+        stats.put("low_watermark", lowWatermark);
+        stats.put("high_watermark", highWatermark);
+        stats.put("refill_concurrency", refillConcurrency);
+        stats.put("active_refills", activeRefills.get());
+        stats.put("llm_share", llmShare);
+        stats.put("words_served", wordsServed.get());
+        stats.put("dictionary_words", dictionaryWords.get());
+        stats.put("fallback_words", fallbackWords.get());
+        stats.put("tracked_games", usedWords.size());
+        stats.put("words_generated", wordsGenerated.get());
+        stats.put("refill_failures", refillFailures.get());
+        stats.put("last_refill_ms", lastRefillNanos.get() / 1_000_000.0);
+        stats.put("avg_refill_ms", attempts == 0 ? 0.0 : totalRefillNanos.get() / 1_000_000.0 / attempts);
+        stats.put("max_refill_ms", maxRefillNanos.get() / 1_000_000.0);
+        return stats;
+    }
+}
@@ -0,0 +1,245 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Ida e volta do {@link GameCodec} e leitura de dados corrompidos, que devem falhar sempre
+ * com {@link IllegalArgumentException}.
+ */
+class GameCodecTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"pvp", "pvc", "pvc_duel"})
+    void roundTripsEveryMode(String mode) {
+        Game game = game(mode, "playing");
+        if ("pvc_duel".equals(mode)) {
+            game.setCpuLevel("hard");
+        }
+        assertRoundTrip(game);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"waiting_players", "waiting_word", "playing", "round_finished", "game_finished"})
+    void roundTripsEveryStatus(String status) {
+        Game game = game("pvp", status);
+        if ("round_finished".equals(status) || "game_finished".equals(status)) {
+            game.setRoundWinner("Ana");
+        }
+        if ("game_finished".equals(status)) {
+            game.setGameWinner("Ana");
+        }
+        assertRoundTrip(game);
+    }
+
+    @Test
+    void roundTripsEmptyCollectionsAndNullFields() {
+        Game game = new Game();
+        game.setGameId("vazio");
+        game.setPlayers(new ArrayList<>());
+        game.setScores(new HashMap<>());
+        game.setGuessedLetters(new ArrayList<>());
+        game.setCorrectPositions(new HashMap<>());
+        assertRoundTrip(game);
+
+        game.setPlayers(null);
+        assertThat(GameCodec.decode(GameCodec.encode(game)).getPlayers()).isNull();
+    }
+
+    @Test
+    void roundTripsLargestCollections() {
+        Game game = game("pvp", "playing");
+        List<String> players = List.of("Ana", "Bruno", "Çécília", "Dário", "Ēmil 🎯");
+        game.setPlayers(new ArrayList<>(players));
+        Map<String, Integer> scores = new LinkedHashMap<>();
+        scores.put("Ana", Integer.MAX_VALUE);
+        scores.put("Bruno", Integer.MIN_VALUE);
+        scores.put("Çécília", -1);
+        scores.put("Dário", 0);
+        scores.put("Ēmil 🎯", 1);
+        game.setScores(scores);
+
+        // Todo o alfabeto, em ordem embaralhada: a ordem das tentativas tem de ser preservada
+        List<String> letters = new ArrayList<>();
+        for (int i = 0; i < LetterAlphabet.SIZE; i++) {
+            letters.add(LetterAlphabet.asString(i));
+        }
+        Collections.shuffle(letters, new Random(7));
+        game.setGuessedLetters(letters);
+        Map<String, List<Integer>> positions = new HashMap<>();
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < Integer.SIZE; i++) {
+            all.add(i);
+        }
+        positions.put("A", all);
+        positions.put("Ÿ", List.of(31));
+        positions.put("Ç", List.of(0, 15, 30));
+        game.setCorrectPositions(positions);
+        game.setSecretWord("A".repeat(32));
+        game.setWordLength(32);
+        game.setHint("x".repeat(10_000) + "ção");
+        game.setCurrentRound(Integer.MAX_VALUE);
+        game.setVersion(Long.MAX_VALUE);
+        assertRoundTrip(game);
+    }
+
+    @Test
+    void decodesSchemaVersionOne() {
+        Game game = game("pvc", "round_finished");
+        game.setRoundWinner("CPU");
+        byte[] data = GameCodec.encode(game);
+        // A v1 não tem o nível da CPU (o último byte, 0 = null)
+        byte[] v1 = Arrays.copyOf(data, data.length - 1);
+        v1[0] = 1;
+
+        Game decoded = GameCodec.decode(v1);
+
+        assertThat(decoded).isEqualTo(game);
+        assertThat(decoded.getCpuLevel()).isNull();
+    }
+
+    @Test
+    void rejectsPositionsOutsideTheMask() {
+        Game game = game("pvp", "playing");
+        game.setCorrectPositions(Map.of("A", List.of(32)));
+
+        assertThatThrownBy(() -> GameCodec.encode(game)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsMissingOrUnknownData() {
+        assertCorrupt(null);
+        assertCorrupt(new byte[0]);
+        assertCorrupt(new byte[]{0});
+        assertCorrupt(new byte[]{(byte) (GameCodec.SCHEMA_VERSION + 1)});
+        // Tabela de strings anunciando mais itens do que há bytes
+        assertCorrupt(new byte[]{GameCodec.SCHEMA_VERSION, 1, 'x', (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+    }
+
+    @Test
+    void rejectsEveryTruncation() {
+        byte[] data = GameCodec.encode(game("pvp", "playing"));
+        for (int length = 0; length < data.length; length++) {
+            assertCorrupt(Arrays.copyOf(data, length));
+        }
+    }
+
+    @Test
+    void rejectsInvalidGuessOrder() {
+        // Três letras: ordem com 2 bits por tentativa, e o valor 3 não corresponde a nenhuma;
+        // depois dela vêm a contagem vazia das posições corretas e o fim fixo
+        byte[] data = GameCodec.encode(tail("A", "B", "C"));
+        data[data.length - TAIL - 2] = (byte) 0xFF;
+        assertCorrupt(data);
+    }
+
+    @Test
+    void rejectsInvalidCorrectPositions() {
+        Game game = tail();
+        game.setCorrectPositions(Map.of("A", List.of(0)));
+        byte[] data = GameCodec.encode(game);
+        // Índice da letra e máscara ficam logo antes do fim fixo
+        int letter = data.length - TAIL - 2;
+        int mask = letter + 1;
+
+        for (byte index : new byte[]{(byte) LetterAlphabet.SIZE, 0x7F, (byte) 0x80, (byte) 0xFF}) {
+            byte[] corrupt = data.clone();
+            corrupt[letter] = index;
+            assertCorrupt(corrupt);
+        }
+        // Máscara com mais de 32 bits
+        byte[] wide = new byte[data.length + 4];
+        System.arraycopy(data, 0, wide, 0, mask);
+        System.arraycopy(new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x10}, 0, wide, mask, 5);
+        System.arraycopy(data, mask + 1, wide, mask + 5, data.length - mask - 1);
+        assertCorrupt(wide);
+    }
+
+    @Test
+    void rejectsRandomCorruption() {
+        Game game = game("pvc_duel", "playing");
+        game.setCpuLevel("easy");
+        game.setGuessedLetters(new ArrayList<>(List.of("E", "Ç", "A", "Z", "Ÿ")));
+        game.setCorrectPositions(Map.of("E", List.of(1, 3), "A", List.of(0)));
+        byte[] data = GameCodec.encode(game);
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            byte[] corrupt = data.clone();
+            int flips = 1 + random.nextInt(4);
+            for (int f = 0; f < flips; f++) {
+                corrupt[random.nextInt(corrupt.length)] = (byte) random.nextInt(256);
+            }
+            Throwable error = catchThrowable(() -> GameCodec.decode(corrupt));
+            if (error != null) {
+                assertThat(error).as("byte[] %s", Arrays.toString(corrupt))
+                        .isExactlyInstanceOf(IllegalArgumentException.class);
+            }
+        }
+    }
+
+    // Bytes depois da correctPositions em tail(): tentativas, máximo, status, dois
+    // vencedores, versão e nível da CPU, um byte cada
+    private static final int TAIL = 7;
+
+    private static Game tail(String... letters) {
+        Game game = new Game();
+        game.setGameId("t");
+        game.setMode("pvp");
+        game.setGuessedLetters(new ArrayList<>(List.of(letters)));
+        game.setCorrectPositions(new HashMap<>());
+        game.setAttemptsLeft(6);
+        game.setMaxAttempts(6);
+        game.setGameStatus("playing");
+        game.setVersion(1);
+        return game;
+    }
+
+    private static Game game(String mode, String status) {
+        Game game = new Game();
+        game.setGameId("abc123");
+        game.setMode(mode);
+        List<String> players = "pvp".equals(mode) ? List.of("Ana", "Bruno") : List.of("Ana", "CPU");
+        game.setPlayers(new ArrayList<>(players));
+        Map<String, Integer> scores = new HashMap<>();
+        players.forEach(player -> scores.put(player, 1));
+        game.setScores(scores);
+        game.setCurrentRound(2);
+        game.setMaxRounds(3);
+        game.setWordCreator(players.get(0));
+        game.setWordGuesser(players.get(1));
+        game.setSecretWord("PÃO");
+        game.setHint("Alimento");
+        game.setWordLength(3);
+        game.setGuessedLetters(new ArrayList<>(List.of("P", "X", "Ã")));
+        game.setCorrectPositions(new HashMap<>(Map.of("P", List.of(0), "Ã", List.of(1))));
+        game.setAttemptsLeft(5);
+        game.setMaxAttempts(6);
+        game.setGameStatus(status);
+        game.setVersion(9);
+        return game;
+    }
+
+    private static void assertRoundTrip(Game game) {
+        assertThat(GameCodec.decode(GameCodec.encode(game))).isEqualTo(game);
+    }
+
+    private static void assertCorrupt(byte[] data) {
+        assertThatThrownBy(() -> GameCodec.decode(data)).as("byte[] %s", Arrays.toString(data))
+                .isExactlyInstanceOf(IllegalArgumentException.class);
+    }
+}
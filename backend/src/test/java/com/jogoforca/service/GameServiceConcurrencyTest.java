@@ -0,0 +1,232 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import com.jogoforca.model.GameConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Muitas threads virtuais alterando os mesmos jogos ao mesmo tempo pelo {@link GameService}.
+ * Depois da carga, cada jogo tem de estar exatamente como se as operações aceitas tivessem
+ * sido feitas uma a uma: versão, tentativas, pontuação e status batem com os eventos
+ * publicados, e reaplicar os eventos a partir do checkpoint mais próximo reconstrói o mesmo
+ * estado, inclusive depois de o histórico ser truncado.
+ */
+class GameServiceConcurrencyTest {
+
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final List<String> WORDS = List.of("ABACAXI", "JANELA", "PIRATA", "TECLADO", "QUEIJO");
+
+    private GameService gameService;
+    private GameHistory history;
+    private final Map<String, List<GameEvent>> events = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        // Limite baixo: as partidas passam por vários checkpoints e truncamentos
+        history = new GameHistory(16);
+        OllamaService ollama = new OllamaService(new SimpleMeterRegistry(), "http://localhost:11434", 8, 32,
+                Duration.ofSeconds(2), List.of("phi3:mini"), Duration.ofSeconds(5), Duration.ofSeconds(8),
+                Duration.ZERO, 3, Duration.ofSeconds(30));
+        WordDictionary dictionary = new WordDictionary("", 5, 10, "", "");
+        dictionary.load();
+        GameStore store = new GameStore(event -> {
+        }, 10_000, Duration.ofMinutes(10), Duration.ofHours(2), 1000, 512);
+        gameService = new GameService(ollama, new WordPoolService(ollama, dictionary, 0, 50, 10, 40, 2),
+                new HintCacheService(1000, Duration.ofHours(24), ""), event -> {
+                    GameChangedEvent changed = (GameChangedEvent) event;
+                    history.onGameChanged(changed);
+                    // Publicado sob o lock do jogo: os eventos de um jogo chegam em sequência
+                    if (changed.event() != null) {
+                        events.computeIfAbsent(changed.gameId(), id -> new ArrayList<>()).add(changed.event());
+                    }
+                }, store, new ClusterService("http://localhost:8080", "", 128, ""));
+    }
+
+    @Test
+    void sameLetterFromManyThreadsIsAcceptedOnce() throws InterruptedException {
+        Game game = gameService.createGame(config("Ana", "Bruno"));
+        String gameId = game.getGameId();
+        gameService.submitWord(gameId, "ABACAXI");
+
+        int threadsPerLetter = 8;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < threadsPerLetter; t++) {
+                for (char letter : "ABCXIDEF".toCharArray()) {
+                    executor.execute(() -> {
+                        await(start);
+                        try {
+                            gameService.guessLetter(gameId, String.valueOf(letter));
+                            accepted.incrementAndGet();
+                        } catch (IllegalArgumentException | IllegalStateException e) {
+                            // Letra repetida ou rodada já encerrada
+                        }
+                    });
+                }
+            }
+            start.countDown();
+        }
+
+        Game after = gameService.getGame(gameId);
+        assertThat(after.getGuessedLetters()).doesNotHaveDuplicates().hasSize(accepted.get());
+        assertThat(after.getVersion()).isEqualTo(2 + accepted.get());
+        assertRoundConsistent(after);
+        assertMatchesEvents(after);
+    }
+
+    @Test
+    void concurrentPlayersKeepEveryGameConsistent() throws InterruptedException {
+        int gameCount = 64;
+        int workers = 64;
+        List<String> gameIds = new ArrayList<>();
+        for (int i = 0; i < gameCount; i++) {
+            gameIds.add(gameService.createGame(config("Ana", "Bruno")).getGameId());
+        }
+
+        // Cada trabalhador escolhe jogos ao acaso e faz a jogada que o status pede; vários
+        // disputam a mesma jogada e só um deve ser aceito
+        Map<String, AtomicInteger> accepted = new ConcurrentHashMap<>();
+        gameIds.forEach(id -> accepted.put(id, new AtomicInteger()));
+        AtomicInteger finished = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < workers; w++) {
+                Random random = new Random(w);
+                executor.execute(() -> {
+                    await(start);
+                    while (finished.get() < gameCount && System.nanoTime() < deadline) {
+                        String gameId = gameIds.get(random.nextInt(gameCount));
+                        if (play(gameId, random)) {
+                            accepted.get(gameId).incrementAndGet();
+                        }
+                        if ("game_finished".equals(status(gameId))) {
+                            finished.set((int) gameIds.stream().filter(id -> "game_finished".equals(status(id))).count());
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        }
+
+        for (String gameId : gameIds) {
+            Game game = gameService.getGame(gameId);
+            assertThat(game.getGameStatus()).as("status de %s", gameId).isEqualTo("game_finished");
+            // Criação + operações aceitas, nenhuma perdida ou aplicada duas vezes
+            assertThat(game.getVersion()).as("versão de %s", gameId).isEqualTo(1 + accepted.get(gameId).get());
+            // Melhor de 3: o vencedor tem 2 pontos e cada rodada deu exatamente um ponto
+            assertThat(game.getScores().get(game.getGameWinner())).isEqualTo(2);
+            assertThat(game.getScores().values().stream().mapToInt(Integer::intValue).sum())
+                    .isEqualTo(game.getCurrentRound());
+            assertRoundConsistent(game);
+            assertMatchesEvents(game);
+        }
+    }
+
+    // Uma jogada de acordo com o status; false se foi recusada (outra thread chegou antes)
+    private boolean play(String gameId, Random random) {
+        try {
+            switch (status(gameId)) {
+                case "waiting_word" -> gameService.submitWord(gameId, WORDS.get(random.nextInt(WORDS.size())));
+                case "playing" -> gameService.guessLetter(gameId,
+                        String.valueOf(LETTERS.charAt(random.nextInt(LETTERS.length()))));
+                case "round_finished" -> gameService.startNextRound(gameId);
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private String status(String gameId) {
+        Game game = gameService.getGame(gameId);
+        return gameService.read(game, Game::getGameStatus);
+    }
+
+    // Tentativas e posições da rodada atual coerentes com a palavra e as letras tentadas
+    private static void assertRoundConsistent(Game game) {
+        String word = game.getSecretWord();
+        List<String> guessed = game.getGuessedLetters();
+        assertThat(guessed).doesNotHaveDuplicates();
+        long wrong = guessed.stream().filter(letter -> !word.contains(letter)).count();
+        assertThat(game.getAttemptsLeft()).isEqualTo(game.getMaxAttempts() - (int) wrong);
+        for (String letter : guessed) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = word.indexOf(letter); i >= 0; i = word.indexOf(letter, i + 1)) {
+                expected.add(i);
+            }
+            assertThat(game.getCorrectPositions().getOrDefault(letter, List.of())).isEqualTo(expected);
+        }
+        boolean solved = word.chars().allMatch(c -> guessed.contains(String.valueOf((char) c)));
+        if (solved || game.getAttemptsLeft() == 0) {
+            assertThat(game.getGameStatus()).isIn("round_finished", "game_finished");
+            assertThat(game.getRoundWinner()).isEqualTo(solved ? game.getWordGuesser() : game.getWordCreator());
+        } else {
+            assertThat(game.getGameStatus()).isIn("waiting_word", "playing");
+        }
+    }
+
+    // Eventos em sequência contínua até a versão atual, e a reconstrução chega ao mesmo estado
+    private void assertMatchesEvents(Game game) {
+        List<GameEvent> gameEvents = events.get(game.getGameId());
+        assertThat(gameEvents).hasSize((int) game.getVersion());
+        for (int i = 0; i < gameEvents.size(); i++) {
+            assertThat(gameEvents.get(i).seq()).isEqualTo(i + 1);
+        }
+        Optional<Game> replayed = gameService.read(game, g -> history.replay(g.getGameId()));
+        assertThat(replayed).contains(game);
+
+        // Cada ponto de partida possível dentro do que restou do histórico
+        for (long since = game.getVersion() - 1; since >= 0; since--) {
+            long from = since;
+            List<Long> seqs = new ArrayList<>();
+            Game[] last = new Game[1];
+            boolean covered = gameService.read(game, g -> history.eventsSince(g.getGameId(), from, (event, state) -> {
+                seqs.add(event.seq());
+                last[0] = state;
+            }));
+            if (!covered) {
+                assertThat(seqs).isEmpty();
+                break;
+            }
+            assertThat(seqs).first().isEqualTo(since + 1);
+            assertThat(seqs).hasSize((int) (game.getVersion() - since));
+            assertThat(last[0]).isEqualTo(game);
+        }
+    }
+
+    private static GameConfig config(String... players) {
+        GameConfig config = new GameConfig();
+        config.setMode("pvp");
+        config.setPlayers(List.of(players));
+        return config;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.jogoforca.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Limite de fichas abertas por cliente e por nome de jogador: a ficha deixa de contar quando
+ * sai da fila, seja pareada ou cancelada.
+ */
+class MatchmakingServiceTest {
+
+    private MatchmakingService matchmaking;
+
+    @BeforeEach
+    void setUp() {
+        OllamaService ollama = new OllamaService(new SimpleMeterRegistry(), "http://localhost:11434", 8, 32,
+                Duration.ofSeconds(2), List.of("phi3:mini"), Duration.ofSeconds(5), Duration.ofSeconds(8),
+                Duration.ZERO, 3, Duration.ofSeconds(30));
+        WordDictionary dictionary = new WordDictionary("", 5, 10, "", "");
+        dictionary.load();
+        GameStore store = new GameStore(event -> {
+        }, 10_000, Duration.ofMinutes(10), Duration.ofHours(2), 1000, 512);
+        GameService gameService = new GameService(ollama, new WordPoolService(ollama, dictionary, 0, 50, 10, 40, 2),
+                new HintCacheService(1000, Duration.ofHours(24), ""), event -> {
+                }, store, new ClusterService("http://localhost:8080", "", 128, ""));
+        matchmaking = new MatchmakingService(gameService, new SimpleMeterRegistry(), Duration.ofMinutes(1),
+                Duration.ofMinutes(2), Duration.ofMinutes(5), 1000, 3, 1, List.of("pt"));
+    }
+
+    @Test
+    void capsOpenTicketsPerPlayer() {
+        MatchmakingService.Ticket first = matchmaking.enqueue("Ana", 5, "pt", "easy", "10.0.0.1");
+
+        assertThatThrownBy(() -> matchmaking.enqueue("Ana", 3, "pt", "hard", "10.0.0.2"))
+                .isInstanceOf(MatchmakingService.TooManyTicketsException.class);
+
+        matchmaking.cancel(first.getTicketId());
+        assertThat(matchmaking.enqueue("Ana", 3, "pt", "hard", "10.0.0.2").getStatus())
+                .isEqualTo(MatchmakingService.Status.WAITING);
+    }
+
+    @Test
+    void capsOpenTicketsPerClientUntilTheyLeaveTheQueue() {
+        matchmaking.enqueue("Ana", 2, "pt", "easy", "10.0.0.1");
+        matchmaking.enqueue("Bruno", 5, "pt", "easy", "10.0.0.1");
+        matchmaking.enqueue("Carla", 5, "pt", "easy", "10.0.0.1");
+
+        assertThatThrownBy(() -> matchmaking.enqueue("Davi", 5, "pt", "easy", "10.0.0.1"))
+                .isInstanceOf(MatchmakingService.TooManyTicketsException.class);
+        // Outro IP não é afetado, e ao completar a sala a ficha de Ana deixa de contar
+        MatchmakingService.Ticket other = matchmaking.enqueue("Davi", 2, "pt", "easy", "10.0.0.2");
+        assertThat(other.getStatus()).isEqualTo(MatchmakingService.Status.MATCHED);
+
+        assertThat(matchmaking.enqueue("Elisa", 5, "pt", "easy", "10.0.0.1").getStatus())
+                .isEqualTo(MatchmakingService.Status.WAITING);
+        assertThat(matchmaking.getStats()).containsEntry("limited", 1L);
+    }
+}
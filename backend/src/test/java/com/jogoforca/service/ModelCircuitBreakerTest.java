@@ -0,0 +1,61 @@
+package com.jogoforca.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vaga de teste do meio-aberto: uma chamada por vez, devolvida se a chamada for cancelada.
+ */
+class ModelCircuitBreakerTest {
+
+    private static final Duration OPEN = Duration.ofMillis(20);
+
+    @Test
+    void halfOpenAllowsASingleProbe() throws InterruptedException {
+        ModelCircuitBreaker breaker = openBreaker();
+        assertThat(breaker.isAvailable()).isFalse();
+        assertThat(breaker.tryAcquire()).isNull();
+
+        Thread.sleep(OPEN.toMillis() * 2);
+        assertThat(breaker.isAvailable()).isTrue();
+        assertThat(breaker.tryAcquire()).isNotNull();
+        assertThat(breaker.tryAcquire()).isNull();
+    }
+
+    @Test
+    void cancelledProbeReleasesTheSlot() throws InterruptedException {
+        ModelCircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN.toMillis() * 2);
+
+        ModelCircuitBreaker.Permit probe = breaker.tryAcquire();
+        breaker.release(probe);
+
+        ModelCircuitBreaker.Permit next = breaker.tryAcquire();
+        assertThat(next).isNotNull();
+        breaker.recordSuccess();
+        assertThat(breaker.isOpen()).isFalse();
+    }
+
+    @Test
+    void releaseAfterAResultKeepsIt() throws InterruptedException {
+        ModelCircuitBreaker breaker = openBreaker();
+        Thread.sleep(OPEN.toMillis() * 2);
+
+        ModelCircuitBreaker.Permit probe = breaker.tryAcquire();
+        breaker.recordFailure();
+        breaker.release(probe);
+
+        // A falha reabriu o circuito; o cancelamento tardio não o libera
+        assertThat(breaker.tryAcquire()).isNull();
+    }
+
+    private static ModelCircuitBreaker openBreaker() {
+        ModelCircuitBreaker breaker = new ModelCircuitBreaker(2, OPEN);
+        breaker.recordFailure();
+        breaker.recordFailure();
+        return breaker;
+    }
+}
@@ -0,0 +1,54 @@
+package com.jogoforca.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Atualizações concorrentes dos mesmos jogadores com a thread de reposicionamento ativa: os
+ * contadores não perdem somas e a classificação termina na mesma ordem de uma lista ordenada.
+ */
+class PlayerStatsServiceTest {
+
+    @Test
+    void concurrentRecordsKeepCountersAndRanking() {
+        int players = 200;
+        int threads = 32;
+        int recordsPerThread = 2_000;
+        PlayerStatsService service = new PlayerStatsService("memory", "", false, 1, 100);
+        service.start();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < recordsPerThread; i++) {
+                        service.record("p" + random.nextInt(players), 1, random.nextInt(2), 1, random.nextInt(2), 1, 0);
+                        if (i % 100 == 0) {
+                            service.top(10);
+                        }
+                    }
+                });
+            }
+        }
+        service.shutdown();
+        // O que a thread não chegou a reposicionar antes de parar
+        service.rankPending();
+
+        List<PlayerStats> all = new ArrayList<>();
+        for (int p = 0; p < players; p++) {
+            service.get("p" + p).ifPresent(all::add);
+        }
+        assertThat(all.stream().mapToInt(PlayerStats::gamesPlayed).sum()).isEqualTo(threads * recordsPerThread);
+        all.sort(Leaderboard::compare);
+        assertThat(service.top(all.size())).isEqualTo(all);
+        for (int i = 0; i < all.size(); i++) {
+            assertThat(service.rank(all.get(i).player())).isEqualTo(i + 1);
+        }
+    }
+}
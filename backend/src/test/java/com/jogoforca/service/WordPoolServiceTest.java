@@ -0,0 +1,67 @@
+package com.jogoforca.service;
+
+import com.jogoforca.model.Game;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Palavras da CPU vindas do dicionário: sem repetição dentro do jogo e sem relação com o ID,
+ * que é público.
+ */
+class WordPoolServiceTest {
+
+    private WordPoolService wordPool;
+
+    @BeforeEach
+    void setUp() {
+        OllamaService ollama = new OllamaService(new SimpleMeterRegistry(), "http://localhost:11434", 8, 32,
+                Duration.ofSeconds(2), List.of("phi3:mini"), Duration.ofSeconds(5), Duration.ofSeconds(8),
+                Duration.ZERO, 3, Duration.ofSeconds(30));
+        WordDictionary dictionary = new WordDictionary("", 5, 10, "", "");
+        dictionary.load();
+        wordPool = new WordPoolService(ollama, dictionary, 0, 50, 10, 40, 2);
+    }
+
+    @Test
+    void wordsDoNotRepeatWithinAGame() {
+        Set<String> words = new HashSet<>();
+        for (int round = 0; round < 200; round++) {
+            assertThat(words.add(wordPool.nextWord("ABCD1234"))).isTrue();
+        }
+    }
+
+    @Test
+    void sameGameIdDoesNotDetermineTheWords() {
+        List<String> first = rounds("ABCD1234");
+        wordPool.onGameChanged(new GameChangedEvent(game("ABCD1234"), GameChangedEvent.DELETED));
+        List<String> second = rounds("ABCD1234");
+        List<String> other = rounds("ABCD1234".toLowerCase());
+
+        // Três rodadas iguais por acaso têm chance desprezível com centenas de palavras
+        assertThat(second).isNotEqualTo(first);
+        assertThat(other).isNotEqualTo(first);
+    }
+
+    private List<String> rounds(String gameId) {
+        List<String> words = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            words.add(wordPool.nextWord(gameId));
+        }
+        return words;
+    }
+
+    private static Game game(String gameId) {
+        Game game = new Game();
+        game.setGameId(gameId);
+        return game;
+    }
+}
@@ -1,14 +1,16 @@
-from flask import Flask, render_template, jsonify, request
+from flask import Flask, render_template, jsonify, request, Response, stream_with_context
 import requests
 import logging
+import os
+import posixpath
 import socket
 
 logging.basicConfig(level=logging.INFO, format='%(asctime)s %(levelname)s [%(name)s] %(message)s')
 logger = logging.getLogger('frontend.proxy')
 app = Flask(__name__)
 
-# URL do backend Spring Boot
-BACKEND_URL = "http://localhost:8080"
+# URL do backend Spring Boot (em cluster, qualquer nó serve: ele encaminha ao dono do jogo)
+BACKEND_URL = os.environ.get("BACKEND_URL", "http://localhost:8080")
 
 
 def _get_local_ip() -> str:
@@ -28,6 +30,13 @@ def _get_local_ip() -> str:
 
 LOCAL_IP = _get_local_ip()
 
+
+def _forwarded_headers() -> dict:
+    """X-Forwarded-For com o IP do jogador, para o limite de requisições do backend ser por jogador"""
+    previous = request.headers.get('X-Forwarded-For')
+    client = request.remote_addr or ''
+    return {'X-Forwarded-For': f"{previous}, {client}" if previous else client}
+
 @app.route('/')
 def index():
     """Página principal do jogo"""
@@ -36,19 +45,32 @@ def index():
 @app.route('/api/proxy/<path:path>', methods=['GET', 'POST', 'DELETE'])
 def proxy_to_backend(path):
     """Proxy para o backend Spring Boot"""
+    # Administração do cluster só entre os nós, nunca pelo navegador
+    normalized = posixpath.normpath(path).lstrip('/')
+    if normalized == 'cluster' or normalized.startswith('cluster/') or normalized.startswith('..'):
+        return jsonify({"detail": "Não encontrado"}), 404
     url = f"{BACKEND_URL}/api/{path}"
 
     try:
         timeout = 8
+        if 'waitForVersion' in request.args:
+            # Long-poll: o backend segura a requisição por até 60s
+            timeout = 65
         logger.info("Proxy %s %s -> %s", request.method, request.path, url)
         if request.method == 'GET':
-            response = requests.get(url, timeout=timeout)
+            # Repassar validação condicional (ETag) para o backend responder 304
+            headers = _forwarded_headers()
+            if request.headers.get('If-None-Match'):
+                headers['If-None-Match'] = request.headers['If-None-Match']
+            response = requests.get(url, params=request.args, headers=headers, timeout=timeout)
+            if response.status_code == 304:
+                return Response(status=304, headers={'ETag': response.headers.get('ETag', '')})
         elif request.method == 'POST':
             payload = request.get_json(silent=True)
             logger.debug("Payload: %s", payload)
-            response = requests.post(url, json=payload, timeout=timeout)
+            response = requests.post(url, json=payload, headers=_forwarded_headers(), timeout=timeout)
         elif request.method == 'DELETE':
-            response = requests.delete(url, timeout=timeout)
+            response = requests.delete(url, headers=_forwarded_headers(), timeout=timeout)
 
         # Tentar repassar JSON ou texto bruto
         try:
@@ -56,7 +78,10 @@ def proxy_to_backend(path):
         except ValueError:
             data = {"message": response.text}
         logger.info("Proxy resp %s: %s", response.status_code, (data if isinstance(data, dict) else str(data)[:200]))
-        return jsonify(data), response.status_code
+        proxied = jsonify(data)
+        if response.headers.get('ETag'):
+            proxied.headers['ETag'] = response.headers['ETag']
+        return proxied, response.status_code
     except requests.ConnectionError:
         logger.error("Backend indisponível em %s", BACKEND_URL)
         return jsonify({"detail": "Backend indisponível em " + BACKEND_URL}), 502
@@ -64,6 +89,37 @@ def proxy_to_backend(path):
         logger.exception("Erro no proxy")
         return jsonify({"detail": f"Erro no proxy: {str(e)}"}), 500
 
+@app.route('/api/proxy/game/<game_id>/events')
+def proxy_game_events(game_id):
+    """Proxy do stream SSE de estado do jogo, repassado sem bufferizar"""
+    url = f"{BACKEND_URL}/api/game/{game_id}/events"
+
+    try:
+        logger.info("Proxy SSE %s -> %s", request.path, url)
+        # Heartbeats do backend chegam a cada 15s; 60s sem dados indica conexão perdida
+        upstream = requests.get(url, stream=True, timeout=(5, 60),
+                                headers={'Accept': 'text/event-stream', **_forwarded_headers()})
+    except requests.ConnectionError:
+        logger.error("Backend indisponível em %s", BACKEND_URL)
+        return jsonify({"detail": "Backend indisponível em " + BACKEND_URL}), 502
+
+    if upstream.status_code != 200:
+        upstream.close()
+        return jsonify({"detail": "Stream de eventos indisponível"}), upstream.status_code
+
+    def generate():
+        try:
+            for chunk in upstream.iter_content(chunk_size=None):
+                if chunk:
+                    yield chunk
+        except requests.RequestException:
+            logger.info("Stream SSE encerrado para %s", game_id)
+        finally:
+            upstream.close()
+
+    return Response(stream_with_context(generate()), mimetype='text/event-stream',
+                    headers={'Cache-Control': 'no-cache', 'X-Accel-Buffering': 'no'})
+
 if __name__ == '__main__':
     # Bind em 0.0.0.0 para permitir acesso de outros dispositivos na rede
     app.run(host='0.0.0.0', debug=True, port=5000)
@@ -25,6 +25,17 @@ function hideWordModal() {
     }
 }
 
+// Modos em que um jogador cria a palavra (no duelo, alternando com a CPU)
+function createsWords(mode) {
+    return mode === 'pvp' || mode === 'pvc_duel';
+}
+function isAgainstCpu(mode) {
+    return mode === 'pvc' || mode === 'pvc_duel';
+}
+function selectedCpuLevel() {
+    const select = document.getElementById('cpu-level');
+    return gameState.mode === 'pvc_duel' && select ? select.value : undefined;
+}
 function setKeyboardEnabledForGuesser(data) {
     const keys = document.querySelectorAll('.key');
     const local = getLocalPlayerName();
@@ -45,11 +56,24 @@ function debugLog(...args) {
     try { if (window.DEBUG) console.log('[DEBUG]', ...args); } catch (_) {}
 }
 
-// Polling de estado (auto-atualização)
+// Atualização de estado: stream SSE quando disponível, polling como alternativa
 let pollIntervalId = null;
+let pollGameId = null;
+let eventSource = null;
+let streamState = null;
 function startPolling(intervalMs = 1500) {
-    try { if (pollIntervalId) clearInterval(pollIntervalId); } catch (_) {}
     if (!gameState.gameId) return;
+    // Já acompanhando este jogo (updateGameUI chama esta função a cada atualização)
+    if ((eventSource || pollIntervalId) && pollGameId === gameState.gameId) return;
+    stopPolling();
+    pollGameId = gameState.gameId;
+    if (window.EventSource) {
+        startEventStream(gameState.gameId, intervalMs);
+    } else {
+        startIntervalPolling(intervalMs);
+    }
+}
+function startIntervalPolling(intervalMs) {
     pollIntervalId = setInterval(() => {
         // Apenas atualiza se houver jogo
         if (gameState.gameId) {
@@ -58,9 +82,42 @@ function startPolling(intervalMs = 1500) {
     }, intervalMs);
     debugLog('polling:start', { intervalMs });
 }
+function startEventStream(gameId, fallbackIntervalMs) {
+    let failures = 0;
+    streamState = null;
+    const source = new EventSource(`/api/proxy/game/${gameId}/events`);
+    eventSource = source;
+    source.addEventListener('snapshot', (e) => {
+        failures = 0;
+        streamState = JSON.parse(e.data);
+        updateGameUI(streamState);
+    });
+    source.addEventListener('delta', (e) => {
+        if (!streamState) return;
+        Object.assign(streamState, JSON.parse(e.data));
+        updateGameUI(streamState);
+    });
+    source.addEventListener('deleted', () => {
+        source.close();
+        if (eventSource === source) eventSource = null;
+    });
+    source.onerror = () => {
+        // O EventSource reconecta sozinho; após falhas seguidas, volta ao polling
+        failures++;
+        if (failures >= 3 && eventSource === source) {
+            source.close();
+            eventSource = null;
+            startIntervalPolling(fallbackIntervalMs);
+        }
+    };
+    debugLog('stream:start', { gameId });
+}
 function stopPolling() {
     try { if (pollIntervalId) clearInterval(pollIntervalId); } catch (_) {}
+    try { if (eventSource) eventSource.close(); } catch (_) {}
     pollIntervalId = null;
+    eventSource = null;
+    pollGameId = null;
     debugLog('polling:stop');
 }
 
@@ -83,7 +140,9 @@ function setupModeSelection() {
 
 function updatePlayersInput() {
     const playersInput = document.getElementById('players-input');
-    if (gameState.mode === 'pvc') {
+    const cpuLevel = document.getElementById('cpu-level-input');
+    if (cpuLevel) cpuLevel.style.display = gameState.mode === 'pvc_duel' ? '' : 'none';
+    if (isAgainstCpu(gameState.mode)) {
         playersInput.querySelector('h3').textContent = 'Nome do Jogador';
         document.getElementById('players-list').innerHTML = '';
         gameState.players = [];
@@ -101,7 +160,7 @@ function addPlayer() {
         return;
     }
     
-    if (gameState.mode === 'pvc') {
+    if (isAgainstCpu(gameState.mode)) {
         if (gameState.players.length >= 1) {
             alert('No modo Jogador vs CPU, apenas 1 jogador é permitido!');
             return;
@@ -142,7 +201,7 @@ function removePlayer(index) {
 
 async function startGame() {
     debugLog('startGame', { mode: gameState.mode, players: gameState.players });
-    if (gameState.mode === 'pvc' && gameState.players.length !== 1) {
+    if (isAgainstCpu(gameState.mode) && gameState.players.length !== 1) {
         alert('Adicione 1 jogador para o modo Jogador vs CPU!');
         return;
     }
@@ -157,7 +216,7 @@ async function startGame() {
         const response = await fetch('/api/proxy/game/new', {
             method: 'POST',
             headers: { 'Content-Type': 'application/json' },
-            body: JSON.stringify({ mode: gameState.mode, players: gameState.players })
+            body: JSON.stringify({ mode: gameState.mode, players: gameState.players, cpuLevel: selectedCpuLevel() })
         });
         const data = await response.json();
         debugLog('startGame response', { ok: response.ok, data });
@@ -174,15 +233,17 @@ async function startGame() {
             } catch (_) {}
             showScreen('game-screen');
             updateGameUI(data);
-            if (data.mode === 'pvp' && data.game_status === 'waiting_word') {
+            if (createsWords(data.mode) && data.game_status === 'waiting_word') {
                 if (getLocalPlayerName() && getLocalPlayerName() === data.word_creator) {
                     showWordModal(data.word_creator);
                 } else {
                     hideWordModal();
                 }
-                shareGame();
-                const turnInfo = document.getElementById('turn-info');
-                if (turnInfo) turnInfo.textContent = 'Aguardando outros jogadores entrarem via link...';
+                if (data.mode === 'pvp') {
+                    shareGame();
+                    const turnInfo = document.getElementById('turn-info');
+                    if (turnInfo) turnInfo.textContent = 'Aguardando outros jogadores entrarem via link...';
+                }
             }
             setKeyboardEnabledForGuesser(data);
         } else {
@@ -303,12 +364,17 @@ async function guessLetter(letter) {
     }
 }
 
+let lastStateEtag = null;
 async function refreshGameState() {
     try {
-        const response = await fetch(`/api/proxy/game/${gameState.gameId}`);
+        // Com ETag, o backend responde 304 sem corpo quando nada mudou
+        const headers = lastStateEtag ? { 'If-None-Match': lastStateEtag } : {};
+        const response = await fetch(`/api/proxy/game/${gameState.gameId}`, { headers, cache: 'no-store' });
+        if (response.status === 304) return;
         const data = await response.json();
         
         if (response.ok) {
+            lastStateEtag = response.headers.get('ETag');
             updateGameUI(data);
         }
     } catch (error) {
@@ -354,7 +420,7 @@ function updateGameUI(data) {
         turnInfo.classList.remove('waiting');
     }
     // Controlar modal de palavra: somente o criador vê
-    if (data.mode === 'pvp') {
+    if (createsWords(data.mode)) {
         const local = getLocalPlayerName();
         if (data.game_status === 'waiting_word') {
             if (local && local === data.word_creator) {
@@ -533,7 +599,7 @@ function startNewGameSamePlayers() {
             updateGameUI(data);
             startPolling();
             // Se aguardando palavra, mostra modal apenas ao criador
-            if (data.mode === 'pvp' && data.game_status === 'waiting_word') {
+            if (createsWords(data.mode) && data.game_status === 'waiting_word') {
                 if (getLocalPlayerName() && getLocalPlayerName() === data.word_creator) {
                     showWordModal(data.word_creator);
                 } else {
@@ -577,7 +643,7 @@ async function nextRound() {
             updateGameUI(data);
             
             // Se for PvP, mostrar modal para novo criador
-            if (data.mode === 'pvp' && data.game_status === 'waiting_word') {
+            if (createsWords(data.mode) && data.game_status === 'waiting_word') {
                 const local = getLocalPlayerName();
                 if (local && local === data.word_creator) {
                     showWordModal(data.word_creator);
@@ -647,7 +713,7 @@ async function createNewGameWithSamePlayers() {
             
             // Se for o criador da palavra, abrir modal
             const local = getLocalPlayerName();
-            if (data.mode === 'pvp' && data.game_status === 'waiting_word') {
+            if (createsWords(data.mode) && data.game_status === 'waiting_word') {
                 if (local && local === data.word_creator) {
                     showWordModal(data.word_creator);
                 }
@@ -921,7 +987,7 @@ async function resumeGame(gameId) {
             
             // Verificar se deve mostrar modal de palavra após retomar
             const local = getLocalPlayerName();
-            if (data.mode === 'pvp' && data.game_status === 'waiting_word') {
+            if (createsWords(data.mode) && data.game_status === 'waiting_word') {
                 if (local && local === data.word_creator) {
                     setTimeout(() => showWordModal(data.word_creator), 100);
                 }
@@ -961,7 +1027,7 @@ async function joinExistingGame(gameId, opts = { tryResume: false }) {
                 updateGameUI(data);
                 
                 // Verificar se deve mostrar modal de palavra após retomar
-                if (data.mode === 'pvp' && data.game_status === 'waiting_word') {
+                if (createsWords(data.mode) && data.game_status === 'waiting_word') {
                     if (localName === data.word_creator) {
                         setTimeout(() => showWordModal(data.word_creator), 100);
                     }